@@ -0,0 +1,358 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename AllocationGate.java
+ * @purpose This class measures the bytes allocated per call of the application's hot operations and
+ *          fails when any of them allocates more than the baseline stored in the project, so an extra
+ *          defensive copy or string is caught by the build rather than in a heap profile.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Allocation is read from the JVM's per thread counter (com.sun.management.ThreadMXBean), which
+ *    counts every byte the current thread allocates, including objects the JIT does not remove.
+ *  - Each operation is warmed up until the JIT has compiled it, then measured over several rounds;
+ *    the lowest round counts, as a stray allocation (a class loading, a resized table) only ever
+ *    adds bytes.
+ *  - The data set comes from MagazineGenerator with a fixed seed, so the text and lists built are
+ *    the same on every run.
+ *  - A result may exceed its baseline by the tolerance (10% plus 16 bytes by default) before it fails.
+ *
+ * @expected input:
+ *  - The baseline properties file, and --update to rewrite it from the current measurements.
+ *
+ * @expected output:
+ *  - A table of baseline and measured bytes per operation on standard output.
+ *  - Exit status 0 when no operation regressed, 1 when any did and 2 for usage errors.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+public class AllocationGate
+{
+    // Calls per round of the quickest operations, enough for the JIT to compile them while warming up
+    private static final int CALLS = 200_000;
+
+    // Measured rounds per operation; the lowest counts
+    private static final int ROUNDS = 5;
+
+    private static final double DEFAULT_TOLERANCE_PERCENT = 10;
+    private static final double TOLERANCE_BYTES = 16;
+
+    private static final String[] SEARCH_QUERIES = {"smith", "wollongong", "sarah", "gmail", "ma", "nguyen 2500"};
+
+    /**
+     * One hot operation, called repeatedly on different customers.
+     */
+    private interface Operation
+    {
+        /**
+         * Runs the operation once.
+         * @param call The call number, used to pick a customer.
+         * @return a value depending on the result, so the call cannot be optimised away.
+         * @throws IOException if the operation writes and fails.
+         */
+        long run(int call) throws IOException;
+    }
+
+    /**
+     * An operation with its name and measurement settings.
+     */
+    private static final class Measured
+    {
+        private final String name;
+        private final int calls;
+        private final int unitsPerCall;
+        private final Operation operation;
+
+        private Measured(String name, int calls, int unitsPerCall, Operation operation)
+        {
+            this.name = name;
+            this.calls = calls;
+            this.unitsPerCall = unitsPerCall;
+            this.operation = operation;
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final List<Measured> operations = new ArrayList<>();
+
+    // Results of the operations; a volatile write the JIT must keep, so no call is dead code
+    private volatile long sink;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: magazine must not be null and must hold paying customers.
+     * Post condition: The hot operations are defined over the magazine's customers.
+     * @param magazine The magazine the operations run on.
+     */
+    public AllocationGate(Magazine magazine)
+    {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not count allocated bytes per thread");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        List<Customer> customers = magazine.getCustomers(0, Integer.MAX_VALUE);
+        List<PayingCustomer> found = new ArrayList<>();
+        for (Customer customer : customers) {
+            if (customer instanceof PayingCustomer) {
+                found.add((PayingCustomer) customer);
+            }
+        }
+        PayingCustomer[] payers = found.toArray(new PayingCustomer[0]);
+        Customer[] everyone = customers.toArray(new Customer[0]);
+        int batch = 1024;
+
+        operations.add(new Measured("billing.calculateMonthlyCost", CALLS, 1,
+                call -> (long) payers[call % payers.length].calculateMonthlyCost()));
+        operations.add(new Measured("billing.calculateTotalSupplementsCost", CALLS, 1,
+                call -> (long) payers[call % payers.length].calculateTotalSupplementsCost()));
+        // The getter hands out the immutable snapshot; a defensive copy would show here
+        operations.add(new Measured("customer.getAssociateCustomers", CALLS, 1,
+                call -> payers[call % payers.length].getAssociateCustomers().size()));
+        operations.add(new Measured("customer.infoText", CALLS / 4, 1,
+                call -> CustomerInfoFormatter.format(everyone[call % everyone.length]).toString().length()));
+        operations.add(new Measured("customer.infoTextWithTotal", CALLS / 4, 1, call -> {
+            PayingCustomer payer = payers[call % payers.length];
+            StringBuilder text = CustomerInfoFormatter.format(payer);
+            return CustomerInfoFormatter.appendMonthlyTotal(text, payer.calculateTotalSupplementsCost()).toString().length();
+        }));
+        operations.add(new Measured("magazine.getCustomers", CALLS / 100, 1,
+                call -> magazine.getCustomers((call * batch) % everyone.length, batch).size()));
+        operations.add(new Measured("search.query", CALLS / 20, 1,
+                call -> magazine.getSearchIndex().search(SEARCH_QUERIES[call % SEARCH_QUERIES.length], 50).size()));
+        // Whole exports, reported per paying customer
+        operations.add(new Measured("billing.exportPerPayer", 20, payers.length,
+                call -> (long) MagazineCsv.exportBilling(magazine, Writer.nullWriter())));
+    }
+
+
+    /**
+     * Measures every operation.
+     * Precondition: None.
+     * Post condition: Returns the bytes allocated per call, by operation name, in a fixed order.
+     * @return the measurements.
+     * @throws IOException if an export fails.
+     */
+    public Map<String, Double> measure() throws IOException
+    {
+        Map<String, Double> results = new LinkedHashMap<>();
+        for (Measured measured : operations) {
+            // Warm up with as many calls as are measured, twice over, so the JIT has settled
+            runCalls(measured, Math.max(measured.calls, 1000));
+            runCalls(measured, measured.calls);
+            double best = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                runCalls(measured, measured.calls);
+                long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+                best = Math.min(best, (double) bytes / ((long) measured.calls * measured.unitsPerCall));
+            }
+            results.put(measured.name, best);
+        }
+        return results;
+    }
+
+
+    private void runCalls(Measured measured, int calls) throws IOException
+    {
+        long total = 0;
+        for (int call = 0; call < calls; call++) {
+            total += measured.operation.run(call);
+        }
+        sink = total;
+    }
+
+
+    /**
+     * Builds the data set the gate always measures: 2000 paying customers with 0 to 4 associates
+     * and 1 to 8 of 24 supplements each.
+     * Precondition: None.
+     * Post condition: Returns the same magazine on every call.
+     * @return the magazine.
+     */
+    public static Magazine createDataSet()
+    {
+        MagazineGenerator generator = new MagazineGenerator(MagazineGenerator.DEFAULT_SEED);
+        generator.setSupplements(24);
+        generator.setPayingCustomers(2000);
+        generator.setAssociatesPerPayer(0, 4);
+        generator.setSupplementsPerCustomer(1, 8);
+        return generator.generate();
+    }
+
+
+    /**
+     * Compares measurements with the baseline and prints the table.
+     * Precondition: All parameters must be initialized.
+     * Post condition: One line per operation is printed.
+     * @param measured The bytes per call by operation.
+     * @param baseline The stored bytes per call by operation.
+     * @param tolerancePercent Allowed growth over the baseline, in percent.
+     * @param out Where the table goes.
+     * @return the number of operations over their allowance or missing from the baseline.
+     */
+    public static int compare(Map<String, Double> measured, Map<String, Double> baseline, double tolerancePercent, PrintStream out)
+    {
+        int failures = 0;
+        out.printf(Locale.ROOT, "%-40s %12s %12s %12s  %s%n", "operation (bytes per call)", "baseline", "allowed", "measured", "result");
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            Double stored = baseline.get(entry.getKey());
+            double value = entry.getValue();
+            if (stored == null) {
+                failures++;
+                out.printf(Locale.ROOT, "%-40s %12s %12s %12.1f  NO BASELINE%n", entry.getKey(), "-", "-", value);
+                continue;
+            }
+            double allowed = stored * (1 + tolerancePercent / 100) + TOLERANCE_BYTES;
+            String result;
+            if (value > allowed) {
+                failures++;
+                result = "REGRESSED";
+            } else if (value < stored * (1 - tolerancePercent / 100) - TOLERANCE_BYTES) {
+                result = "improved, consider --update";
+            } else {
+                result = "ok";
+            }
+            out.printf(Locale.ROOT, "%-40s %12.1f %12.1f %12.1f  %s%n", entry.getKey(), stored, allowed, value, result);
+        }
+        return failures;
+    }
+
+
+    /**
+     * Reads a baseline file.
+     * Precondition: file exists.
+     * Post condition: Returns the bytes per call by operation.
+     * @param file The baseline properties file.
+     * @return the stored values.
+     * @throws IOException if the file cannot be read or holds a value that is not a number.
+     */
+    public static Map<String, Double> readBaseline(File file) throws IOException
+    {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        Map<String, Double> baseline = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                baseline.put(name, Double.parseDouble(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                throw new IOException(file + ": " + name + " is not a number");
+            }
+        }
+        return baseline;
+    }
+
+
+    /**
+     * Writes a baseline file, in the measured order and with an explanatory header.
+     * Precondition: All parameters must be initialized.
+     * Post condition: The file holds the measurements.
+     * @param file The baseline properties file.
+     * @param measured The bytes per call by operation.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeBaseline(File file, Map<String, Double> measured) throws IOException
+    {
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("# Bytes allocated per call of each hot operation, measured by AllocationGate." + System.lineSeparator());
+            out.write("# Regenerate with: ant alloc-baseline" + System.lineSeparator());
+            for (Map.Entry<String, Double> entry : measured.entrySet()) {
+                out.write(String.format(Locale.ROOT, "%s=%.1f%n", entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+
+    private static void usage(PrintStream out)
+    {
+        out.println("Usage: java -cp <core>:<gate> magazineserviceapplication.AllocationGate [options]");
+        out.println();
+        out.println("  --baseline <file>   baseline properties file (default: allocation-baseline.properties)");
+        out.println("  --update            write the measurements to the baseline instead of checking");
+        out.println("  --tolerance <pct>   allowed growth over the baseline in percent (default: 10),");
+        out.println("                      on top of a fixed 16 bytes");
+        out.println("  --help              show this message");
+    }
+
+
+    /**
+     * Entry point for the build.
+     * Precondition: None.
+     * Post condition: Exits with 0 when no operation regressed, 1 when any did and 2 for usage errors.
+     * @param args The command line options, see usage().
+     */
+    public static void main(String[] args)
+    {
+        File baselineFile = new File("allocation-baseline.properties");
+        boolean update = false;
+        double tolerance = DEFAULT_TOLERANCE_PERCENT;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--baseline":
+                        baselineFile = new File(args[++i]);
+                        break;
+                    case "--update":
+                        update = true;
+                        break;
+                    case "--tolerance":
+                        tolerance = Double.parseDouble(args[++i]);
+                        break;
+                    case "--help":
+                        usage(System.out);
+                        return;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (!update && !baselineFile.isFile()) {
+                throw new IllegalArgumentException(baselineFile + " does not exist; create it with --update");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException ? "missing option value" : e.getMessage()));
+            usage(System.err);
+            System.exit(2);
+        }
+
+        try {
+            Map<String, Double> measured = new AllocationGate(createDataSet()).measure();
+            if (update) {
+                writeBaseline(baselineFile, measured);
+                compare(measured, measured, tolerance, System.out);
+                System.out.println("Baseline written to " + baselineFile);
+                return;
+            }
+            int failures = compare(measured, readBaseline(baselineFile), tolerance, System.out);
+            if (failures > 0) {
+                System.out.println(failures + " operation(s) allocate more than " + baselineFile + " allows");
+                System.exit(1);
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename BillingBenchmark.java
+ * @purpose This class measures the monthly cost calculations for one customer, for one paying customer
+ *          with its associates, for a whole magazine, and from several threads at once.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - A paying customer's total locks each supplement list in turn, so threads billing the same payer
+ *    contend on the same monitors while threads billing different payers do not.
+ *  - The editing thread takes the same supplement list lock as billing, as edits made through the
+ *    application must, so the group benchmark shows billing waiting behind edits.
+ *  - Run with -prof gc to see the bytes allocated per calculation.
+ *
+ * @expected input:
+ *  - JMH parameters for the sizes; see the @Param fields.
+ *
+ * @expected output:
+ *  - Calculations per microsecond, or milliseconds per whole magazine.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BillingBenchmark
+{
+    // Customers fetched from the magazine at a time, as the billing export does
+    private static final int BATCH = 1024;
+
+    // Customers in all; each paying customer brings associatesPerPayer associates, so the count is rounded down
+    @Param({"1000", "100000"})
+    public int customers;
+
+    @Param({"32"})
+    public int supplements;
+
+    @Param({"1", "4", "16"})
+    public int supplementsPerCustomer;
+
+    @Param({"0", "3", "10"})
+    public int associatesPerPayer;
+
+    private Magazine magazine;
+    private PayingCustomer[] payers;
+    private PayingCustomer hotPayer;
+    private Supplement extraSupplement;
+
+
+    /**
+     * Builds the magazine and collects its paying customers.
+     * Precondition: None.
+     * Post condition: payers holds every paying customer, and hotPayer is the one all threads share.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        MagazineGenerator generator = new MagazineGenerator(MagazineGenerator.DEFAULT_SEED);
+        generator.setSupplements(supplements);
+        generator.setPayingCustomers(customers / (1 + associatesPerPayer));
+        generator.setAssociatesPerPayer(associatesPerPayer, associatesPerPayer);
+        generator.setSupplementsPerCustomer(supplementsPerCustomer, supplementsPerCustomer);
+        magazine = generator.generate();
+        List<PayingCustomer> found = new ArrayList<>();
+        for (Customer customer : magazine.getCustomers(0, Integer.MAX_VALUE)) {
+            if (customer instanceof PayingCustomer) {
+                found.add((PayingCustomer) customer);
+            }
+        }
+        payers = found.toArray(new PayingCustomer[0]);
+        hotPayer = payers[0];
+        extraSupplement = new Supplement("extra", 1.25f);
+    }
+
+
+    /**
+     * Walks through the paying customers, a different one on each call, so a single-payer result is
+     * not just one customer's objects sitting in the CPU cache.
+     */
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        private int next;
+
+        /**
+         * Starts each thread at a random payer, so threads do not move in step.
+         * Precondition: The benchmark state is set up.
+         * Post condition: The cursor points at a payer.
+         * @param benchmark The shared benchmark state.
+         */
+        @Setup(Level.Trial)
+        public void setUp(BillingBenchmark benchmark)
+        {
+            next = ThreadLocalRandom.current().nextInt(benchmark.payers.length);
+        }
+
+        private PayingCustomer next(PayingCustomer[] payers)
+        {
+            PayingCustomer payer = payers[next];
+            next = next + 1 == payers.length ? 0 : next + 1;
+            return payer;
+        }
+    }
+
+
+    /**
+     * One customer's own supplements, without associates.
+     * @param cursor This thread's position among the payers.
+     * @return the monthly cost.
+     */
+    @Benchmark
+    public float singleCustomer(Cursor cursor)
+    {
+        return cursor.next(payers).calculateMonthlyCost();
+    }
+
+
+    /**
+     * One paying customer with its associates.
+     * @param cursor This thread's position among the payers.
+     * @return the monthly total.
+     */
+    @Benchmark
+    public double singlePayer(Cursor cursor)
+    {
+        return cursor.next(payers).calculateTotalSupplementsCost();
+    }
+
+
+    /**
+     * Every paying customer in the magazine, fetched in batches as the billing export does.
+     * @return the sum of the monthly totals.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double wholeMagazine()
+    {
+        double total = 0;
+        for (int offset = 0; ; offset += BATCH) {
+            List<Customer> batch = magazine.getCustomers(offset, BATCH);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            for (Customer customer : batch) {
+                if (customer instanceof PayingCustomer) {
+                    total += ((PayingCustomer) customer).calculateTotalSupplementsCost();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * The whole billing export, with the CSV text thrown away, to show the formatting cost on top
+     * of the calculation.
+     * @return the sum of the monthly totals.
+     * @throws IOException never, the writer discards everything.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double wholeMagazineExport() throws IOException
+    {
+        return MagazineCsv.exportBilling(magazine, Writer.nullWriter());
+    }
+
+
+    /**
+     * Four threads billing different payers, which share no locks.
+     * @param cursor This thread's position among the payers.
+     * @return the monthly total.
+     */
+    @Benchmark
+    @Threads(4)
+    public double parallelDistinctPayers(Cursor cursor)
+    {
+        return cursor.next(payers).calculateTotalSupplementsCost();
+    }
+
+
+    /**
+     * Four threads billing the same payer, contending for its supplement list locks.
+     * @return the monthly total.
+     */
+    @Benchmark
+    @Threads(4)
+    public double contendedSamePayer()
+    {
+        return hotPayer.calculateTotalSupplementsCost();
+    }
+
+
+    /**
+     * Three threads billing the payer that the fourth thread keeps editing.
+     * @return the monthly total.
+     */
+    @Benchmark
+    @Group("billingWhileEditing")
+    @GroupThreads(3)
+    public double billing()
+    {
+        return hotPayer.calculateTotalSupplementsCost();
+    }
+
+
+    /**
+     * Adds a supplement to the shared payer and takes it away again, under the lock billing uses.
+     * @return the payer's supplement count.
+     */
+    @Benchmark
+    @Group("billingWhileEditing")
+    @GroupThreads(1)
+    public int editing()
+    {
+        ArrayList<Supplement> list = hotPayer.getSupplement();
+        synchronized (list) {
+            list.add(extraSupplement);
+            list.remove(list.size() - 1);
+            return list.size();
+        }
+    }
+}
@@ -0,0 +1,789 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineLoadTest.java
+ * @purpose This class runs several operator sessions against the same magazines at once, next to
+ *          billing and customer exports and the save-all job, and reports throughput, latency and
+ *          any broken relationship between customers, so the effect of concurrent use on the
+ *          handler and the domain model can be measured without the GUI.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Sessions make their changes with the Edit mode's commands, each session with its own undo
+ *    history per magazine, and read the way the View and Edit modes do: pages of customers,
+ *    searches and the customer details.
+ *  - Like an operator, a session acts on what it last saw; a customer or supplement it picked may
+ *    have been deleted, moved or edited by another session before the change is made. Edits made
+ *    since it was picked are counted as conflicts, other refusals as stale selections or refusals.
+ *  - Consistency is checked while holding the magazine's lock, every quarter of a second while the
+ *    test runs, again once every thread has stopped, and on copies read back from the saved files.
+ *  - The magazines come from MagazineGenerator, so a run with the same seed starts from the same
+ *    data; the order of operations between threads still differs from run to run.
+ *
+ * @expected input:
+ *  - The number of sessions, readers, magazines and paying customers and the run time, see usage().
+ *
+ * @expected output:
+ *  - Throughput and latency per operation and the violations found, on standard output.
+ *  - Exit status 0 when there were no violations or errors, 1 when there were and 2 for usage errors.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MagazineLoadTest
+{
+    // Customers per page of the customer lists
+    private static final int PAGE = 50;
+
+    // Time between the consistency checks made while the test runs
+    private static final long CHECK_INTERVAL_MILLIS = 250;
+
+    // Violations and errors printed in full; the rest are only counted
+    private static final int EXAMPLES = 10;
+
+    private static final String[] SEARCH_QUERIES = {"smith", "wollongong", "sarah", "gmail", "ma", "nguyen 2500"};
+    private static final String[] CARD_TYPES = {"Visa", "MasterCard", "Debit"};
+
+    /**
+     * The operations of a session with their share of the mix, reads first, then the Edit mode's changes.
+     */
+    private enum Operation
+    {
+        BROWSE("session.browse", 20),
+        SEARCH("session.search", 10),
+        VIEW_CUSTOMER("session.viewCustomer", 15),
+        ADD_SUPPLEMENT("session.addSupplement", 3),
+        EDIT_SUPPLEMENT("session.editSupplement", 4),
+        DELETE_SUPPLEMENT("session.deleteSupplement", 3),
+        ADD_PAYING("session.addPayingCustomer", 8),
+        ADD_ASSOCIATE("session.addAssociateCustomer", 8),
+        EDIT_PAYING("session.editPayingCustomer", 8),
+        EDIT_ASSOCIATE("session.editAssociateCustomer", 10),
+        DELETE_CUSTOMER("session.deleteCustomer", 11),
+        UNDO("session.undo", 3),
+        REDO("session.redo", 1);
+
+        private final String metric;
+        private final int weight;
+
+        Operation(String metric, int weight)
+        {
+            this.metric = metric;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Counts violations by kind and keeps the first few descriptions.
+     */
+    private static final class Violations
+    {
+        private final ConcurrentMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+        private final List<String> examples = Collections.synchronizedList(new ArrayList<>());
+
+        private void record(String kind, String detail)
+        {
+            counts.computeIfAbsent(kind, k -> new LongAdder()).increment();
+            if (examples.size() < EXAMPLES) {
+                examples.add(kind + ": " + detail);
+            }
+        }
+
+        private long total()
+        {
+            long total = 0;
+            for (LongAdder count : counts.values()) {
+                total += count.sum();
+            }
+            return total;
+        }
+
+        private void print(String title, PrintStream out)
+        {
+            out.printf(Locale.ROOT, "%-40s %10d%n", title, total());
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counts).entrySet()) {
+                out.printf(Locale.ROOT, "  %-38s %10d%n", entry.getKey(), entry.getValue().sum());
+            }
+            synchronized (examples) {
+                for (String example : examples) {
+                    out.println("    " + example);
+                }
+            }
+        }
+    }
+
+    private final int sessions;
+    private final int readers;
+    private final long durationMillis;
+    private final long saveIntervalMillis;
+    private final long seed;
+
+    private final File dataDirectory;
+    private final MagazineServiceHandler handler;
+    private final List<String> magazineNames = new ArrayList<>();
+    private final List<Magazine> magazines = new ArrayList<>();
+
+    // Metrics of this run only, kept out of the application's default registry
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final LatencyHistogram[] operationTimes = new LatencyHistogram[Operation.values().length];
+    private final LatencyHistogram billingTime = registry.histogram("reader.exportBilling");
+    private final LatencyHistogram exportTime = registry.histogram("reader.exportCustomers");
+    private final LatencyHistogram saveTime = registry.histogram("saver.saveAll");
+    private final MetricsRegistry.Counter refused = registry.counter("session.refused");
+    private final MetricsRegistry.Counter staleSelections = registry.counter("session.staleSelection");
+    private final MetricsRegistry.Counter editConflicts = registry.counter("session.editConflict");
+    private final MetricsRegistry.Counter undoRefused = registry.counter("session.undoRefused");
+    private final MetricsRegistry.Counter checks = registry.counter("checker.checks");
+
+    private final Violations duringRun = new Violations();
+    private final Violations errors = new Violations();
+    private final AtomicLong names = new AtomicLong();
+    private volatile boolean stopping;
+
+    // Results of the reads; a volatile write the JIT must keep, so no read is dead code
+    private volatile long sink;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: All counts must be positive.
+     * Post condition: The magazines are generated, saved to a new temporary directory and pinned.
+     * @param sessions The number of operator sessions.
+     * @param readers The number of threads exporting billing and customers.
+     * @param magazineCount The number of magazines shared by all threads.
+     * @param payingCustomers The paying customers of each magazine.
+     * @param durationMillis How long the threads run.
+     * @param saveIntervalMillis Time between two runs of the save-all job.
+     * @param seed Seed of the generated magazines and of the sessions' choices.
+     * @throws IOException if the temporary directory cannot be created.
+     */
+    public MagazineLoadTest(int sessions, int readers, int magazineCount, int payingCustomers,
+            long durationMillis, long saveIntervalMillis, long seed) throws IOException
+    {
+        this.sessions = sessions;
+        this.readers = readers;
+        this.durationMillis = durationMillis;
+        this.saveIntervalMillis = saveIntervalMillis;
+        this.seed = seed;
+        for (Operation operation : Operation.values()) {
+            operationTimes[operation.ordinal()] = registry.histogram(operation.metric);
+        }
+
+        dataDirectory = Files.createTempDirectory("magazine-load").toFile();
+        handler = new MagazineServiceHandler((level, message) -> {
+            if (level == NotificationSink.Level.ERROR) {
+                errors.record("handler", message);
+            }
+        }, dataDirectory);
+
+        for (int i = 0; i < magazineCount; i++) {
+            MagazineGenerator generator = new MagazineGenerator(seed + i);
+            generator.setTitle("Load Test " + (i + 1), 7.5f);
+            generator.setSupplements(24);
+            generator.setPayingCustomers(payingCustomers);
+            generator.setAssociatesPerPayer(0, 4);
+            generator.setSupplementsPerCustomer(1, 8);
+            String name = "load-test-" + (i + 1);
+            handler.addMagazine(name, generator.generate());
+            // Sessions hold on to the magazine the way an open mode does
+            magazines.add(handler.pinMagazine(name));
+            magazineNames.add(name);
+        }
+        handler.saveAllDirty(MagazineServiceHandler.defaultSaveThreads());
+    }
+
+
+    /**
+     * Runs the sessions, readers, save-all job and checker for the set time, then checks the
+     * magazines once more, saves them and checks the copies read back.
+     * Precondition: Called once.
+     * Post condition: The report is printed and the temporary directory is deleted.
+     * @param out Where the report goes.
+     * @return the number of violations and errors.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public long run(PrintStream out) throws InterruptedException
+    {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Random random = new Random(seed * 31 + i);
+            threads.add(new Thread(() -> runSession(random), "load-session-" + (i + 1)));
+        }
+        for (int i = 0; i < readers; i++) {
+            Random random = new Random(seed * 37 + i);
+            threads.add(new Thread(() -> runReader(random), "load-reader-" + (i + 1)));
+        }
+        threads.add(new Thread(this::runSaver, "load-saver"));
+        threads.add(new Thread(this::runChecker, "load-checker"));
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(durationMillis);
+        stopping = true;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Every thread has stopped: whatever is still broken stays broken
+        Violations atEnd = new Violations();
+        for (Magazine magazine : magazines) {
+            checkLocked(magazine, atEnd);
+        }
+        Violations afterReload = saveAndReload();
+
+        printReport(out, seconds, atEnd, afterReload);
+        deleteDataDirectory();
+        return duringRun.total() + atEnd.total() + afterReload.total() + errors.total();
+    }
+
+
+    private void runSession(Random random)
+    {
+        Operation[] mix = createMix();
+        Map<Magazine, MagazineCommandStack> histories = new IdentityHashMap<>();
+        while (!stopping) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            Magazine magazine = magazines.get(random.nextInt(magazines.size()));
+            MagazineCommandStack history = histories.computeIfAbsent(magazine, MagazineCommandStack::new);
+            long start = System.nanoTime();
+            try {
+                perform(operation, history, random);
+            } catch (RuntimeException e) {
+                errors.record(operation.metric, e.toString());
+            }
+            operationTimes[operation.ordinal()].recordSince(start);
+        }
+    }
+
+
+    /**
+     * Makes one operation of the Edit, View or search modes on a customer or supplement picked the
+     * way an operator would, from a page of the list.
+     */
+    private void perform(Operation operation, MagazineCommandStack history, Random random)
+    {
+        Magazine magazine = history.getMagazine();
+        switch (operation) {
+            case BROWSE:
+                sink = magazine.getCustomers(random.nextInt(Math.max(1, magazine.getCustomerCount())), PAGE).size();
+                break;
+            case SEARCH:
+                sink = magazine.getSearchIndex().search(SEARCH_QUERIES[random.nextInt(SEARCH_QUERIES.length)], PAGE).size();
+                break;
+            case VIEW_CUSTOMER: {
+                Customer customer = pickCustomer(magazine, random, Customer.class);
+                if (customer != null) {
+                    StringBuilder text = CustomerInfoFormatter.format(customer);
+                    if (customer instanceof PayingCustomer) {
+                        CustomerInfoFormatter.appendMonthlyTotal(text, ((PayingCustomer) customer).calculateTotalSupplementsCost());
+                    }
+                    sink = text.length();
+                }
+                break;
+            }
+            case ADD_SUPPLEMENT:
+                history.execute(new MagazineCommands.AddSupplement("load supplement " + names.incrementAndGet(),
+                        0.5f + random.nextInt(20) / 4f));
+                break;
+            case EDIT_SUPPLEMENT: {
+                Supplement supplement = pickSupplement(magazine, random);
+                if (supplement == null) {
+                    break;
+                }
+                long version = supplement.getVersion();
+                if (!history.execute(new MagazineCommands.EditSupplement(
+                        supplement, version, supplement.getName(), 0.5f + random.nextInt(20) / 4f))) {
+                    countRefusal(version, supplement.getVersion(), staleSelections);
+                }
+                break;
+            }
+            case DELETE_SUPPLEMENT: {
+                Supplement supplement = pickSupplement(magazine, random);
+                if (supplement == null) {
+                    break;
+                }
+                long version = supplement.getVersion();
+                if (!history.execute(new MagazineCommands.RemoveSupplement(supplement, version))) {
+                    countRefusal(version, supplement.getVersion(), refused);
+                }
+                break;
+            }
+            case ADD_PAYING: {
+                long id = names.incrementAndGet();
+                history.execute(new MagazineCommands.AddPayingCustomer("load payer " + id, "payer" + id + "@load.test",
+                        createAddress(random), pickSupplements(magazine, random), createPaymentMethod(random)));
+                break;
+            }
+            case ADD_ASSOCIATE: {
+                PayingCustomer payer = pickCustomer(magazine, random, PayingCustomer.class);
+                long id = names.incrementAndGet();
+                if (payer != null && !history.execute(new MagazineCommands.AddAssociateCustomer("load associate " + id,
+                        "associate" + id + "@load.test", createAddress(random), pickSupplements(magazine, random), payer))) {
+                    staleSelections.increment();
+                }
+                break;
+            }
+            case EDIT_PAYING: {
+                PayingCustomer payer = pickCustomer(magazine, random, PayingCustomer.class);
+                if (payer == null) {
+                    break;
+                }
+                long version = payer.getVersion();
+                if (!history.execute(new MagazineCommands.EditPayingCustomer(payer, version, payer.getName(),
+                        payer.getEmail(), createAddress(random), pickSupplements(magazine, random), createPaymentMethod(random)))) {
+                    countRefusal(version, payer.getVersion(), staleSelections);
+                }
+                break;
+            }
+            case EDIT_ASSOCIATE: {
+                AssociateCustomer associate = pickCustomer(magazine, random, AssociateCustomer.class);
+                if (associate == null) {
+                    break;
+                }
+                long version = associate.getVersion();
+                // Half of the edits keep the paying customer shown in the form, half move the associate
+                PayingCustomer payer = random.nextBoolean()
+                        ? new MagazineEditor(magazine).findPayingCustomer(associate)
+                        : pickCustomer(magazine, random, PayingCustomer.class);
+                if (payer != null && !history.execute(new MagazineCommands.EditAssociateCustomer(associate, version,
+                        associate.getName(), associate.getEmail(), createAddress(random), pickSupplements(magazine, random), payer))) {
+                    countRefusal(version, associate.getVersion(), staleSelections);
+                }
+                break;
+            }
+            case DELETE_CUSTOMER: {
+                Customer customer = pickCustomer(magazine, random, Customer.class);
+                if (customer == null) {
+                    break;
+                }
+                long version = customer.getVersion();
+                if (!history.execute(new MagazineCommands.RemoveCustomer(customer, version))) {
+                    countRefusal(version, customer.getVersion(), refused);
+                }
+                break;
+            }
+            case UNDO:
+                if (history.canUndo() && !history.undo()) {
+                    undoRefused.increment();
+                }
+                break;
+            case REDO:
+                if (history.canRedo() && !history.redo()) {
+                    undoRefused.increment();
+                }
+                break;
+        }
+    }
+
+
+    /**
+     * Counts a refused change as a conflict when the customer or supplement was edited after it
+     * was picked, or with the given counter otherwise.
+     */
+    private void countRefusal(long pickedVersion, long currentVersion, MetricsRegistry.Counter otherwise)
+    {
+        if (pickedVersion != currentVersion) {
+            editConflicts.increment();
+        } else {
+            otherwise.increment();
+        }
+    }
+
+
+    private void runReader(Random random)
+    {
+        while (!stopping) {
+            Magazine magazine = magazines.get(random.nextInt(magazines.size()));
+            try {
+                long start = System.nanoTime();
+                MagazineCsv.exportBilling(magazine, Writer.nullWriter());
+                billingTime.recordSince(start);
+                start = System.nanoTime();
+                sink = MagazineCsv.exportCustomers(magazine, Writer.nullWriter());
+                exportTime.recordSince(start);
+            } catch (IOException | RuntimeException e) {
+                errors.record("reader", e.toString());
+            }
+        }
+    }
+
+
+    private void runSaver()
+    {
+        while (!stopping) {
+            if (!pause(saveIntervalMillis)) {
+                return;
+            }
+            try {
+                SaveAllReport report = handler.saveAllDirty(MagazineServiceHandler.defaultSaveThreads());
+                saveTime.record(report.getWallNanos());
+            } catch (RuntimeException e) {
+                errors.record("saver", e.toString());
+            }
+        }
+    }
+
+
+    private void runChecker()
+    {
+        while (pause(CHECK_INTERVAL_MILLIS)) {
+            for (Magazine magazine : magazines) {
+                checkLocked(magazine, duringRun);
+            }
+            checks.increment();
+        }
+    }
+
+
+    /**
+     * Sleeps for a while, waking early when the test stops.
+     * @return false once the test is stopping.
+     */
+    private boolean pause(long millis)
+    {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (!stopping) {
+            long left = end - System.nanoTime();
+            if (left <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(Math.min(TimeUnit.NANOSECONDS.toMillis(left) + 1, 50));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Saves the magazines and reads the files back with a second handler, so what reaches the disk
+     * is checked as well.
+     */
+    private Violations saveAndReload()
+    {
+        Violations afterReload = new Violations();
+        SaveAllReport report = handler.saveAllDirty(MagazineServiceHandler.defaultSaveThreads());
+        if (report.getFailedCount() > 0) {
+            errors.record("saver", report.toString());
+        }
+        MagazineServiceHandler reader = new MagazineServiceHandler((level, message) -> {
+            if (level == NotificationSink.Level.ERROR) {
+                errors.record("reload", message);
+            }
+        }, dataDirectory);
+        for (int i = 0; i < magazineNames.size(); i++) {
+            reader.registerSavedMagazine(magazineNames.get(i));
+            Magazine saved = magazines.get(i);
+            Magazine loaded = reader.getMagazine(magazineNames.get(i));
+            if (loaded == null) {
+                afterReload.record("magazine not read back", magazineNames.get(i));
+                continue;
+            }
+            check(loaded, afterReload);
+            if (loaded.getCustomerCount() != saved.getCustomerCount()
+                    || loaded.getSupplements().size() != saved.getSupplements().size()) {
+                afterReload.record("saved copy differs", magazineNames.get(i) + " has " + loaded.getCustomerCount()
+                        + " customers and " + loaded.getSupplements().size() + " supplements, expected "
+                        + saved.getCustomerCount() + " and " + saved.getSupplements().size());
+            }
+        }
+        return afterReload;
+    }
+
+
+    private void checkLocked(Magazine magazine, Violations violations)
+    {
+        synchronized (magazine) {
+            check(magazine, violations);
+        }
+    }
+
+
+    /**
+     * Checks the relationships the Edit mode has to keep: every associate listed by exactly one
+     * paying customer, no paying customer listing a deleted associate, no subscription to a
+     * deleted supplement, and a search index holding every customer once.
+     * Precondition: The magazine's lock is held, or nothing else uses the magazine.
+     * Post condition: Each problem found is recorded; the magazine is unchanged.
+     * @param magazine The magazine to check.
+     * @param violations Where the problems go.
+     */
+    private static void check(Magazine magazine, Violations violations)
+    {
+        String title = magazine.getTitle();
+        List<Customer> customers = magazine.getCustomerList();
+        Set<Customer> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Customer customer : customers) {
+            if (!listed.add(customer)) {
+                violations.record("customer listed twice", title + ": " + customer.getName());
+            }
+        }
+        Set<Supplement> offered = Collections.newSetFromMap(new IdentityHashMap<>());
+        offered.addAll(magazine.getSupplements());
+
+        Map<Customer, Integer> payers = new IdentityHashMap<>();
+        for (Customer customer : customers) {
+            for (Supplement supplement : customer.getSupplement()) {
+                if (!offered.contains(supplement)) {
+                    violations.record("subscription to a deleted supplement",
+                            title + ": " + customer.getName() + " -> " + supplement.getName());
+                }
+            }
+            if (customer instanceof PayingCustomer) {
+                for (Customer associate : ((PayingCustomer) customer).getAssociateCustomers()) {
+                    payers.merge(associate, 1, Integer::sum);
+                    if (!listed.contains(associate)) {
+                        violations.record("payer lists a deleted associate",
+                                title + ": " + customer.getName() + " -> " + associate.getName());
+                    }
+                }
+            }
+        }
+        for (Customer customer : customers) {
+            if (customer instanceof AssociateCustomer) {
+                int count = payers.getOrDefault(customer, 0);
+                if (count == 0) {
+                    violations.record("associate without a payer", title + ": " + customer.getName());
+                } else if (count > 1) {
+                    violations.record("associate with several payers", title + ": " + customer.getName() + " (" + count + ")");
+                }
+            }
+        }
+        int indexed = magazine.getSearchIndex().size();
+        if (indexed != customers.size()) {
+            violations.record("search index out of step", title + ": " + indexed + " indexed, " + customers.size() + " customers");
+        }
+    }
+
+
+    private void printReport(PrintStream out, double seconds, Violations atEnd, Violations afterReload)
+    {
+        int customers = 0;
+        for (Magazine magazine : magazines) {
+            customers += magazine.getCustomerCount();
+        }
+        out.printf(Locale.ROOT, "Magazine load test: %d sessions, %d readers, %d magazines, %.1f s, seed %d%n",
+                sessions, readers, magazines.size(), seconds, seed);
+        out.printf(Locale.ROOT, "Customers at the end: %d%n%n", customers);
+        out.print(registry.snapshotText());
+
+        long sessionOperations = 0;
+        long changes = 0;
+        for (Operation operation : Operation.values()) {
+            long count = operationTimes[operation.ordinal()].snapshot().getCount();
+            sessionOperations += count;
+            if (operation.compareTo(Operation.ADD_SUPPLEMENT) >= 0) {
+                changes += count;
+            }
+        }
+        long exports = billingTime.snapshot().getCount() + exportTime.snapshot().getCount();
+        out.println();
+        out.printf(Locale.ROOT, "%-40s %10.1f%n", "session operations per second", sessionOperations / seconds);
+        out.printf(Locale.ROOT, "%-40s %10.1f%n", "  of which changes per second", changes / seconds);
+        out.printf(Locale.ROOT, "%-40s %10.1f%n", "exports per second", exports / seconds);
+        out.println();
+        duringRun.print("violations while running", out);
+        atEnd.print("violations after the run", out);
+        afterReload.print("violations in the saved files", out);
+        errors.print("errors", out);
+        long failures = duringRun.total() + atEnd.total() + afterReload.total() + errors.total();
+        out.println();
+        out.println(failures == 0 ? "PASSED" : "FAILED: " + failures + " violation(s) or error(s)");
+    }
+
+
+    private static Operation[] createMix()
+    {
+        List<Operation> mix = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            for (int i = 0; i < operation.weight; i++) {
+                mix.add(operation);
+            }
+        }
+        return mix.toArray(new Operation[0]);
+    }
+
+
+    /**
+     * Picks a customer of the given type from a random page of the list, as it was when the page was read.
+     * @return the customer, or null if the page holds none of that type.
+     */
+    private static <T extends Customer> T pickCustomer(Magazine magazine, Random random, Class<T> type)
+    {
+        List<Customer> page = magazine.getCustomers(random.nextInt(Math.max(1, magazine.getCustomerCount())), PAGE);
+        for (Customer customer : page) {
+            if (type.isInstance(customer)) {
+                return type.cast(customer);
+            }
+        }
+        return null;
+    }
+
+
+    private static Supplement pickSupplement(Magazine magazine, Random random)
+    {
+        synchronized (magazine) {
+            List<Supplement> supplements = magazine.getSupplements();
+            return supplements.isEmpty() ? null : supplements.get(random.nextInt(supplements.size()));
+        }
+    }
+
+
+    /**
+     * Picks one to four supplements, as selected in the supplement list of the form.
+     */
+    private static ArrayList<Supplement> pickSupplements(Magazine magazine, Random random)
+    {
+        ArrayList<Supplement> picked = new ArrayList<>();
+        synchronized (magazine) {
+            List<Supplement> supplements = magazine.getSupplements();
+            for (int i = 1 + random.nextInt(4); i > 0 && !supplements.isEmpty(); i--) {
+                Supplement supplement = supplements.get(random.nextInt(supplements.size()));
+                if (!picked.contains(supplement)) {
+                    picked.add(supplement);
+                }
+            }
+        }
+        return picked;
+    }
+
+
+    private static Address createAddress(Random random)
+    {
+        return new Address(String.valueOf(1 + random.nextInt(200)), "Load Street", "Wollongong",
+                String.valueOf(2500 + random.nextInt(30)));
+    }
+
+
+    private static PaymentMethod createPaymentMethod(Random random)
+    {
+        return new PaymentMethod(CARD_TYPES[random.nextInt(CARD_TYPES.length)], 10_000_000 + random.nextInt(90_000_000));
+    }
+
+
+    private void deleteDataDirectory()
+    {
+        File[] files = dataDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dataDirectory.delete();
+    }
+
+
+    private static void usage(PrintStream out)
+    {
+        out.println("Usage: java -cp <core>:<load test> magazineserviceapplication.MagazineLoadTest [options]");
+        out.println();
+        out.println("  --sessions <n>        operator sessions making the Edit mode's changes (default: 8)");
+        out.println("  --readers <n>         threads exporting billing and customers (default: 2)");
+        out.println("  --magazines <n>       magazines shared by all threads (default: 2)");
+        out.println("  --payers <n>          paying customers per magazine (default: 2000)");
+        out.println("  --duration <s>        seconds to run (default: 10)");
+        out.println("  --save-interval <ms>  time between two save-all runs (default: 1000)");
+        out.println("  --seed <n>            seed of the data and of the sessions' choices (default: 42)");
+        out.println("  --help                show this message");
+    }
+
+
+    /**
+     * Entry point.
+     * Precondition: None.
+     * Post condition: Exits with 0 when nothing was found, 1 on violations or errors and 2 for usage errors.
+     * @param args The command line options, see usage().
+     */
+    public static void main(String[] args)
+    {
+        int sessions = 8;
+        int readers = 2;
+        int magazineCount = 2;
+        int payers = 2000;
+        double duration = 10;
+        long saveInterval = 1000;
+        long seed = MagazineGenerator.DEFAULT_SEED;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sessions":
+                        sessions = Integer.parseInt(args[++i]);
+                        break;
+                    case "--readers":
+                        readers = Integer.parseInt(args[++i]);
+                        break;
+                    case "--magazines":
+                        magazineCount = Integer.parseInt(args[++i]);
+                        break;
+                    case "--payers":
+                        payers = Integer.parseInt(args[++i]);
+                        break;
+                    case "--duration":
+                        duration = Double.parseDouble(args[++i]);
+                        break;
+                    case "--save-interval":
+                        saveInterval = Long.parseLong(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--help":
+                        usage(System.out);
+                        return;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (sessions < 1 || readers < 0 || magazineCount < 1 || payers < 1 || duration <= 0 || saveInterval < 1) {
+                throw new IllegalArgumentException("counts and times must be positive");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Error: " + (e instanceof ArrayIndexOutOfBoundsException ? "missing option value" : e.getMessage()));
+            usage(System.err);
+            System.exit(2);
+        }
+
+        try {
+            MagazineLoadTest test = new MagazineLoadTest(sessions, readers, magazineCount, payers,
+                    (long) (duration * 1000), saveInterval, seed);
+            if (test.run(System.out) > 0) {
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename PersistenceBenchmark.java
+ * @purpose This class measures how saving and loading a magazine scale with the number of customers,
+ *          the supplements each customer takes and the associates behind each paying customer.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The handler stores magazines only as serialized `.ser` files; CSV export and import are the
+ *    other way a magazine reaches the disk, so both are measured as storage formats.
+ *  - Files are written to a temporary directory on the default file system, so the results include
+ *    the operating system's write cache but not a forced flush to the device.
+ *  - Run with -prof gc to see the allocation rate and the bytes allocated per save or load.
+ *
+ * @expected input:
+ *  - JMH parameters for the sizes and the format; see the @Param fields.
+ *
+ * @expected output:
+ *  - Saves and loads per second, and the file size of each configuration printed at setup.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class PersistenceBenchmark
+{
+    /**
+     * The ways a magazine is written to and read from disk.
+     */
+    public enum Format
+    {
+        // MagazineServiceHandler.saveMagazineToFile and loadMagazineFromFile
+        SER,
+        // MagazineCsv.exportCustomers and importCustomers
+        CSV
+    }
+
+    private static final String NAME = "benchmark";
+
+    // Customers in all; each paying customer brings associatesPerPayer associates, so the count is rounded down
+    @Param({"1000", "100000", "1000000"})
+    public int customers;
+
+    @Param({"16"})
+    public int supplements;
+
+    @Param({"2", "8"})
+    public int supplementsPerCustomer;
+
+    @Param({"0", "3"})
+    public int associatesPerPayer;
+
+    @Param({"SER", "CSV"})
+    public Format format;
+
+    private File directory;
+    private MagazineGenerator generator;
+    private MagazineServiceHandler magazinehandler;
+    private Magazine magazine;
+    private File file;
+
+
+    /**
+     * Builds the magazine and writes its file once, so load has something to read.
+     * Precondition: None.
+     * Post condition: The magazine is held by a handler with no memory limit and its file exists.
+     * @throws IOException if the temporary directory or the file cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory("magazine-benchmark").toFile();
+        magazinehandler = new MagazineServiceHandler((level, message) -> { }, directory);
+        // Eviction would turn a save into a no-op and a load into two reads
+        magazinehandler.setMemoryBudget(Long.MAX_VALUE);
+        generator = new MagazineGenerator(MagazineGenerator.DEFAULT_SEED);
+        generator.setSupplements(supplements);
+        generator.setPayingCustomers(customers / (1 + associatesPerPayer));
+        generator.setAssociatesPerPayer(associatesPerPayer, associatesPerPayer);
+        generator.setSupplementsPerCustomer(supplementsPerCustomer, supplementsPerCustomer);
+        magazine = generator.generate();
+        magazinehandler.addMagazine(NAME, magazine);
+        file = format == Format.SER ? magazinehandler.getMagazineFile(NAME) : new File(directory, NAME + ".csv");
+
+        long bytes = save();
+        int count = magazine.getCustomerCount();
+        System.out.printf("%n%s file for %d customers: %d bytes (%.1f bytes per customer)%n",
+                format, count, bytes, count == 0 ? 0.0 : (double) bytes / count);
+    }
+
+
+    /**
+     * Removes the files written by the trial.
+     * Precondition: setUp() ran.
+     * Post condition: The temporary directory is gone.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File written : files) {
+                written.delete();
+            }
+        }
+        directory.delete();
+    }
+
+
+    /**
+     * Writes the whole magazine in the chosen format.
+     * Precondition: setUp() ran.
+     * Post condition: The file holds the magazine.
+     * @return the file size, so the write cannot be optimised away.
+     * @throws IOException if the CSV file cannot be written.
+     */
+    @Benchmark
+    public long save() throws IOException
+    {
+        if (format == Format.SER) {
+            if (!magazinehandler.saveMagazineToFile(NAME)) {
+                throw new IllegalStateException("Saving " + file + " failed");
+            }
+        } else {
+            try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                MagazineCsv.exportCustomers(magazine, out);
+            }
+        }
+        return file.length();
+    }
+
+
+    /**
+     * Reads the whole magazine back in the chosen format.
+     * Precondition: setUp() ran.
+     * Post condition: A new magazine equal to the saved one has been built.
+     * @return the loaded magazine.
+     * @throws IOException if the CSV file cannot be read.
+     */
+    @Benchmark
+    public Magazine load() throws IOException
+    {
+        if (format == Format.SER) {
+            if (!magazinehandler.loadMagazineFromFile(NAME)) {
+                throw new IllegalStateException("Loading " + file + " failed");
+            }
+            return magazinehandler.peekMagazine(NAME);
+        }
+        Magazine loaded = generator.createEmptyMagazine();
+        try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            MagazineCsv.ImportResult result = MagazineCsv.importCustomers(loaded, in);
+            if (result.getImported() != magazine.getCustomerCount()) {
+                throw new IllegalStateException("Imported " + result.getImported() + " of " + magazine.getCustomerCount()
+                        + " customers: " + result.getProblems());
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename AppExecutors.java
+ * @purpose This class owns the executor shared by every background job in the application,
+ *          so work is no longer started on ad-hoc threads.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Background jobs are short, mostly blocking or CPU-light tasks that suit virtual threads.
+ *  - The executor is shut down once, when the application stops.
+ *
+ * @expected input:
+ *  - Runnable or Callable tasks submitted by controllers and handlers.
+ *
+ * @expected output:
+ *  - Tasks executed on virtual threads without creating an unbounded number of platform threads.
+ */
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public final class AppExecutors 
+{
+    // Shared executor that starts one virtual thread per submitted task
+    private static final ExecutorService BACKGROUND = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("magazine-bg-", 0).factory());
+
+    
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private AppExecutors()
+    {
+    }
+    
+    
+    /**
+     * Getter for the shared background executor.
+     * Precondition: None.
+     * Post condition: Returns the executor backed by virtual threads.
+     * @return the shared background executor.
+     */
+    public static ExecutorService background()
+    {
+        return BACKGROUND;
+    }
+    
+    
+    /**
+     * Stops accepting new work and waits briefly for running tasks to finish.
+     * Precondition: Called once while the application is stopping.
+     * Post condition: The shared executor is shut down.
+     */
+    public static void shutdown()
+    {
+        BACKGROUND.shutdown();
+        try {
+            if (!BACKGROUND.awaitTermination(2, TimeUnit.SECONDS)) {
+                BACKGROUND.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            BACKGROUND.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
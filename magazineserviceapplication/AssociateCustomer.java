@@ -25,6 +25,8 @@ package magazineserviceapplication;
 
 public class AssociateCustomer extends Customer
 {
+   // Pinned to the value computed for the original class so existing .ser files keep loading
+   private static final long serialVersionUID = -1515297158074048180L;
       
    /**
      * Default Constructor.
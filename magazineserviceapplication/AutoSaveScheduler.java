@@ -0,0 +1,272 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename AutoSaveScheduler.java
+ * @purpose This class saves magazines with unsaved changes in the background, so edits reach the disk
+ *          without the operator saving by hand.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Changes are noticed through the handler's dirty versions, checked once per interval.
+ *  - A magazine is written once it has been quiet for the quiet period, so a burst of edits becomes
+ *    one write, but never later than the maximum delay (plus one interval) after its first unsaved
+ *    change.
+ *  - While a bulk operation is running nothing is written, not even at the maximum delay; writing
+ *    resumes once every bulk operation has ended.
+ *  - Saves run on the scheduler's own thread, never on the JavaFX thread.
+ *  - A failed save is retried with a growing pause, up to the maximum delay, so a full disk does
+ *    not produce an error every interval.
+ *
+ * @expected input:
+ *  - The handler to save from, and the interval, quiet period and maximum delay in milliseconds.
+ *
+ * @expected output:
+ *  - Saved magazine files and counters of saves and failures.
+ */
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AutoSaveScheduler implements AutoCloseable
+{
+    // System properties holding the timings in milliseconds; an interval of 0 turns auto-save off
+    public static final String INTERVAL_PROPERTY = "magazine.autosave.intervalMillis";
+    public static final String QUIET_PROPERTY = "magazine.autosave.quietMillis";
+    public static final String MAX_DELAY_PROPERTY = "magazine.autosave.maxDelayMillis";
+
+    // Defaults for the timings
+    public static final long DEFAULT_INTERVAL_MILLIS = 1_000;
+    public static final long DEFAULT_QUIET_MILLIS = 2_000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30_000;
+
+    private static final Logger LOG = Logger.getLogger(AutoSaveScheduler.class.getName());
+
+    private final MagazineServiceHandler magazinehandler;
+    private final long intervalMillis;
+    private final long quietNanos;
+    private final long maxDelayNanos;
+
+    // Number of bulk operations currently running
+    private final AtomicInteger bulkOperations = new AtomicInteger();
+
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    // Magazines with unsaved changes, only touched by the scheduler thread
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: intervalMillis must be positive and maxDelayMillis at least quietMillis.
+     * Post condition: A scheduler is created; nothing is saved until start().
+     *
+     * @param magazinehandler The handler whose magazines are saved.
+     * @param intervalMillis How often the magazines are checked.
+     * @param quietMillis How long a magazine must go without changes before it is written.
+     * @param maxDelayMillis The longest a change may stay unsaved, the maximum loss on a crash.
+     */
+    public AutoSaveScheduler(MagazineServiceHandler magazinehandler, long intervalMillis, long quietMillis, long maxDelayMillis)
+    {
+        if (intervalMillis <= 0 || quietMillis < 0 || maxDelayMillis < quietMillis) {
+            throw new IllegalArgumentException("Need interval > 0 and 0 <= quiet period <= maximum delay");
+        }
+        this.magazinehandler = magazinehandler;
+        this.intervalMillis = intervalMillis;
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+
+    /**
+     * Creates a scheduler with the timings from the magazine.autosave system properties.
+     * Precondition: None.
+     * Post condition: Returns a scheduler, or null if the interval property is 0.
+     *
+     * @param magazinehandler The handler whose magazines are saved.
+     * @return the configured scheduler, or null when auto-save is turned off.
+     */
+    public static AutoSaveScheduler fromSystemProperties(MagazineServiceHandler magazinehandler)
+    {
+        long interval = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+        if (interval <= 0) {
+            return null;
+        }
+        long quiet = Math.max(0, Long.getLong(QUIET_PROPERTY, DEFAULT_QUIET_MILLIS));
+        long maxDelay = Math.max(quiet, Long.getLong(MAX_DELAY_PROPERTY, DEFAULT_MAX_DELAY_MILLIS));
+        return new AutoSaveScheduler(magazinehandler, interval, quiet, maxDelay);
+    }
+
+
+    /**
+     * Starts checking the magazines on a daemon thread.
+     * Precondition: Not started yet.
+     * Post condition: Dirty magazines are saved until close().
+     */
+    public synchronized void start()
+    {
+        if (scheduler != null) {
+            throw new IllegalStateException("The auto-save scheduler is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("magazine-autosave").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * Stops the scheduler and waits for a save in progress to finish.
+     * Precondition: None.
+     * Post condition: No further saves are started.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Marks the start of a bulk operation, such as an import; nothing is saved until it ends.
+     * Precondition: The returned Bulk is closed exactly once, typically by try-with-resources.
+     * Post condition: Saving is held back until every open Bulk is closed.
+     * @return the handle that ends the bulk operation.
+     */
+    public Bulk beginBulk()
+    {
+        bulkOperations.incrementAndGet();
+        return new Bulk();
+    }
+
+
+    /** @return the number of magazines written so far. */
+    public long getSaveCount()
+    {
+        return saves.get();
+    }
+
+
+    /** @return the number of saves that failed so far. */
+    public long getFailureCount()
+    {
+        return failures.get();
+    }
+
+
+    /**
+     * Looks at the dirty magazines once and writes those that are due.
+     */
+    private void tick()
+    {
+        try {
+            long now = System.nanoTime();
+            Map<String, Long> dirty = magazinehandler.getDirtyVersions();
+            pending.keySet().retainAll(dirty.keySet());
+
+            for (Map.Entry<String, Long> entry : dirty.entrySet()) {
+                Pending state = pending.get(entry.getKey());
+                if (state == null) {
+                    pending.put(entry.getKey(), new Pending(entry.getValue(), now));
+                } else if (state.version != entry.getValue()) {
+                    state.version = entry.getValue();
+                    state.lastChange = now;
+                }
+            }
+            if (bulkOperations.get() > 0) {
+                return;
+            }
+
+            for (Iterator<Map.Entry<String, Pending>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Pending> entry = it.next();
+                Pending state = entry.getValue();
+                boolean quiet = now - state.lastChange >= quietNanos;
+                boolean overdue = now - state.firstChange >= maxDelayNanos;
+                if ((!quiet && !overdue) || now - state.retryAt < 0) {
+                    continue;
+                }
+                if (magazinehandler.saveChanges(entry.getKey())) {
+                    saves.incrementAndGet();
+                    it.remove();
+                } else {
+                    failures.incrementAndGet();
+                    state.backoffNanos = Math.min(maxDelayNanos, Math.max(quietNanos, state.backoffNanos * 2));
+                    state.retryAt = now + state.backoffNanos;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next tick tries again
+            LOG.log(Level.WARNING, "Auto-save failed", e);
+        }
+    }
+
+
+    /**
+     * What the scheduler knows about one magazine with unsaved changes.
+     */
+    private static final class Pending
+    {
+        private long version;
+        private final long firstChange;
+        private long lastChange;
+        private long retryAt;
+        private long backoffNanos;
+
+        private Pending(long version, long now)
+        {
+            this.version = version;
+            this.firstChange = now;
+            this.lastChange = now;
+            this.retryAt = now;
+        }
+    }
+
+
+    /**
+     * Handle for a running bulk operation.
+     */
+    public final class Bulk implements AutoCloseable
+    {
+        private boolean closed;
+
+        private Bulk()
+        {
+        }
+
+        /**
+         * Ends the bulk operation.
+         * Precondition: None.
+         * Post condition: Saving resumes once no other bulk operation is running.
+         */
+        @Override
+        public synchronized void close()
+        {
+            if (!closed) {
+                closed = true;
+                bulkOperations.decrementAndGet();
+            }
+        }
+    }
+}
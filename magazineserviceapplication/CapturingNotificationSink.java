@@ -0,0 +1,84 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename CapturingNotificationSink.java
+ * @purpose This class records notifications in memory so tests and harnesses can inspect them.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The number of captured messages stays small enough to keep in memory.
+ *
+ * @expected input:
+ *  - Notifications from the magazine handler, possibly from several threads.
+ *
+ * @expected output:
+ *  - The captured messages, in the order they were published.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CapturingNotificationSink implements NotificationSink 
+{
+    // Captured messages prefixed with their level, e.g. "ERROR: File not found"
+    private final List<String> messages = new ArrayList<>();
+    
+    
+    /**
+     * Records the message.
+     * Precondition: level and message must not be null.
+     * Post condition: The message is added to the captured list.
+     * @param level The severity of the message.
+     * @param message The message text.
+     */
+    @Override
+    public synchronized void publish(Level level, String message)
+    {
+        messages.add(level + ": " + message);
+    }
+    
+    
+    /**
+     * Getter for the captured messages.
+     * Precondition: None.
+     * Post condition: Returns a copy of the messages captured so far.
+     * @return the captured messages.
+     */
+    public synchronized List<String> getMessages()
+    {
+        return new ArrayList<>(messages);
+    }
+    
+    
+    /**
+     * Checks whether any error was captured.
+     * Precondition: None.
+     * Post condition: Returns true if at least one ERROR message was published.
+     * @return true if an error was captured.
+     */
+    public synchronized boolean hasErrors()
+    {
+        for (String message : messages) {
+            if (message.startsWith(Level.ERROR + ":")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    
+    /**
+     * Removes all captured messages.
+     * Precondition: None.
+     * Post condition: The captured list is empty.
+     */
+    public synchronized void clear()
+    {
+        messages.clear();
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename ChunkedList.java
+ * @purpose This class is a list kept in small chunks, which hands out frozen snapshots of itself
+ *          that share the chunks instead of copying the elements.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The list is changed by one thread at a time, for Magazine with the magazine's lock held;
+ *    snapshots can be read by any thread without a lock.
+ *  - Taking a snapshot copies the table of chunks, one entry per 64 elements, and marks every
+ *    chunk as shared. A change to a shared chunk copies that chunk first, so snapshots already
+ *    handed out never change. Until the list changes again, the same snapshot is returned.
+ *  - Elements are only appended at the end or removed; removing merges small neighbouring chunks
+ *    so the table stays short.
+ *
+ * @expected input:
+ *  - The elements to add and the positions to remove.
+ *
+ * @expected output:
+ *  - Immutable, random access snapshots of the list.
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ChunkedList<E>
+{
+    // Elements per chunk; a change to a shared chunk copies at most this many references
+    static final int CHUNK_SIZE = 64;
+
+    // Chunks below this size are merged with the next one when an element is removed
+    private static final int MERGE_SIZE = CHUNK_SIZE / 4;
+
+    private static final Snapshot<Object> EMPTY = new Snapshot<>(new Chunk[0], new int[0], 0);
+
+    // Source of generation numbers, unique across lists so a list built from a snapshot never owns its chunks
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    /**
+     * A run of elements. The elements are only changed while the chunk belongs to the generation
+     * of the list that created it; once a snapshot has been taken it is copied instead.
+     */
+    private static final class Chunk
+    {
+        private final Object[] elements;
+        private int size;
+        private long generation;
+
+        private Chunk(Object[] elements, int size, long generation)
+        {
+            this.elements = elements;
+            this.size = size;
+            this.generation = generation;
+        }
+    }
+
+    private Chunk[] chunks = new Chunk[4];
+    // ends[i] is the number of elements in chunks 0 to i
+    private int[] ends = new int[4];
+    private int chunkCount;
+    private int size;
+
+    // Chunks made in another generation are shared with a snapshot
+    private long generation = GENERATIONS.incrementAndGet();
+    private Snapshot<E> snapshot;
+
+
+    /**
+     * Default Constructor.
+     * Precondition: None.
+     * Post condition: An empty list is created.
+     */
+    public ChunkedList()
+    {
+    }
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: elements must not be null.
+     * Post condition: A list holding the elements in the same order is created. The chunks of a
+     *                 snapshot are shared, not copied, until the new list changes them.
+     * @param elements The elements to copy.
+     */
+    public ChunkedList(List<? extends E> elements)
+    {
+        if (elements instanceof Snapshot) {
+            Snapshot<?> shared = (Snapshot<?>) elements;
+            chunkCount = shared.chunks.length;
+            chunks = Arrays.copyOf(shared.chunks, Math.max(4, chunkCount));
+            ends = Arrays.copyOf(shared.ends, Math.max(4, chunkCount));
+            size = shared.size;
+            return;
+        }
+        for (E element : elements) {
+            add(element);
+        }
+    }
+
+
+    /**
+     * @return the number of elements.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Appends an element.
+     * Precondition: None.
+     * Post condition: The element is the last one of the list; snapshots already taken are unchanged.
+     * @param element The element to add.
+     */
+    public void add(E element)
+    {
+        Chunk last = chunkCount == 0 ? null : chunks[chunkCount - 1];
+        if (last == null || last.size == CHUNK_SIZE) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+                ends = Arrays.copyOf(ends, chunkCount * 2);
+            }
+            last = new Chunk(new Object[CHUNK_SIZE], 0, generation);
+            chunks[chunkCount] = last;
+            ends[chunkCount] = size;
+            chunkCount++;
+        } else {
+            last = writable(chunkCount - 1);
+        }
+        last.elements[last.size++] = element;
+        ends[chunkCount - 1]++;
+        size++;
+        snapshot = null;
+    }
+
+
+    /**
+     * Removes the element at a position.
+     * Precondition: index is between 0 and size() - 1.
+     * Post condition: The later elements move up one place; snapshots already taken are unchanged.
+     * @param index The position of the element.
+     * @return the element removed.
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(int index)
+    {
+        checkIndex(index, size);
+        int c = chunkOf(ends, chunkCount, index);
+        Chunk chunk = writable(c);
+        int offset = index - (c == 0 ? 0 : ends[c - 1]);
+        E removed = (E) chunk.elements[offset];
+        System.arraycopy(chunk.elements, offset + 1, chunk.elements, offset, chunk.size - offset - 1);
+        chunk.elements[--chunk.size] = null;
+        for (int i = c; i < chunkCount; i++) {
+            ends[i]--;
+        }
+        size--;
+
+        if (chunk.size == 0) {
+            dropChunk(c);
+        } else if (chunk.size < MERGE_SIZE && c + 1 < chunkCount && chunk.size + chunks[c + 1].size <= CHUNK_SIZE) {
+            Chunk next = chunks[c + 1];
+            System.arraycopy(next.elements, 0, chunk.elements, chunk.size, next.size);
+            chunk.size += next.size;
+            ends[c] = ends[c + 1];
+            dropChunk(c + 1);
+        }
+        snapshot = null;
+        return removed;
+    }
+
+
+    /**
+     * Finds an element by identity, searching from the end.
+     * Precondition: None.
+     * Post condition: Returns the position of the last element that is the given object.
+     * @param element The object to find.
+     * @return the position, or -1 if the object is not in the list.
+     */
+    public int lastIndexOfSame(Object element)
+    {
+        for (int c = chunkCount - 1; c >= 0; c--) {
+            Chunk chunk = chunks[c];
+            for (int i = chunk.size - 1; i >= 0; i--) {
+                if (chunk.elements[i] == element) {
+                    return (c == 0 ? 0 : ends[c - 1]) + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Rewrites the elements into full chunks, after many removals have left them part empty.
+     * Precondition: None.
+     * Post condition: Every chunk but the last is full; snapshots already taken are unchanged.
+     * @return true if the chunks were rewritten, false if they were already packed.
+     */
+    public boolean trimToSize()
+    {
+        if (chunkCount <= size / CHUNK_SIZE + 1) {
+            return false;
+        }
+        List<E> current = snapshot();
+        chunks = new Chunk[4];
+        ends = new int[4];
+        chunkCount = 0;
+        size = 0;
+        for (E element : current) {
+            add(element);
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the list as it is now.
+     * Precondition: None.
+     * Post condition: Returns an immutable list that later changes do not affect.
+     * @return the snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public List<E> snapshot()
+    {
+        if (snapshot == null) {
+            if (size == 0) {
+                return (List<E>) EMPTY;
+            }
+            snapshot = new Snapshot<>(Arrays.copyOf(chunks, chunkCount), Arrays.copyOf(ends, chunkCount), size);
+            // Every chunk is now shared with the snapshot, so the next change copies it
+            generation = GENERATIONS.incrementAndGet();
+        }
+        return snapshot;
+    }
+
+
+    /**
+     * Returns the chunk at a position, copying it first if a snapshot shares it.
+     */
+    private Chunk writable(int c)
+    {
+        Chunk chunk = chunks[c];
+        if (chunk.generation != generation) {
+            chunk = new Chunk(Arrays.copyOf(chunk.elements, CHUNK_SIZE), chunk.size, generation);
+            chunks[c] = chunk;
+        }
+        return chunk;
+    }
+
+
+    private void dropChunk(int c)
+    {
+        System.arraycopy(chunks, c + 1, chunks, c, chunkCount - c - 1);
+        System.arraycopy(ends, c + 1, ends, c, chunkCount - c - 1);
+        chunks[--chunkCount] = null;
+    }
+
+
+    /**
+     * Finds the chunk holding a position by binary search over the running totals.
+     */
+    private static int chunkOf(int[] ends, int chunkCount, int index)
+    {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+
+    private static void checkIndex(int index, int size)
+    {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+
+    /**
+     * A frozen version of the list. Its chunks are never changed again, and the final fields make
+     * them visible to any thread the snapshot is handed to.
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess
+    {
+        private final Chunk[] chunks;
+        private final int[] ends;
+        private final int size;
+
+        private Snapshot(Chunk[] chunks, int[] ends, int size)
+        {
+            this.chunks = chunks;
+            this.ends = ends;
+            this.size = size;
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index)
+        {
+            checkIndex(index, size);
+            int c = chunkOf(ends, chunks.length, index);
+            return (E) chunks[c].elements[index - (c == 0 ? 0 : ends[c - 1])];
+        }
+
+        @Override
+        public Iterator<E> iterator()
+        {
+            // Walks the chunks directly instead of searching for every position
+            return new Iterator<>() {
+                private int c;
+                private Object[] elements = chunks.length == 0 ? null : chunks[0].elements;
+                private int limit = chunks.length == 0 ? 0 : chunks[0].size;
+                private int i;
+
+                @Override
+                public boolean hasNext() {
+                    return i < limit || c + 1 < chunks.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (i == limit) {
+                        if (c + 1 >= chunks.length) {
+                            throw new NoSuchElementException();
+                        }
+                        c++;
+                        elements = chunks[c].elements;
+                        limit = chunks[c].size;
+                        i = 0;
+                    }
+                    return (E) elements[i++];
+                }
+            };
+        }
+    }
+}
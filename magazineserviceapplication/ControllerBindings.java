@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename ControllerBindings.java
+ * @purpose This class records the listeners a controller attaches to the reused GUI controls so
+ *          they can all be removed when the controller leaves its mode.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Methods are called on the JavaFX application thread.
+ *
+ * @expected input:
+ *  - Observable values or magazines with the listeners to attach, and clean up actions.
+ *
+ * @expected output:
+ *  - Listeners attached until dispose() is called, then removed and clean up actions run.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+public class ControllerBindings
+{
+    // Actions undoing every registration made since the last dispose
+    private final List<Runnable> disposers = new ArrayList<>();
+
+
+    /**
+     * Adds a change listener that stays attached until dispose() is called.
+     * Precondition: Both parameters must be initialized.
+     * Post condition: The listener is attached and recorded for removal.
+     *
+     * @param <T> The type of the observed value.
+     * @param observable The value to listen to.
+     * @param listener The listener to attach.
+     */
+    public <T> void listen(ObservableValue<T> observable, ChangeListener<? super T> listener)
+    {
+        observable.addListener(listener);
+        disposers.add(() -> observable.removeListener(listener));
+    }
+
+
+    /**
+     * Adds a magazine listener that stays attached until dispose() is called.
+     * Events raised on other threads are handed to the JavaFX application thread, in order.
+     * Precondition: Both parameters must be initialized.
+     * Post condition: The listener receives the magazine's changes on the JavaFX application thread.
+     *
+     * @param magazine The magazine to listen to.
+     * @param listener The listener to attach.
+     */
+    public void listen(Magazine magazine, MagazineListener listener)
+    {
+        MagazineListener onFxThread = event -> {
+            if (Platform.isFxApplicationThread()) {
+                listener.magazineChanged(event);
+            } else {
+                Platform.runLater(() -> listener.magazineChanged(event));
+            }
+        };
+        magazine.addMagazineListener(onFxThread);
+        disposers.add(() -> magazine.removeMagazineListener(onFxThread));
+    }
+
+
+    /**
+     * Registers an action to run when the bindings are disposed.
+     * Precondition: action must not be null.
+     * Post condition: The action runs on the next call to dispose().
+     *
+     * @param action The clean up action.
+     */
+    public void onDispose(Runnable action)
+    {
+        disposers.add(action);
+    }
+
+
+    /**
+     * Removes every listener and runs every clean up action registered so far.
+     * Precondition: None.
+     * Post condition: No registrations remain; the instance can be reused.
+     */
+    public void dispose()
+    {
+        for (int i = disposers.size() - 1; i >= 0; i--) {
+            disposers.get(i).run();
+        }
+        disposers.clear();
+    }
+}
@@ -28,6 +28,8 @@ import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javafx.scene.control.TextField;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
 
 public class CreateController
 {
@@ -36,6 +38,11 @@ public class CreateController
     private MagazineServiceHandler magazinehandler;
     private AlertsHandler alert;
     private MagazineServiceApplication mainApp;
+    private DiagnosticsPanel diagnostics; // created the first time it is opened
+    
+    // Timings shown in the diagnostics panel, covering the whole button action
+    private static final LatencyHistogram LOAD_TIME = MetricsRegistry.getDefault().histogram("ui.create.load");
+    private static final LatencyHistogram SAVE_TIME = MetricsRegistry.getDefault().histogram("ui.create.save");
     
     
     /**
@@ -69,6 +76,8 @@ public class CreateController
         m_gui.getAddMagazineButton().setOnAction(e -> addMagazineMode());
         m_gui.getLoadMagazineButton().setOnAction(e -> loadMagazineMode());
         m_gui.getSaveMagazineButton().setOnAction(e -> saveMagazineMode());
+        m_gui.getSaveAllButton().setOnAction(e -> saveAllMagazines());
+        m_gui.getDiagnosticsButton().setOnAction(e -> showDiagnostics());
 
         m_gui.getViewButton().setOnAction(e -> mainApp.checkMagazineViewMode());
         m_gui.getEditButton().setOnAction(e -> mainApp.checkMagazineEditMode());
@@ -119,17 +128,54 @@ public class CreateController
      {
         m_gui.loadMagazineMode();
 
-        // Check if file is selected
+        // Check if file is selected; auto-save holds back until every selected file is in
         if (m_gui.getSelectedFile() != null) {
-            for (File file : m_gui.getSelectedFile()) {
-                String m_magazineName = file.getName().replace(".ser", "");
-                magazinehandler.loadMagazineFromFile(m_magazineName);
-            }
+            mainApp.runBulk(() -> {
+                for (File file : m_gui.getSelectedFile()) {
+                    String m_magazineName = file.getName().replace(".ser", "");
+                    long start = System.nanoTime();
+                    magazinehandler.loadMagazineFromFile(m_magazineName);
+                    LOAD_TIME.recordSince(start);
+                }
+            });
         } else {
             alert.showAlert("No file selected");
         }
     }
      
+     /**
+     * Saves every magazine with unsaved changes in the background.
+     * Precondition: None.
+     * Postcondition: The changed magazines are written and the summary is shown as a notification.
+     */
+     private void saveAllMagazines()
+     {
+        Button saveAllButton = m_gui.getSaveAllButton();
+        saveAllButton.setDisable(true);
+        AppExecutors.background().execute(() -> {
+            // Auto-save would only race Save All for the same files, so it holds back meanwhile
+            try {
+                mainApp.runBulk(() -> magazinehandler.saveAllDirty(MagazineServiceHandler.defaultSaveThreads()));
+            } finally {
+                Platform.runLater(() -> saveAllButton.setDisable(false));
+            }
+        });
+     }
+     
+     /**
+     * Opens the diagnostics window with the operation timings.
+     * Precondition: The GUI is shown.
+     * Postcondition: The diagnostics window is showing and in front.
+     */
+     private void showDiagnostics()
+     {
+        if (diagnostics == null) {
+            diagnostics = new DiagnosticsPanel(MetricsRegistry.getDefault(), alert,
+                    m_gui.getDiagnosticsButton().getScene().getWindow());
+        }
+        diagnostics.show();
+     }
+     
      /**
      * Saves a selected magazine to a file.
      * Precondition: The magazine must exist in the application.
@@ -140,15 +186,18 @@ public class CreateController
         m_gui.saveMagazineMode();
          mainApp.setupMainButtons();
 
-        m_gui.getMagazineChoice().getItems().addAll(magazinehandler.getAllMagazineNames());
+        m_gui.getMagazineChoice().getItems().setAll(magazinehandler.getAllMagazineNames());
 
         m_gui.getSubmitButton().setOnAction(e -> {
             // Retrieve selected magazine
             String m_magazineName = m_gui.getMagazineChoice().getSelectionModel().getSelectedItem();
             // Check if magazine is selected
             if (m_magazineName != null) {
+                long start = System.nanoTime();
                 magazinehandler.saveMagazineToFile(m_magazineName);
+                SAVE_TIME.recordSince(start);
                 initialize();
+
               
             } else {
                 m_gui.getMagazineChoice().setValue(null);
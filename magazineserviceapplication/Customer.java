@@ -15,6 +15,8 @@ package magazineserviceapplication;
  *  - Each customer must have a unique ID, name, email, and address.
  *  - The email is expected to be a valid string format.
  *  - Supplements associated with a customer are valid and have non-negative costs.
+ *  - The version counts the edits claimed with compareAndIncrementVersion(), so an edit based on
+ *    details that another edit has changed since can be refused. It is not serialized.
  *
  * @expected input:
  *  - Customer name, email, address, and a list of subscribed supplements.
@@ -25,6 +27,7 @@ package magazineserviceapplication;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 
 public class Customer implements Serializable
@@ -33,6 +36,10 @@ public class Customer implements Serializable
     // static counter for customerID
     private static int IDcounter = 1;
     
+    // Atomic updater used to claim an edit without locking
+    private static final AtomicLongFieldUpdater<Customer> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Customer.class, "version");
+    
     // declaring variables for customer attributes 
     private int m_customerID;
     private String m_name;
@@ -42,6 +49,9 @@ public class Customer implements Serializable
     // List of supplements subscribed to by the customer
     private ArrayList<Supplement> supplements;
     
+    // Number of edits claimed since the customer was created or loaded
+    private transient volatile long version;
+    
     
      /**
      * Default Constructor
@@ -92,6 +102,31 @@ public class Customer implements Serializable
     }
 
     
+    /**
+     * Getter for the edit version.
+     * Precondition: Customer object exists.
+     * Post condition: Returns a number that grows by one with every edit claimed.
+     * @return the version, 0 for a customer not edited since it was created or loaded.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+    
+    
+    /**
+     * Claims an edit of the customer, if no other edit was claimed since the caller read the version.
+     * Precondition: None.
+     * Post condition: If the version was expectedVersion it is one higher, otherwise it is unchanged.
+     * @param expectedVersion The version of the details the edit is based on.
+     * @return true if the edit may go ahead, false if another edit came first.
+     */
+    public boolean compareAndIncrementVersion(long expectedVersion)
+    {
+        return VERSION.compareAndSet(this, expectedVersion, expectedVersion + 1);
+    }
+
+    
     /**
      * Getter for customer name.
      * Precondition: Customer object exists.
@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename CustomerInfoFormatter.java
+ * @purpose This class builds the customer details shown in the View mode info panel, without any
+ *          JavaFX, so the text can be produced and measured by the headless core.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The text of a paying customer ends with a separator; the monthly total is appended later,
+ *    once the billing calculation has finished on a background thread.
+ *  - The builder is sized for the customer up front and the address and payment method are
+ *    appended field by field, so a click allocates the builder, its array and the final String,
+ *    and nothing in between.
+ *
+ * @expected input:
+ *  - The customer selected in the View mode.
+ *
+ * @expected output:
+ *  - The info panel text, identical to what the View mode has always shown.
+ */
+
+import java.util.List;
+import java.util.Locale;
+
+public final class CustomerInfoFormatter
+{
+    private static final String SEPARATOR =
+            "------------------------------------------------------------------------------------\n";
+
+    // Room for the labels, separators, name, email, address and total of a paying customer
+    private static final int FIXED_CHARS = 6 * 85 + 240;
+
+    // Room for one numbered supplement or one associate line
+    private static final int LINE_CHARS = 32;
+
+
+    private CustomerInfoFormatter()
+    {
+    }
+
+
+    /**
+     * Builds the details of a customer.
+     * Precondition: customer must not be null.
+     * Post condition: Returns the text up to, but not including, a paying customer's monthly total.
+     * @param customer The customer to describe.
+     * @return a builder holding the text, with room left for the total.
+     */
+    public static StringBuilder format(Customer customer)
+    {
+        List<Supplement> supplements = customer.getSupplement();
+        List<Customer> associates = customer instanceof PayingCustomer
+                ? ((PayingCustomer) customer).getAssociateCustomers() : List.of();
+        StringBuilder text = new StringBuilder(FIXED_CHARS + LINE_CHARS * (supplements.size() + associates.size()));
+
+        text.append("Name: ").append(customer.getName()).append('\n')
+            .append(SEPARATOR)
+            .append("Address: ");
+        appendAddress(text, customer.getAddress());
+        text.append('\n')
+            .append(SEPARATOR)
+            .append("Email: ").append(customer.getEmail()).append('\n')
+            .append(SEPARATOR)
+            .append("Supplements Subscribed To:\n");
+
+        for (int i = 0; i < supplements.size(); i++) {
+            text.append(i + 1).append(". ").append(supplements.get(i).getName()).append('\n');
+        }
+
+        if (customer instanceof PayingCustomer) {
+            text.append(SEPARATOR)
+                .append("Status: Paying Customer\n")
+                .append("Payment Method: ");
+            appendPaymentMethod(text, ((PayingCustomer) customer).getPaymentMethod());
+            text.append('\n')
+                .append(SEPARATOR)
+                .append("Associate Customers:\n");
+
+            for (Customer associateCustomer : associates) {
+                text.append(" - ").append(associateCustomer.getName()).append('\n');
+            }
+
+            text.append(SEPARATOR);
+        } else if (customer instanceof AssociateCustomer) {
+            text.append(SEPARATOR)
+                .append("Status: Associate Customer\n");
+        }
+        return text;
+    }
+
+
+    /**
+     * Appends a paying customer's monthly total to its details.
+     * Precondition: text came from format().
+     * Post condition: The total line is appended.
+     * @param text The customer details.
+     * @param totalCost The monthly total.
+     * @return text, for chaining.
+     */
+    public static StringBuilder appendMonthlyTotal(StringBuilder text, double totalCost)
+    {
+        return text.append("Monthly Total Cost: $").append(String.format(Locale.US, "%.2f", totalCost));
+    }
+
+
+    /**
+     * Appends the address as Address.toString() would, without building that String first.
+     */
+    private static void appendAddress(StringBuilder text, Address address)
+    {
+        if (address == null) {
+            text.append((Object) null);
+            return;
+        }
+        text.append(address.getStreetNumber()).append(' ')
+            .append(address.getStreetName()).append(' ')
+            .append(address.getSuburb()).append(' ')
+            .append(address.getPostcode());
+    }
+
+
+    /**
+     * Appends the payment method as PaymentMethod.toString() would, without building that String first.
+     */
+    private static void appendPaymentMethod(StringBuilder text, PaymentMethod paymentMethod)
+    {
+        if (paymentMethod == null) {
+            text.append((Object) null);
+            return;
+        }
+        text.append(paymentMethod.getCardType()).append('\n').append(paymentMethod.getAccountNo());
+    }
+}
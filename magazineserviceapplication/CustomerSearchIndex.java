@@ -0,0 +1,529 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename CustomerSearchIndex.java
+ * @purpose This class keeps an in-memory search index over the customers of one magazine.
+ *          Words of the name, email, suburb and postcode are indexed by their first one and two
+ *          characters and by every three character gram, so a query only inspects customers that
+ *          can possibly match instead of scanning the whole customer list.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The index is updated through the same Magazine methods that change the customer list.
+ *  - Customers are identified by reference, since two customers may share a name and email.
+ *  - An edited customer moves to a new slot, so posting lists stay sorted and can be intersected;
+ *    the slots left behind are skipped during queries and purged by compaction.
+ *
+ * @expected input:
+ *  - Customers to add, remove or re-index, and free text queries typed by the operator.
+ *
+ * @expected output:
+ *  - Up to a given number of customers whose words contain every term of the query.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+public class CustomerSearchIndex 
+{
+    // Length of the grams used for terms of three or more characters
+    private static final int GRAM = 3;
+    
+    // Customer stored in each slot, null once the customer has been removed
+    private final ArrayList<Customer> slots = new ArrayList<>();
+    
+    // Searchable text of each slot: every word prefixed by a space
+    private final ArrayList<String> texts = new ArrayList<>();
+    
+    // Slot assigned to each indexed customer
+    private final IdentityHashMap<Customer, Integer> slotOf = new IdentityHashMap<>();
+    
+    // Posting list of slots for every one/two character prefix and every gram
+    private final PostingTable postings = new PostingTable();
+    
+    // Number of removed or re-indexed slots still referenced by postings
+    private int staleSlots;
+    
+    
+    /**
+     * Default Constructor.
+     * Precondition: No parameters required.
+     * Post condition: An empty index is created.
+     */
+    public CustomerSearchIndex()
+    {
+    }
+    
+    
+    /**
+     * Builds an index over the given customers.
+     * Precondition: customers must not be null.
+     * Post condition: Every customer in the list is searchable.
+     * @param customers The customers to index.
+     */
+    public CustomerSearchIndex(List<Customer> customers)
+    {
+        for (Customer customer : customers) {
+            addCustomer(customer);
+        }
+    }
+    
+    
+    /**
+     * Adds a customer to the index.
+     * Precondition: customer must not be null.
+     * Post condition: The customer is returned by matching queries.
+     * @param customer The customer to add.
+     */
+    public synchronized void add(Customer customer)
+    {
+        addCustomer(customer);
+    }
+    
+    
+    /**
+     * Indexes a customer; shared by add(), the constructor and compaction, so none of them calls
+     * the overridable add() on a partly built index.
+     * @param customer The customer to add.
+     */
+    private void addCustomer(Customer customer)
+    {
+        if (slotOf.containsKey(customer)) {
+            return;
+        }
+        int slot = slots.size();
+        String text = searchText(customer);
+        slots.add(customer);
+        texts.add(text);
+        slotOf.put(customer, slot);
+        indexText(slot, text);
+    }
+    
+    
+    /**
+     * Removes a customer from the index.
+     * Precondition: None.
+     * Post condition: The customer is no longer returned by queries.
+     * @param customer The customer to remove.
+     */
+    public synchronized void remove(Customer customer)
+    {
+        Integer slot = slotOf.remove(customer);
+        if (slot != null) {
+            slots.set(slot, null);
+            texts.set(slot, null);
+            staleSlots++;
+            compactIfNeeded();
+        }
+    }
+    
+    
+    /**
+     * Re-indexes a customer after its name, email or address changed.
+     * Precondition: None.
+     * Post condition: Queries match the customer's current details.
+     * @param customer The customer that was edited.
+     */
+    public synchronized void update(Customer customer)
+    {
+        Integer slot = slotOf.get(customer);
+        if (slot != null && searchText(customer).equals(texts.get(slot))) {
+            return;
+        }
+        remove(customer);
+        add(customer);
+    }
+    
+    
+    /**
+     * Returns the number of customers in the index.
+     * Precondition: None.
+     * Post condition: Returns the customer count.
+     * @return the number of indexed customers.
+     */
+    public synchronized int size()
+    {
+        return slotOf.size();
+    }
+    
+    
+    /**
+     * Finds customers whose words contain every term of the query.
+     * Terms of one or two characters must start a word, longer terms may appear anywhere in a word.
+     * Precondition: query must not be null, limit must be positive.
+     * Post condition: Returns at most limit matching customers in insertion order.
+     * @param query The text typed by the operator.
+     * @param limit Maximum number of customers to return.
+     * @return the matching customers.
+     */
+    public List<Customer> search(String query, int limit)
+    {
+        return search(query, limit, customer -> true);
+    }
+    
+    
+    /**
+     * Finds customers whose words contain every term of the query and that pass a filter.
+     * The filter is applied before the limit, so a query still returns up to limit customers of the
+     * wanted kind when other customers match the text first.
+     * Precondition: query and filter must not be null, limit must be positive.
+     * Post condition: Returns at most limit matching customers accepted by the filter, in insertion order.
+     * @param query The text typed by the operator.
+     * @param limit Maximum number of customers to return.
+     * @param filter Test a matching customer must pass to be returned.
+     * @return the matching customers.
+     */
+    public synchronized List<Customer> search(String query, int limit, Predicate<Customer> filter)
+    {
+        String[] terms = query.toLowerCase(Locale.ROOT).trim().split("[\\s,@]+");
+        ArrayList<Customer> results = new ArrayList<>();
+        if (terms.length == 0 || terms[0].isEmpty()) {
+            return results;
+        }
+
+        // Every term contributes one posting list, the rarest one drives the scan
+        ArrayList<Postings> lists = new ArrayList<>();
+        for (String term : terms) {
+            if (!collectPostings(term, lists)) {
+                return results;
+            }
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        Postings driver = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        for (int i = 0; i < driver.size && results.size() < limit; i++) {
+            int slot = driver.slots[i];
+            if (containsInAll(lists, cursors, slot)) {
+                String text = texts.get(slot);
+                Customer customer = slots.get(slot);
+                if (text != null && matchesAll(text, terms) && filter.test(customer)) {
+                    results.add(customer);
+                }
+            }
+        }
+        return results;
+    }
+    
+    
+    /**
+     * Checks whether a slot appears in every other posting list, advancing each list's cursor.
+     * Posting lists are sorted, so each cursor only moves forward and gallops over long runs.
+     * @param lists The posting lists, the first one being the list that is scanned.
+     * @param cursors The current position within each list.
+     * @param slot The slot to look for.
+     * @return true if every list contains the slot.
+     */
+    private static boolean containsInAll(ArrayList<Postings> lists, int[] cursors, int slot)
+    {
+        for (int l = 1; l < lists.size(); l++) {
+            Postings list = lists.get(l);
+            int low = cursors[l];
+            int step = 1;
+            int high = low;
+            while (high < list.size && list.slots[high] < slot) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(list.slots, low, Math.min(high + 1, list.size), slot);
+            if (position < 0) {
+                cursors[l] = -position - 1;
+                return false;
+            }
+            cursors[l] = position;
+        }
+        return true;
+    }
+    
+    
+    /**
+     * Adds the posting lists that can contain matches for a single term.
+     * @param term The lower-case term.
+     * @param lists The lists collected for the query.
+     * @return false if nothing can match the term.
+     */
+    private boolean collectPostings(String term, ArrayList<Postings> lists)
+    {
+        if (term.length() < GRAM) {
+            Postings prefixPostings = postings.get(prefixKey(term, 0, term.length()));
+            return prefixPostings != null && lists.add(prefixPostings);
+        }
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Postings gramPostings = postings.get(gramKey(term, i));
+            if (gramPostings == null) {
+                return false;
+            }
+            lists.add(gramPostings);
+        }
+        return true;
+    }
+    
+    
+    /**
+     * Checks a customer's searchable text against every term of a query.
+     * @param text The searchable text of the customer.
+     * @param terms The lower-case query terms.
+     * @return true if all terms match.
+     */
+    private static boolean matchesAll(String text, String[] terms)
+    {
+        for (String term : terms) {
+            String needle = term.length() < GRAM ? " " + term : term;
+            if (!text.contains(needle)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    
+    /**
+     * Adds the slot to the postings of the one and two character prefix and every gram of each word.
+     * @param slot The slot of the customer.
+     * @param text The searchable text of the customer.
+     */
+    private void indexText(int slot, String text)
+    {
+        int start = 0;
+        while (start < text.length()) {
+            // Each word of the text is preceded by a single space
+            int end = text.indexOf(' ', start + 1);
+            if (end < 0) {
+                end = text.length();
+            }
+            int wordStart = start + 1;
+            addPosting(prefixKey(text, wordStart, 1), slot);
+            if (end - wordStart > 1) {
+                addPosting(prefixKey(text, wordStart, 2), slot);
+            }
+            for (int i = wordStart; i + GRAM <= end; i++) {
+                addPosting(gramKey(text, i), slot);
+            }
+            start = end;
+        }
+    }
+    
+    
+    /**
+     * Adds a slot to the posting list of a key, ignoring repeats within the same customer.
+     * @param key The prefix or gram.
+     * @param slot The slot of the customer.
+     */
+    private void addPosting(long key, int slot)
+    {
+        Postings list = postings.getOrCreate(key);
+        if (list.size == 0 || list.slots[list.size - 1] != slot) {
+            list.add(slot);
+        }
+    }
+    
+    
+    /**
+     * Rebuilds the index once stale entries make up half of it.
+     */
+    private void compactIfNeeded()
+    {
+        if (staleSlots < 1024 || staleSlots < slotOf.size()) {
+            return;
+        }
+        ArrayList<Customer> live = new ArrayList<>(slotOf.size());
+        for (Customer customer : slots) {
+            if (customer != null) {
+                live.add(customer);
+            }
+        }
+        slots.clear();
+        texts.clear();
+        slotOf.clear();
+        postings.clear();
+        staleSlots = 0;
+        for (Customer customer : live) {
+            addCustomer(customer);
+        }
+    }
+    
+    
+    /**
+     * Builds the searchable text of a customer from its name, email, suburb and postcode.
+     * @param customer The customer.
+     * @return the lower-case words of the customer, each preceded by a space.
+     */
+    private static String searchText(Customer customer)
+    {
+        StringBuilder text = new StringBuilder();
+        appendWords(text, customer.getName());
+        appendWords(text, customer.getEmail());
+        Address address = customer.getAddress();
+        if (address != null) {
+            appendWords(text, address.getSuburb());
+            appendWords(text, address.getPostcode());
+        }
+        return text.toString();
+    }
+    
+    
+    /**
+     * Appends the words of a field to the searchable text.
+     * @param text The text being built.
+     * @param field The field value, may be null.
+     */
+    private static void appendWords(StringBuilder text, String field)
+    {
+        if (field == null) {
+            return;
+        }
+        boolean inWord = false;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (isSeparator(c)) {
+                inWord = false;
+            } else {
+                if (!inWord) {
+                    text.append(' ');
+                    inWord = true;
+                }
+                text.append(Character.toLowerCase(c));
+            }
+        }
+    }
+    
+    
+    /**
+     * Checks whether a character separates words; the same characters split query terms.
+     * @param c The character.
+     * @return true for whitespace, commas and the @ of an email address.
+     */
+    private static boolean isSeparator(char c)
+    {
+        return Character.isWhitespace(c) || c == ',' || c == '@';
+    }
+    
+    
+    /**
+     * Packs a one or two character word prefix into a table key.
+     * @param text The text holding the prefix.
+     * @param from Index of the first character.
+     * @param length Number of characters, 1 or 2.
+     * @return the key.
+     */
+    private static long prefixKey(String text, int from, int length)
+    {
+        long key = (long) length << 48 | text.charAt(from);
+        if (length > 1) {
+            key |= (long) text.charAt(from + 1) << 16;
+        }
+        return key;
+    }
+    
+    
+    /**
+     * Packs a three character gram into a table key.
+     * @param text The text holding the gram.
+     * @param from Index of the first character.
+     * @return the key.
+     */
+    private static long gramKey(String text, int from)
+    {
+        return 3L << 48 | (long) text.charAt(from) << 32 | (long) text.charAt(from + 1) << 16 | text.charAt(from + 2);
+    }
+    
+    
+    /**
+     * Open addressing table from packed keys to posting lists, avoiding a String per lookup.
+     */
+    private static final class PostingTable 
+    {
+        private long[] keys = new long[1 << 12];
+        private Postings[] values = new Postings[1 << 12];
+        private int count;
+
+        private Postings get(long key)
+        {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private Postings getOrCreate(long key)
+        {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            Postings created = new Postings();
+            keys[i] = key;
+            values[i] = created;
+            if (++count * 2 > keys.length) {
+                grow();
+            }
+            return created;
+        }
+
+        private void clear()
+        {
+            keys = new long[1 << 12];
+            values = new Postings[1 << 12];
+            count = 0;
+        }
+
+        private void grow()
+        {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int hash(long key)
+        {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+    
+    
+    /**
+     * Growable list of slot numbers.
+     */
+    private static final class Postings 
+    {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot)
+        {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename DiagnosticsPanel.java
+ * @purpose This class shows the latency histograms and counters of the metrics registry in a window
+ *          of its own, refreshed every second, and saves or copies them as a text snapshot.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Used on the FX thread only. The table is refreshed only while the window is showing.
+ *  - Times are in milliseconds; percentiles are accurate to within 1.6%, the maximum is exact.
+ *
+ * @expected input:
+ *  - The registry to show and the main window the panel belongs to.
+ *
+ * @expected output:
+ *  - A window listing every operation's count, mean, percentiles and maximum.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextArea;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+public class DiagnosticsPanel
+{
+    private final MetricsRegistry registry;
+    private final AlertsHandler alert;
+    private final Stage stage;
+    private final TextArea table;
+    private final Timeline refresher;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: All parameters must be initialized; called on the FX thread.
+     * Post condition: The window is built but not shown.
+     * @param registry The metrics to show.
+     * @param alert Shows errors from saving a snapshot.
+     * @param owner The main window.
+     */
+    public DiagnosticsPanel(MetricsRegistry registry, AlertsHandler alert, Window owner)
+    {
+        this.registry = registry;
+        this.alert = alert;
+
+        table = new TextArea();
+        table.setEditable(false);
+        table.setStyle("-fx-font-family: 'monospace'; -fx-font-size: 12px;");
+
+        Button resetButton = createButton("Reset");
+        resetButton.setOnAction(e -> {
+            registry.reset();
+            refresh();
+        });
+        Button copyButton = createButton("Copy snapshot");
+        copyButton.setOnAction(e -> {
+            ClipboardContent content = new ClipboardContent();
+            content.putString(snapshot());
+            Clipboard.getSystemClipboard().setContent(content);
+        });
+        Button saveButton = createButton("Save snapshot...");
+        saveButton.setOnAction(e -> saveSnapshot());
+
+        HBox buttons = new HBox(10, resetButton, copyButton, saveButton);
+        buttons.setPadding(new Insets(10, 0, 0, 0));
+
+        BorderPane root = new BorderPane(table);
+        root.setBottom(buttons);
+        root.setPadding(new Insets(10));
+        root.setStyle("-fx-background-color: #FFF5E1;");
+
+        stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Diagnostics");
+        stage.setScene(new Scene(root, 900, 420));
+
+        refresher = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        stage.setOnShown(e -> refresher.play());
+        stage.setOnHidden(e -> refresher.stop());
+    }
+
+
+    /**
+     * Shows the window, or brings it to the front if it is already open.
+     * Precondition: Called on the FX thread.
+     * Post condition: The window shows the current metrics.
+     */
+    public void show()
+    {
+        refresh();
+        stage.show();
+        stage.toFront();
+    }
+
+
+    /**
+     * Replaces the table text, keeping the scroll position.
+     */
+    private void refresh()
+    {
+        double scrollTop = table.getScrollTop();
+        table.setText(registry.snapshotText());
+        table.setScrollTop(scrollTop);
+    }
+
+
+    /**
+     * Returns the snapshot text with the time it was taken.
+     */
+    private String snapshot()
+    {
+        return "Magazine Service diagnostics, " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                + System.lineSeparator() + System.lineSeparator() + registry.snapshotText();
+    }
+
+
+    /**
+     * Asks for a file and writes the snapshot text to it.
+     */
+    private void saveSnapshot()
+    {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save diagnostics snapshot");
+        fileChooser.setInitialFileName("diagnostics.txt");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Text Files (*.txt)", "*.txt"));
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.writeString(file.toPath(), snapshot(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            alert.showAlert("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+
+    private Button createButton(String text)
+    {
+        Button button = new Button(text);
+        button.setStyle("-fx-background-color: #FFB6C1; -fx-text-fill: #8B5E3C; "
+                + "-fx-font-size: 14px; -fx-font-family: 'Comic Sans MS'; "
+                + "-fx-border-color: #8B5E3C; -fx-border-radius: 15px; -fx-background-radius: 15px;");
+        button.setFocusTraversable(false);
+        return button;
+    }
+}
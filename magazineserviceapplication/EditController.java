@@ -28,6 +28,8 @@ import java.util.ArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+
 
 public class EditController 
 {
@@ -37,32 +39,105 @@ public class EditController
     private AlertsHandler alert;
     private MagazineServiceApplication mainApp;
     private Magazine magazine;
+    private MagazineCommandStack history; // changes made to magazine, for undo and redo
+    private boolean pinned; // whether magazine is pinned in the handler's cache
     private String m_magazineName;
+    private long shownVersion; // version of the selected customer or supplement when its details were shown
+    
+    // Listeners attached to the shared GUI controls for the mode currently shown
+    private final ControllerBindings bindings = new ControllerBindings();
+    
+    // Listener on the open magazine that lives until dispose(), across the controller's modes
+    private final ControllerBindings magazineBindings = new ControllerBindings();
     ViewController view;
     
+    // Timings shown in the diagnostics panel; the submit timings cover validation and the change
+    private static final LatencyHistogram OPEN_TIME = MetricsRegistry.getDefault().histogram("ui.edit.open");
+    private static final LatencyHistogram ADD_CUSTOMER_TIME = MetricsRegistry.getDefault().histogram("ui.edit.addCustomer");
+    private static final LatencyHistogram EDIT_CUSTOMER_TIME = MetricsRegistry.getDefault().histogram("ui.edit.editCustomer");
+    
 
     /**
      * Parameterized Constructor.
      * Precondition: All parameters must be valid and initialized.
-     * Postcondition: Initializes EditController with references to the GUI, handler, alert system, main application,
-     *                and selected magazine.
+     * Postcondition: Initializes EditController with references to the GUI, handler, alert system, and main application.
      * 
      * @param m_gui The GUI object of the application.
      * @param magazinehandler The handler managing magazine data.
      * @param alert The alert handler for displaying messages.
      * @param mainApp The main application instance.
-     * @param m_magazineName The name of the magazine currently being edited.
      */
-    public EditController(MagazineServiceApplicationGUI m_gui, MagazineServiceHandler magazinehandler, AlertsHandler alert, MagazineServiceApplication mainApp, String m_magazineName) 
+    public EditController(MagazineServiceApplicationGUI m_gui, MagazineServiceHandler magazinehandler, AlertsHandler alert, MagazineServiceApplication mainApp) 
     {
         this.m_gui = m_gui;
         this.magazinehandler = magazinehandler;
         this.alert = alert;
         this.mainApp = mainApp;
+    }
+
+
+    /**
+     * Selects the magazine the controller works on and shows its mode.
+     * Precondition: A valid magazine name is provided.
+     * Postcondition: The magazine is edited in the reused mode layout.
+     * 
+     * @param m_magazineName The name of the magazine to be edited.
+     */
+    public void open(String m_magazineName)
+    {
+        long start = System.nanoTime();
+        try {
+            openMagazine(m_magazineName);
+        } finally {
+            OPEN_TIME.recordSince(start);
+        }
+    }
+    
+    
+    private void openMagazine(String m_magazineName)
+    {
+        releaseMagazine();
         this.m_magazineName = m_magazineName;
-        this.magazine = magazinehandler.getMagazine(m_magazineName);
+        this.magazine = magazinehandler.pinMagazine(m_magazineName);
+        pinned = magazine != null;
+        if (magazine != null && (history == null || history.getMagazine() != magazine)) {
+            // Commands refer to the customers of one copy of the magazine, a newer copy starts a new history
+            history = new MagazineCommandStack(magazine);
+        }
+        if (magazine != null) {
+            // Reopen on the newer copy when the file is reloaded from disk
+            magazineBindings.listen(magazine, event -> {
+                if (event.getKind() == MagazineEvent.Kind.REPLACED) {
+                    open(m_magazineName);
+                }
+            });
+        }
+        initialize();
     }
     
+    /**
+     * Removes the listeners this controller attached to the shared GUI controls and lets the
+     * handler evict the magazine again.
+     * Precondition: None.
+     * Postcondition: The controller no longer reacts to the GUI until it is opened again.
+     */
+    public void dispose()
+    {
+        bindings.dispose();
+        releaseMagazine();
+    }
+    
+    
+    private void releaseMagazine()
+    {
+        magazineBindings.dispose();
+        if (pinned) {
+            pinned = false;
+            magazinehandler.unpinMagazine(m_magazineName);
+        }
+    }
+
+    
     /**
      * Initializes the edit mode by setting up buttons and displaying the current magazine name.
      * Precondition: GUI, magazine, and main application objects must be initialized.
@@ -70,6 +145,7 @@ public class EditController
      */
     public void initialize() 
     {
+        bindings.dispose();
         m_gui.editMode();
         
         // Set up buttons for Edit Mode
@@ -79,6 +155,9 @@ public class EditController
         m_gui.getAddCustomerButton().setOnAction(e -> addCustomerMode());
         m_gui.getEditCustomerButton().setOnAction(e -> editCustomerMode());
         m_gui.getDeleteCustomerButton().setOnAction(e -> deleteCustomerMode());
+        m_gui.getUndoButton().setOnAction(e -> undo());
+        m_gui.getRedoButton().setOnAction(e -> redo());
+        updateUndoButtons();
 
         // Display current magazine in the header
         m_gui.getCurrentMagazine().setText("Currently editing: " + m_magazineName);
@@ -98,6 +177,7 @@ public class EditController
     
     private void addSupplementMode() 
     {
+        bindings.dispose();
         m_gui.addSupplementMode();
         mainApp.setupMainButtons();
 
@@ -110,8 +190,7 @@ public class EditController
             if (!supplementName.trim().isEmpty()) {
                 try {
                     float supplementCost = Float.parseFloat(m_gui.getSupplementCostTextField().getText());
-                    Supplement supplement = new Supplement(supplementName, supplementCost);
-                    magazine.addSupplement(supplement);
+                    history.execute(new MagazineCommands.AddSupplement(supplementName, supplementCost));
                     initialize();
                 } catch (Exception ex) {
                     m_gui.getSupplementCostTextField().clear();
@@ -132,6 +211,7 @@ public class EditController
      */
     
     private void addCustomerMode() {
+        bindings.dispose();
         m_gui.addCustomerMode();
          mainApp.setupMainButtons();
 
@@ -140,7 +220,7 @@ public class EditController
         addCustomerFillData(magazine);
 
         ArrayList<Supplement>[] supplements = new ArrayList[]{new ArrayList<>()};
-        m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+        bindings.listen(m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
             supplements[0] = new ArrayList<>(m_gui.getSupplementChoice().getSelectionModel().getSelectedItems());
         });
 
@@ -158,6 +238,7 @@ public class EditController
 
         // Set event handler for the submit button
         m_gui.getSubmitButton().setOnAction(e -> {
+            long start = System.nanoTime();
             ArrayList<Boolean> validateList = new ArrayList<>();
             validateList = addCustomerValidation(validateList);
 
@@ -169,29 +250,30 @@ public class EditController
                 switch (m_gui.getTypeOfCustomerComboBox().getValue()) {
                     // If paying customer, add details to paying customer object
                     case "Paying Customer":
-                        PayingCustomer payingCustomer = new PayingCustomer();
-                        setCustomerSpecificData(payingCustomer, supplements);
-                        payingCustomer.setPaymentMethod(new PaymentMethod
-                             (
-                                m_gui.getCardType().getValue(),
-                                Integer.parseInt(m_gui.getAccountNumberTextField().getText())));
                         // Update magazine service
-                        magazine.addCustomer(payingCustomer);
+                        history.execute(new MagazineCommands.AddPayingCustomer(
+                                m_gui.getCustomersNameTextField().getText(),
+                                m_gui.getEmailAddressTextField().getText(),
+                                enteredAddress(),
+                                supplements[0],
+                                enteredPaymentMethod()));
                         break;
-                    // If associate customer, add details to associate customer object
+                    // If associate customer, add it to the selected paying customer
                     case "Associate Customer":
-                        AssociateCustomer associateCustomer = new AssociateCustomer();
-                        setCustomerSpecificData(associateCustomer, supplements);
-                        // Selection of paying customer
                         PayingCustomer selectedPayingCustomer = m_gui.getPayingCustomerChoice().getValue();
-                        // Adding associate customer to selected paying customer
-                        selectedPayingCustomer.addAssociateCustomer(associateCustomer);
-                        // Update magazine service
-                        magazine.addCustomer(associateCustomer);
+                        if (!history.execute(new MagazineCommands.AddAssociateCustomer(
+                                m_gui.getCustomersNameTextField().getText(),
+                                m_gui.getEmailAddressTextField().getText(),
+                                enteredAddress(),
+                                supplements[0],
+                                selectedPayingCustomer))) {
+                            alert.showAlert("The paying customer has been deleted, please select another one");
+                        }
                         break;
                 }
                 initialize();
             }
+            ADD_CUSTOMER_TIME.recordSince(start);
         });
     }
    
@@ -205,18 +287,22 @@ public class EditController
     
     private void editSupplementMode() 
     {
+        bindings.dispose();
         m_gui.editSupplementMode();
         mainApp.setupMainButtons();
 
         magazine = magazinehandler.getMagazine(m_magazineName);
 
-        // Adding existing supplements
-        m_gui.getSupplementChoice().getItems().addAll(magazine.getSupplements());
+        // Adding existing supplements, filtered by the search field
+        SearchFieldBinder.bindSupplementSearch(m_gui.getSupplementSearchField(), m_gui.getSupplementChoice(), magazine, bindings);
 
-        // Monitor selection
-        m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
-            m_gui.getSupplementNameTextField().setText(newValue.getName());
-            m_gui.getSupplementCostTextField().setText(String.valueOf(newValue.getCost()));
+        // Monitor selection, the selection is cleared when a search hides the selected supplement
+        bindings.listen(m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
+            if (newValue != null) {
+                shownVersion = newValue.getVersion();
+                m_gui.getSupplementNameTextField().setText(newValue.getName());
+                m_gui.getSupplementCostTextField().setText(String.valueOf(newValue.getCost()));
+            }
         });
 
         // Set event handler for the submit button
@@ -228,9 +314,16 @@ public class EditController
                 // If no supplement name
                 if (!supplementName.trim().isEmpty()) {
                     try {
-                        supplement.setName(supplementName);
-                        supplement.setCost(Float.parseFloat(m_gui.getSupplementCostTextField().getText()));
-                        initialize();
+                        float supplementCost = Float.parseFloat(m_gui.getSupplementCostTextField().getText());
+                        // The list patches the edited row, stay here for the next edit
+                        if (history.execute(new MagazineCommands.EditSupplement(supplement, shownVersion, supplementName, supplementCost))) {
+                            shownVersion = supplement.getVersion();
+                        } else if (supplement.getVersion() != shownVersion) {
+                            alert.showAlert(changedElsewhere("supplement"));
+                        } else {
+                            alert.showAlert("The supplement has been deleted");
+                        }
+                        m_gui.clearInputs();
                     } catch (Exception ex) {
                         m_gui.getSupplementCostTextField().clear();
                         alert.showAlert("Please input  only numbers for the cost of the supplement");
@@ -254,6 +347,7 @@ public class EditController
      */
     
     private void editCustomerMode() {
+        bindings.dispose();
         m_gui.editCustomerMode();
         mainApp.setupMainButtons();
 
@@ -262,17 +356,20 @@ public class EditController
         editCustomerFillData();
 
         ArrayList<Supplement>[] supplements = new ArrayList[]{new ArrayList<>()};
-        m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+        bindings.listen(m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
             supplements[0] = new ArrayList<>(m_gui.getSupplementChoice().getSelectionModel().getSelectedItems());
         });
 
         // Set text based on selected customer
-        m_gui.getCustomerChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
-            editCustomerSetField(newValue, magazine);
+        bindings.listen(m_gui.getCustomerChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
+            if (newValue != null) {
+                editCustomerSetField(newValue, magazine);
+            }
         });
 
         // Set event handler for the submit button
         m_gui.getSubmitButton().setOnAction(e -> {
+            long start = System.nanoTime();
             ArrayList<Boolean> validateList = new ArrayList<>();
             validateList = editCustomerValidation(validateList);
             // Check validation array
@@ -280,9 +377,13 @@ public class EditController
             // All fields validated
             if (isValidated) {
                 editCustomerSetData(supplements, magazine);
-                initialize();
+                // The list patches the edited row, stay here for the next edit
+                m_gui.clearInputs();
+                m_gui.getOldSupplements().getItems().clear();
             }
+            EDIT_CUSTOMER_TIME.recordSince(start);
         });
+
     }
     
     /**
@@ -311,17 +412,19 @@ public class EditController
      * Postcondition: Allows user to delete a selected supplement, if no customers are subscribed to it.
      */
     private void deleteSupplementMode() {
+    bindings.dispose();
     m_gui.deleteSupplementMode();
     mainApp.setupMainButtons();
 
     magazine = magazinehandler.getMagazine(m_magazineName);
 
-    // Add existing supplements to list view
-    m_gui.getSupplementChoice().getItems().setAll(magazine.getSupplements());
+    // Add existing supplements to list view, filtered by the search field
+    SearchFieldBinder.bindSupplementSearch(m_gui.getSupplementSearchField(), m_gui.getSupplementChoice(), magazine, bindings);
 
     // Optional: Display supplement info directly in an alert or a simple text box if needed
-    m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+    bindings.listen(m_gui.getSupplementChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
         if (newValue != null) {
+            shownVersion = newValue.getVersion();
             showSupplementInfoInPanel(newValue); 
         }
     });
@@ -330,14 +433,12 @@ public class EditController
         Supplement supplement = m_gui.getSupplementChoice().getSelectionModel().getSelectedItem();
         
         if (supplement != null) {
-            boolean isSubscribed = magazine.getCustomerList().stream()
-                .anyMatch(customer -> customer.getSupplement().contains(supplement));
-
-            if (isSubscribed) {
-                alert.showAlert("You are not able to delete a supplement that has subscriptions");
+            if (history.execute(new MagazineCommands.RemoveSupplement(supplement, shownVersion))) {
+                m_gui.clearInputs(); // The list drops the deleted row
+            } else if (supplement.getVersion() != shownVersion) {
+                alert.showAlert(changedElsewhere("supplement"));
             } else {
-                magazine.removeSupplement(supplement);
-                initialize(); // Refresh the view after deletion
+                alert.showAlert("You are not able to delete a supplement that has subscriptions");
             }
         } else {
             alert.showAlert("Please select a supplement to delete");
@@ -352,17 +453,20 @@ public class EditController
      */
     private void deleteCustomerMode() 
     {
+    bindings.dispose();
     m_gui.deleteCustomerMode();
     mainApp.setupMainButtons();
 
     magazine = magazinehandler.getMagazine(m_magazineName);
 
-    // Add existing customers to list view
-    m_gui.getCustomerChoice().getItems().addAll(magazine.getCustomerList());
+    // Add existing customers to list view, rows are loaded page by page as they are shown
+    m_gui.getCustomerChoice().setItems(new PagedListModel<>(magazine.getCustomerSource()));
+    SearchFieldBinder.bindCustomerSearch(m_gui.getCustomerSearchField(), m_gui.getCustomerChoice(), magazine, bindings);
 
     // Monitor selection and display customer info directly
-    m_gui.getCustomerChoice().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+    bindings.listen(m_gui.getCustomerChoice().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
         if (newValue != null) {
+            shownVersion = newValue.getVersion();
             showBasicCustomerInfo(newValue);  // Call the simplified method to show customer info
         }
     });
@@ -371,20 +475,13 @@ public class EditController
         Customer customer = m_gui.getCustomerChoice().getSelectionModel().getSelectedItem();
         // Check if customer is selected
         if (customer != null) {
-            if (customer instanceof PayingCustomer) {
-                PayingCustomer selectedPayingCustomer = (PayingCustomer) customer;
-                // Check if paying customer has one or more associate customers
-                if (selectedPayingCustomer.containsAssociateCustomer()) {
-                    alert.showAlert("You are not able to delete a paying customer that has associate customer(s)");
-                } else {
-                    magazine.removeCustomer(customer);
-                    initialize();
-                }
-            } else if (customer instanceof AssociateCustomer) {
-                // Remove associate customer from paying customer
-                deleteAssociateCustomerFromPayingCustomer(customer, magazine);
-                magazine.removeCustomer(customer);
-                initialize();
+            // An associate customer is removed from its paying customer as well
+            if (history.execute(new MagazineCommands.RemoveCustomer(customer, shownVersion))) {
+                m_gui.clearInputs(); // The list drops the deleted row
+            } else if (customer.getVersion() != shownVersion) {
+                alert.showAlert(changedElsewhere("customer"));
+            } else {
+                alert.showAlert("You are not able to delete a paying customer that has associate customer(s)");
             }
         } else {
             alert.showAlert("Please select a customer to delete");
@@ -442,24 +539,13 @@ public class EditController
      
     private void addCustomerFillData(Magazine magazine) 
     {
-        m_gui.getTypeOfCustomerComboBox().getItems().addAll("Paying Customer", "Associate Customer");
+        m_gui.getTypeOfCustomerComboBox().getItems().setAll("Paying Customer", "Associate Customer");
 
         // Add supplements to list view
-        m_gui.getSupplementChoice().getItems().addAll(magazine.getSupplements());
+        m_gui.getSupplementChoice().getItems().setAll(magazine.getSupplements());
 
-        // Create customer arraylist and add all customers
-        ArrayList<Customer> customerList = new ArrayList<>();
-        ArrayList<PayingCustomer> payingCustomerList = new ArrayList<>();
-        customerList.addAll(magazine.getCustomerList());
-
-        // Check if paying customer
-        for (Customer customer : customerList) {
-            if (customer instanceof PayingCustomer) {
-                payingCustomerList.add((PayingCustomer) customer);
-            }
-        }
-        m_gui.getPayingCustomerChoice().getItems().addAll(payingCustomerList);
-        m_gui.getPayingCustomerChoice().setPromptText("Select One");
+        // Paying customers are found by typing in the drop-down, without copying the customer list
+        SearchFieldBinder.bindPayerSearch(m_gui.getPayingCustomerChoice(), magazine, bindings);
     }
 
     /**
@@ -524,7 +610,7 @@ public class EditController
         }
         // Check if associate customer
         if (customer != null && customer.equals("Associate Customer")) {
-            if (m_gui.getPayingCustomerChoice().getSelectionModel().isEmpty()) {
+            if (m_gui.getPayingCustomerChoice().getValue() == null) {
                 alert.showAlert("Please select a paying customer");
                 validateList.add(false);
             } else {
@@ -542,27 +628,18 @@ public class EditController
      */
     
     private void editCustomerFillData() {
-        // Adding customers to list view
-        m_gui.getCustomerChoice().getItems().addAll(magazine.getCustomerList());
+        // Adding customers to list view, rows are loaded page by page as they are shown
+        m_gui.getCustomerChoice().setItems(new PagedListModel<>(magazine.getCustomerSource()));
+        SearchFieldBinder.bindCustomerSearch(m_gui.getCustomerSearchField(), m_gui.getCustomerChoice(), magazine, bindings);
 
         // Adding supplements subscribed by respective customer
-        m_gui.getSupplementChoice().getItems().addAll(magazine.getSupplements());
+        m_gui.getSupplementChoice().getItems().setAll(magazine.getSupplements());
 
-        // Adding all customers to list view
-        ArrayList<Customer> customerList = new ArrayList<>();
-        ArrayList<PayingCustomer> payingCustomerList = new ArrayList<>();
-        customerList.addAll(magazine.getCustomerList());
+        // Paying customers are found by typing in the drop-down, without copying the customer list
+        SearchFieldBinder.bindPayerSearch(m_gui.getPayingCustomerChoice(), magazine, bindings);
 
-        // Check for paying customer
-        for (Customer customer : customerList) {
-            if (customer instanceof PayingCustomer) {
-                payingCustomerList.add((PayingCustomer) customer);
-            }
-        }
-
-        m_gui.getPayingCustomerChoice().getItems().addAll(payingCustomerList);
         // Card type field
-        m_gui.getCardType().getItems().addAll("Credit Card", "Debit Card");
+        m_gui.getCardType().getItems().setAll("Credit Card", "Debit Card");
     }
     
     /**
@@ -575,6 +652,7 @@ public class EditController
      * */
 
     private void editCustomerSetField(Customer newValue, Magazine magazine) {
+        shownVersion = newValue.getVersion();
         if (newValue instanceof PayingCustomer) {
             setPayingCustomerVisible();
             m_gui.getTypeOfCustomerTextField().setText("Paying Customer");
@@ -605,15 +683,10 @@ public class EditController
      * @param magazine The magazine containing customer data.
      */
     private void editCustomerSetPayingCustomer(Customer newValue, Magazine magazine) {
-        for (Customer customer : magazine.getCustomerList()) {
-            if (customer instanceof PayingCustomer) {
-                PayingCustomer payingCustomer = (PayingCustomer) customer;
-                // Check for paying customer that has the associate customer
-                if (payingCustomer.compareAssociateCustomer(newValue.getName())) {
-                    // Set associated paying customer
-                    m_gui.getPayingCustomerChoice().setValue(payingCustomer);
-                }
-            }
+        // Set associated paying customer
+        PayingCustomer payingCustomer = new MagazineEditor(magazine).findPayingCustomer(newValue);
+        if (payingCustomer != null) {
+            m_gui.getPayingCustomerChoice().setValue(payingCustomer);
         }
     }
     
@@ -666,6 +739,15 @@ public class EditController
                     validateList.add(false);
                 }
             }
+            // Check associate customer has a paying customer to move to
+            if (m_gui.getTypeOfCustomerTextField().getText().equals("Associate Customer")) {
+                if (m_gui.getPayingCustomerChoice().getValue() == null) {
+                    alert.showAlert("Please select a paying customer");
+                    validateList.add(false);
+                } else {
+                    validateList.add(true);
+                }
+            }
         } else {
             alert.showAlert("Please select a customer to edit");
             validateList.add(false);
@@ -684,66 +766,115 @@ public class EditController
      */
      private void editCustomerSetData(ArrayList<Supplement>[] supplements, Magazine magazine) {
         Customer customer = m_gui.getCustomerChoice().getSelectionModel().getSelectedItem();
+        MagazineCommand command;
         // If paying customer selected, update all fields
         if (m_gui.getTypeOfCustomerTextField().getText().equals("Paying Customer")) {
-            PayingCustomer selectedPayingCustomer = (PayingCustomer) customer;
-            setCustomerSpecificData(selectedPayingCustomer, supplements);
-            selectedPayingCustomer.setPaymentMethod(new PaymentMethod(
-                    m_gui.getCardType().getValue(),
-                    Integer.parseInt(m_gui.getAccountNumberTextField().getText())));
-        } // If associate customer selected, update all fields
-        else if (m_gui.getTypeOfCustomerTextField().getText().equals("Associate Customer")) {
-            AssociateCustomer selectedAssociateCustomer = (AssociateCustomer) customer;
-            setCustomerSpecificData(selectedAssociateCustomer, supplements);
-            PayingCustomer selectedPayingCustomer = m_gui.getPayingCustomerChoice().getValue();
-            // To remove associate customer from paying customer and add to new
-            if (!selectedPayingCustomer.compareAssociateCustomer(selectedAssociateCustomer.getName())) {
-                deleteAssociateCustomerFromPayingCustomer(customer, magazine);
-                selectedPayingCustomer.addAssociateCustomer(selectedAssociateCustomer);
-            }
+            command = new MagazineCommands.EditPayingCustomer((PayingCustomer) customer, shownVersion,
+                    m_gui.getCustomersNameTextField().getText(),
+                    m_gui.getEmailAddressTextField().getText(),
+                    enteredAddress(),
+                    supplements[0],
+                    enteredPaymentMethod());
+        } // If associate customer selected, update all fields and move it to the selected paying customer
+        else {
+            command = new MagazineCommands.EditAssociateCustomer((AssociateCustomer) customer, shownVersion,
+                    m_gui.getCustomersNameTextField().getText(),
+                    m_gui.getEmailAddressTextField().getText(),
+                    enteredAddress(),
+                    supplements[0],
+                    m_gui.getPayingCustomerChoice().getValue());
+        }
+        if (history.execute(command)) {
+            shownVersion = customer.getVersion();
+        } else if (customer.getVersion() != shownVersion) {
+            alert.showAlert(changedElsewhere("customer"));
+        } else {
+            alert.showAlert("The customer or its paying customer has been deleted");
         }
     }
+
+
+    /**
+     * Builds the message shown when an edit is refused because someone else changed the same
+     * customer or supplement after it was selected.
+     * Precondition: None.
+     * Postcondition: Returns the message.
+     *
+     * @param what "customer" or "supplement".
+     * @return the message.
+     */
+    private static String changedElsewhere(String what) {
+        return "The " + what + " was changed by someone else, please check the new details and try again";
+    }
      
     
      /**
-     * Sets general data for a customer, such as name, email, address, and subscribed supplements.
-     * Precondition: Customer and GUI elements should be initialized.
-     * Postcondition: Sets the provided data in the customer object.
+     * Undoes the last change made in the open magazine.
+     * Precondition: history must be initialized.
+     * Postcondition: The change is reverted, or the operator is told which part could not be.
+     */
+    private void undo() {
+        String description = history.getUndoDescription();
+        if (!history.undo()) {
+            alert.showAlert("\"" + description + "\" could not be fully undone, the customers or supplements it changed have changed since");
+        }
+        updateUndoButtons();
+    }
+    
+    /**
+     * Makes the last undone change again.
+     * Precondition: history must be initialized.
+     * Postcondition: The change is made again, or the operator is told which part could not be.
+     */
+    private void redo() {
+        String description = history.getRedoDescription();
+        if (!history.redo()) {
+            alert.showAlert("\"" + description + "\" could not be fully redone, the customers or supplements it changed have changed since");
+        }
+        updateUndoButtons();
+    }
+    
+    /**
+     * Enables the undo and redo buttons when there is something to undo or redo, with the change as a tooltip.
+     * Precondition: GUI elements should be initialized.
+     * Postcondition: The buttons reflect the history of the open magazine.
+     */
+    private void updateUndoButtons() {
+        boolean canUndo = history != null && history.canUndo();
+        boolean canRedo = history != null && history.canRedo();
+        m_gui.getUndoButton().setDisable(!canUndo);
+        m_gui.getUndoButton().setTooltip(canUndo ? new Tooltip("Undo: " + history.getUndoDescription()) : null);
+        m_gui.getRedoButton().setDisable(!canRedo);
+        m_gui.getRedoButton().setTooltip(canRedo ? new Tooltip("Redo: " + history.getRedoDescription()) : null);
+    }
+    
+    /**
+     * Builds the address entered in the GUI.
+     * Precondition: GUI elements should be initialized.
+     * Postcondition: Returns a new address from the address fields.
      * 
-     * @param customer The customer to set data for.
-     * @param supplements Array of selected supplements to assign to the customer.
+     * @return the entered address.
      */
-    private void setCustomerSpecificData(Customer customer, ArrayList<Supplement>[] supplements) {
-        customer.setName(m_gui.getCustomersNameTextField().getText());
-        customer.setEmail(m_gui.getEmailAddressTextField().getText());
-        customer.setAddress(new Address(
+    private Address enteredAddress() {
+        return new Address(
                 m_gui.getStreetNumberTextField().getText(),
                 m_gui.getStreetNameTextField().getText(),
                 m_gui.getSuburbTextField().getText(),
                 m_gui.getPostCodeTextField().getText()
-        ));
-        customer.setSupplement(supplements[0]);
+        );
     }
     
     /**
-     * Removes an associate customer from a paying customer's list of associates.
-     * Precondition: Selected customer and magazine objects should be initialized.
-     * Postcondition: The associate customer is removed from the paying customer's list.
+     * Builds the payment method entered in the GUI.
+     * Precondition: The account number field has been validated as a number.
+     * Postcondition: Returns a new payment method from the card fields.
      * 
-     * @param selectedCustomer The associate customer to remove.
-     * @param magazine The magazine containing customer data.
+     * @return the entered payment method.
      */
-
-    private void deleteAssociateCustomerFromPayingCustomer(Customer selectedCustomer, Magazine magazine) {
-        for (Customer customer : magazine.getCustomerList()) {
-            if (customer instanceof PayingCustomer) {
-                PayingCustomer payingCustomer = (PayingCustomer) customer;
-                if (payingCustomer.compareAssociateCustomer(selectedCustomer.getName())) {
-                    // Delete associate customer from paying customer
-                    payingCustomer.removeAssociateCustomer(selectedCustomer);
-                }
-            }
-        }
+    private PaymentMethod enteredPaymentMethod() {
+        return new PaymentMethod(
+                m_gui.getCardType().getValue(),
+                Integer.parseInt(m_gui.getAccountNumberTextField().getText()));
     }
 
      /**
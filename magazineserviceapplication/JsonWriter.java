@@ -0,0 +1,306 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename JsonWriter.java
+ * @purpose This class writes JSON text straight to a stream, one value at a time, so reports and
+ *          responses never have to be assembled in memory first.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Callers open and close objects and arrays in a balanced way and give a name before every
+ *    value inside an object.
+ *  - I/O errors are rethrown as UncheckedIOException.
+ *
+ * @expected input:
+ *  - Names and values of strings, numbers, booleans and nulls.
+ *
+ * @expected output:
+ *  - Compact JSON text on the underlying Appendable.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+public class JsonWriter
+{
+    private final Appendable out;
+
+    // Whether a value was already written at each open nesting level, deepest last
+    private boolean[] written = new boolean[16];
+    private int depth;
+
+    // True right after name() so the next value is not preceded by a comma
+    private boolean afterName;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: out must not be null.
+     * Post condition: A writer appending to out is created.
+     * @param out Where the JSON text goes.
+     */
+    public JsonWriter(Appendable out)
+    {
+        this.out = out;
+    }
+
+
+    /**
+     * Opens an object.
+     * @return this writer.
+     */
+    public JsonWriter beginObject()
+    {
+        open('{');
+        return this;
+    }
+
+
+    /**
+     * Closes the current object.
+     * @return this writer.
+     */
+    public JsonWriter endObject()
+    {
+        close('}');
+        return this;
+    }
+
+
+    /**
+     * Opens an array.
+     * @return this writer.
+     */
+    public JsonWriter beginArray()
+    {
+        open('[');
+        return this;
+    }
+
+
+    /**
+     * Closes the current array.
+     * @return this writer.
+     */
+    public JsonWriter endArray()
+    {
+        close(']');
+        return this;
+    }
+
+
+    /**
+     * Writes the name of the next member of the current object.
+     * @param name The member name.
+     * @return this writer.
+     */
+    public JsonWriter name(String name)
+    {
+        separate();
+        string(name);
+        append(':');
+        afterName = true;
+        return this;
+    }
+
+
+    /**
+     * Writes a string value, or null.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter value(String value)
+    {
+        separate();
+        if (value == null) {
+            append("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+
+    /**
+     * Writes a whole number.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter value(long value)
+    {
+        separate();
+        append(Long.toString(value));
+        return this;
+    }
+
+
+    /**
+     * Writes a decimal number; NaN and infinities are written as null.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter value(double value)
+    {
+        separate();
+        append(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+
+    /**
+     * Writes a boolean.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter value(boolean value)
+    {
+        separate();
+        append(value ? "true" : "false");
+        return this;
+    }
+
+
+    /**
+     * Writes a name and a string value.
+     * @param name The member name.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter field(String name, String value)
+    {
+        return name(name).value(value);
+    }
+
+
+    /**
+     * Writes a name and a whole number.
+     * @param name The member name.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter field(String name, long value)
+    {
+        return name(name).value(value);
+    }
+
+
+    /**
+     * Writes a name and a decimal number.
+     * @param name The member name.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter field(String name, double value)
+    {
+        return name(name).value(value);
+    }
+
+
+    /**
+     * Writes a name and a boolean.
+     * @param name The member name.
+     * @param value The value.
+     * @return this writer.
+     */
+    public JsonWriter field(String name, boolean value)
+    {
+        return name(name).value(value);
+    }
+
+
+    private void open(char bracket)
+    {
+        separate();
+        append(bracket);
+        if (++depth == written.length) {
+            written = Arrays.copyOf(written, depth * 2);
+        }
+        written[depth] = false;
+    }
+
+
+    private void close(char bracket)
+    {
+        depth--;
+        append(bracket);
+    }
+
+
+    /**
+     * Writes the comma between values of the same object or array.
+     */
+    private void separate()
+    {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (written[depth]) {
+            append(',');
+        }
+        written[depth] = true;
+    }
+
+
+    private void string(String text)
+    {
+        append('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escape = null;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20) {
+                escape = String.format("\\u%04x", (int) c);
+            }
+            if (escape != null) {
+                append(text, start, i);
+                append(escape);
+                start = i + 1;
+            }
+        }
+        append(text, start, text.length());
+        append('"');
+    }
+
+
+    private void append(char c)
+    {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private void append(CharSequence text)
+    {
+        append(text, 0, text.length());
+    }
+
+
+    private void append(CharSequence text, int start, int end)
+    {
+        try {
+            out.append(text, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
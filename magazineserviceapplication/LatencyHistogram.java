@@ -0,0 +1,238 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename LatencyHistogram.java
+ * @purpose This class counts how long an operation takes, in log-linear buckets in the style of
+ *          HdrHistogram, so percentiles can be read at any time without storing every sample.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Values are durations in nanoseconds. Below 128 ns every value has its own bucket; above,
+ *    each power of two is split into 64 buckets, so a reported value is within 1.6% of the
+ *    recorded one. Values over an hour are counted as an hour.
+ *  - Recording takes no lock: each bucket is an atomic counter and the sum is a LongAdder, so
+ *    threads recording at the same time do not wait for each other. The count is the sum of the
+ *    buckets, so it always matches the percentiles read from them.
+ *  - A snapshot taken while samples are being recorded may miss the newest ones; it never loses
+ *    them from the histogram.
+ *
+ * @expected input:
+ *  - Durations from the instrumented operation.
+ *
+ * @expected output:
+ *  - Snapshots with the count, mean, maximum and percentiles.
+ */
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram
+{
+    // Values below this have a bucket each; 2^7
+    private static final int LINEAR_BUCKETS = 128;
+
+    // Buckets per power of two above the linear range; 2^6
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Largest value kept apart, one hour
+    private static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: name must not be null.
+     * Post condition: An empty histogram is created.
+     * @param name The operation being measured.
+     */
+    public LatencyHistogram(String name)
+    {
+        this.name = name;
+    }
+
+
+    /** @return the operation being measured. */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Records one duration.
+     * Precondition: None; negative values count as 0.
+     * Post condition: The duration is counted.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+
+    /**
+     * Records the time since start, for use as
+     * {@code long start = System.nanoTime(); try { ... } finally { histogram.recordSince(start); }}.
+     * Precondition: start came from System.nanoTime().
+     * Post condition: The elapsed time is counted.
+     * @param start The System.nanoTime() value at the start of the operation.
+     */
+    public void recordSince(long start)
+    {
+        record(System.nanoTime() - start);
+    }
+
+
+    /**
+     * Copies the current counts.
+     * Precondition: None.
+     * Post condition: Returns a snapshot that later recordings do not change.
+     * @return the snapshot.
+     */
+    public Snapshot snapshot()
+    {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(name, copy, total, sum.sum(), max.get());
+    }
+
+
+    /**
+     * Forgets every recorded value.
+     * Precondition: None.
+     * Post condition: The histogram is empty, apart from values recorded while it was being cleared.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+
+    /**
+     * Returns the bucket holding a value.
+     */
+    private static int indexOf(long value)
+    {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS + 1 bits; the leading one is implied
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * Returns the largest value a bucket holds.
+     */
+    private static long highestValueIn(int index)
+    {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+
+    /**
+     * The counts of one histogram at one moment.
+     */
+    public static final class Snapshot
+    {
+        private final String name;
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(String name, long[] counts, long count, long sum, long max)
+        {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /** @return the operation measured. */
+        public String getName() { return name; }
+
+        /** @return how many durations were recorded. */
+        public long getCount() { return count; }
+
+        /** @return the longest duration in nanoseconds, exact. */
+        public long getMax() { return max; }
+
+        /**
+         * Returns the average duration.
+         * @return the mean in nanoseconds, or 0 if nothing was recorded.
+         */
+        public double getMean()
+        {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the duration below which the given share of the recordings fall.
+         * Precondition: percentile is between 0 and 100.
+         * Post condition: Returns the highest value of the bucket holding the percentile, capped at
+         *                 the maximum, or 0 if nothing was recorded.
+         * @param percentile The percentile, such as 99.9.
+         * @return the duration in nanoseconds.
+         */
+        public long getValueAtPercentile(double percentile)
+        {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ROOT, "%s count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", name, count,
+                    getMean() / 1e6, getValueAtPercentile(50) / 1e6, getValueAtPercentile(99) / 1e6, max / 1e6);
+        }
+    }
+}
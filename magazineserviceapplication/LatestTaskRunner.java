@@ -0,0 +1,83 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename LatestTaskRunner.java
+ * @purpose This class runs JavaFX tasks for a single view, cancelling any task that has been
+ *          superseded so only the result of the most recent request reaches the screen.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - submit() and cancel() are called on the JavaFX application thread.
+ *  - Each view owns its own runner.
+ *
+ * @expected input:
+ *  - A task plus the handlers to run on the JavaFX thread when it succeeds or fails.
+ *
+ * @expected output:
+ *  - At most one live task per runner; handlers of stale tasks are never invoked.
+ */
+
+import java.util.function.Consumer;
+import javafx.concurrent.Task;
+
+public class LatestTaskRunner 
+{
+    // Task currently allowed to publish its result
+    private Task<?> current;
+    
+    // Incremented on every submit so late results can be recognised as stale
+    private long generation;
+    
+    
+    /**
+     * Cancels the running task (if any) and starts the given one on the shared executor.
+     * Precondition: Called on the JavaFX application thread.
+     * Post condition: Only the given task can deliver its result, in submission order.
+     * 
+     * @param <T> The result type of the task.
+     * @param task The task to run.
+     * @param onSucceeded Handler receiving the result on the JavaFX thread.
+     * @param onFailed Handler receiving the failure on the JavaFX thread.
+     */
+    public <T> void submit(Task<T> task, Consumer<T> onSucceeded, Consumer<Throwable> onFailed)
+    {
+        cancel();
+        long ticket = generation;
+        current = task;
+
+        task.setOnSucceeded(event -> {
+            if (ticket == generation) {
+                current = null;
+                onSucceeded.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            if (ticket == generation) {
+                current = null;
+                onFailed.accept(task.getException());
+            }
+        });
+
+        AppExecutors.background().execute(task);
+    }
+    
+    
+    /**
+     * Cancels the running task so its result is discarded.
+     * Precondition: Called on the JavaFX application thread.
+     * Post condition: No task of this runner will publish a result until the next submit.
+     */
+    public void cancel()
+    {
+        generation++;
+        if (current != null) {
+            current.cancel(true);
+            current = null;
+        }
+    }
+}
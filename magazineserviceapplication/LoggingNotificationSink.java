@@ -0,0 +1,65 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename LoggingNotificationSink.java
+ * @purpose This class writes notifications to java.util.logging, for headless and batch use.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Logging is configured by the hosting process; the default prints to standard error.
+ *
+ * @expected input:
+ *  - Notifications from the magazine handler.
+ *
+ * @expected output:
+ *  - One log record per notification.
+ */
+
+import java.util.logging.Logger;
+
+public class LoggingNotificationSink implements NotificationSink 
+{
+    private final Logger logger;
+    
+    
+    /**
+     * Default Constructor.
+     * Precondition: No parameters required.
+     * Post condition: A sink logging to the "magazineserviceapplication" logger is created.
+     */
+    public LoggingNotificationSink()
+    {
+        this(Logger.getLogger("magazineserviceapplication"));
+    }
+    
+    
+    /**
+     * Parameterized Constructor.
+     * Precondition: logger must not be null.
+     * Post condition: A sink logging to the given logger is created.
+     * @param logger The logger to write to.
+     */
+    public LoggingNotificationSink(Logger logger)
+    {
+        this.logger = logger;
+    }
+    
+    
+    /**
+     * Logs the message, errors as SEVERE and everything else as INFO.
+     * Precondition: level and message must not be null.
+     * Post condition: The message is logged.
+     * @param level The severity of the message.
+     * @param message The message text.
+     */
+    @Override
+    public void publish(NotificationSink.Level level, String message)
+    {
+        logger.log(level == NotificationSink.Level.ERROR ? java.util.logging.Level.SEVERE : java.util.logging.Level.INFO, message);
+    }
+}
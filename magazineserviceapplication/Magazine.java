@@ -15,6 +15,11 @@ package magazineserviceapplication;
  *  - Each magazine has a unique title.
  *  - Weekly cost is a positive floating-point number.
  *  - Supplements and customers are managed in separate lists.
+ *  - Changes made through the add, remove and update methods are published to MagazineListeners.
+ *  - Changes made inside runBatch() are published as a single CHANGED event when the batch ends.
+ *  - The lists returned by the getters are immutable snapshots, see snapshot(): they can be read
+ *    by any thread without the magazine's lock and never change under the reader.
+ *  - The serialized form is unchanged: both lists are written as ArrayLists.
  * 
  * @expected input:
  *  - Valid supplements and customers to add to the lists.
@@ -25,21 +30,65 @@ package magazineserviceapplication;
 
 
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Magazine implements Serializable
 {
     
     private static final long serialVersionUID = 1L;
+    
+    // Keeps the serialized form identical to the original ArrayList fields
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("m_title", String.class),
+        new ObjectStreamField("weeklyCost", float.class),
+        new ObjectStreamField("supplementList", ArrayList.class),
+        new ObjectStreamField("customerList", ArrayList.class)
+    };
+    
     private String m_title;
     private float weeklyCost;
     
     // List of available supplements in the magazine
-    private ArrayList<Supplement> supplementList;
+    private transient ChunkedList<Supplement> supplementList;
     
     // List of customers subscribed to the magazine
-    private ArrayList<Customer> customerList;
+    private transient ChunkedList<Customer> customerList;
+    
+    // Last snapshot taken, reused until the version changes
+    private transient volatile MagazineSnapshot snapshot;
+    
+    // Search index over the customers, built on first use and never serialized
+    private transient volatile CustomerSearchIndex searchIndex;
+    
+    // Customers added, removed or edited while the search index is being built, in the order they
+    // were first changed, with whether each one is in the magazine now; null when no build is running
+    private transient ArrayList<Customer> indexBacklog;
+    private transient IdentityHashMap<Customer, Boolean> indexBacklogState;
+    
+    // Customers by ID, built on first lookup and never serialized
+    private transient Map<Integer, Customer> customersById;
+    
+    // Listeners told about every change, created on first registration and never serialized
+    private transient volatile CopyOnWriteArrayList<MagazineListener> listeners;
+    
+    // Number of changes made since the magazine was created or loaded
+    private transient volatile long version;
+    
+    // Nesting depth of runBatch() calls, and whether the current batch changed anything
+    private transient int batchDepth;
+    private transient boolean batchChanged;
     
     
     /**
@@ -49,8 +98,8 @@ public class Magazine implements Serializable
      */
     public Magazine()
     {
-        this.supplementList = new ArrayList<>();  // Initialize empty list of supplements
-        this.customerList = new ArrayList<>();  // Initialize empty list of customers
+        this.supplementList = new ChunkedList<>();  // Initialize empty list of supplements
+        this.customerList = new ChunkedList<>();  // Initialize empty list of customers
     }
     
     
@@ -65,13 +114,28 @@ public class Magazine implements Serializable
     {
         this.m_title = m_title;
         this.weeklyCost = weeklyCost;
-        this.supplementList = new ArrayList<>();  // Initialize empty list of supplements
-        this.customerList = new ArrayList<>();  // Initialize empty list of customers
+        this.supplementList = new ChunkedList<>();  // Initialize empty list of supplements
+        this.customerList = new ChunkedList<>();  // Initialize empty list of customers
 
         
     }
     
     
+    /**
+     * Constructor used by MagazineSnapshot.toMagazine().
+     * Precondition: snapshot must not be null.
+     * Post condition: A magazine holding the snapshot's lists is created, sharing their storage.
+     * @param snapshot The snapshot to copy.
+     */
+    Magazine(MagazineSnapshot snapshot)
+    {
+        this.m_title = snapshot.getTitle();
+        this.weeklyCost = snapshot.getWeeklyCost();
+        this.supplementList = new ChunkedList<>(snapshot.getSupplements());
+        this.customerList = new ChunkedList<>(snapshot.getCustomerList());
+    }
+    
+    
     
     /**
      * Getter for magazine title.
@@ -100,12 +164,12 @@ public class Magazine implements Serializable
     /**
      * Getter for the list of supplements.
      * Precondition: Magazine object exists.
-     * Post condition: Returns the list of supplements.
+     * Post condition: Returns an immutable snapshot of the list of supplements.
      * @return the list of supplements.
      */
-    public ArrayList<Supplement> getSupplements()
+    public List<Supplement> getSupplements()
     {
-        return supplementList;
+        return snapshot().getSupplements();
     }
     
     
@@ -115,15 +179,53 @@ public class Magazine implements Serializable
      * Post condition: Adds the supplement to the magazine's list.
      * @param supplement The supplement to add.
      */
-    public void addSupplement(Supplement supplement) 
+    public synchronized void addSupplement(Supplement supplement) 
     {
         supplementList.add(supplement);
+        fire(MagazineEvent.Kind.ADDED, MagazineEvent.Target.SUPPLEMENT, supplementList.size() - 1, supplement);
+    }
+    
+    
+    /**
+     * Removes a supplement from the magazine's supplement list.
+     * Precondition: Supplement exists in the list.
+     * Post condition: The supplement is removed from the list if present.
+     * @param supplement The supplement to remove.
+     */
+    public synchronized void removeSupplement(Supplement supplement) {
+        int index = supplementList.lastIndexOfSame(supplement);
+        if (index >= 0) {
+            supplementList.remove(index);
+            fire(MagazineEvent.Kind.REMOVED, MagazineEvent.Target.SUPPLEMENT, index, supplement);
+        }
     }
     
     
-    // Removing a single supplement from arraylist of supplement
-    public void removeSupplement(Supplement supplement) {
-        supplementList.remove(supplement);
+    /**
+     * Records that the name or cost of one of the magazine's supplements was edited.
+     * Precondition: The supplement belongs to this magazine.
+     * Post condition: Listeners are told which supplement row changed.
+     * @param supplement The supplement that was edited.
+     */
+    public synchronized void updateSupplement(Supplement supplement) {
+        int index = supplementList.lastIndexOfSame(supplement);
+        if (index >= 0) {
+            fire(MagazineEvent.Kind.UPDATED, MagazineEvent.Target.SUPPLEMENT, index, supplement);
+        }
+    }
+
+
+    
+    /**
+     * Tells whether this very supplement is offered, rather than one with the same name.
+     * Precondition: None.
+     * Post condition: Returns true if the supplement object is in the list.
+     * @param supplement The supplement to look for.
+     * @return true if the magazine offers it.
+     */
+    public synchronized boolean containsSupplement(Supplement supplement)
+    {
+        return supplementList.lastIndexOfSame(supplement) >= 0;
     }
 
 
@@ -131,12 +233,73 @@ public class Magazine implements Serializable
     /**
      * Getter for the list of customers.
      * Precondition: Magazine object exists.
-     * Post condition: Returns the list of customers.
+     * Post condition: Returns an immutable snapshot of the list of customers.
      * @return the list of customers.
      */
-    public ArrayList<Customer> getCustomerList() 
+    public List<Customer> getCustomerList() 
+    {
+        return snapshot().getCustomerList();
+    }
+
+    
+    /**
+     * Returns the number of customers subscribed to the magazine.
+     * Precondition: Magazine object exists.
+     * Post condition: Returns the customer count.
+     * @return the number of customers.
+     */
+    public int getCustomerCount()
+    {
+        return customerList.size();
+    }
+    
+    
+    /**
+     * Tells whether this very customer is subscribed, rather than one with an equal name and email.
+     * Precondition: None.
+     * Post condition: Returns true if the customer object is in the list.
+     * @param customer The customer to look for.
+     * @return true if the customer is in the magazine.
+     */
+    public synchronized boolean containsCustomer(Customer customer)
+    {
+        return customerList.lastIndexOfSame(customer) >= 0;
+    }
+    
+    
+    /**
+     * Returns a page of customers.
+     * Precondition: offset is between 0 and the customer count.
+     * Post condition: Returns a copy of at most limit customers starting at offset.
+     * @param offset Index of the first customer to return.
+     * @param limit Maximum number of customers to return.
+     * @return the requested customers.
+     */
+    public List<Customer> getCustomers(int offset, int limit)
+    {
+        return snapshot().getCustomers(offset, limit);
+    }
+    
+    
+    /**
+     * Returns the customer list as a paged data source for lazily loaded views.
+     * Precondition: Magazine object exists.
+     * Post condition: Returns a source reading pages from this magazine's customer list.
+     * @return a paged view over the customers.
+     */
+    public PagedDataSource<Customer> getCustomerSource()
     {
-        return customerList;
+        return new PagedDataSource<>() {
+            @Override
+            public int size() {
+                return getCustomerCount();
+            }
+
+            @Override
+            public List<Customer> fetch(int offset, int limit) {
+                return getCustomers(offset, limit);
+            }
+        };
     }
 
     
@@ -146,9 +309,18 @@ public class Magazine implements Serializable
      * Post condition: Adds the customer to the magazine's list.
      * @param customer The customer to add.
      */
-    public void addCustomer(Customer customer) 
+    public synchronized void addCustomer(Customer customer) 
     {
         customerList.add(customer);
+        if (searchIndex != null) {
+            searchIndex.add(customer);
+        } else {
+            recordIndexChange(customer, true);
+        }
+        if (customersById != null) {
+            customersById.putIfAbsent(customer.getCustomerId(), customer);
+        }
+        fire(MagazineEvent.Kind.ADDED, MagazineEvent.Target.CUSTOMER, customerList.size() - 1, customer);
     }
 
     /**
@@ -157,10 +329,344 @@ public class Magazine implements Serializable
      * Post condition: The customer is removed from the list if present.
      * @param customer The customer to remove.
      */
-    public void removeCustomer(Customer customer) {
-        customerList.remove(customer);
+    public synchronized void removeCustomer(Customer customer) {
+        int index = customerList.lastIndexOfSame(customer);
+        if (index < 0) {
+            return;
+        }
+        customerList.remove(index);
+        if (searchIndex != null) {
+            searchIndex.remove(customer);
+        } else {
+            recordIndexChange(customer, false);
+        }
+        if (customersById != null) {
+            customersById.remove(customer.getCustomerId(), customer);
+        }
+        fire(MagazineEvent.Kind.REMOVED, MagazineEvent.Target.CUSTOMER, index, customer);
+    }
+    
+    
+    /**
+     * Records that the details of one of the magazine's customers were edited.
+     * Precondition: The customer belongs to this magazine.
+     * Post condition: Derived data such as the search index reflects the customer's new details,
+     *                 and listeners are told which customer row changed.
+     * @param customer The customer that was edited.
+     */
+    public synchronized void updateCustomer(Customer customer) {
+        int index = customerList.lastIndexOfSame(customer);
+        if (index < 0) {
+            return;
+        }
+        if (searchIndex != null) {
+            searchIndex.update(customer);
+        } else {
+            recordIndexChange(customer, true);
+        }
+        fire(MagazineEvent.Kind.UPDATED, MagazineEvent.Target.CUSTOMER, index, customer);
+    }
+    
+    
+    /**
+     * Finds a customer by ID.
+     * Precondition: Magazine object exists.
+     * Post condition: Returns the customer with the ID, building the lookup table on first use.
+     *                 When IDs repeat, the customer added first is returned.
+     * @param customerId The customer ID.
+     * @return the customer, or null if no customer has the ID.
+     */
+    public synchronized Customer getCustomerById(int customerId) {
+        if (customersById == null) {
+            customersById = new HashMap<>(customerList.size() * 2);
+            for (Customer customer : customerList.snapshot()) {
+                customersById.putIfAbsent(customer.getCustomerId(), customer);
+            }
+        }
+        return customersById.get(customerId);
+    }
+    
+    
+    /**
+     * Getter for the customer search index.
+     * Precondition: Magazine object exists.
+     * Post condition: Returns the index, building it from the customer list on first use.
+     *                 Building a large index takes seconds, so the first call should be made off the FX thread.
+     *                 The build reads a snapshot without holding the magazine's lock, so the magazine
+     *                 can be edited meanwhile; those edits are applied to the index before it is installed.
+     * @return the search index over the magazine's customers.
+     */
+    public CustomerSearchIndex getSearchIndex() {
+        CustomerSearchIndex index = searchIndex;
+        if (index != null) {
+            return index;
+        }
+        List<Customer> customers;
+        synchronized (this) {
+            if (searchIndex != null) {
+                return searchIndex;
+            }
+            // A build already running keeps its backlog, which covers this snapshot as well
+            if (indexBacklog == null) {
+                indexBacklog = new ArrayList<>();
+                indexBacklogState = new IdentityHashMap<>();
+            }
+            customers = customerList.snapshot();
+        }
+
+        index = new CustomerSearchIndex(customers);
+
+        synchronized (this) {
+            if (searchIndex != null) {
+                return searchIndex;
+            }
+            // Replaying a change the snapshot already holds leaves the index as it is
+            for (Customer customer : indexBacklog) {
+                Boolean present = indexBacklogState.remove(customer);
+                if (present == null) {
+                    continue;
+                }
+                if (present) {
+                    index.update(customer);
+                } else {
+                    index.remove(customer);
+                }
+            }
+            indexBacklog = null;
+            indexBacklogState = null;
+            searchIndex = index;
+            return index;
+        }
+    }
+    
+    
+    /**
+     * Notes a change to the customers for the search index being built, if any.
+     * Precondition: Called with the magazine's lock held.
+     * Post condition: The change is applied when the index is installed.
+     */
+    private void recordIndexChange(Customer customer, boolean present) {
+        if (indexBacklog != null && indexBacklogState.put(customer, present) == null) {
+            indexBacklog.add(customer);
+        }
+    }
+    
+    
+    /**
+     * Tidies the magazine before it is saved: customers share the magazine's supplement objects
+     * instead of equal copies, associates that are no longer customers are dropped from their
+     * paying customer, and list storage left part empty by deletions is packed.
+     * Precondition: Magazine object exists.
+     * Post condition: The magazine holds the same customers and supplements in a smaller serialized form.
+     *                 If anything was fixed or packed, the version moves on and a CHANGED event is
+     *                 published; a magazine that was already tidy is left unchanged and clean.
+     * @return the number of supplement references and associates that were fixed.
+     */
+    public synchronized int compact() {
+        Map<String, Supplement> canonical = new HashMap<>();
+        for (Supplement supplement : supplementList.snapshot()) {
+            canonical.putIfAbsent(supplement.getName() + "\u0000" + supplement.getCost(), supplement);
+        }
+        Set<Customer> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Customer> customers = customerList.snapshot();
+        members.addAll(customers);
+
+        int fixed = 0;
+        for (Customer customer : customers) {
+            // Billing and snapshot saves iterate the list under its monitor, so it is not changed in
+            // place: a fixed copy replaces it while the monitor is held
+            ArrayList<Supplement> supplements = customer.getSupplement();
+            synchronized (supplements) {
+                ArrayList<Supplement> replaced = null;
+                for (int i = 0; i < supplements.size(); i++) {
+                    Supplement supplement = supplements.get(i);
+                    Supplement shared = canonical.get(supplement.getName() + "\u0000" + supplement.getCost());
+                    if (shared != null && shared != supplement) {
+                        if (replaced == null) {
+                            replaced = new ArrayList<>(supplements);
+                        }
+                        replaced.set(i, shared);
+                        fixed++;
+                    }
+                }
+                if (replaced != null) {
+                    customer.setSupplement(replaced);
+                }
+            }
+            if (customer instanceof PayingCustomer) {
+                PayingCustomer payingCustomer = (PayingCustomer) customer;
+                for (Customer associate : payingCustomer.getAssociateCustomers()) {
+                    if (!members.contains(associate)) {
+                        payingCustomer.removeAssociateCustomer(associate);
+                        fixed++;
+                    }
+                }
+            }
+        }
+        boolean packed = supplementList.trimToSize();
+        packed |= customerList.trimToSize();
+        if (fixed > 0 || packed) {
+            fire(MagazineEvent.Kind.CHANGED, MagazineEvent.Target.MAGAZINE, -1, null);
+        }
+        return fixed;
+    }
+    
+    
+    /**
+     * Registers a listener for changes to the supplement and customer lists.
+     * Precondition: listener must not be null.
+     * Post condition: The listener receives every later change until it is removed.
+     * @param listener The listener to add.
+     */
+    public synchronized void addMagazineListener(MagazineListener listener) {
+        if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
+        }
+        listeners.add(listener);
+    }
+    
+    
+    /**
+     * Removes a listener added with addMagazineListener.
+     * Precondition: None.
+     * Post condition: The listener receives no further changes.
+     * @param listener The listener to remove.
+     */
+    public synchronized void removeMagazineListener(MagazineListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+    
+    
+    /**
+     * Tells whether anything is listening to this magazine, for example an open view.
+     * Precondition: None.
+     * Post condition: Returns true if at least one listener is registered.
+     * @return true if the magazine has listeners.
+     */
+    public boolean hasMagazineListeners() {
+        CopyOnWriteArrayList<MagazineListener> current = listeners;
+        return current != null && !current.isEmpty();
     }
+    
+    
+    /**
+     * Tells the listeners that this magazine was replaced by a newer copy and should no longer be shown.
+     * Precondition: replacement must not be null.
+     * Post condition: Every listener receives a REPLACED event carrying the replacement.
+     * @param replacement The magazine that replaces this one.
+     */
+    synchronized void replacedBy(Magazine replacement) {
+        fire(MagazineEvent.Kind.REPLACED, MagazineEvent.Target.MAGAZINE, -1, replacement);
+    }
+    
+    
+    /**
+     * Returns the number of changes made through this magazine's methods since it was created or loaded.
+     * Precondition: Magazine object exists.
+     * Post condition: Returns a value that grows with every published change.
+     * @return the change counter.
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    
+    /**
+     * Returns the supplement and customer lists as they are now, for reading while the magazine
+     * goes on being edited, for example by a save or an export running in the background.
+     * Precondition: None.
+     * Post condition: Returns a snapshot that later changes do not affect. Until the magazine
+     *                 changes, the same snapshot is returned; otherwise taking one copies a small
+     *                 table, not the customers, and holds the lock only while doing so.
+     * @return the snapshot.
+     */
+    public MagazineSnapshot snapshot() {
+        MagazineSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+                current = new MagazineSnapshot(m_title, weeklyCost, version, supplementList.snapshot(), customerList.snapshot());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+    
+    
+    /**
+     * Makes a batch of changes while holding the magazine's lock. The listeners are told once, with
+     * a CHANGED event, when the outermost batch ends, instead of once per change.
+     * Precondition: changes must not be null.
+     * Post condition: The changes are made and, if any was, a single CHANGED event is published,
+     *                 also when a change throws.
+     * @param changes The changes, made through this magazine's add, remove and update methods.
+     */
+    public synchronized void runBatch(Runnable changes) {
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
+            if (batchDepth == 0 && batchChanged) {
+                batchChanged = false;
+                fire(MagazineEvent.Kind.CHANGED, MagazineEvent.Target.MAGAZINE, -1, null);
+            }
+        }
+    }
+    
+    
+    /**
+     * Bumps the version and tells the listeners about a change. Called with the magazine locked.
+     * Inside a batch, the listeners are told once the batch ends.
+     */
+    private void fire(MagazineEvent.Kind kind, MagazineEvent.Target target, int index, Object entity) {
+        version++;
+        if (batchDepth > 0) {
+            batchChanged = true;
+            return;
+        }
+        if (listeners == null || listeners.isEmpty()) {
+            return;
+        }
 
+        MagazineEvent event = new MagazineEvent(this, kind, target, index, entity, version);
+        for (MagazineListener listener : listeners) {
+            listener.magazineChanged(event);
+        }
+    }
     
     
-}
\ No newline at end of file
+    /**
+     * Writes the lists as the ArrayLists of the original form, from a snapshot, so a magazine can be
+     * saved while it is being edited.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        MagazineSnapshot current = snapshot();
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("m_title", current.getTitle());
+        fields.put("weeklyCost", current.getWeeklyCost());
+        fields.put("supplementList", new ArrayList<>(current.getSupplements()));
+        fields.put("customerList", new ArrayList<>(current.getCustomerList()));
+        out.writeFields();
+    }
+    
+    
+    /**
+     * Reads the original form back into chunked lists.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        m_title = (String) fields.get("m_title", null);
+        weeklyCost = fields.get("weeklyCost", 0f);
+        List<Supplement> supplements = (List<Supplement>) fields.get("supplementList", null);
+        List<Customer> customers = (List<Customer>) fields.get("customerList", null);
+        supplementList = supplements == null ? new ChunkedList<>() : new ChunkedList<>(supplements);
+        customerList = customers == null ? new ChunkedList<>() : new ChunkedList<>(customers);
+    }
+}
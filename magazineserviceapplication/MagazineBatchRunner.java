@@ -0,0 +1,538 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineBatchRunner.java
+ * @purpose This class is the headless entry point for month-end work. It runs a pipeline of steps
+ *          (load, import, bill, export, compact, save) over every magazine file in a directory,
+ *          several magazines at a time, and reports timing statistics as JSON.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Magazines are the `.ser` files of the data directory; with the import step, a `<name>.csv`
+ *    in the import directory without a matching `.ser` creates a new magazine.
+ *  - Each magazine is processed by one thread from load to save and dropped afterwards, so
+ *    memory use is bounded by the number of threads.
+ *  - Only the core classes are used, no JavaFX runtime or display is needed.
+ *
+ * @expected input:
+ *  - Command line options, see usage().
+ *
+ * @expected output:
+ *  - CSV files in the output directory, rewritten `.ser` files, one progress line per magazine
+ *    on standard error and a JSON report on standard output or in the stats file.
+ *  - Exit status 0 when every magazine succeeded, 1 when any failed and 2 for usage errors.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MagazineBatchRunner
+{
+    /**
+     * Steps of the pipeline, in the order they run for each magazine.
+     */
+    public enum Step
+    {
+        LOAD,
+        IMPORT,
+        BILL,
+        EXPORT,
+        COMPACT,
+        SAVE
+    }
+
+    private final File dataDirectory;
+    private final File outputDirectory;
+    private final File importDirectory;
+    private final List<Step> steps;
+    private final int threads;
+    private final PrintStream progress;
+
+    // Completed magazines, for the progress counter
+    private final AtomicInteger completed = new AtomicInteger();
+
+
+    /**
+     * Outcome of one magazine.
+     */
+    public static class MagazineReport
+    {
+        private final String name;
+        private final Map<Step, Long> stepNanos = new EnumMap<>(Step.class);
+        private boolean succeeded;
+        private String error;
+        private int customers;
+        private int imported;
+        private int skipped;
+        private int compacted;
+        private double billedTotal;
+        private long totalNanos;
+
+        private MagazineReport(String name)
+        {
+            this.name = name;
+        }
+
+        /**
+         * Getter for the magazine name.
+         * @return the name.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns whether every step succeeded.
+         * @return true if the magazine was processed without errors.
+         */
+        public boolean isSucceeded()
+        {
+            return succeeded;
+        }
+
+        /**
+         * Getter for the error that stopped the pipeline.
+         * @return the error message, or null.
+         */
+        public String getError()
+        {
+            return error;
+        }
+    }
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: dataDirectory exists; threads is positive.
+     * Post condition: A runner for the given pipeline is created.
+     *
+     * @param dataDirectory Directory holding the `.ser` files.
+     * @param outputDirectory Directory receiving CSV exports and bills.
+     * @param importDirectory Directory holding `<name>.csv` files for the import step, may be null.
+     * @param steps Steps to run; LOAD is added when missing.
+     * @param threads Number of magazines processed at once.
+     * @param progress Where progress lines go, or null for none.
+     */
+    public MagazineBatchRunner(File dataDirectory, File outputDirectory, File importDirectory,
+            List<Step> steps, int threads, PrintStream progress)
+    {
+        this.dataDirectory = dataDirectory;
+        this.outputDirectory = outputDirectory;
+        this.importDirectory = importDirectory;
+        this.steps = new ArrayList<>(new TreeSet<>(steps));
+        if (!this.steps.contains(Step.LOAD)) {
+            this.steps.add(0, Step.LOAD);
+        }
+        this.threads = threads;
+        this.progress = progress;
+    }
+
+
+    /**
+     * Runs the pipeline over every magazine in the data directory.
+     * Precondition: None.
+     * Post condition: Every magazine has been processed; failures are recorded, not thrown.
+     *
+     * @return one report per magazine, in name order.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public List<MagazineReport> run() throws InterruptedException
+    {
+        List<String> names = findMagazines();
+        List<MagazineReport> reports = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("magazine-batch-", 0).daemon().factory());
+        try {
+            List<Future<MagazineReport>> futures = new ArrayList<>();
+            for (String name : names) {
+                futures.add(pool.submit(() -> process(name, names.size())));
+            }
+            for (Future<MagazineReport> future : futures) {
+                try {
+                    reports.add(future.get());
+                } catch (ExecutionException e) {
+                    // process() records its own failures, so this is a bug in the runner itself
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return reports;
+    }
+
+
+    /**
+     * Lists the magazines to process: every `.ser` file, plus every import file when importing.
+     */
+    private List<String> findMagazines()
+    {
+        TreeSet<String> names = new TreeSet<>();
+        addNames(names, dataDirectory, ".ser");
+        if (steps.contains(Step.IMPORT) && importDirectory != null) {
+            addNames(names, importDirectory, ".csv");
+        }
+        return new ArrayList<>(names);
+    }
+
+
+    private static void addNames(TreeSet<String> names, File directory, String suffix)
+    {
+        File[] files = directory.listFiles((dir, fileName) -> fileName.endsWith(suffix));
+        if (files != null) {
+            for (File file : files) {
+                names.add(file.getName().substring(0, file.getName().length() - suffix.length()));
+            }
+        }
+    }
+
+
+    /**
+     * Runs every step for one magazine, stopping at the first failure.
+     */
+    private MagazineReport process(String name, int total)
+    {
+        MagazineReport report = new MagazineReport(name);
+        CapturingNotificationSink messages = new CapturingNotificationSink();
+        MagazineServiceHandler handler = new MagazineServiceHandler(messages, dataDirectory);
+        long start = System.nanoTime();
+        Step current = null;
+        try {
+            for (Step step : steps) {
+                current = step;
+                long stepStart = System.nanoTime();
+                runStep(step, name, handler, messages, report);
+                report.stepNanos.put(step, System.nanoTime() - stepStart);
+            }
+            report.succeeded = true;
+        } catch (IOException | RuntimeException e) {
+            report.error = current.name().toLowerCase(Locale.ROOT) + ": " + e.getMessage();
+        } finally {
+            handler.removeMagazine(name);
+        }
+        report.totalNanos = System.nanoTime() - start;
+
+        int done = completed.incrementAndGet();
+        if (progress != null) {
+            progress.printf("[%d/%d] %s %s %d ms%s%n", done, total, name,
+                    report.succeeded ? "ok" : "FAILED", report.totalNanos / 1_000_000,
+                    report.succeeded ? "" : " (" + report.error + ")");
+        }
+        return report;
+    }
+
+
+    private void runStep(Step step, String name, MagazineServiceHandler handler,
+            CapturingNotificationSink messages, MagazineReport report) throws IOException
+    {
+        switch (step) {
+            case LOAD:
+                if (handler.getMagazineFile(name).exists()) {
+                    if (!handler.loadMagazineFromFile(name)) {
+                        throw new IOException(lastMessage(messages));
+                    }
+                } else {
+                    handler.addMagazine(name);
+                }
+                report.customers = handler.getMagazine(name).getCustomerCount();
+                break;
+            case IMPORT:
+                File csv = importDirectory == null ? null : new File(importDirectory, name + ".csv");
+                if (csv != null && csv.exists()) {
+                    MagazineFlightEvents.Load event = new MagazineFlightEvents.Load();
+                    event.begin();
+                    try (BufferedReader in = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+                        MagazineCsv.ImportResult result = MagazineCsv.importCustomers(handler.getMagazine(name), in);
+                        report.imported = result.getImported();
+                        report.skipped = result.getSkipped();
+                        if (progress != null) {
+                            for (String problem : result.getProblems()) {
+                                progress.println(name + ".csv " + problem);
+                            }
+                        }
+                    }
+                    report.customers = handler.getMagazine(name).getCustomerCount();
+                    commitCsvEvent(event, name, report.customers, csv);
+                }
+                break;
+            case BILL:
+                try (Writer out = newOutput(name + "-billing.csv")) {
+                    report.billedTotal = MagazineCsv.exportBilling(handler.getMagazine(name), out);
+                }
+                break;
+            case EXPORT:
+                MagazineFlightEvents.Save event = new MagazineFlightEvents.Save();
+                event.begin();
+                int exported;
+                try (Writer out = newOutput(name + "-customers.csv")) {
+                    exported = MagazineCsv.exportCustomers(handler.getMagazine(name), out);
+                }
+                commitCsvEvent(event, name, exported, new File(outputDirectory, name + "-customers.csv"));
+                break;
+            case COMPACT:
+                report.compacted = handler.getMagazine(name).compact();
+                break;
+            case SAVE:
+                if (!handler.saveMagazineToFile(name)) {
+                    throw new IOException(lastMessage(messages));
+                }
+                break;
+        }
+    }
+
+
+    private Writer newOutput(String fileName) throws IOException
+    {
+        return Files.newBufferedWriter(new File(outputDirectory, fileName).toPath(), StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Finishes the flight recorder event of a CSV import or export, if a recording wants it.
+     */
+    private static void commitCsvEvent(MagazineFlightEvents.Load event, String name, int customers, File file)
+    {
+        if (event.shouldCommit()) {
+            event.magazineName = name;
+            event.customerCount = customers;
+            event.bytes = file.length();
+            event.format = MagazineFlightEvents.FORMAT_CSV;
+            event.succeeded = true;
+            event.commit();
+        }
+    }
+
+
+    private static void commitCsvEvent(MagazineFlightEvents.Save event, String name, int customers, File file)
+    {
+        if (event.shouldCommit()) {
+            event.magazineName = name;
+            event.customerCount = customers;
+            event.bytes = file.length();
+            event.format = MagazineFlightEvents.FORMAT_CSV;
+            event.succeeded = true;
+            event.commit();
+        }
+    }
+
+
+
+    private static String lastMessage(CapturingNotificationSink messages)
+    {
+        List<String> all = messages.getMessages();
+        return all.isEmpty() ? "unknown error" : all.get(all.size() - 1);
+    }
+
+
+    /**
+     * Writes the run statistics as one JSON object.
+     * Precondition: All parameters must be initialized.
+     * Post condition: Totals, per step timings and per magazine results are written.
+     *
+     * @param reports The reports returned by run().
+     * @param wallNanos Elapsed time of the whole run.
+     * @param out Where the JSON goes.
+     */
+    public void writeStats(List<MagazineReport> reports, long wallNanos, Appendable out)
+    {
+        int failed = 0;
+        long customers = 0;
+        double billed = 0;
+        Map<Step, long[]> stepTotals = new LinkedHashMap<>();
+        for (Step step : steps) {
+            stepTotals.put(step, new long[3]); // count, total nanos, max nanos
+        }
+        for (MagazineReport report : reports) {
+            if (!report.succeeded) {
+                failed++;
+            }
+            customers += report.customers;
+            billed += report.billedTotal;
+            for (Map.Entry<Step, Long> entry : report.stepNanos.entrySet()) {
+                long[] totals = stepTotals.get(entry.getKey());
+                totals[0]++;
+                totals[1] += entry.getValue();
+                totals[2] = Math.max(totals[2], entry.getValue());
+            }
+        }
+
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject()
+            .field("magazines", reports.size())
+            .field("succeeded", reports.size() - failed)
+            .field("failed", failed)
+            .field("threads", threads)
+            .field("customers", customers)
+            .field("billedTotal", Math.round(billed * 100) / 100.0)
+            .field("wallMillis", wallNanos / 1_000_000);
+
+        json.name("steps").beginObject();
+        for (Map.Entry<Step, long[]> entry : stepTotals.entrySet()) {
+            long[] totals = entry.getValue();
+            json.name(entry.getKey().name().toLowerCase(Locale.ROOT)).beginObject()
+                .field("count", totals[0])
+                .field("totalMillis", totals[1] / 1_000_000)
+                .field("meanMillis", totals[0] == 0 ? 0 : totals[1] / totals[0] / 1_000_000)
+                .field("maxMillis", totals[2] / 1_000_000)
+                .endObject();
+        }
+        json.endObject();
+
+        json.name("results").beginArray();
+        for (MagazineReport report : reports) {
+            json.beginObject()
+                .field("name", report.name)
+                .field("ok", report.succeeded)
+                .field("customers", report.customers)
+                .field("millis", report.totalNanos / 1_000_000);
+            if (report.stepNanos.containsKey(Step.IMPORT)) {
+                json.field("imported", report.imported).field("skipped", report.skipped);
+            }
+            if (report.stepNanos.containsKey(Step.BILL)) {
+                json.field("billedTotal", Math.round(report.billedTotal * 100) / 100.0);
+            }
+            if (report.stepNanos.containsKey(Step.COMPACT)) {
+                json.field("compacted", report.compacted);
+            }
+            if (report.error != null) {
+                json.field("error", report.error);
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+
+    /**
+     * Prints the command line usage.
+     */
+    private static void usage(PrintStream out)
+    {
+        out.println("Usage: java -cp magazine-core.jar magazineserviceapplication.MagazineBatchRunner [options]");
+        out.println();
+        out.println("  --dir <path>        directory holding the .ser files (required)");
+        out.println("  --steps <list>      comma separated steps: load,import,bill,export,compact,save");
+        out.println("                      (default: load,bill)");
+        out.println("  --out <path>        directory for CSV output (default: --dir)");
+        out.println("  --import-dir <path> directory holding <magazine>.csv files for the import step");
+        out.println("  --threads <n>       magazines processed at once (default: available processors)");
+        out.println("  --stats <file>      write the JSON report to a file instead of standard output");
+        out.println("  --quiet             no progress lines on standard error");
+    }
+
+
+    /**
+     * Command line entry point.
+     * Precondition: None.
+     * Post condition: The pipeline has run and the process exits with 0, 1 or 2.
+     *
+     * @param args command line options, see usage().
+     */
+    public static void main(String[] args)
+    {
+        long start = System.nanoTime();
+        File dir = null;
+        File out = null;
+        File importDir = null;
+        File stats = null;
+        List<Step> steps = List.of(Step.LOAD, Step.BILL);
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean quiet = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--dir":
+                        dir = new File(args[++i]);
+                        break;
+                    case "--out":
+                        out = new File(args[++i]);
+                        break;
+                    case "--import-dir":
+                        importDir = new File(args[++i]);
+                        break;
+                    case "--stats":
+                        stats = new File(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        if (threads < 1) {
+                            throw new IllegalArgumentException("--threads must be at least 1");
+                        }
+                        break;
+                    case "--steps":
+                        List<Step> parsed = new ArrayList<>();
+                        for (String step : args[++i].split(",")) {
+                            parsed.add(Step.valueOf(step.trim().toUpperCase(Locale.ROOT)));
+                        }
+                        steps = parsed;
+                        break;
+                    case "--quiet":
+                        quiet = true;
+                        break;
+                    case "--help":
+                        usage(System.out);
+                        System.exit(0);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (dir == null || !dir.isDirectory()) {
+                throw new IllegalArgumentException("--dir must name an existing directory");
+            }
+            if (steps.contains(Step.IMPORT) && (importDir == null || !importDir.isDirectory())) {
+                throw new IllegalArgumentException("the import step needs an existing --import-dir");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            usage(System.err);
+            System.exit(2);
+            return;
+        }
+        if (out == null) {
+            out = dir;
+        }
+        out.mkdirs();
+
+        MagazineBatchRunner runner = new MagazineBatchRunner(dir, out, importDir, steps, threads, quiet ? null : System.err);
+        try {
+            List<MagazineReport> reports = runner.run();
+            StringBuilder json = new StringBuilder();
+            runner.writeStats(reports, System.nanoTime() - start, json);
+            if (stats != null) {
+                Files.writeString(stats.toPath(), json.append('\n'), StandardCharsets.UTF_8);
+            } else {
+                System.out.println(json);
+            }
+            System.exit(reports.stream().allMatch(MagazineReport::isSucceeded) ? 0 : 1);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Batch run failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
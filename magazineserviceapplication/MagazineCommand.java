@@ -0,0 +1,56 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineCommand.java
+ * @purpose This interface is implemented by every change the Edit mode can make to a magazine, so
+ *          changes can be applied in batches, recorded and undone.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Commands are applied and undone through MagazineEditor, with the magazine's lock held, so the
+ *    state a command records when it is applied is the state it changed.
+ *  - A command remembers what it changed: undo() only follows a successful apply(), and apply()
+ *    after undo() redoes the same change on the same customer or supplement.
+ *
+ * @expected input:
+ *  - The editor of the magazine to change.
+ *
+ * @expected output:
+ *  - Whether the change could be made.
+ */
+
+public interface MagazineCommand
+{
+    /**
+     * Makes the change, or makes it again after undo().
+     * Precondition: Called with the magazine's lock held.
+     * Post condition: The change is made, or the magazine is unchanged if it cannot be.
+     * @param editor The editor of the magazine to change.
+     * @return true if the change was made, false if it was refused.
+     */
+    boolean apply(MagazineEditor editor);
+
+
+    /**
+     * Reverts the change made by the last apply().
+     * Precondition: Called with the magazine's lock held, after apply() returned true.
+     * Post condition: The magazine is as before the change, or unchanged if that is no longer possible.
+     * @param editor The editor of the magazine to change.
+     * @return true if the change was reverted, false if it was refused.
+     */
+    boolean undo(MagazineEditor editor);
+
+
+    /**
+     * Describes the change for the undo and redo buttons and the journal.
+     * Precondition: None.
+     * Post condition: Returns a short text such as "Add customer john smith".
+     * @return the description.
+     */
+    String describe();
+}
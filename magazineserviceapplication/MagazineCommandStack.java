@@ -0,0 +1,248 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineCommandStack.java
+ * @purpose This class applies commands to one magazine and keeps the batches applied, so an operator
+ *          can undo and redo them, and hands every applied, undone or redone batch to a journal.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - A batch is applied, undone and redone as a whole: under one acquisition of the magazine's
+ *    lock and with one change event, see MagazineEditor.apply().
+ *  - Only the commands of a batch that were applied are kept; a batch that applied nothing is not
+ *    recorded. Applying a new batch clears the redo history.
+ *  - Undo can be refused by a command, for example when a supplement added by it has subscribers
+ *    by now. The commands undone move to the redo history, the rest are forgotten.
+ *  - The undo history holds at most the given number of batches; the oldest are dropped first.
+ *  - The journal is called with the stack's lock held, in the order the batches were applied.
+ *
+ * @expected input:
+ *  - The magazine, and the commands made by the Edit mode.
+ *
+ * @expected output:
+ *  - The changed magazine, and the descriptions of the next undo and redo.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+public class MagazineCommandStack
+{
+    public static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * What the journal is told about a batch.
+     */
+    public enum Action
+    {
+        APPLIED,
+        UNDONE,
+        REDONE
+    }
+
+    /**
+     * Receives every batch the stack applies, undoes or redoes, for example to record it.
+     */
+    public interface Journal
+    {
+        /**
+         * Called after a batch changed the magazine.
+         * Precondition: commands is not empty.
+         * Post condition: Implementation defined.
+         * @param action What was done with the batch.
+         * @param commands The commands that changed the magazine, in the order they were applied.
+         */
+        void record(Action action, List<MagazineCommand> commands);
+    }
+
+    private final MagazineEditor editor;
+    private final int limit;
+    private final Deque<List<MagazineCommand>> undoBatches = new ArrayDeque<>();
+    private final Deque<List<MagazineCommand>> redoBatches = new ArrayDeque<>();
+    private Journal journal;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: magazine must not be null.
+     * Post condition: An empty history for the magazine, holding up to DEFAULT_LIMIT batches.
+     * @param magazine The magazine the commands change.
+     */
+    public MagazineCommandStack(Magazine magazine)
+    {
+        this(magazine, DEFAULT_LIMIT);
+    }
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: magazine must not be null; limit must be positive.
+     * Post condition: An empty history for the magazine.
+     * @param magazine The magazine the commands change.
+     * @param limit The most batches that can be undone.
+     */
+    public MagazineCommandStack(Magazine magazine, int limit)
+    {
+        this.editor = new MagazineEditor(magazine);
+        this.limit = limit;
+    }
+
+
+    /**
+     * @return the magazine the commands change.
+     */
+    public Magazine getMagazine()
+    {
+        return editor.getMagazine();
+    }
+
+
+    /**
+     * Sets the journal told about every batch from now on.
+     * Precondition: None.
+     * Post condition: The journal replaces any earlier one; null removes it.
+     * @param journal The journal, or null.
+     */
+    public synchronized void setJournal(Journal journal)
+    {
+        this.journal = journal;
+    }
+
+
+    /**
+     * Applies one command.
+     * Precondition: command must not be null.
+     * Post condition: If the command was applied, it can be undone.
+     * @param command The command.
+     * @return true if it was applied, false if it was refused.
+     */
+    public boolean execute(MagazineCommand command)
+    {
+        return !execute(Arrays.asList(command)).isEmpty();
+    }
+
+
+    /**
+     * Applies a batch of commands, which is then undone and redone as a whole.
+     * Precondition: commands must not be null.
+     * Post condition: The commands applied can be undone together.
+     * @param commands The commands, in the order they are applied.
+     * @return the commands that were applied; the others were refused.
+     */
+    public synchronized List<MagazineCommand> execute(List<? extends MagazineCommand> commands)
+    {
+        List<MagazineCommand> applied = editor.apply(commands);
+        if (!applied.isEmpty()) {
+            undoBatches.push(applied);
+            while (undoBatches.size() > limit) {
+                undoBatches.removeLast();
+            }
+            redoBatches.clear();
+            record(Action.APPLIED, applied);
+        }
+        return applied;
+    }
+
+
+    /**
+     * Undoes the last batch applied or redone.
+     * Precondition: None.
+     * Post condition: The batch moves to the redo history, without the commands that refused.
+     * @return true if every command of the batch was undone, false if one refused or there is nothing to undo.
+     */
+    public synchronized boolean undo()
+    {
+        List<MagazineCommand> batch = undoBatches.poll();
+        if (batch == null) {
+            return false;
+        }
+        List<MagazineCommand> undone = editor.undo(batch);
+        if (!undone.isEmpty()) {
+            redoBatches.push(undone);
+            record(Action.UNDONE, undone);
+        }
+        return undone.size() == batch.size();
+    }
+
+
+    /**
+     * Applies the last undone batch again.
+     * Precondition: None.
+     * Post condition: The batch moves back to the undo history, without the commands that refused.
+     * @return true if every command of the batch was applied, false if one refused or there is nothing to redo.
+     */
+    public synchronized boolean redo()
+    {
+        List<MagazineCommand> batch = redoBatches.poll();
+        if (batch == null) {
+            return false;
+        }
+        List<MagazineCommand> applied = editor.apply(batch);
+        if (!applied.isEmpty()) {
+            undoBatches.push(applied);
+            record(Action.REDONE, applied);
+        }
+        return applied.size() == batch.size();
+    }
+
+
+    /**
+     * @return true if there is a batch to undo.
+     */
+    public synchronized boolean canUndo()
+    {
+        return !undoBatches.isEmpty();
+    }
+
+
+    /**
+     * @return true if there is a batch to redo.
+     */
+    public synchronized boolean canRedo()
+    {
+        return !redoBatches.isEmpty();
+    }
+
+
+    /**
+     * @return what undo() would revert, such as "Add customer john smith", or null if nothing.
+     */
+    public synchronized String getUndoDescription()
+    {
+        return describe(undoBatches.peek());
+    }
+
+
+    /**
+     * @return what redo() would apply again, or null if nothing.
+     */
+    public synchronized String getRedoDescription()
+    {
+        return describe(redoBatches.peek());
+    }
+
+
+    private static String describe(List<MagazineCommand> batch)
+    {
+        if (batch == null) {
+            return null;
+        }
+        String first = batch.get(0).describe();
+        return batch.size() == 1 ? first : first + " and " + (batch.size() - 1) + " more";
+    }
+
+
+    private void record(Action action, List<MagazineCommand> commands)
+    {
+        if (journal != null) {
+            journal.record(action, commands);
+        }
+    }
+}
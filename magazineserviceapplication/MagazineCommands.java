@@ -0,0 +1,473 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineCommands.java
+ * @purpose This class holds the commands for every change the Edit mode makes: adding, editing and
+ *          deleting supplements, paying customers and associate customers.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Input has been validated by the caller, as for MagazineEditor.
+ *  - An edit records the details it replaces when it is applied, and puts them back on undo. A
+ *    delete records the paying customer of an associate, so undo lists it there again.
+ *  - An add creates its customer or supplement the first time it is applied; redo adds the same
+ *    one again, so later commands that refer to it still work.
+ *  - Undo is refused when it would break the magazine: a supplement with subscribers is not
+ *    deleted, a paying customer with associates is not deleted, and an associate whose paying
+ *    customer has gone is not put back.
+ *  - Edits and deletes are given the version of the customer or supplement the operator saw, and
+ *    are refused if it was edited since. Each command then follows the versions its own changes
+ *    make, so undo and redo are refused too if someone else edited the object in between.
+ *
+ * @expected input:
+ *  - The details entered in the Edit mode and the customer or supplement they apply to.
+ *
+ * @expected output:
+ *  - Commands for MagazineEditor.apply() and MagazineCommandStack.
+ */
+
+import java.util.ArrayList;
+
+public final class MagazineCommands
+{
+    private MagazineCommands()
+    {
+    }
+
+
+    /**
+     * The details of a customer that the Edit mode's form sets.
+     */
+    private static final class CustomerDetails
+    {
+        private final String name;
+        private final String email;
+        private final Address address;
+        private final ArrayList<Supplement> supplements;
+
+        private CustomerDetails(String name, String email, Address address, ArrayList<Supplement> supplements)
+        {
+            this.name = name;
+            this.email = email;
+            this.address = address;
+            this.supplements = new ArrayList<>(supplements);
+        }
+
+        private static CustomerDetails of(Customer customer)
+        {
+            return new CustomerDetails(customer.getName(), customer.getEmail(), customer.getAddress(), customer.getSupplement());
+        }
+    }
+
+
+    /**
+     * Adds a new supplement.
+     */
+    public static final class AddSupplement implements MagazineCommand
+    {
+        private final String name;
+        private final float cost;
+        private Supplement supplement;
+        private long version;
+
+        public AddSupplement(String name, float cost)
+        {
+            this.name = name;
+            this.cost = cost;
+        }
+
+        /** @return the supplement added, or null before the first apply(). */
+        public Supplement getSupplement() { return supplement; }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            if (supplement == null) {
+                supplement = editor.addSupplement(name, cost);
+                version = supplement.getVersion();
+                return true;
+            }
+            return editor.restoreSupplement(supplement);
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (!editor.removeSupplement(supplement, version)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Add supplement " + name;
+        }
+    }
+
+
+    /**
+     * Changes the name and cost of a supplement.
+     */
+    public static final class EditSupplement implements MagazineCommand
+    {
+        private final Supplement supplement;
+        private final String name;
+        private final float cost;
+        private long version;
+        private String oldName;
+        private float oldCost;
+
+        /**
+         * @param expectedVersion The version of the supplement when its details were shown.
+         */
+        public EditSupplement(Supplement supplement, long expectedVersion, String name, float cost)
+        {
+            this.supplement = supplement;
+            this.version = expectedVersion;
+            this.name = name;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            String currentName = supplement.getName();
+            float currentCost = supplement.getCost();
+            if (!editor.editSupplement(supplement, version, name, cost)) {
+                return false;
+            }
+            version++;
+            oldName = currentName;
+            oldCost = currentCost;
+            return true;
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (!editor.editSupplement(supplement, version, oldName, oldCost)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Edit supplement " + name;
+        }
+    }
+
+
+    /**
+     * Deletes a supplement nobody is subscribed to.
+     */
+    public static final class RemoveSupplement implements MagazineCommand
+    {
+        private final Supplement supplement;
+        private long version;
+
+        /**
+         * @param expectedVersion The version of the supplement when it was chosen.
+         */
+        public RemoveSupplement(Supplement supplement, long expectedVersion)
+        {
+            this.supplement = supplement;
+            this.version = expectedVersion;
+        }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            if (!editor.removeSupplement(supplement, version)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            return editor.restoreSupplement(supplement);
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Delete supplement " + supplement.getName();
+        }
+    }
+
+
+    /**
+     * Adds a new paying customer.
+     */
+    public static final class AddPayingCustomer implements MagazineCommand
+    {
+        private final CustomerDetails details;
+        private final PaymentMethod paymentMethod;
+        private PayingCustomer customer;
+        private long version;
+
+        public AddPayingCustomer(String name, String email, Address address, ArrayList<Supplement> supplements,
+                PaymentMethod paymentMethod)
+        {
+            this.details = new CustomerDetails(name, email, address, supplements);
+            this.paymentMethod = paymentMethod;
+        }
+
+        /** @return the customer added, or null before the first apply(). */
+        public PayingCustomer getCustomer() { return customer; }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            if (customer == null) {
+                customer = editor.addPayingCustomer(details.name, details.email, details.address,
+                        details.supplements, paymentMethod);
+                version = customer.getVersion();
+                return true;
+            }
+            return editor.restoreCustomer(customer, null);
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (!editor.removeCustomer(customer, version)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Add paying customer " + details.name.toLowerCase();
+        }
+    }
+
+
+    /**
+     * Adds a new associate customer paid for by a paying customer.
+     */
+    public static final class AddAssociateCustomer implements MagazineCommand
+    {
+        private final CustomerDetails details;
+        private final PayingCustomer payer;
+        private AssociateCustomer customer;
+        private long version;
+
+        public AddAssociateCustomer(String name, String email, Address address, ArrayList<Supplement> supplements,
+                PayingCustomer payer)
+        {
+            this.details = new CustomerDetails(name, email, address, supplements);
+            this.payer = payer;
+        }
+
+        /** @return the customer added, or null before the first successful apply(). */
+        public AssociateCustomer getCustomer() { return customer; }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            if (customer == null) {
+                customer = editor.addAssociateCustomer(details.name, details.email, details.address,
+                        details.supplements, payer);
+                if (customer == null) {
+                    return false;
+                }
+                version = customer.getVersion();
+                return true;
+            }
+            return editor.restoreCustomer(customer, payer);
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (!editor.removeCustomer(customer, version)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Add associate customer " + details.name.toLowerCase();
+        }
+    }
+
+
+    /**
+     * Changes the details and card of a paying customer.
+     */
+    public static final class EditPayingCustomer implements MagazineCommand
+    {
+        private final PayingCustomer customer;
+        private final CustomerDetails details;
+        private final PaymentMethod paymentMethod;
+        private long version;
+        private CustomerDetails oldDetails;
+        private PaymentMethod oldPaymentMethod;
+
+        /**
+         * @param expectedVersion The version of the customer when its details were shown.
+         */
+        public EditPayingCustomer(PayingCustomer customer, long expectedVersion, String name, String email,
+                Address address, ArrayList<Supplement> supplements, PaymentMethod paymentMethod)
+        {
+            this.customer = customer;
+            this.version = expectedVersion;
+            this.details = new CustomerDetails(name, email, address, supplements);
+            this.paymentMethod = paymentMethod;
+        }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            CustomerDetails current = CustomerDetails.of(customer);
+            PaymentMethod currentPaymentMethod = customer.getPaymentMethod();
+            if (!editor.editPayingCustomer(customer, version, details.name, details.email, details.address,
+                    details.supplements, paymentMethod)) {
+                return false;
+            }
+            version++;
+            oldDetails = current;
+            oldPaymentMethod = currentPaymentMethod;
+            return true;
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (!editor.editPayingCustomer(customer, version, oldDetails.name, oldDetails.email, oldDetails.address,
+                    oldDetails.supplements, oldPaymentMethod)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Edit customer " + details.name.toLowerCase();
+        }
+    }
+
+
+    /**
+     * Changes the details of an associate customer, moving it to another paying customer if needed.
+     */
+    public static final class EditAssociateCustomer implements MagazineCommand
+    {
+        private final AssociateCustomer customer;
+        private final CustomerDetails details;
+        private final PayingCustomer payer;
+        private long version;
+        private CustomerDetails oldDetails;
+        private PayingCustomer oldPayer;
+
+        /**
+         * @param expectedVersion The version of the customer when its details were shown.
+         */
+        public EditAssociateCustomer(AssociateCustomer customer, long expectedVersion, String name, String email,
+                Address address, ArrayList<Supplement> supplements, PayingCustomer payer)
+        {
+            this.customer = customer;
+            this.version = expectedVersion;
+            this.details = new CustomerDetails(name, email, address, supplements);
+            this.payer = payer;
+        }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            CustomerDetails current = CustomerDetails.of(customer);
+            PayingCustomer currentPayer = editor.findPayingCustomer(customer);
+            if (!editor.editAssociateCustomer(customer, version, details.name, details.email, details.address,
+                    details.supplements, payer)) {
+                return false;
+            }
+            version++;
+            oldDetails = current;
+            oldPayer = currentPayer;
+            return true;
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            if (oldPayer == null || !editor.editAssociateCustomer(customer, version, oldDetails.name, oldDetails.email,
+                    oldDetails.address, oldDetails.supplements, oldPayer)) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Edit customer " + details.name.toLowerCase();
+        }
+    }
+
+
+    /**
+     * Deletes a customer; an associate is taken off its paying customer as well.
+     */
+    public static final class RemoveCustomer implements MagazineCommand
+    {
+        private final Customer customer;
+        private long version;
+        private PayingCustomer payer;
+
+        /**
+         * @param expectedVersion The version of the customer when it was chosen.
+         */
+        public RemoveCustomer(Customer customer, long expectedVersion)
+        {
+            this.customer = customer;
+            this.version = expectedVersion;
+        }
+
+        @Override
+        public boolean apply(MagazineEditor editor)
+        {
+            PayingCustomer currentPayer = customer instanceof AssociateCustomer ? editor.findPayingCustomer(customer) : null;
+            if (!editor.removeCustomer(customer, version)) {
+                return false;
+            }
+            version++;
+            payer = currentPayer;
+            return true;
+        }
+
+        @Override
+        public boolean undo(MagazineEditor editor)
+        {
+            return editor.restoreCustomer(customer, payer);
+        }
+
+        @Override
+        public String describe()
+        {
+            return "Delete customer " + customer.getName();
+        }
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineCsv.java
+ * @purpose This class exports a magazine's customers and monthly bills to CSV and imports customers
+ *          back from CSV, one row at a time.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Customer rows use the columns in CUSTOMER_HEADER; supplements are listed by name separated by ';'
+ *    and must already exist in the magazine.
+ *  - An associate customer names its paying customer by email; the paying customer may appear
+ *    anywhere in the file or already be in the magazine.
+ *  - Fields are quoted as in RFC 4180 when they contain commas, quotes or line breaks.
+ *  - Exports read one snapshot of the magazine, see Magazine.snapshot(), so they never block
+ *    editing and every customer of that version is written exactly once.
+ *
+ * @expected input:
+ *  - A magazine and a Writer for exports, or a Reader for imports.
+ *
+ * @expected output:
+ *  - CSV text, or customers added to the magazine together with a summary of skipped rows.
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class MagazineCsv
+{
+    // Column names of a customer export, in order
+    public static final String[] CUSTOMER_HEADER = {
+        "type", "name", "email", "street_number", "street_name", "suburb", "postcode",
+        "supplements", "card_type", "account_no", "paying_customer_email"
+    };
+
+    // Column names of a billing export, in order
+    public static final String[] BILLING_HEADER = {
+        "name", "email", "card_type", "account_no", "associates", "monthly_total"
+    };
+
+    // Maximum number of skipped row descriptions kept in an ImportResult
+    private static final int MAX_PROBLEMS = 20;
+
+    // Number of CSV rows covered by one ImportBatch flight recorder event
+    private static final int IMPORT_BATCH = 1024;
+
+    // Timing of whole billing runs; a single payer's total is too quick to time without slowing it down
+    private static final LatencyHistogram BILLING_TIME = MetricsRegistry.getDefault().histogram("billing.export");
+    private static final MetricsRegistry.Counter BILLED_PAYERS = MetricsRegistry.getDefault().counter("billing.payers");
+    private static final LatencyHistogram IMPORT_TIME = MetricsRegistry.getDefault().histogram("csv.import");
+
+
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private MagazineCsv()
+    {
+    }
+
+
+    /**
+     * Outcome of an import.
+     */
+    public static class ImportResult
+    {
+        private int imported;
+        private int skipped;
+        private final List<String> problems = new ArrayList<>();
+
+        /**
+         * Getter for the number of customers added.
+         * @return the number of imported rows.
+         */
+        public int getImported()
+        {
+            return imported;
+        }
+
+        /**
+         * Getter for the number of rows that were not imported.
+         * @return the number of skipped rows.
+         */
+        public int getSkipped()
+        {
+            return skipped;
+        }
+
+        /**
+         * Returns why rows were skipped, for at most the first few rows.
+         * @return descriptions of skipped rows.
+         */
+        public List<String> getProblems()
+        {
+            return problems;
+        }
+
+        private void skip(long line, String reason)
+        {
+            skipped++;
+            if (problems.size() < MAX_PROBLEMS) {
+                problems.add("line " + line + ": " + reason);
+            }
+        }
+    }
+
+
+    /**
+     * Writes every customer of the magazine as one CSV row.
+     * Precondition: Both parameters must be initialized.
+     * Post condition: A header and one row per customer are written; the writer is not closed.
+     *
+     * @param magazine The magazine to export.
+     * @param out Where the rows go.
+     * @return the number of customers written.
+     * @throws IOException if writing fails.
+     */
+    public static int exportCustomers(Magazine magazine, Writer out) throws IOException
+    {
+        writeRow(out, CUSTOMER_HEADER);
+
+        // One snapshot for the whole export, so a customer added or deleted meanwhile is neither
+        // written twice nor skipped, and editing goes on while the rows are written
+        List<Customer> customers = magazine.snapshot().getCustomerList();
+
+        // Associates only know their paying customer through the payer's list
+        Map<Customer, PayingCustomer> payers = new IdentityHashMap<>();
+        for (Customer customer : customers) {
+            if (customer instanceof PayingCustomer) {
+                PayingCustomer payingCustomer = (PayingCustomer) customer;
+                for (Customer associate : payingCustomer.getAssociateCustomers()) {
+                    payers.put(associate, payingCustomer);
+                }
+            }
+        }
+
+        String[] row = new String[CUSTOMER_HEADER.length];
+        StringBuilder supplements = new StringBuilder();
+        int count = 0;
+        for (Customer customer : customers) {
+            writeCustomerRow(out, row, supplements, customer, payers.get(customer));
+            count++;
+        }
+        return count;
+    }
+
+
+    /**
+     * Writes one customer as a row of a customer export.
+     * Precondition: row has CUSTOMER_HEADER.length entries; row and supplements are scratch space
+     *               reused between calls.
+     * Post condition: One CSV record is written.
+     *
+     * @param out Where the row goes.
+     * @param row Scratch array for the fields.
+     * @param supplements Scratch buffer for the supplement names.
+     * @param customer The customer to write.
+     * @param payer The customer's paying customer if it is an associate, otherwise null.
+     * @throws IOException if writing fails.
+     */
+    static void writeCustomerRow(Writer out, String[] row, StringBuilder supplements, Customer customer, PayingCustomer payer) throws IOException
+    {
+        Address address = customer.getAddress();
+        supplements.setLength(0);
+        for (Supplement supplement : customer.getSupplement()) {
+            if (supplements.length() > 0) {
+                supplements.append(';');
+            }
+            supplements.append(supplement.getName());
+        }
+        row[0] = customer instanceof PayingCustomer ? "paying" : "associate";
+        row[1] = customer.getName();
+        row[2] = customer.getEmail();
+        row[3] = address == null ? "" : address.getStreetNumber();
+        row[4] = address == null ? "" : address.getStreetName();
+        row[5] = address == null ? "" : address.getSuburb();
+        row[6] = address == null ? "" : address.getPostcode();
+        row[7] = supplements.toString();
+        row[8] = "";
+        row[9] = "";
+        row[10] = "";
+        if (customer instanceof PayingCustomer) {
+            PaymentMethod paymentMethod = ((PayingCustomer) customer).getPaymentMethod();
+            if (paymentMethod != null) {
+                row[8] = paymentMethod.getCardType();
+                row[9] = String.valueOf(paymentMethod.getAccountNo());
+            }
+        } else if (payer != null) {
+            row[10] = payer.getEmail();
+        }
+        writeRow(out, row);
+    }
+
+
+    /**
+     * Writes the monthly bill of every paying customer, including their associates' supplements.
+     * Precondition: Both parameters must be initialized.
+     * Post condition: A header and one row per paying customer are written; the writer is not closed.
+     *
+     * @param magazine The magazine to bill.
+     * @param out Where the rows go.
+     * @return the sum of all monthly totals.
+     * @throws IOException if writing fails.
+     */
+    public static double exportBilling(Magazine magazine, Writer out) throws IOException
+    {
+        long start = System.nanoTime();
+        MagazineFlightEvents.BillingRun event = new MagazineFlightEvents.BillingRun();
+        event.begin();
+        writeRow(out, BILLING_HEADER);
+
+        String[] row = new String[BILLING_HEADER.length];
+        double total = 0;
+        long payers = 0;
+        // Bills the customers of one snapshot while the magazine goes on being edited
+        for (Customer customer : magazine.snapshot().getCustomerList()) {
+            if (!(customer instanceof PayingCustomer)) {
+                continue;
+            }
+            PayingCustomer payingCustomer = (PayingCustomer) customer;
+            PaymentMethod paymentMethod = payingCustomer.getPaymentMethod();
+            double monthlyTotal = payingCustomer.calculateTotalSupplementsCost();
+            total += monthlyTotal;
+            payers++;
+
+            row[0] = payingCustomer.getName();
+            row[1] = payingCustomer.getEmail();
+            row[2] = paymentMethod == null ? "" : paymentMethod.getCardType();
+            row[3] = paymentMethod == null ? "" : String.valueOf(paymentMethod.getAccountNo());
+            row[4] = String.valueOf(payingCustomer.getAssociateCustomers().size());
+            row[5] = String.format(Locale.US, "%.2f", monthlyTotal);
+            writeRow(out, row);
+        }
+        BILLED_PAYERS.add(payers);
+        BILLING_TIME.recordSince(start);
+        if (event.shouldCommit()) {
+            event.magazineTitle = magazine.getTitle();
+            event.payers = payers;
+            event.total = total;
+            event.commit();
+        }
+        return total;
+    }
+
+
+
+    /**
+     * Adds the customers in a CSV export to the magazine.
+     * Rows whose email already belongs to a customer, whose supplements are unknown or whose
+     * paying customer cannot be found are skipped.
+     * Precondition: Both parameters must be initialized; the first record is the header.
+     * Post condition: Valid rows are added through Magazine.addCustomer; the reader is not closed.
+     *
+     * @param magazine The magazine receiving the customers.
+     * @param in The CSV text.
+     * @return the number of imported and skipped rows.
+     * @throws IOException if reading fails or the header does not match CUSTOMER_HEADER.
+     */
+    public static ImportResult importCustomers(Magazine magazine, Reader in) throws IOException
+    {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        RecordReader records = new RecordReader(in);
+
+        List<String> header = records.next();
+        if (header == null || !header.equals(List.of(CUSTOMER_HEADER))) {
+            throw new IOException("Expected CSV header " + String.join(",", CUSTOMER_HEADER));
+        }
+
+        MagazineSnapshot snapshot = magazine.snapshot();
+        Map<String, Supplement> supplementsByName = new HashMap<>();
+        for (Supplement supplement : snapshot.getSupplements()) {
+            supplementsByName.put(supplement.getName().toLowerCase(Locale.ROOT), supplement);
+        }
+        Map<String, Customer> customersByEmail = new HashMap<>();
+        for (Customer customer : snapshot.getCustomerList()) {
+            customersByEmail.put(customer.getEmail(), customer);
+        }
+
+        // Associates whose paying customer comes later in the file, with their line numbers
+        List<AssociateCustomer> waiting = new ArrayList<>();
+        List<String> waitingPayers = new ArrayList<>();
+        List<Long> waitingLines = new ArrayList<>();
+
+        // The flight recorder event of the rows being imported, with the counts before its first row
+        MagazineFlightEvents.ImportBatch batch = null;
+        int batchRows = 0;
+        int importedBefore = 0;
+        int skippedBefore = 0;
+
+        List<String> fields;
+        while ((fields = records.next()) != null) {
+            long line = records.getLine();
+            if (batch != null && batchRows == IMPORT_BATCH) {
+                endImportBatch(batch, magazine, batchRows, result.imported - importedBefore, result.skipped - skippedBefore);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new MagazineFlightEvents.ImportBatch();
+                batch.begin();
+                batch.firstLine = line;
+                batchRows = 0;
+                importedBefore = result.imported;
+                skippedBefore = result.skipped;
+            }
+            batchRows++;
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if (fields.size() != CUSTOMER_HEADER.length) {
+                result.skip(line, "expected " + CUSTOMER_HEADER.length + " fields, found " + fields.size());
+                continue;
+            }
+            String type = fields.get(0);
+            String name = fields.get(1);
+            String email = fields.get(2).toLowerCase(Locale.ROOT);
+            if (name.trim().isEmpty() || email.trim().isEmpty()) {
+                result.skip(line, "name and email are required");
+                continue;
+            }
+            if (customersByEmail.containsKey(email)) {
+                result.skip(line, "a customer with email " + email + " already exists");
+                continue;
+            }
+            ArrayList<Supplement> supplements = new ArrayList<>();
+            String unknown = null;
+            for (String supplementName : fields.get(7).split(";")) {
+                if (supplementName.isEmpty()) {
+                    continue;
+                }
+                Supplement supplement = supplementsByName.get(supplementName.toLowerCase(Locale.ROOT));
+                if (supplement == null) {
+                    unknown = supplementName;
+                    break;
+                }
+                supplements.add(supplement);
+            }
+            if (unknown != null) {
+                result.skip(line, "unknown supplement " + unknown);
+                continue;
+            }
+            Address address = new Address(fields.get(3), fields.get(4), fields.get(5), fields.get(6));
+
+            if (type.equals("paying")) {
+                int accountNo;
+                try {
+                    accountNo = Integer.parseInt(fields.get(9));
+                } catch (NumberFormatException e) {
+                    result.skip(line, "account number is not a number");
+                    continue;
+                }
+                PayingCustomer payingCustomer = new PayingCustomer(name, email, address, new PaymentMethod(fields.get(8), accountNo));
+                payingCustomer.setSupplement(supplements);
+                magazine.addCustomer(payingCustomer);
+                customersByEmail.put(payingCustomer.getEmail(), payingCustomer);
+                result.imported++;
+            } else if (type.equals("associate")) {
+                AssociateCustomer associate = new AssociateCustomer(name, email, address);
+                associate.setSupplement(supplements);
+                customersByEmail.put(associate.getEmail(), associate);
+                String payer = fields.get(10).toLowerCase(Locale.ROOT);
+                if (!attachAssociate(magazine, customersByEmail, associate, payer)) {
+                    waiting.add(associate);
+                    waitingPayers.add(payer);
+                    waitingLines.add(line);
+                } else {
+                    result.imported++;
+                }
+            } else {
+                result.skip(line, "unknown customer type " + type);
+            }
+        }
+
+        for (int i = 0; i < waiting.size(); i++) {
+            if (attachAssociate(magazine, customersByEmail, waiting.get(i), waitingPayers.get(i))) {
+                result.imported++;
+            } else {
+                customersByEmail.remove(waiting.get(i).getEmail());
+                result.skip(waitingLines.get(i), "no paying customer with email " + waitingPayers.get(i));
+            }
+        }
+        // The last batch also counts the associates whose paying customer came after them
+        if (batch != null) {
+            endImportBatch(batch, magazine, batchRows, result.imported - importedBefore, result.skipped - skippedBefore);
+        }
+        IMPORT_TIME.recordSince(start);
+        return result;
+
+    }
+
+
+    /**
+     * Finishes the flight recorder event of a run of imported rows, if a recording wants it.
+     */
+    private static void endImportBatch(MagazineFlightEvents.ImportBatch batch, Magazine magazine, int rows, int imported, int skipped)
+    {
+        if (batch.shouldCommit()) {
+            batch.magazineTitle = magazine.getTitle();
+            batch.rows = rows;
+            batch.imported = imported;
+            batch.skipped = skipped;
+            batch.commit();
+        }
+    }
+
+
+
+    /**
+     * Adds an associate to the magazine if its paying customer is known.
+     */
+    private static boolean attachAssociate(Magazine magazine, Map<String, Customer> customersByEmail,
+            AssociateCustomer associate, String payerEmail)
+    {
+        Customer payer = customersByEmail.get(payerEmail);
+        if (!(payer instanceof PayingCustomer)) {
+            return false;
+        }
+        PayingCustomer payingCustomer = (PayingCustomer) payer;
+        // Listed before its paying customer lists it, under one lock, as MagazineEditor does
+        synchronized (magazine) {
+            magazine.addCustomer(associate);
+            payingCustomer.addAssociateCustomer(associate);
+        }
+
+        magazine.updateCustomer(payingCustomer);
+        return true;
+    }
+
+
+    /**
+     * Writes one CSV record followed by a line break.
+     */
+    static void writeRow(Writer out, String[] fields) throws IOException
+    {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            boolean quote = false;
+            for (int c = 0; c < field.length() && !quote; c++) {
+                char ch = field.charAt(c);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (quote) {
+                out.write('"');
+                out.write(field.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(field);
+            }
+        }
+        out.write('\n');
+    }
+
+
+    /**
+     * Reads CSV records one at a time, allowing quoted fields to span lines.
+     */
+    private static class RecordReader
+    {
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private long line;
+        private long nextLine = 1;
+
+        private RecordReader(Reader in)
+        {
+            this.in = in;
+        }
+
+        /**
+         * Returns the line the last record started on.
+         */
+        private long getLine()
+        {
+            return line;
+        }
+
+        /**
+         * Returns the fields of the next record, or null at the end of the input.
+         */
+        private List<String> next() throws IOException
+        {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            line = nextLine;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IOException("Unterminated quoted field starting on line " + line);
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            nextLine++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c < 0) {
+                    nextLine++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() throws IOException
+        {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
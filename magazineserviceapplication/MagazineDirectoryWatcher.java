@@ -0,0 +1,233 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineDirectoryWatcher.java
+ * @purpose This class watches the data directory for magazine files written by other programs, such
+ *          as the batch runner, and has the handler reload them while the application is running.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Writers replace `.ser` files in one step or in a quick burst of writes; a file is only reloaded
+ *    once it has been quiet for the debounce period.
+ *  - Files written by the handler itself are recognised by the handler and not reloaded.
+ *  - Deleted files are ignored; a magazine already in memory stays there.
+ *
+ * @expected input:
+ *  - File system events for the data directory.
+ *
+ * @expected output:
+ *  - Calls to MagazineServiceHandler.reloadChangedMagazine, one at a time per magazine, on the executor.
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class MagazineDirectoryWatcher implements Closeable
+{
+    // System property holding how long a file must be quiet before it is reloaded, in milliseconds
+    public static final String DEBOUNCE_PROPERTY = "magazine.watch.debounceMillis";
+
+    // Default quiet period
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private static final Logger LOG = Logger.getLogger(MagazineDirectoryWatcher.class.getName());
+
+    private final MagazineServiceHandler magazinehandler;
+    private final File directory;
+    private final long debounceNanos;
+    private final Executor executor;
+
+    // Last reload queued for each magazine, so reloads of one magazine never overlap
+    private final Map<String, CompletableFuture<Void>> reloads = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: All parameters must be initialized and debounceMillis must not be negative.
+     * Post condition: A watcher is created; nothing is watched until start().
+     *
+     * @param magazinehandler The handler reading from directory.
+     * @param directory The data directory to watch.
+     * @param debounceMillis How long a file must be quiet before it is reloaded.
+     * @param executor Runs the reloads.
+     */
+    public MagazineDirectoryWatcher(MagazineServiceHandler magazinehandler, File directory, long debounceMillis, Executor executor)
+    {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("debounceMillis must not be negative");
+        }
+        this.magazinehandler = magazinehandler;
+        this.directory = directory;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.executor = executor;
+    }
+
+
+    /**
+     * Returns the debounce period from the magazine.watch.debounceMillis system property, or the default.
+     * Precondition: None.
+     * Post condition: Returns a value of at least 0.
+     * @return the debounce period in milliseconds.
+     */
+    public static long defaultDebounceMillis()
+    {
+        return Math.max(0, Long.getLong(DEBOUNCE_PROPERTY, DEFAULT_DEBOUNCE_MILLIS));
+    }
+
+
+    /**
+     * Starts watching the directory on a daemon thread.
+     * Precondition: Not started yet.
+     * Post condition: Changed `.ser` files are handed to the handler until close().
+     * @throws IOException if the directory cannot be watched.
+     */
+    public synchronized void start() throws IOException
+    {
+        if (watchService != null) {
+            throw new IllegalStateException("The watcher is already started");
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        WatchService service = watchService;
+        thread = Thread.ofPlatform().name("magazine-watcher").daemon().start(() -> watch(service));
+    }
+
+
+    /**
+     * Stops watching. Reloads already queued still run.
+     * Precondition: None.
+     * Post condition: No further file events are handled.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Closing the watch service failed", e);
+        }
+        thread.interrupt();
+    }
+
+
+    /**
+     * Collects events until the watch service closes, reloading each file once it has gone quiet.
+     */
+    private void watch(WatchService service)
+    {
+        // Magazine name to the time its file may be reloaded, pushed back by every new event
+        Map<String, Long> due = new HashMap<>();
+        try {
+            while (true) {
+                WatchKey key;
+                if (due.isEmpty()) {
+                    key = service.take();
+                } else {
+                    long wait = Math.max(0, due.values().stream().mapToLong(Long::longValue).min().getAsLong() - System.nanoTime());
+                    key = service.poll(wait, TimeUnit.NANOSECONDS);
+                }
+                if (key != null) {
+                    collect(key, due);
+                }
+                long now = System.nanoTime();
+                for (Iterator<Map.Entry<String, Long>> it = due.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, Long> entry = it.next();
+                    if (entry.getValue() - now <= 0) {
+                        it.remove();
+                        queueReload(entry.getKey());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+
+    private void collect(WatchKey key, Map<String, Long> due)
+    {
+        long deadline = System.nanoTime() + debounceNanos;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so look at every file
+                File[] files = directory.listFiles((dir, fileName) -> fileName.endsWith(".ser"));
+                if (files != null) {
+                    for (File file : files) {
+                        due.put(magazineName(file.toPath()), deadline);
+                    }
+                }
+            } else {
+                Path file = (Path) event.context();
+                if (file.toString().endsWith(".ser")) {
+                    due.put(magazineName(file), deadline);
+                }
+            }
+        }
+        key.reset();
+    }
+
+
+    /**
+     * Runs a reload after any reload of the same magazine that is still running.
+     */
+    private void queueReload(String magazineName)
+    {
+        reloads.compute(magazineName, (name, previous) -> {
+            CompletableFuture<Void> after = previous == null ? CompletableFuture.completedFuture(null) : previous;
+            CompletableFuture<Void> next = after.thenRunAsync(() -> reload(name), executor);
+            next.whenComplete((ignored, error) -> reloads.remove(name, next));
+            return next;
+        });
+    }
+
+
+    private void reload(String magazineName)
+    {
+        try {
+            magazinehandler.reloadChangedMagazine(magazineName);
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Reloading " + magazineName + " failed", e);
+        }
+    }
+
+
+    private static String magazineName(Path file)
+    {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - 4);
+    }
+}
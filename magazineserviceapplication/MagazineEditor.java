@@ -0,0 +1,474 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineEditor.java
+ * @purpose This class makes the changes of the Edit mode to a magazine: adding, editing and deleting
+ *          supplements and customers, and keeping paying customers and their associates in step.
+ *          The Edit mode's commands and the load test both go through it.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Input has already been validated by the caller; names, emails and costs are taken as given.
+ *  - Every change that touches more than one object (an associate and its paying customer, a
+ *    supplement and the customers subscribed to it) holds the magazine's lock from the check to
+ *    the last update, so another session, an export or a save never sees it half done.
+ *  - Supplements are subscribed to only while the magazine still offers them, so a supplement
+ *    deleted by another session is never left with subscribers.
+ *  - A new associate is in the customer list before its paying customer lists it, and is taken
+ *    off every paying customer before it leaves the list, so an associate is never without a
+ *    paying customer while it is listed.
+ *  - Customers and supplements put back by undo or redo are added at the end of their list.
+ *  - Edits and deletes name the version of the customer or supplement they are based on, see
+ *    Customer.getVersion(). One based on an older version is refused before the lock is taken;
+ *    otherwise the version is claimed with compare-and-set, so of two sessions editing the same
+ *    details the second is refused instead of overwriting the first.
+ *
+ * @expected input:
+ *  - The magazine being edited and the details entered for each change.
+ *
+ * @expected output:
+ *  - The changed magazine, with every change published to its listeners.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MagazineEditor
+{
+    private final Magazine magazine;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: magazine must not be null.
+     * Post condition: An editor for the magazine is created.
+     * @param magazine The magazine to change.
+     */
+    public MagazineEditor(Magazine magazine)
+    {
+        this.magazine = magazine;
+    }
+
+
+    /**
+     * @return the magazine being changed.
+     */
+    public Magazine getMagazine()
+    {
+        return magazine;
+    }
+
+
+    /**
+     * Adds a new supplement.
+     * Precondition: name must not be empty.
+     * Post condition: The supplement is the last of the magazine's supplements.
+     * @param name The supplement name.
+     * @param cost The weekly cost.
+     * @return the new supplement.
+     */
+    public Supplement addSupplement(String name, float cost)
+    {
+        Supplement supplement = new Supplement(name, cost);
+        magazine.addSupplement(supplement);
+        return supplement;
+    }
+
+
+    /**
+     * Changes the name and cost of a supplement.
+     * Precondition: supplement belongs to the magazine; name must not be empty.
+     * Post condition: The supplement is changed for every customer subscribed to it, and its version is one higher.
+     * @param supplement The supplement to change.
+     * @param expectedVersion The version of the supplement the new details are based on.
+     * @param name The new name.
+     * @param cost The new weekly cost.
+     * @return true if it was changed, false if it was edited or deleted meanwhile.
+     */
+    public boolean editSupplement(Supplement supplement, long expectedVersion, String name, float cost)
+    {
+        // A stale edit is turned away without waiting for the lock
+        if (supplement.getVersion() != expectedVersion) {
+            return false;
+        }
+        synchronized (magazine) {
+            if (!isSupplement(supplement) || !supplement.compareAndIncrementVersion(expectedVersion)) {
+                return false;
+            }
+            supplement.setName(name);
+            supplement.setCost(cost);
+            magazine.updateSupplement(supplement);
+            return true;
+        }
+    }
+
+
+    /**
+     * Puts a deleted supplement back, as undo and redo do.
+     * Precondition: supplement must not be null.
+     * Post condition: The supplement is the last of the magazine's supplements.
+     * @param supplement The supplement to put back.
+     * @return true if it was put back, false if the magazine still offers it.
+     */
+    public boolean restoreSupplement(Supplement supplement)
+    {
+        synchronized (magazine) {
+            if (isSupplement(supplement)) {
+                return false;
+            }
+            magazine.addSupplement(supplement);
+            return true;
+        }
+    }
+
+
+    /**
+     * Deletes a supplement nobody is subscribed to.
+     * Precondition: supplement must not be null.
+     * Post condition: The supplement is deleted unless a customer is subscribed to it, and its version is one higher.
+     * @param supplement The supplement to delete.
+     * @param expectedVersion The version of the supplement the operator chose to delete.
+     * @return true if it was deleted, false if a customer is subscribed to it or it was edited or deleted meanwhile.
+     */
+    public boolean removeSupplement(Supplement supplement, long expectedVersion)
+    {
+        if (supplement.getVersion() != expectedVersion) {
+            return false;
+        }
+        synchronized (magazine) {
+            if (!isSupplement(supplement)) {
+                return false;
+            }
+            for (Customer customer : magazine.getCustomerList()) {
+                if (customer.getSupplement().contains(supplement)) {
+                    return false;
+                }
+            }
+            if (!supplement.compareAndIncrementVersion(expectedVersion)) {
+                return false;
+            }
+            magazine.removeSupplement(supplement);
+            return true;
+        }
+    }
+
+
+    /**
+     * Adds a new paying customer.
+     * Precondition: All parameters must be initialized.
+     * Post condition: The customer is the last of the magazine's customers.
+     * @param name The customer name.
+     * @param email The email address.
+     * @param address The postal address.
+     * @param supplements The supplements subscribed to.
+     * @param paymentMethod The card the customer pays with.
+     * @return the new customer.
+     */
+    public PayingCustomer addPayingCustomer(String name, String email, Address address,
+            ArrayList<Supplement> supplements, PaymentMethod paymentMethod)
+    {
+        PayingCustomer payingCustomer = new PayingCustomer();
+        payingCustomer.setPaymentMethod(paymentMethod);
+        synchronized (magazine) {
+            setCustomerData(payingCustomer, name, email, address, supplements);
+            magazine.addCustomer(payingCustomer);
+        }
+        return payingCustomer;
+    }
+
+
+    /**
+     * Adds a new associate customer paid for by a paying customer.
+     * Precondition: All parameters must be initialized; payer belongs to the magazine.
+     * Post condition: The associate is a customer of the magazine and listed by its paying customer.
+     * @param name The customer name.
+     * @param email The email address.
+     * @param address The postal address.
+     * @param supplements The supplements subscribed to.
+     * @param payer The paying customer.
+     * @return the new customer, or null if payer was deleted meanwhile.
+     */
+    public AssociateCustomer addAssociateCustomer(String name, String email, Address address,
+            ArrayList<Supplement> supplements, PayingCustomer payer)
+    {
+        AssociateCustomer associateCustomer = new AssociateCustomer();
+        synchronized (magazine) {
+            if (!isCustomer(payer)) {
+                return null;
+            }
+            setCustomerData(associateCustomer, name, email, address, supplements);
+            magazine.addCustomer(associateCustomer);
+            payer.addAssociateCustomer(associateCustomer);
+            magazine.updateCustomer(payer);
+        }
+        return associateCustomer;
+    }
+
+
+    /**
+     * Changes the details of a paying customer.
+     * Precondition: All parameters must be initialized; customer belongs to the magazine.
+     * Post condition: The customer holds the new details, and its version is one higher.
+     * @param customer The customer to change.
+     * @param expectedVersion The version of the customer the new details are based on.
+     * @param name The new name.
+     * @param email The new email address.
+     * @param address The new postal address.
+     * @param supplements The supplements now subscribed to.
+     * @param paymentMethod The new card.
+     * @return true if it was changed, false if it was edited or deleted meanwhile.
+     */
+    public boolean editPayingCustomer(PayingCustomer customer, long expectedVersion, String name, String email,
+            Address address, ArrayList<Supplement> supplements, PaymentMethod paymentMethod)
+    {
+        if (customer.getVersion() != expectedVersion) {
+            return false;
+        }
+        synchronized (magazine) {
+            if (!isCustomer(customer) || !customer.compareAndIncrementVersion(expectedVersion)) {
+                return false;
+            }
+            setCustomerData(customer, name, email, address, supplements);
+            customer.setPaymentMethod(paymentMethod);
+            // Keep the search index and the shown rows in step with the edited details
+            magazine.updateCustomer(customer);
+            return true;
+        }
+    }
+
+
+    /**
+     * Changes the details of an associate customer, moving it to another paying customer if needed.
+     * Precondition: All parameters must be initialized; customer and payer belong to the magazine.
+     * Post condition: The customer holds the new details and is listed by payer only, and its version is one higher.
+     * @param customer The customer to change.
+     * @param expectedVersion The version of the customer the new details are based on.
+     * @param name The new name.
+     * @param email The new email address.
+     * @param address The new postal address.
+     * @param supplements The supplements now subscribed to.
+     * @param payer The paying customer from now on.
+     * @return true if it was changed, false if it was edited meanwhile or it or payer was deleted.
+     */
+    public boolean editAssociateCustomer(AssociateCustomer customer, long expectedVersion, String name, String email,
+            Address address, ArrayList<Supplement> supplements, PayingCustomer payer)
+    {
+        if (customer.getVersion() != expectedVersion) {
+            return false;
+        }
+        synchronized (magazine) {
+            if (!isCustomer(customer) || !isCustomer(payer) || !customer.compareAndIncrementVersion(expectedVersion)) {
+                return false;
+            }
+            PayingCustomer oldPayer = findPayingCustomer(customer);
+            setCustomerData(customer, name, email, address, supplements);
+            if (oldPayer != payer) {
+                detachAssociateCustomer(customer);
+                payer.addAssociateCustomer(customer);
+                magazine.updateCustomer(payer);
+            }
+            magazine.updateCustomer(customer);
+            return true;
+        }
+    }
+
+
+    /**
+     * Deletes a customer. A paying customer is only deleted once it has no associates left.
+     * Precondition: customer must not be null.
+     * Post condition: The customer is deleted, and an associate is no longer listed by its paying customer.
+     *                 The customer's version is one higher.
+     * @param customer The customer to delete.
+     * @param expectedVersion The version of the customer the operator chose to delete.
+     * @return true if it was deleted, false if it is a paying customer with associates or was edited or deleted meanwhile.
+     */
+    public boolean removeCustomer(Customer customer, long expectedVersion)
+    {
+        if (customer.getVersion() != expectedVersion) {
+            return false;
+        }
+        synchronized (magazine) {
+            if (!isCustomer(customer)) {
+                return false;
+            }
+
+            if (customer instanceof PayingCustomer && ((PayingCustomer) customer).containsAssociateCustomer()) {
+                return false;
+            }
+            if (!customer.compareAndIncrementVersion(expectedVersion)) {
+                return false;
+            }
+            if (customer instanceof AssociateCustomer) {
+                detachAssociateCustomer(customer);
+            }
+            magazine.removeCustomer(customer);
+            return true;
+        }
+    }
+
+
+    /**
+     * Puts a deleted customer back, as undo and redo do; an associate goes back to its paying customer.
+     * Precondition: customer must not be null; payer must be given for an associate customer.
+     * Post condition: The customer is the last of the magazine's customers, without the supplements
+     *                 deleted since it was removed.
+     * @param customer The customer to put back.
+     * @param payer The paying customer of an associate, or null for a paying customer.
+     * @return true if it was put back, false if it is still a customer or its paying customer was deleted.
+     */
+    public boolean restoreCustomer(Customer customer, PayingCustomer payer)
+    {
+        synchronized (magazine) {
+            if (isCustomer(customer) || (customer instanceof AssociateCustomer && (payer == null || !isCustomer(payer)))) {
+                return false;
+            }
+            ArrayList<Supplement> subscribed = new ArrayList<>(customer.getSupplement());
+            subscribed.retainAll(magazine.getSupplements());
+            customer.setSupplement(subscribed);
+            magazine.addCustomer(customer);
+            if (customer instanceof AssociateCustomer) {
+                payer.addAssociateCustomer(customer);
+                magazine.updateCustomer(payer);
+            }
+            return true;
+        }
+    }
+
+
+    /**
+     * Applies a batch of commands while holding the magazine's lock, so other sessions, exports and
+     * saves see all of them or none, and the magazine's listeners are told once.
+     * Precondition: commands must not be null.
+     * Post condition: Every command that could be applied was; a refused one leaves the others applied.
+     * @param commands The commands, in the order they are applied.
+     * @return the commands that were applied, in order.
+     */
+    public List<MagazineCommand> apply(List<? extends MagazineCommand> commands)
+    {
+        List<MagazineCommand> applied = new ArrayList<>(commands.size());
+        synchronized (magazine) {
+            magazine.runBatch(() -> {
+                for (MagazineCommand command : commands) {
+                    if (command.apply(this)) {
+                        applied.add(command);
+                    }
+                }
+            });
+        }
+        return applied;
+    }
+
+
+    /**
+     * Undoes a batch of applied commands, last first, while holding the magazine's lock.
+     * Precondition: commands were applied by apply(), in this order.
+     * Post condition: Every command that could be undone was.
+     * @param commands The applied commands, in the order they were applied.
+     * @return the commands that were undone, in the order they were applied.
+     */
+    public List<MagazineCommand> undo(List<? extends MagazineCommand> commands)
+    {
+        List<MagazineCommand> undone = new ArrayList<>(commands.size());
+        synchronized (magazine) {
+            magazine.runBatch(() -> {
+                for (int i = commands.size() - 1; i >= 0; i--) {
+                    if (commands.get(i).undo(this)) {
+                        undone.add(0, commands.get(i));
+                    }
+                }
+            });
+        }
+        return undone;
+    }
+
+
+    /**
+     * Finds the paying customer that lists an associate customer.
+     * Precondition: associateCustomer must not be null.
+     * Post condition: The magazine is unchanged.
+     * @param associateCustomer The associate customer.
+     * @return the paying customer, or null if none lists it.
+     */
+    public PayingCustomer findPayingCustomer(Customer associateCustomer)
+    {
+        synchronized (magazine) {
+            for (Customer customer : magazine.getCustomerList()) {
+                if (customer instanceof PayingCustomer
+                        && listsAssociate((PayingCustomer) customer, associateCustomer)) {
+                    return (PayingCustomer) customer;
+                }
+            }
+            return null;
+        }
+    }
+
+
+    /**
+     * Takes an associate customer off every paying customer that lists it.
+     */
+    private void detachAssociateCustomer(Customer associateCustomer)
+    {
+        for (Customer customer : magazine.getCustomerList()) {
+            if (customer instanceof PayingCustomer
+                    && listsAssociate((PayingCustomer) customer, associateCustomer)) {
+                PayingCustomer payingCustomer = (PayingCustomer) customer;
+                payingCustomer.removeAssociateCustomer(associateCustomer);
+                magazine.updateCustomer(payingCustomer);
+            }
+        }
+    }
+
+
+    /**
+     * Tells whether this very customer is still in the magazine; called with the magazine's lock held.
+     */
+    private boolean isCustomer(Customer customer)
+    {
+        return magazine.containsCustomer(customer);
+    }
+
+
+    /**
+     * Tells whether this very supplement is still offered; called with the magazine's lock held.
+     */
+    private boolean isSupplement(Supplement supplement)
+    {
+        return magazine.containsSupplement(supplement);
+    }
+
+
+    /**
+     * Tells whether a paying customer lists this very associate customer, not one with an equal name.
+     */
+    private static boolean listsAssociate(PayingCustomer payingCustomer, Customer associateCustomer)
+    {
+        List<Customer> associates = payingCustomer.getAssociateCustomers();
+        for (int i = 0; i < associates.size(); i++) {
+            if (associates.get(i) == associateCustomer) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Sets the details entered for a customer; called with the magazine's lock held. The customer
+     * gets a list of its own, without the supplements deleted since they were offered.
+     */
+    private void setCustomerData(Customer customer, String name, String email, Address address,
+            ArrayList<Supplement> supplements)
+    {
+        customer.setName(name);
+        customer.setEmail(email);
+        customer.setAddress(address);
+        ArrayList<Supplement> subscribed = new ArrayList<>(supplements);
+        subscribed.retainAll(magazine.getSupplements());
+        customer.setSupplement(subscribed);
+    }
+}
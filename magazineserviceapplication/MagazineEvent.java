@@ -0,0 +1,180 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineEvent.java
+ * @purpose This class describes a single change to one of a magazine's supplement or customer lists,
+ *          so views can patch the affected row instead of reloading the whole list.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The index is the row position in the magazine's list at the time of the change; for a removal
+ *    it is the position the row had before it was removed.
+ *  - A REPLACED event concerns the whole magazine: the handler swapped in a newer copy read from its
+ *    file, and views should reopen the replacement.
+ *  - A CHANGED event also concerns the whole magazine: a batch of changes was made at once, and
+ *    views should reload both lists rather than patch single rows.
+ *
+ * @expected input:
+ *  - The magazine, the kind of change, the list it applies to, the row index and the entity.
+ *
+ * @expected output:
+ *  - An immutable description of the change.
+ */
+
+public class MagazineEvent
+{
+    /**
+     * What happened to the row.
+     */
+    public enum Kind
+    {
+        ADDED,
+        REMOVED,
+        UPDATED,
+        
+        // The whole magazine was replaced by a newer copy read from its file
+        REPLACED,
+        
+        // A batch of changes was made to the lists; sent once, at the end of the batch
+        CHANGED
+
+    }
+
+
+    /**
+     * Which of the magazine's lists changed.
+     */
+    public enum Target
+    {
+        SUPPLEMENT,
+        CUSTOMER,
+        MAGAZINE
+    }
+
+    private final Magazine magazine;
+    private final Kind kind;
+    private final Target target;
+    private final int index;
+    private final Object entity;
+    private final long version;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: All references must not be null.
+     * Post condition: An event describing the change is created.
+     * @param magazine The magazine that changed.
+     * @param kind What happened to the row.
+     * @param target Which list changed.
+     * @param index Position of the row in the list, or -1 for the whole magazine.
+     * @param entity The supplement or customer concerned, or the replacement magazine.
+     * @param version The magazine version after the change.
+     */
+    public MagazineEvent(Magazine magazine, Kind kind, Target target, int index, Object entity, long version)
+    {
+        this.magazine = magazine;
+        this.kind = kind;
+        this.target = target;
+        this.index = index;
+        this.entity = entity;
+        this.version = version;
+    }
+
+
+    /**
+     * Getter for the magazine that changed.
+     * @return the magazine.
+     */
+    public Magazine getMagazine()
+    {
+        return magazine;
+    }
+
+
+    /**
+     * Getter for the kind of change.
+     * @return what happened to the row.
+     */
+    public Kind getKind()
+    {
+        return kind;
+    }
+
+
+    /**
+     * Getter for the list that changed.
+     * @return the target list.
+     */
+    public Target getTarget()
+    {
+        return target;
+    }
+
+
+    /**
+     * Getter for the row index.
+     * @return the row position in the list.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+
+    /**
+     * Getter for the magazine version after the change.
+     * @return the version number.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+
+    /**
+     * Returns the changed supplement.
+     * Precondition: getTarget() is SUPPLEMENT.
+     * Post condition: Returns the supplement concerned.
+     * @return the supplement.
+     */
+    public Supplement getSupplement()
+    {
+        return (Supplement) entity;
+    }
+
+
+    /**
+     * Returns the magazine that replaced this one.
+     * Precondition: getKind() is REPLACED.
+     * Post condition: Returns the newer copy now held by the handler.
+     * @return the replacement magazine.
+     */
+    public Magazine getReplacement()
+    {
+        return (Magazine) entity;
+    }
+
+
+    /**
+     * Returns the changed customer.
+     * Precondition: getTarget() is CUSTOMER.
+     * Post condition: Returns the customer concerned.
+     * @return the customer.
+     */
+    public Customer getCustomer()
+    {
+        return (Customer) entity;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return kind + " " + target + " #" + index + " (v" + version + ")";
+    }
+}
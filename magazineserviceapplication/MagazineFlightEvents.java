@@ -0,0 +1,165 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineFlightEvents.java
+ * @purpose This class holds the JDK Flight Recorder events of the application, so a recording shows
+ *          magazine loads and saves, billing runs, import batches and mode switches on the same
+ *          timeline as the JVM's garbage collections, I/O and thread activity.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Events cost almost nothing while no recording is running or while they are disabled: callers
+ *    fill in the fields only when shouldCommit() is true.
+ *  - Every event times the operation it describes, from begin() to commit(), so its duration can
+ *    be compared with the JVM events that happened during it.
+ *  - Thresholds and stack traces are chosen by the recording settings; magazine.jfc in the project
+ *    directory records all of them.
+ *
+ * @expected input:
+ *  - Details of the operation from the code that runs it.
+ *
+ * @expected output:
+ *  - Events named magazineservice.* in the recording.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+public final class MagazineFlightEvents
+{
+    // Storage formats reported by Load and Save
+    public static final String FORMAT_SER = "ser";
+    public static final String FORMAT_CSV = "csv";
+
+
+    private MagazineFlightEvents()
+    {
+    }
+
+
+    /**
+     * A magazine read from a file.
+     */
+    @Name("magazineservice.Load")
+    @Label("Magazine Load")
+    @Category({"Magazine Service", "Persistence"})
+    @Description("A magazine read from a serialized file or imported from a CSV file")
+    public static final class Load extends Event
+    {
+        @Label("Magazine")
+        public String magazineName;
+
+        @Label("Customers")
+        @Description("Customers in the magazine after the load")
+        public int customerCount;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Format")
+        public String format;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+
+    /**
+     * A magazine written to a file.
+     */
+    @Name("magazineservice.Save")
+    @Label("Magazine Save")
+    @Category({"Magazine Service", "Persistence"})
+    @Description("A magazine written to its serialized file or exported as CSV")
+    public static final class Save extends Event
+    {
+        @Label("Magazine")
+        public String magazineName;
+
+        @Label("Customers")
+        public int customerCount;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Format")
+        public String format;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+
+    /**
+     * The billing totals of a whole magazine.
+     */
+    @Name("magazineservice.BillingRun")
+    @Label("Billing Run")
+    @Category({"Magazine Service", "Billing"})
+    @Description("The monthly totals of every paying customer in a magazine, written as billing CSV")
+    public static final class BillingRun extends Event
+    {
+        @Label("Magazine")
+        public String magazineTitle;
+
+        @Label("Paying Customers")
+        public long payers;
+
+        @Label("Monthly Total")
+        public double total;
+    }
+
+
+    /**
+     * A run of rows of a CSV import.
+     */
+    @Name("magazineservice.ImportBatch")
+    @Label("Import Batch")
+    @Category({"Magazine Service", "Import"})
+    @Description("Consecutive rows of a customer CSV import")
+    public static final class ImportBatch extends Event
+    {
+        @Label("Magazine")
+        public String magazineTitle;
+
+        @Label("First Line")
+        public long firstLine;
+
+        @Label("Rows")
+        public int rows;
+
+        @Label("Imported")
+        public int imported;
+
+        @Label("Skipped")
+        public int skipped;
+    }
+
+
+    /**
+     * The main window changing to the View, Edit or Create mode.
+     */
+    @Name("magazineservice.ModeSwitch")
+    @Label("Mode Switch")
+    @Category({"Magazine Service", "User Interface"})
+    @Description("The main window changing mode, from the button press until the mode is shown")
+    public static final class ModeSwitch extends Event
+    {
+        @Label("Mode")
+        public String mode;
+
+        @Label("Magazine")
+        public String magazineName;
+    }
+}
@@ -0,0 +1,846 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineGenerator.java
+ * @purpose This class builds synthetic magazines for scale testing, either in memory or streamed
+ *          straight to a `.ser` or CSV file, so very large datasets never have to fit on the heap.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The same seed and settings always give the same supplements, names, addresses, payment methods
+ *    and subscriptions, whichever output is chosen; customer IDs still come from the shared counter.
+ *  - Customers come in groups of one paying customer followed by its associates.
+ *  - Suburbs follow a Zipf distribution over a fixed list, most common first, so a few suburbs hold
+ *    most customers; several suburbs share a postcode, so postcodes are skewed as well.
+ *  - A streamed `.ser` file is identical to saving the generated magazine with the handler: only the
+ *    supplements and the current paying customer's associates are remembered while writing.
+ *  - A CSV file holds the customers only; import it into createEmptyMagazine(), which has the same
+ *    supplements.
+ *
+ * @expected input:
+ *  - A seed and the settings below, or command line options, see usage().
+ *
+ * @expected output:
+ *  - A Magazine, or a `.ser` or `.csv` file.
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class MagazineGenerator
+{
+    // Seed used when none is given on the command line
+    public static final long DEFAULT_SEED = 42;
+
+    // Mixed into the seed for the associate counts, which are drawn from a stream of their own so
+    // the customer total can be worked out without generating the customers
+    private static final long ASSOCIATE_STREAM = 0x5DEECE66DL;
+
+    // Suburb and postcode, most common first
+    private static final String[][] SUBURBS = {
+        {"Wollongong", "2500"}, {"Fairy Meadow", "2519"}, {"Corrimal", "2518"}, {"Dapto", "2530"},
+        {"Figtree", "2525"}, {"North Wollongong", "2500"}, {"Thirroul", "2515"}, {"Shellharbour", "2529"},
+        {"Unanderra", "2526"}, {"Woonona", "2517"}, {"Gwynneville", "2500"}, {"Keiraville", "2500"},
+        {"Bulli", "2516"}, {"Albion Park", "2527"}, {"Warrawong", "2502"}, {"Towradgi", "2518"},
+        {"Balgownie", "2519"}, {"Kiama", "2533"}, {"Horsley", "2530"}, {"Berkeley", "2506"},
+        {"Mangerton", "2500"}, {"Port Kembla", "2505"}, {"Austinmer", "2515"}, {"Helensburgh", "2508"},
+        {"Coledale", "2515"}, {"Mount Keira", "2500"}, {"Sydney", "2000"}, {"Parramatta", "2150"},
+        {"Newtown", "2042"}, {"Bondi", "2026"}
+    };
+
+    private static final String[] STREET_NAMES = {
+        "Crown Street", "Keira Street", "Princes Highway", "Church Street", "Market Street",
+        "Smith Street", "Corrimal Street", "Bourke Street", "Station Street", "Lawrence Hargrave Drive",
+        "Northfields Avenue", "Gipps Road", "Cliff Road", "Mount Ousley Road", "Railway Street",
+        "Harbour Street", "Victoria Street", "Kembla Street", "Ocean Street", "Pioneer Road"
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "olivia", "noah", "charlotte", "oliver", "amelia", "jack", "isla", "william", "mia", "leo",
+        "ava", "henry", "grace", "lucas", "chloe", "thomas", "zoe", "james", "ella", "ethan",
+        "aisha", "mohammed", "wei", "priya", "liam", "sofia", "arjun", "mei", "omar", "hannah"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "smith", "jones", "williams", "brown", "wilson", "taylor", "johnson", "white", "martin", "anderson",
+        "thompson", "nguyen", "thomas", "walker", "harris", "lee", "ryan", "robinson", "kelly", "king",
+        "shahid", "chen", "singh", "patel", "khan", "wang", "murphy", "davis", "campbell", "clarke"
+    };
+
+    private static final String[] SUPPLEMENT_TOPICS = {
+        "Puzzles", "Recipes", "Travel", "Gardening", "Motoring", "Finance", "Sport", "Fashion",
+        "Technology", "Health", "Home", "Kids", "Pets", "Books", "Film", "Music", "Science", "History",
+        "Crafts", "Wine", "Fishing", "Photography", "Property", "Careers"
+    };
+
+    // Card types and the percentage of paying customers using each
+    private static final String[] CARD_TYPES = {"Visa", "Mastercard", "Amex"};
+    private static final int[] CARD_PERCENT = {55, 35, 10};
+
+    // Street numbers 1 to 300, shared between addresses like the other table strings
+    private static final String[] STREET_NUMBERS = new String[300];
+
+    static {
+        for (int i = 0; i < STREET_NUMBERS.length; i++) {
+            STREET_NUMBERS[i] = Integer.toString(i + 1);
+        }
+    }
+
+    private final long seed;
+    private String title = "Generated Weekly";
+    private float weeklyCost = 4.5f;
+    private int supplements = 20;
+    private int payingCustomers = 1000;
+    private int minAssociates = 0;
+    private int maxAssociates = 3;
+    private int minSupplementsPerCustomer = 1;
+    private int maxSupplementsPerCustomer = 4;
+    private double suburbSkew = 1.0;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: None.
+     * Post condition: A generator with the default settings and the given seed is created.
+     * @param seed Seed for every random choice.
+     */
+    public MagazineGenerator(long seed)
+    {
+        this.seed = seed;
+    }
+
+
+    /**
+     * Setter for the magazine title and weekly cost.
+     * Precondition: title must not be null.
+     * Post condition: Generated magazines carry the title and cost.
+     * @param title The magazine title.
+     * @param weeklyCost The magazine's weekly cost.
+     */
+    public void setTitle(String title, float weeklyCost)
+    {
+        this.title = title;
+        this.weeklyCost = weeklyCost;
+    }
+
+
+    /**
+     * Setter for the number of supplements the magazine offers.
+     * Precondition: supplements must be at least 1.
+     * Post condition: Generated magazines offer this many supplements.
+     * @param supplements The number of supplements.
+     */
+    public void setSupplements(int supplements)
+    {
+        if (supplements < 1) {
+            throw new IllegalArgumentException("A magazine needs at least one supplement");
+        }
+        this.supplements = supplements;
+    }
+
+
+    /**
+     * Setter for the number of paying customers.
+     * Precondition: payingCustomers must not be negative.
+     * Post condition: Generated magazines hold this many paying customers.
+     * @param payingCustomers The number of paying customers.
+     */
+    public void setPayingCustomers(int payingCustomers)
+    {
+        if (payingCustomers < 0) {
+            throw new IllegalArgumentException("The number of paying customers must not be negative");
+        }
+        this.payingCustomers = payingCustomers;
+    }
+
+
+    /**
+     * Setter for how many associates each paying customer has, drawn evenly from the range.
+     * Precondition: 0 <= min <= max.
+     * Post condition: Every paying customer gets between min and max associates.
+     * @param min The fewest associates.
+     * @param max The most associates.
+     */
+    public void setAssociatesPerPayer(int min, int max)
+    {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Need 0 <= min <= max associates");
+        }
+        this.minAssociates = min;
+        this.maxAssociates = max;
+    }
+
+
+    /**
+     * Setter for how many supplements each customer takes, drawn evenly from the range.
+     * Precondition: 0 <= min <= max; max is capped at the number of supplements when generating.
+     * Post condition: Every customer takes between min and max different supplements.
+     * @param min The fewest supplements.
+     * @param max The most supplements.
+     */
+    public void setSupplementsPerCustomer(int min, int max)
+    {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Need 0 <= min <= max supplements per customer");
+        }
+        this.minSupplementsPerCustomer = min;
+        this.maxSupplementsPerCustomer = max;
+    }
+
+
+    /**
+     * Setter for the Zipf exponent of the suburb distribution.
+     * Precondition: skew must not be negative.
+     * Post condition: 0 spreads customers evenly over the suburbs; 1 puts about a quarter of them in
+     *                 the most common suburb; larger values concentrate them further.
+     * @param skew The exponent.
+     */
+    public void setSuburbSkew(double skew)
+    {
+        if (skew < 0 || Double.isNaN(skew)) {
+            throw new IllegalArgumentException("The suburb skew must not be negative");
+        }
+        this.suburbSkew = skew;
+    }
+
+
+    /**
+     * Returns how many customers, paying and associate, the settings produce.
+     * Precondition: None.
+     * Post condition: Returns the total without generating any customer.
+     * @return the number of customers.
+     */
+    public long getCustomerCount()
+    {
+        Random associateCounts = new Random(seed ^ ASSOCIATE_STREAM);
+        long total = 0;
+        for (int i = 0; i < payingCustomers; i++) {
+            total += 1 + drawBetween(associateCounts, minAssociates, maxAssociates);
+        }
+        return total;
+    }
+
+
+    /**
+     * Builds the whole magazine in memory.
+     * Precondition: The customer count fits in a list.
+     * Post condition: Returns a new magazine with the supplements and customers.
+     * @return the magazine.
+     */
+    public Magazine generate()
+    {
+        checkListSize();
+        Run run = new Run();
+        Magazine magazine = createMagazine(run);
+        for (int i = 0; i < payingCustomers; i++) {
+            PayingCustomer payer = run.nextPayer();
+            magazine.addCustomer(payer);
+            for (Customer associate : payer.getAssociateCustomers()) {
+                magazine.addCustomer(associate);
+            }
+        }
+        return magazine;
+    }
+
+
+    /**
+     * Builds the magazine without customers, ready for a CSV file from writeCsv to be imported.
+     * Precondition: None.
+     * Post condition: Returns a new magazine with the title, cost and supplements.
+     * @return the empty magazine.
+     */
+    public Magazine createEmptyMagazine()
+    {
+        return createMagazine(new Run());
+    }
+
+
+    /**
+     * Streams the customers as a CSV customer export, one group at a time.
+     * Precondition: out must not be null.
+     * Post condition: A header and one row per customer are written; the writer is not closed.
+     * @param out Where the rows go.
+     * @return the number of customers written.
+     * @throws IOException if writing fails.
+     */
+    public long writeCsv(Writer out) throws IOException
+    {
+        Run run = new Run();
+        MagazineCsv.writeRow(out, MagazineCsv.CUSTOMER_HEADER);
+        String[] row = new String[MagazineCsv.CUSTOMER_HEADER.length];
+        StringBuilder supplementNames = new StringBuilder();
+        long written = 0;
+        for (int i = 0; i < payingCustomers; i++) {
+            PayingCustomer payer = run.nextPayer();
+            MagazineCsv.writeCustomerRow(out, row, supplementNames, payer, null);
+            written++;
+            for (Customer associate : payer.getAssociateCustomers()) {
+                MagazineCsv.writeCustomerRow(out, row, supplementNames, associate, payer);
+                written++;
+            }
+        }
+        return written;
+    }
+
+
+    /**
+     * Streams the magazine in the handler's `.ser` form, one group at a time.
+     * Precondition: The customer count fits in a list; out must not be null.
+     * Post condition: A complete serialized Magazine is written; the stream is flushed, not closed.
+     * @param out Where the bytes go.
+     * @return the number of customers written.
+     * @throws IOException if writing fails.
+     */
+    public long writeSer(OutputStream out) throws IOException
+    {
+        int total = checkListSize();
+        Run run = new Run();
+        SerialWriter writer = new SerialWriter(out);
+        writer.share(run.offered);
+        for (String[] suburb : SUBURBS) {
+            writer.share(Arrays.asList(suburb));
+        }
+        writer.share(Arrays.asList(STREET_NAMES));
+        writer.share(Arrays.asList(STREET_NUMBERS));
+        writer.share(Arrays.asList(CARD_TYPES));
+
+        writer.beginObject(Magazine.class, null);
+        long written = 0;
+        for (ObjectStreamField field : ObjectStreamClass.lookup(Magazine.class).getFields()) {
+            switch (field.getName()) {
+                case "weeklyCost":
+                    writer.out.writeFloat(weeklyCost);
+                    break;
+                case "m_title":
+                    writer.writeObject(title);
+                    break;
+                case "supplementList":
+                    writer.writeObject(run.offered);
+                    break;
+                case "customerList":
+                    writer.beginList(total);
+                    for (int i = 0; i < payingCustomers; i++) {
+                        PayingCustomer payer = run.nextPayer();
+                        // Associates are written inside their payer, then listed again by reference
+                        writer.share(payer.getAssociateCustomers());
+                        writer.writeObject(payer);
+                        for (Customer associate : payer.getAssociateCustomers()) {
+                            writer.writeObject(associate);
+                        }
+                        writer.forget(payer.getAssociateCustomers());
+                        written += 1 + payer.getAssociateCustomers().size();
+                    }
+                    writer.endList();
+                    break;
+                default:
+                    throw new IllegalStateException("No streaming form for Magazine field " + field.getName());
+            }
+        }
+        // Mirrors Magazine.writeObject, which writes its fields and nothing else
+        writer.out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+
+        if (written != total) {
+            throw new IllegalStateException("Wrote " + written + " customers but announced " + total);
+        }
+        writer.out.flush();
+        return written;
+    }
+
+
+    /**
+     * Writes the magazine to a file, choosing the format from the extension.
+     * Precondition: file ends in `.ser` or `.csv`.
+     * Post condition: The file holds the generated magazine.
+     * @param file The file to write.
+     * @return the number of customers written.
+     * @throws IOException if writing fails.
+     */
+    public long writeTo(File file) throws IOException
+    {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ser")) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+                return writeSer(out);
+            }
+        }
+        if (name.endsWith(".csv")) {
+            try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                return writeCsv(out);
+            }
+        }
+        throw new IllegalArgumentException("Unsupported file type, use .ser or .csv: " + file);
+    }
+
+
+    private Magazine createMagazine(Run run)
+    {
+        Magazine magazine = new Magazine(title, weeklyCost);
+        for (Supplement supplement : run.offered) {
+            magazine.addSupplement(supplement);
+        }
+        return magazine;
+    }
+
+
+    private int checkListSize()
+    {
+        long total = getCustomerCount();
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException(total + " customers do not fit in one magazine");
+        }
+        return (int) total;
+    }
+
+
+    private static int drawBetween(Random random, int min, int max)
+    {
+        return min == max ? min : min + random.nextInt(max - min + 1);
+    }
+
+
+    /**
+     * The random state of one pass over the customers. Every output makes a new Run, so they all
+     * see the same customers.
+     */
+    private final class Run
+    {
+        private final Random random = new Random(seed);
+        private final Random associateCounts = new Random(seed ^ ASSOCIATE_STREAM);
+        private final ArrayList<Supplement> offered = new ArrayList<>();
+        private final double[] suburbCumulative = new double[SUBURBS.length];
+        // Supplement positions, partly shuffled for each customer to pick distinct supplements
+        private final int[] order;
+        private long nextCustomer;
+        // Name parts of the customer being built, reused for the email
+        private String lastFirst;
+        private String lastLast;
+
+        private Run()
+        {
+            for (int i = 0; i < supplements; i++) {
+                String topic = SUPPLEMENT_TOPICS[i % SUPPLEMENT_TOPICS.length];
+                String name = i < SUPPLEMENT_TOPICS.length ? topic : topic + " " + (i / SUPPLEMENT_TOPICS.length + 1);
+                offered.add(new Supplement(name, 0.5f + random.nextInt(20) * 0.25f));
+            }
+            order = new int[supplements];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            double sum = 0;
+            for (int i = 0; i < SUBURBS.length; i++) {
+                sum += 1 / Math.pow(i + 1, suburbSkew);
+                suburbCumulative[i] = sum;
+            }
+        }
+
+        /**
+         * Builds the next paying customer together with its associates.
+         */
+        private PayingCustomer nextPayer()
+        {
+            int card = random.nextInt(100);
+            int cardType = card < CARD_PERCENT[0] ? 0 : card < CARD_PERCENT[0] + CARD_PERCENT[1] ? 1 : 2;
+            PaymentMethod paymentMethod = new PaymentMethod(CARD_TYPES[cardType], 10_000_000 + random.nextInt(90_000_000));
+            PayingCustomer payer = new PayingCustomer(nextName(), nextEmail(), nextAddress(), paymentMethod);
+            payer.setSupplement(nextSupplements());
+
+            int associateCount = drawBetween(associateCounts, minAssociates, maxAssociates);
+            List<Customer> associates = new ArrayList<>(associateCount);
+            for (int i = 0; i < associateCount; i++) {
+                AssociateCustomer associate = new AssociateCustomer(nextName(), nextEmail(), nextAddress());
+                associate.setSupplement(nextSupplements());
+                associates.add(associate);
+            }
+            payer.setAssociateCustomers(associates);
+            return payer;
+        }
+
+        private String nextName()
+        {
+            lastFirst = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            lastLast = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            return lastFirst + " " + lastLast;
+        }
+
+        private String nextEmail()
+        {
+            // The running number keeps every email unique, as the CSV import requires
+            return lastFirst + "." + lastLast + (nextCustomer++) + "@example.com";
+        }
+
+        private Address nextAddress()
+        {
+            double point = random.nextDouble() * suburbCumulative[suburbCumulative.length - 1];
+            int suburb = Arrays.binarySearch(suburbCumulative, point);
+            suburb = Math.min(SUBURBS.length - 1, suburb < 0 ? -suburb - 1 : suburb);
+            return new Address(STREET_NUMBERS[random.nextInt(STREET_NUMBERS.length)],
+                    STREET_NAMES[random.nextInt(STREET_NAMES.length)], SUBURBS[suburb][0], SUBURBS[suburb][1]);
+        }
+
+        private ArrayList<Supplement> nextSupplements()
+        {
+            int count = drawBetween(random, Math.min(minSupplementsPerCustomer, supplements),
+                    Math.min(maxSupplementsPerCustomer, supplements));
+            ArrayList<Supplement> picked = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(order.length - i);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+                picked.add(offered.get(order[i]));
+            }
+            return picked;
+        }
+    }
+
+
+    /**
+     * Writes Java serialization's stream format directly, producing the bytes ObjectOutputStream
+     * would for the same objects. Unlike ObjectOutputStream it only remembers the objects it is told
+     * are shared, so memory stays flat however many customers pass through.
+     */
+    private static final class SerialWriter implements ObjectStreamConstants
+    {
+        private final DataOutputStream out;
+        private int nextHandle;
+        private final Map<Class<?>, Integer> classHandles = new HashMap<>();
+        private final Map<String, Integer> typeHandles = new HashMap<>();
+        private final Map<Object, Integer> sharedHandles = new IdentityHashMap<>();
+        private final Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<Class<?>, Field[]> fields = new HashMap<>();
+
+        private SerialWriter(OutputStream out) throws IOException
+        {
+            this.out = new DataOutputStream(out);
+            this.out.writeShort(STREAM_MAGIC);
+            this.out.writeShort(STREAM_VERSION);
+        }
+
+        /**
+         * Marks objects that may be written more than once; later writes become back references.
+         */
+        private void share(List<?> objects)
+        {
+            shared.addAll(objects);
+        }
+
+        /**
+         * Drops shared objects that will not be written again.
+         */
+        private void forget(List<?> objects)
+        {
+            for (Object object : objects) {
+                shared.remove(object);
+                sharedHandles.remove(object);
+            }
+        }
+
+        private void writeObject(Object object) throws IOException
+        {
+            if (object == null) {
+                out.writeByte(TC_NULL);
+                return;
+            }
+            Integer handle = sharedHandles.get(object);
+            if (handle != null) {
+                out.writeByte(TC_REFERENCE);
+                out.writeInt(baseWireHandle + handle);
+            } else if (object instanceof String) {
+                out.writeByte(TC_STRING);
+                assign(object);
+                out.writeUTF((String) object);
+            } else if (object.getClass() == ArrayList.class) {
+                List<?> list = (List<?>) object;
+                beginList(list.size());
+                for (Object element : list) {
+                    writeObject(element);
+                }
+                endList();
+            } else {
+                writeOrdinary(object);
+            }
+        }
+
+        private void beginObject(Class<?> type, Object object) throws IOException
+        {
+            out.writeByte(TC_OBJECT);
+            writeClassDesc(type);
+            assign(object);
+        }
+
+        /**
+         * Starts an ArrayList; the caller writes exactly size elements and then calls endList().
+         */
+        private void beginList(int size) throws IOException
+        {
+            beginObject(ArrayList.class, null);
+            // ArrayList.writeObject: the size field, then the size again as block data, then the elements
+            out.writeInt(size);
+            out.writeByte(TC_BLOCKDATA);
+            out.writeByte(4);
+            out.writeInt(size);
+        }
+
+        private void endList() throws IOException
+        {
+            out.writeByte(TC_ENDBLOCKDATA);
+        }
+
+        private void writeOrdinary(Object object) throws IOException
+        {
+            Class<?> type = object.getClass();
+            beginObject(type, object);
+            List<Class<?>> layout = new ArrayList<>();
+            for (Class<?> c = type; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                layout.add(0, c);
+            }
+            for (Class<?> c : layout) {
+                if (c == PayingCustomer.class) {
+                    // Mirrors PayingCustomer.writeObject
+                    PayingCustomer payer = (PayingCustomer) object;
+                    writeObject(new ArrayList<>(payer.getAssociateCustomers()));
+                    writeObject(payer.getPaymentMethod());
+                    out.writeByte(TC_ENDBLOCKDATA);
+                } else if (hasWriteObject(c)) {
+                    throw new IllegalStateException("No streaming form for " + c.getName());
+                } else {
+                    writeFields(c, object);
+                }
+            }
+        }
+
+        private void writeFields(Class<?> type, Object object) throws IOException
+        {
+            ObjectStreamField[] streamFields = ObjectStreamClass.lookup(type).getFields();
+            Field[] declared = fields.get(type);
+            if (declared == null) {
+                declared = new Field[streamFields.length];
+                for (int i = 0; i < streamFields.length; i++) {
+                    try {
+                        declared[i] = type.getDeclaredField(streamFields[i].getName());
+                        declared[i].setAccessible(true);
+                    } catch (NoSuchFieldException e) {
+                        throw new IllegalStateException("No streaming form for " + type.getName(), e);
+                    }
+                }
+                fields.put(type, declared);
+            }
+            try {
+                for (int i = 0; i < streamFields.length; i++) {
+                    Field field = declared[i];
+                    switch (streamFields[i].getTypeCode()) {
+                        case 'Z': out.writeBoolean(field.getBoolean(object)); break;
+                        case 'B': out.writeByte(field.getByte(object)); break;
+                        case 'C': out.writeChar(field.getChar(object)); break;
+                        case 'S': out.writeShort(field.getShort(object)); break;
+                        case 'I': out.writeInt(field.getInt(object)); break;
+                        case 'J': out.writeLong(field.getLong(object)); break;
+                        case 'F': out.writeFloat(field.getFloat(object)); break;
+                        case 'D': out.writeDouble(field.getDouble(object)); break;
+                        default: writeObject(field.get(object)); break;
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void writeClassDesc(Class<?> type) throws IOException
+        {
+            if (type == null || !Serializable.class.isAssignableFrom(type)) {
+                out.writeByte(TC_NULL);
+                return;
+            }
+            Integer handle = classHandles.get(type);
+            if (handle != null) {
+                out.writeByte(TC_REFERENCE);
+                out.writeInt(baseWireHandle + handle);
+                return;
+            }
+            ObjectStreamClass desc = ObjectStreamClass.lookup(type);
+            out.writeByte(TC_CLASSDESC);
+            classHandles.put(type, nextHandle++);
+            out.writeUTF(desc.getName());
+            out.writeLong(desc.getSerialVersionUID());
+            out.writeByte(SC_SERIALIZABLE | (hasWriteObject(type) ? SC_WRITE_METHOD : 0));
+            ObjectStreamField[] streamFields = desc.getFields();
+            out.writeShort(streamFields.length);
+            for (ObjectStreamField field : streamFields) {
+                out.writeByte(field.getTypeCode());
+                out.writeUTF(field.getName());
+                if (!field.isPrimitive()) {
+                    writeTypeString(field.getTypeString());
+                }
+            }
+            out.writeByte(TC_ENDBLOCKDATA);
+            writeClassDesc(type.getSuperclass());
+        }
+
+        private void writeTypeString(String typeString) throws IOException
+        {
+            Integer handle = typeHandles.get(typeString);
+            if (handle != null) {
+                out.writeByte(TC_REFERENCE);
+                out.writeInt(baseWireHandle + handle);
+                return;
+            }
+            out.writeByte(TC_STRING);
+            typeHandles.put(typeString, nextHandle++);
+            out.writeUTF(typeString);
+        }
+
+        private void assign(Object object)
+        {
+            int handle = nextHandle++;
+            if (object != null && shared.contains(object)) {
+                sharedHandles.put(object, handle);
+            }
+        }
+
+        private static boolean hasWriteObject(Class<?> type)
+        {
+            try {
+                Method method = type.getDeclaredMethod("writeObject", ObjectOutputStream.class);
+                return Modifier.isPrivate(method.getModifiers()) && !Modifier.isStatic(method.getModifiers());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * Command line entry point: writes one generated magazine file.
+     * Precondition: None.
+     * Post condition: The file is written and the process exits with status 0, or 2 for usage errors.
+     * @param args Command line options, see usage().
+     */
+    public static void main(String[] args)
+    {
+        MagazineGenerator generator;
+        File file = null;
+        try {
+            long seed = DEFAULT_SEED;
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--seed")) {
+                    seed = Long.parseLong(args[++i]);
+                }
+            }
+            generator = new MagazineGenerator(seed);
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--seed":
+                        i++;
+                        break;
+                    case "--payers":
+                        generator.setPayingCustomers(Integer.parseInt(args[++i]));
+                        break;
+                    case "--associates":
+                        int[] associates = parseRange(args[++i]);
+                        generator.setAssociatesPerPayer(associates[0], associates[1]);
+                        break;
+                    case "--supplements":
+                        generator.setSupplements(Integer.parseInt(args[++i]));
+                        break;
+                    case "--per-customer":
+                        int[] perCustomer = parseRange(args[++i]);
+                        generator.setSupplementsPerCustomer(perCustomer[0], perCustomer[1]);
+                        break;
+                    case "--skew":
+                        generator.setSuburbSkew(Double.parseDouble(args[++i]));
+                        break;
+                    case "--title":
+                        generator.setTitle(args[++i], generator.weeklyCost);
+                        break;
+                    case "--help":
+                        usage(System.out);
+                        System.exit(0);
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || file != null) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        file = new File(args[i]);
+                }
+            }
+            if (file == null) {
+                throw new IllegalArgumentException("Name the .ser or .csv file to write");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            usage(System.err);
+            System.exit(2);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long written = generator.writeTo(file);
+            System.err.printf(Locale.ROOT, "Wrote %d customers to %s (%.1f MB) in %d ms%n", written, file,
+                    file.length() / 1e6, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Could not write " + file + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+
+    private static int[] parseRange(String text)
+    {
+        String[] parts = text.split("-", 2);
+        int min = Integer.parseInt(parts[0].trim());
+        int max = parts.length == 1 ? min : Integer.parseInt(parts[1].trim());
+        return new int[] {min, max};
+    }
+
+
+    /**
+     * Prints the command line usage.
+     */
+    private static void usage(PrintStream out)
+    {
+        out.println("Usage: java -cp magazine-core.jar magazineserviceapplication.MagazineGenerator [options] <file.ser|file.csv>");
+        out.println();
+        out.println("  --payers <n>              paying customers (default 1000)");
+        out.println("  --associates <min-max>    associates per paying customer (default 0-3)");
+        out.println("  --supplements <n>         supplements the magazine offers (default 20)");
+        out.println("  --per-customer <min-max>  supplements each customer takes (default 1-4)");
+        out.println("  --skew <s>                Zipf exponent of the suburbs, 0 for even (default 1.0)");
+        out.println("  --seed <n>                random seed (default " + DEFAULT_SEED + ")");
+        out.println("  --title <text>            magazine title");
+        out.println();
+        out.println("A .ser file is streamed, so any size can be written without holding it in memory.");
+        out.println("Import a .csv file into a magazine that already has the same supplements.");
+    }
+}
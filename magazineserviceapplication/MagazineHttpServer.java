@@ -0,0 +1,557 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineHttpServer.java
+ * @purpose This class serves the magazines held by a MagazineServiceHandler as a read only JSON API
+ *          over HTTP, so other systems can read subscriptions and billing totals without the GUI.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Requests are handled on virtual threads, one per request.
+ *  - A magazine's ETag changes whenever the magazine publishes a change or is reloaded; edits made
+ *    directly on customer objects without Magazine.updateCustomer are not seen by the ETag.
+ *  - Bank account numbers are masked to their last four digits.
+ *
+ * @expected input:
+ *  - GET or HEAD requests on the routes below, optionally with If-None-Match.
+ *      /api/magazines
+ *      /api/magazines/{name}
+ *      /api/magazines/{name}/customers?offset=0&limit=100
+ *      /api/magazines/{name}/customers/{id}
+ *      /api/magazines/{name}/customers/{id}/bill
+ *
+ * @expected output:
+ *  - JSON bodies streamed to the client with an ETag, 304 when the client's copy is current,
+ *    and {"error": "..."} bodies for 400, 404 and 405 responses.
+ */
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class MagazineHttpServer
+{
+    // Default and largest page size of the customer listing
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String API_PREFIX = "/api/magazines";
+
+    private static final Logger LOG = Logger.getLogger(MagazineHttpServer.class.getName());
+
+    private final MagazineServiceHandler magazinehandler;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: magazinehandler must not be null.
+     * Post condition: A server bound to the address is created but not started.
+     *
+     * @param magazinehandler The handler whose magazines are served.
+     * @param address The address and port to listen on; port 0 picks a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public MagazineHttpServer(MagazineServiceHandler magazinehandler, InetSocketAddress address) throws IOException
+    {
+        this.magazinehandler = magazinehandler;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("magazine-http-", 0).factory());
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(executor);
+        this.server.createContext(API_PREFIX, this::handle);
+    }
+
+
+    /**
+     * Starts accepting requests.
+     * Precondition: The server has not been started.
+     * Post condition: Requests are served until stop() is called.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+
+    /**
+     * Stops the server, letting running requests finish for up to the given delay.
+     * Precondition: The server was started.
+     * Post condition: No further requests are accepted and the request threads are released.
+     *
+     * @param delaySeconds Seconds to wait for running requests.
+     */
+    public void stop(int delaySeconds)
+    {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+
+    /**
+     * Returns the port the server listens on, useful when it was created with port 0.
+     * @return the bound port.
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * Routes a request and turns failures into JSON error responses.
+     */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                sendError(exchange, 405, "Only GET and HEAD are supported");
+                return;
+            }
+            route(exchange);
+        } catch (NotFound e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Request " + exchange.getRequestURI() + " failed", e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    private void route(HttpExchange exchange) throws IOException
+    {
+        String path = exchange.getRequestURI().getPath();
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring(API_PREFIX.length()).split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+
+        if (segments.isEmpty()) {
+            listMagazines(exchange);
+            return;
+        }
+        String name = segments.get(0);
+        Magazine magazine = magazinehandler.getMagazine(name);
+        if (magazine == null) {
+            throw new NotFound("No magazine named " + name);
+        }
+
+        if (segments.size() == 1) {
+            describeMagazine(exchange, name, magazine);
+        } else if (segments.size() == 2 && segments.get(1).equals("customers")) {
+            listCustomers(exchange, magazine);
+        } else if (segments.size() >= 3 && segments.size() <= 4 && segments.get(1).equals("customers")) {
+            Customer customer = magazine.getCustomerById(parseInt(segments.get(2), "customer id"));
+            if (customer == null) {
+                throw new NotFound("No customer with id " + segments.get(2));
+            }
+            if (segments.size() == 3) {
+                describeCustomer(exchange, magazine, customer);
+            } else if (segments.get(3).equals("bill") && customer instanceof PayingCustomer) {
+                describeBill(exchange, magazine, (PayingCustomer) customer);
+            } else if (segments.get(3).equals("bill")) {
+                throw new NotFound("Customer " + segments.get(2) + " is not a paying customer");
+            } else {
+                throw new NotFound("No such resource " + path);
+            }
+        } else {
+            throw new NotFound("No such resource " + path);
+        }
+    }
+
+
+    private void listMagazines(HttpExchange exchange) throws IOException
+    {
+        List<String> names = magazinehandler.getAllMagazineNames();
+        Collections.sort(names);
+
+        // The catalog changes when any magazine changes, is added, evicted or reloaded.
+        // Evicted magazines are listed without reading them back, so the catalog never thrashes the cache.
+        long tag = names.size();
+        for (String name : names) {
+            Magazine magazine = magazinehandler.peekMagazine(name);
+            tag = tag * 31 + name.hashCode();
+            tag = tag * 31 + (magazine == null ? magazinehandler.getMagazineFile(name).lastModified() : magazineTag(magazine).hashCode());
+        }
+        String etag = "\"c-" + Long.toHexString(tag) + "\"";
+
+        JsonWriter json = beginJson(exchange, etag);
+        if (json == null) {
+            return;
+        }
+        json.beginArray();
+        for (String name : names) {
+            Magazine magazine = magazinehandler.peekMagazine(name);
+            json.beginObject()
+                .field("name", name)
+                .field("loaded", magazine != null);
+            if (magazine != null) {
+                json.field("customers", magazine.getCustomerCount())
+                    .field("supplements", magazine.getSupplements().size())
+                    .field("version", magazine.getVersion());
+            }
+            json.endObject();
+        }
+        json.endArray();
+        endJson(exchange);
+    }
+
+
+    private void describeMagazine(HttpExchange exchange, String name, Magazine magazine) throws IOException
+    {
+        // The tag comes from the snapshot, so it names the version the body is written from
+        MagazineSnapshot snapshot = magazine.snapshot();
+        JsonWriter json = beginJson(exchange, magazineTag(magazine, snapshot.getVersion(), "m"));
+        if (json == null) {
+            return;
+        }
+        json.beginObject()
+            .field("name", name)
+            .field("weeklyCost", snapshot.getWeeklyCost())
+            .field("customers", snapshot.getCustomerCount())
+            .field("version", snapshot.getVersion());
+        json.name("supplements").beginArray();
+        for (Supplement supplement : snapshot.getSupplements()) {
+            json.beginObject()
+                .field("name", supplement.getName())
+                .field("weeklyCost", supplement.getCost())
+                .endObject();
+        }
+        json.endArray().endObject();
+        endJson(exchange);
+    }
+
+
+    private void listCustomers(HttpExchange exchange, Magazine magazine) throws IOException
+    {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int offset = query.containsKey("offset") ? parseInt(query.get("offset"), "offset") : 0;
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : DEFAULT_PAGE_SIZE;
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("offset must be at least 0 and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        MagazineSnapshot snapshot = magazine.snapshot();
+        String etag = magazineTag(magazine, snapshot.getVersion(), "p" + offset + "-" + limit);
+        JsonWriter json = beginJson(exchange, etag);
+        if (json == null) {
+            return;
+        }
+        int total = snapshot.getCustomerCount();
+        List<Customer> page = snapshot.getCustomers(Math.min(offset, total), limit);
+
+        json.beginObject()
+            .field("total", total)
+            .field("offset", offset)
+            .field("limit", limit);
+        json.name("items").beginArray();
+        for (Customer customer : page) {
+            writeCustomer(json, customer, false);
+        }
+        json.endArray().endObject();
+        endJson(exchange);
+    }
+
+
+    private void describeCustomer(HttpExchange exchange, Magazine magazine, Customer customer) throws IOException
+    {
+        JsonWriter json = beginJson(exchange, magazineTag(magazine, "c" + customer.getCustomerId()));
+        if (json == null) {
+            return;
+        }
+        writeCustomer(json, customer, true);
+        endJson(exchange);
+    }
+
+
+    private void describeBill(HttpExchange exchange, Magazine magazine, PayingCustomer customer) throws IOException
+    {
+        JsonWriter json = beginJson(exchange, magazineTag(magazine, "b" + customer.getCustomerId()));
+        if (json == null) {
+            return;
+        }
+        json.beginObject()
+            .field("id", customer.getCustomerId())
+            .field("name", customer.getName())
+            .field("monthlyTotal", Math.round(customer.calculateTotalSupplementsCost() * 100) / 100.0)
+            .field("ownMonthlyCost", Math.round(customer.calculateMonthlyCost() * 100) / 100.0);
+        json.name("associates").beginArray();
+        for (Customer associate : customer.getAssociateCustomers()) {
+            json.beginObject()
+                .field("id", associate.getCustomerId())
+                .field("name", associate.getName())
+                .field("monthlyCost", Math.round(associate.calculateMonthlyCost() * 100) / 100.0)
+                .endObject();
+        }
+        json.endArray().endObject();
+        endJson(exchange);
+    }
+
+
+    /**
+     * Writes one customer; the detailed form adds the address, payment method and associates.
+     */
+    private static void writeCustomer(JsonWriter json, Customer customer, boolean detailed)
+    {
+        json.beginObject()
+            .field("id", customer.getCustomerId())
+            .field("type", customer instanceof PayingCustomer ? "paying" : "associate")
+            .field("name", customer.getName())
+            .field("email", customer.getEmail());
+        json.name("supplements").beginArray();
+        for (Supplement supplement : customer.getSupplement()) {
+            json.value(supplement.getName());
+        }
+        json.endArray();
+
+        if (detailed) {
+            Address address = customer.getAddress();
+            if (address != null) {
+                json.name("address").beginObject()
+                    .field("streetNumber", address.getStreetNumber())
+                    .field("streetName", address.getStreetName())
+                    .field("suburb", address.getSuburb())
+                    .field("postcode", address.getPostcode())
+                    .endObject();
+            }
+            if (customer instanceof PayingCustomer) {
+                PayingCustomer payingCustomer = (PayingCustomer) customer;
+                PaymentMethod paymentMethod = payingCustomer.getPaymentMethod();
+                if (paymentMethod != null) {
+                    String account = String.valueOf(paymentMethod.getAccountNo());
+                    json.name("paymentMethod").beginObject()
+                        .field("cardType", paymentMethod.getCardType())
+                        .field("account", "****" + account.substring(Math.max(0, account.length() - 4)))
+                        .endObject();
+                }
+                json.name("associates").beginArray();
+                for (Customer associate : payingCustomer.getAssociateCustomers()) {
+                    json.value(associate.getCustomerId());
+                }
+                json.endArray();
+            }
+        }
+        json.endObject();
+    }
+
+
+    /**
+     * Returns the ETag of a magazine as it is now; it changes with every published change and
+     * with every reload, since a reloaded magazine is a new object.
+     */
+    private static String magazineTag(Magazine magazine)
+    {
+        return magazineTag(magazine, "m");
+    }
+
+
+    private static String magazineTag(Magazine magazine, String resource)
+    {
+        return magazineTag(magazine, magazine.getVersion(), resource);
+    }
+
+
+    private static String magazineTag(Magazine magazine, long version, String resource)
+    {
+        return "\"" + resource + "-" + Integer.toHexString(System.identityHashCode(magazine))
+                + "-" + Long.toHexString(version) + "\"";
+    }
+
+
+    /**
+     * Answers 304 if the client already has this version, otherwise starts a streamed JSON body.
+     * Returns null when no body is to be written.
+     */
+    private static JsonWriter beginJson(HttpExchange exchange, String etag) throws IOException
+    {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache");
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return null;
+        }
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(200, -1);
+            return null;
+        }
+        // Length 0 selects chunked encoding, so the body is sent while it is written
+        exchange.sendResponseHeaders(200, 0);
+        Writer body = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192);
+        exchange.setAttribute("body", body);
+        return new JsonWriter(body);
+    }
+
+
+    private static void endJson(HttpExchange exchange) throws IOException
+    {
+        ((Writer) exchange.getAttribute("body")).flush();
+    }
+
+
+    private static boolean matches(String ifNoneMatch, String etag)
+    {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException
+    {
+        if (exchange.getResponseCode() != -1) {
+            // The body was already being streamed, closing the exchange cuts it short
+            return;
+        }
+        byte[] body;
+        StringBuilder text = new StringBuilder();
+        new JsonWriter(text).beginObject().field("error", message).endObject();
+        body = text.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().remove("ETag");
+        exchange.sendResponseHeaders(status, exchange.getRequestMethod().equals("HEAD") ? -1 : body.length);
+        if (!exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+
+    private static Map<String, String> parseQuery(String rawQuery)
+    {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+
+    private static int parseInt(String text, String what)
+    {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(what + " must be a whole number");
+        }
+    }
+
+
+    /**
+     * Signals a 404 response.
+     */
+    private static class NotFound extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        private NotFound(String message)
+        {
+            super(message);
+        }
+    }
+
+
+    /**
+     * Command line entry point: loads the magazines in a directory, as many as the memory budget
+     * holds, and serves them all; the others load on first request. Files rewritten while the
+     * server runs are reloaded.
+     * Precondition: None.
+     * Post condition: The server runs until the process is stopped.
+     *
+     * @param args --dir path [--port 8080] [--bind 127.0.0.1]
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        // Streamed bodies go out in several small writes; without TCP_NODELAY each response waits
+        // for the client's delayed ACK. The JDK reads this once for every HttpServer in the process,
+        // so it is set here, before any server exists, rather than by the constructor.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        File dir = new File(".");
+        int port = 8080;
+        String bind = "127.0.0.1";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--dir":
+                    dir = new File(args[i + 1]);
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--bind":
+                    bind = args[i + 1];
+                    break;
+                default:
+                    System.err.println("Usage: MagazineHttpServer [--dir path] [--port 8080] [--bind 127.0.0.1]");
+                    System.exit(2);
+            }
+        }
+
+        MagazineServiceHandler magazinehandler = new MagazineServiceHandler(new LoggingNotificationSink(), dir);
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            new MagazinePreloader(magazinehandler, dir, List.of(), MagazinePreloader.defaultParallelism())
+                    .start(loaders)
+                    .join();
+        }
+        MagazineDirectoryWatcher watcher = new MagazineDirectoryWatcher(magazinehandler, dir,
+                MagazineDirectoryWatcher.defaultDebounceMillis(), Executors.newVirtualThreadPerTaskExecutor());
+        watcher.start();
+
+        MagazineHttpServer server = new MagazineHttpServer(magazinehandler, new InetSocketAddress(bind, port));
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.close();
+            server.stop(1);
+        }));
+        System.err.println("Serving " + magazinehandler.getAllMagazineNames().size() + " magazine(s) on http://"
+                + bind + ":" + server.getPort() + API_PREFIX);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineListener.java
+ * @purpose This interface receives the change events a magazine publishes when a supplement or
+ *          customer is added, removed or updated.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Events are delivered on the thread that changed the magazine, while the magazine is locked,
+ *    so implementations must be quick and must not block.
+ *
+ * @expected input:
+ *  - One MagazineEvent per change.
+ *
+ * @expected output:
+ *  - Implementation defined, typically a patch to a view.
+ */
+
+public interface MagazineListener
+{
+    /**
+     * Called after the magazine changed.
+     * Precondition: event must not be null.
+     * Post condition: The implementation has reacted to the change.
+     * @param event The change that happened.
+     */
+    void magazineChanged(MagazineEvent event);
+}
@@ -0,0 +1,277 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazinePreloader.java
+ * @purpose This class finds the magazine files in a directory when the application starts and loads
+ *          them in the background, most relevant first, so they are ready when the operator needs them.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Every `.ser` file in the directory is a saved magazine named after the file.
+ *  - Recently used magazines come first, in the order given, then the other files from the most
+ *    recently modified to the oldest.
+ *  - Every discovered magazine is registered with the handler at once, so it can be picked before
+ *    it is loaded; asking for one that is still loading waits for that load instead of starting another.
+ *  - Loading stops once the handler's memory budget is full; the remaining magazines load on first use.
+ *
+ * @expected input:
+ *  - The handler to fill, its data directory, the recent names and how many files to read at once.
+ *
+ * @expected output:
+ *  - Loaded magazines in the handler and a Result with the counts and elapsed time.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+public class MagazinePreloader
+{
+    // System property holding how many files are read at once
+    public static final String PARALLELISM_PROPERTY = "magazine.preload.threads";
+
+    private static final Logger LOG = Logger.getLogger(MagazinePreloader.class.getName());
+
+    private final MagazineServiceHandler magazinehandler;
+    private final File directory;
+    private final List<String> recentNames;
+    private final int parallelism;
+    private volatile boolean cancelled;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: All parameters must be initialized and parallelism must be at least 1.
+     * Post condition: A preloader for the directory is created; nothing is read until start().
+     *
+     * @param magazinehandler The handler to load the magazines into; it must read from directory.
+     * @param directory The directory holding the `.ser` files.
+     * @param recentNames Recently used magazine names, most recent first.
+     * @param parallelism How many files are read at once.
+     */
+    public MagazinePreloader(MagazineServiceHandler magazinehandler, File directory, List<String> recentNames, int parallelism)
+    {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.magazinehandler = magazinehandler;
+        this.directory = directory;
+        this.recentNames = new ArrayList<>(recentNames);
+        this.parallelism = parallelism;
+    }
+
+
+    /**
+     * Returns the default number of files read at once: the magazine.preload.threads system property,
+     * or the processor count capped at four.
+     * Precondition: None.
+     * Post condition: Returns a value of at least 1.
+     * @return the default parallelism.
+     */
+    public static int defaultParallelism()
+    {
+        int fallback = Math.min(4, Runtime.getRuntime().availableProcessors());
+        try {
+            return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, fallback));
+        } catch (SecurityException e) {
+            return fallback;
+        }
+    }
+
+
+    /**
+     * Lists the magazines in the directory in the order they will be loaded.
+     * Precondition: None.
+     * Post condition: Returns recent magazines that have a file, in recent order, then the others
+     *                 from newest to oldest file.
+     * @return the magazine names in load order.
+     */
+    public List<String> discover()
+    {
+        File[] files = directory.listFiles((dir, fileName) -> fileName.endsWith(".ser"));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> byAge = new ArrayList<>(List.of(files));
+        byAge.sort(Comparator.comparingLong(File::lastModified).reversed());
+
+        Set<String> onDisk = new LinkedHashSet<>();
+        for (File file : byAge) {
+            onDisk.add(file.getName().substring(0, file.getName().length() - 4));
+        }
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : recentNames) {
+            if (onDisk.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        ordered.addAll(onDisk);
+        return new ArrayList<>(ordered);
+    }
+
+
+    /**
+     * Registers every discovered magazine with the handler and starts loading them.
+     * Precondition: executor must accept at least parallelism tasks.
+     * Post condition: Returns a future completed when loading stops; loaded magazines are ordered in
+     *                 the handler so the most relevant ones are the last to be evicted.
+     *
+     * @param executor The executor running the loading tasks.
+     * @return the future result of the preload.
+     */
+    public CompletableFuture<Result> start(Executor executor)
+    {
+        long startNanos = System.nanoTime();
+        List<String> names = discover();
+        for (String name : names) {
+            magazinehandler.registerSavedMagazine(name);
+        }
+
+        // Workers take names from one queue, so files start loading strictly in priority order
+        ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>(names);
+        List<String> pinned = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failed = new AtomicInteger();
+        int workers = Math.max(1, Math.min(parallelism, names.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = CompletableFuture.runAsync(() -> {
+                String name;
+                while (!cancelled && !budgetFull() && (name = queue.poll()) != null) {
+                    // Pinned until the preload ends, so a later load cannot evict an earlier, more relevant one
+                    if (magazinehandler.pinMagazine(name) != null) {
+                        pinned.add(name);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }, executor);
+        }
+
+        return CompletableFuture.allOf(running).handle((ignored, error) -> {
+            Set<String> pinnedNames = new HashSet<>(pinned);
+            List<String> loaded = new ArrayList<>();
+            for (String name : names) {
+                if (pinnedNames.contains(name)) {
+                    loaded.add(name);
+                }
+            }
+
+            // Use the loaded magazines from least to most relevant, then let them go
+            for (int i = loaded.size() - 1; i >= 0; i--) {
+                magazinehandler.getMagazine(loaded.get(i));
+            }
+            for (String name : loaded) {
+                magazinehandler.unpinMagazine(name);
+            }
+            // Workers check the budget before each read, so the last few reads can overshoot it
+            magazinehandler.trimToBudget();
+            Result result = new Result(names.size(), loaded.size(), failed.get(), System.nanoTime() - startNanos);
+            LOG.info("Preloaded " + result);
+            return result;
+        });
+    }
+
+
+    /**
+     * Stops loading further magazines; loads already running finish.
+     * Precondition: None.
+     * Post condition: No new file is read by this preloader.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+
+    private boolean budgetFull()
+    {
+        MagazineServiceHandler.CacheStats stats = magazinehandler.getCacheStats();
+        return stats.getEstimatedBytes() >= stats.getBudgetBytes();
+    }
+
+
+    /**
+     * Counts of one preload.
+     */
+    public static final class Result
+    {
+        private final int discovered;
+        private final int loaded;
+        private final int failed;
+        private final long elapsedNanos;
+
+        private Result(int discovered, int loaded, int failed, long elapsedNanos)
+        {
+            this.discovered = discovered;
+            this.loaded = loaded;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Getter for magazine files found in the directory.
+         * Precondition: Result object exists.
+         * Post condition: Returns magazine files found in the directory.
+         * @return magazine files found in the directory.
+         */
+        public int getDiscovered()
+        {
+            return discovered;
+        }
+
+        /**
+         * Getter for magazines read into memory.
+         * Precondition: Result object exists.
+         * Post condition: Returns magazines read into memory.
+         * @return magazines read into memory.
+         */
+        public int getLoaded()
+        {
+            return loaded;
+        }
+
+        /**
+         * Getter for magazines whose file could not be read.
+         * Precondition: Result object exists.
+         * Post condition: Returns magazines whose file could not be read.
+         * @return magazines whose file could not be read.
+         */
+        public int getFailed()
+        {
+            return failed;
+        }
+
+        /**
+         * Getter for time from start() until loading stopped.
+         * Precondition: Result object exists.
+         * Post condition: Returns time from start() until loading stopped.
+         * @return time from start() until loading stopped.
+         */
+        public long getElapsedNanos()
+        {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return loaded + " of " + discovered + " magazine(s)" + (failed == 0 ? "" : ", " + failed + " failed")
+                    + " in " + elapsedNanos / 1_000_000 + " ms";
+        }
+    }
+}
@@ -17,6 +17,11 @@ package magazineserviceapplication;
  *  - The application starts with a create mode by default.
  *  - The GUI components (buttons, choices) are initialized and responsive.
  *  - Valid magazine names are chosen when viewing or editing.
+ *  - Magazines are kept in the directory named by the magazine.data.dir system property, or in the
+ *    working directory; the saved ones start loading in the background while the start page shows.
+ *  - The directory is watched, and files rewritten by other programs replace the magazines in memory.
+ *  - Magazines with unsaved changes are saved in the background once edits pause, and when the
+ *    application exits.
  * 
  * @expected input:
  *  - User interactions with buttons and selections for mode switching.
@@ -25,13 +30,30 @@ package magazineserviceapplication;
  *  - Different application modes displayed (create, view, edit) with functionality based on user interactions.
  */
 
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
 public class MagazineServiceApplication extends Application
 {
-    private MagazineServiceHandler magazinehandler = new MagazineServiceHandler();
+    // System property naming the directory that holds the .ser files
+    public static final String DATA_DIRECTORY_PROPERTY = "magazine.data.dir";
+    
+    private File dataDirectory = new File(System.getProperty(DATA_DIRECTORY_PROPERTY, "."));
+    private ToastNotificationSink notifications = new ToastNotificationSink();
+    private MagazineServiceHandler magazinehandler = new MagazineServiceHandler(notifications, dataDirectory);
+    private RecentMagazines recentMagazines = new RecentMagazines();
+    private MagazinePreloader preloader;
+    private MagazineDirectoryWatcher watcher;
+    private AutoSaveScheduler autoSave;
     private MagazineServiceApplicationGUI m_gui;
+    
+    // One controller per mode, reused across mode switches
+    private CreateController createController;
+    private ViewController viewController;
+    private EditController editController;
     private AlertsHandler alert = new AlertsHandler();
     private Magazine magazine = new Magazine();
     
@@ -47,10 +69,32 @@ public class MagazineServiceApplication extends Application
     @Override
     public void start(Stage primaryStage)
     {
+        // Handler messages are shown as toasts over the main window
+        notifications.setOwner(primaryStage);
         
         // Display the StartPage screen initially
         StartPage startPage = new StartPage(primaryStage, this);
         startPage.show();
+        
+        // Load the saved magazines, recently used first, while the start page is showing
+        preloader = new MagazinePreloader(magazinehandler, dataDirectory, recentMagazines.list(),
+                MagazinePreloader.defaultParallelism());
+        preloader.start(AppExecutors.background());
+        
+        // Pick up files the batch jobs rewrite while the application is open
+        watcher = new MagazineDirectoryWatcher(magazinehandler, dataDirectory,
+                MagazineDirectoryWatcher.defaultDebounceMillis(), AppExecutors.background());
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            notifications.publish(NotificationSink.Level.ERROR, "Changes to " + dataDirectory + " will not be picked up: " + e.getMessage());
+        }
+        
+        // Save edits in the background, off the FX thread
+        autoSave = AutoSaveScheduler.fromSystemProperties(magazinehandler);
+        if (autoSave != null) {
+            autoSave.start();
+        }
       
     }
     
@@ -65,6 +109,9 @@ public class MagazineServiceApplication extends Application
     public void initializeMainApplication(Stage primaryStage) 
     {
         m_gui = new MagazineServiceApplicationGUI(primaryStage);
+        createController = new CreateController(m_gui, magazinehandler, alert, this);
+        viewController = new ViewController(m_gui, magazinehandler, alert, this);
+        editController = new EditController(m_gui, magazinehandler, alert, this);
         
         // our program will initially start with the create mode 
         switchToCreate();
@@ -84,6 +131,24 @@ public class MagazineServiceApplication extends Application
         m_gui.getEditButton().setOnAction(e -> checkMagazineEditMode());
     }
   
+    /**
+     * Runs a bulk operation, such as Save All, during which auto-save writes nothing.
+     * Precondition: None; may be called from any thread.
+     * Postcondition: The work has run, and auto-save resumes unless another bulk operation is running.
+     * @param work The bulk operation.
+     */
+    public void runBulk(Runnable work)
+    {
+        AutoSaveScheduler.Bulk bulk = autoSave == null ? null : autoSave.beginBulk();
+        try {
+            work.run();
+        } finally {
+            if (bulk != null) {
+                bulk.close();
+            }
+        }
+    }
+  
    /**
      * Switches to the create mode by initializing CreateController.
      * Precondition: m_gui is initialized.
@@ -91,7 +156,10 @@ public class MagazineServiceApplication extends Application
      */
     public void switchToCreate() 
     {
-        new CreateController(m_gui, magazinehandler, alert, this).initialize();
+        MagazineFlightEvents.ModeSwitch event = beginModeSwitch();
+        disposeControllers();
+        createController.initialize();
+        commitModeSwitch(event, "create", null);
     }
 
     
@@ -103,7 +171,11 @@ public class MagazineServiceApplication extends Application
      */
     public void switchToEdit(String m_magazineName) 
     {
-        new EditController(m_gui, magazinehandler, alert, this, m_magazineName).initialize();
+        MagazineFlightEvents.ModeSwitch event = beginModeSwitch();
+        disposeControllers();
+        recentMagazines.touch(m_magazineName);
+        editController.open(m_magazineName);
+        commitModeSwitch(event, "edit", m_magazineName);
     }
 
 
@@ -115,7 +187,45 @@ public class MagazineServiceApplication extends Application
      */
     public void switchToView(String m_magazineName) 
     {
-       new ViewController(m_gui, magazinehandler, alert, this, m_magazineName).initialize();
+        MagazineFlightEvents.ModeSwitch event = beginModeSwitch();
+        disposeControllers();
+        recentMagazines.touch(m_magazineName);
+        viewController.open(m_magazineName);
+        commitModeSwitch(event, "view", m_magazineName);
+    }
+    
+    
+    private static MagazineFlightEvents.ModeSwitch beginModeSwitch()
+    {
+        MagazineFlightEvents.ModeSwitch event = new MagazineFlightEvents.ModeSwitch();
+        event.begin();
+        return event;
+    }
+    
+    
+    /**
+     * Finishes the flight recorder event of a mode switch, if a recording wants it.
+     */
+    private static void commitModeSwitch(MagazineFlightEvents.ModeSwitch event, String mode, String m_magazineName)
+    {
+        if (event.shouldCommit()) {
+            event.mode = mode;
+            event.magazineName = m_magazineName;
+            event.commit();
+        }
+    }
+
+    
+    
+    /**
+     * Detaches the view and edit controllers from the shared GUI controls.
+     * Precondition: The controllers are initialized.
+     * Postcondition: No controller listener remains attached before the next mode is shown.
+     */
+    private void disposeControllers()
+    {
+        viewController.dispose();
+        editController.dispose();
     }
 
 
@@ -126,9 +236,10 @@ public class MagazineServiceApplication extends Application
      * Postcondition: User is prompted to select a magazine before viewing.
      */
     public void checkMagazineViewMode() {
+        disposeControllers();
         m_gui.magazineViewCheck();
 
-        m_gui.getMagazineChoice().getItems().addAll(magazinehandler.getAllMagazineNames());
+        m_gui.getMagazineChoice().getItems().setAll(magazinehandler.getAllMagazineNames());
 
         m_gui.getSubmitButton().setOnAction(e -> {
             m_magazineName = m_gui.getMagazineChoice().getSelectionModel().getSelectedItem();
@@ -151,9 +262,10 @@ public class MagazineServiceApplication extends Application
      * Postcondition: User is prompted to select a magazine before editing.
      */
     public void checkMagazineEditMode() {
+        disposeControllers();
         m_gui.magazineEdit();
 
-        m_gui.getMagazineChoice().getItems().addAll(magazinehandler.getAllMagazineNames());
+        m_gui.getMagazineChoice().getItems().setAll(magazinehandler.getAllMagazineNames());
 
         m_gui.getSubmitButton().setOnAction(e -> {
             m_magazineName = m_gui.getMagazineChoice().getSelectionModel().getSelectedItem();
@@ -171,6 +283,36 @@ public class MagazineServiceApplication extends Application
     }
     
     
+    /**
+     * JavaFX shutdown hook.
+     * Precondition: The application is exiting.
+     * Postcondition: Preloading, watching and auto-save are stopped, changed magazines are saved, then the
+     *                shared background threads are stopped.
+     */
+    @Override
+    public void stop()
+    {
+        if (preloader != null) {
+            preloader.cancel();
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (autoSave != null) {
+            autoSave.close();
+        }
+        
+        // Nothing changed during the session is lost on exit
+        SaveAllReport report = magazinehandler.saveAllDirty(MagazineServiceHandler.defaultSaveThreads());
+        Logger log = Logger.getLogger(MagazineServiceApplication.class.getName());
+        for (SaveAllReport.FileResult file : report.getFiles()) {
+            log.info(file.toString());
+        }
+        log.info(report.toString());
+        AppExecutors.shutdown();
+    }
+    
+    
     /**
      * Main method for launching the JavaFX application.
      * Precondition: None.
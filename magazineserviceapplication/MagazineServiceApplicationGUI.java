@@ -15,6 +15,8 @@ package magazineserviceapplication;
  * @assumptions:
  * - This GUI class is initialized with a primary stage.
  * - Various modes are handled within this class, each associated with a specific function.
+ * - Each mode's layout is built the first time it is shown and reused afterwards; showing a mode
+ *   again clears its fields and removes the handlers left by the previous controller.
  * 
  * @expected input:
  * - User interaction with buttons, text fields, and list views.
@@ -25,42 +27,53 @@ package magazineserviceapplication;
 
 
 
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBase;
 import javafx.scene.control.ComboBox;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import javafx.geometry.HPos;
 import javafx.geometry.Pos;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.scene.control.TextInputControl;
 import javafx.stage.Stage;
 
 public class MagazineServiceApplicationGUI {
     
     
     // GUI COMPONENTS 
+    // The header and navigation buttons are built once and shared by every mode
     private GridPane root;
-    private TextArea infoPanelBox;
-    private Button viewButton, createButton, editButton, submitButton, addSupplementButton, addCustomerButton,
-            editSupplementButton, editCustomerButton, deleteSupplementButton, deleteCustomerButton,
-            addMagazineButton, loadMagazineButton, saveMagazineButton;
-    private ListView<Supplement> supplementsView, supplementChoice, oldSupplements;
-    private ListView<Customer> customersView, customerChoice;
-    private ComboBox<String> typeOfCustomerComboBox, cardType, magazineChoice;
-    private ComboBox<PayingCustomer> payingCustomerChoice;
-    private TextField magazineNameTextField, supplementNameTextField, supplementCostTextField, customersNameTextField,
-            emailAddressTextField, streetNumberTextField, streetNameTextField, suburbTextField, postCodeTextField,
-            accountNumberTextField, typeOfCustomerTextField;
-    private Label payingCustomerLabel, accountNumberLabel, currentMagazine;
+    private Label header;
+    private Button viewButton, createButton, editButton;
+    private Scene scene;
+    
+    // Layout of each mode, built the first time the mode is shown and reused afterwards
+    private final Map<String, ModePane> modes = new HashMap<>();
+    
+    // Mode currently shown; the component getters return this mode's controls
+    private ModePane active = new ModePane();
+    
     private List<File> selectedFile;
     private Stage primaryStage;
 
@@ -72,19 +85,10 @@ public class MagazineServiceApplicationGUI {
     public MagazineServiceApplicationGUI(Stage primaryStage)
     {
         this.primaryStage = primaryStage;
-    }
 
-    /**
-     * Initializes and displays the main homepage layout.
-     * Precondition: primaryStage should be set.
-     * Post condition: The homepage scene is set on the primaryStage.
-     */
-    // Set up the main page layout
-    public void homepage() 
-    {
         root = new GridPane();
 
-        Label header = new Label("Magazine Service Application");
+        header = new Label("Magazine Service Application");
         header.setStyle("-fx-font-size: 30px; -fx-font-family: 'Comic Sans MS'; -fx-text-fill: #E75480;");
 
         viewButton = createLightButton("View");
@@ -106,16 +110,61 @@ public class MagazineServiceApplicationGUI {
         col3.setHalignment(HPos.CENTER);
         root.getColumnConstraints().addAll(col1, col2, col3);
 
-        root.add(header, 0, 0, 3, 1);
-        root.add(viewButton, 0, 1);
-        root.add(createButton, 1, 1);
-        root.add(editButton, 2, 1);
+        GridPane.setConstraints(header, 0, 0, 3, 1);
+        GridPane.setConstraints(viewButton, 0, 1);
+        GridPane.setConstraints(createButton, 1, 1);
+        GridPane.setConstraints(editButton, 2, 1);
+    }
 
-        Scene scene = new Scene(root);
-        primaryStage.setResizable(true);
-        primaryStage.setTitle("ICT373 - ASSIGNMENT 2");
-        primaryStage.setScene(scene);
-        primaryStage.show();
+    /**
+     * Displays the main homepage layout, creating the scene the first time.
+     * Precondition: primaryStage should be set.
+     * Post condition: The homepage scene is set on the primaryStage, showing only the header and navigation.
+     */
+    // Set up the main page layout
+    public void homepage() 
+    {
+        viewButton.setDisable(false);
+        createButton.setDisable(false);
+        editButton.setDisable(false);
+        root.getChildren().setAll(header, viewButton, createButton, editButton);
+
+        if (scene == null) {
+            scene = new Scene(root);
+            primaryStage.setResizable(true);
+            primaryStage.setTitle("ICT373 - ASSIGNMENT 2");
+            primaryStage.setScene(scene);
+            primaryStage.show();
+        }
+    }
+    
+    
+    /**
+     * Shows a mode, building its layout on first use and resetting it when it is reused.
+     * Precondition: primaryStage should be set.
+     * Post condition: The mode's controls are shown below the navigation and returned by the getters.
+     * 
+     * @param key Unique name of the mode.
+     * @param disabledButton Navigation button disabled while the mode is shown, or null.
+     * @param builder Creates the mode's controls the first time the mode is shown.
+     */
+    private void showMode(String key, Button disabledButton, Consumer<ModePane> builder)
+    {
+        homepage();
+        if (disabledButton != null) {
+            disabledButton.setDisable(true);
+        }
+
+        ModePane pane = modes.get(key);
+        if (pane == null) {
+            pane = new ModePane();
+            builder.accept(pane);
+            modes.put(key, pane);
+        } else {
+            pane.reset();
+        }
+        active = pane;
+        root.getChildren().addAll(pane.nodes);
     }
 
     
@@ -126,28 +175,32 @@ public class MagazineServiceApplicationGUI {
      */
     public void viewMode() 
     {
-        homepage();
-        supplementsView = new ListView<>();
-        customersView = new ListView<>();
+        showMode("view", null, p -> {
+            p.supplementsView = new ListView<>();
+            p.customersView = new ListView<>();
+
+            Label infoPanel = createStyledLabel("Information Panel:");
+            Label supplementPanel = createStyledLabel("List of Supplements:");
+            Label customerPanel = createStyledLabel("List of Customers:");
+            p.currentMagazine = createStyledLabel("");
 
-        Label infoPanel = createStyledLabel("Information Panel:");
-        Label supplementPanel = createStyledLabel("List of Supplements:");
-        Label customerPanel = createStyledLabel("List of Customers:");
-        currentMagazine = createStyledLabel("");
+            p.infoPanelBox = new TextArea();
+            p.infoPanelBox.setEditable(false);
+            p.infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
 
-        infoPanelBox = new TextArea();
-        infoPanelBox.setEditable(false);
-        infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.supplementSearchField = createSearchField("Search supplements");
+            p.customerSearchField = createSearchField("Search name, email, suburb or postcode");
 
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
         
-        root.add(supplementPanel, 0, 3);
-        root.add(supplementsView, 0, 4);
-        root.add(customerPanel, 0, 5);
-        root.add(customersView, 0, 6);
-        root.add(infoPanel, 1, 3);
-        root.add(infoPanelBox, 1, 4, 2, 3);
-        root.add(currentMagazine, 0, 7, 3, 1);
+            p.add(new VBox(5, supplementPanel, p.supplementSearchField), 0, 3);
+            p.add(p.supplementsView, 0, 4);
+            p.add(new VBox(5, customerPanel, p.customerSearchField), 0, 5);
+            p.add(p.customersView, 0, 6);
+            p.add(infoPanel, 1, 3);
+            p.add(p.infoPanelBox, 1, 4, 2, 3);
+            p.add(p.currentMagazine, 0, 7, 3, 1);
+        });
     }
     
      /**
@@ -157,21 +210,21 @@ public class MagazineServiceApplicationGUI {
      */
     public void magazineViewCheck() 
     {
-        homepage();
-        viewButton.setDisable(true);
+        showMode("magazineViewCheck", viewButton, p -> {
 
-        Label viewCheckHeader = createStyledLabel("Select a magazine to view:");
+            Label viewCheckHeader = createStyledLabel("Select a magazine to view:");
 
-        magazineChoice = new ComboBox<>();
-        magazineChoice.setPromptText("Options");
-        magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px; "
-                + "-fx-font-family: 'Comic Sans MS'; -fx-text-fill: #8B5E3C; -fx-pref-width: 200px;");
+            p.magazineChoice = new ComboBox<>();
+            p.magazineChoice.setPromptText("Options");
+            p.magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px; "
+                    + "-fx-font-family: 'Comic Sans MS'; -fx-text-fill: #8B5E3C; -fx-pref-width: 200px;");
 
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
         
-        root.add(viewCheckHeader, 1, 4);
-        root.add(magazineChoice, 1, 5);
-        root.add(submitButton, 1, 6);
+            p.add(viewCheckHeader, 1, 4);
+            p.add(p.magazineChoice, 1, 5);
+            p.add(p.submitButton, 1, 6);
+        });
     }
     
     /**
@@ -182,35 +235,40 @@ public class MagazineServiceApplicationGUI {
 
     public void createMode() 
     {
-        homepage();
-        createButton.setDisable(true);
-
-        Label createHeader = createStyledLabel("Choose an Option:");
-        addMagazineButton = createStyledButton("Add a new Magazine");
-        loadMagazineButton = createStyledButton("Load existing Magazine");
-        saveMagazineButton = createStyledButton("Save current Magazine");
+        showMode("create", createButton, p -> {
+
+            Label createHeader = createStyledLabel("Choose an Option:");
+            p.addMagazineButton = createStyledButton("Add a new Magazine");
+            p.loadMagazineButton = createStyledButton("Load existing Magazine");
+            p.saveMagazineButton = createStyledButton("Save current Magazine");
+            p.saveAllButton = createStyledButton("Save all changed Magazines");
+            p.diagnosticsButton = createStyledButton("Diagnostics");
         
-        submitButton = createStyledButton("Submit");
-
-        root.add(createHeader, 1, 5);
-        root.add(addMagazineButton, 1, 6);
-        root.add(loadMagazineButton, 1, 8);
-        root.add(saveMagazineButton, 1, 10);
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(createHeader, 1, 5);
+            p.add(p.addMagazineButton, 1, 6);
+            p.add(p.loadMagazineButton, 1, 8);
+            p.add(p.saveMagazineButton, 1, 10);
+            p.add(p.saveAllButton, 1, 12);
+            p.add(p.diagnosticsButton, 1, 14);
+        });
     }
 
     public void addMagazineMode() 
     {
-        homepage();
+        showMode("addMagazine", null, p -> {
 
-        Label magazineNameLabel = createStyledLabel("Magazine name:");
-        magazineNameTextField = new TextField();
-        magazineNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label magazineNameLabel = createStyledLabel("Magazine name:");
+            p.magazineNameTextField = new TextField();
+            p.magazineNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
 
-        root.add(magazineNameLabel, 0, 5);
-        root.add(magazineNameTextField, 1, 5);
-        root.add(submitButton, 1, 6);
+            p.add(magazineNameLabel, 0, 5);
+            p.add(p.magazineNameTextField, 1, 5);
+            p.add(p.submitButton, 1, 6);
+        });
     }
 
     public void loadMagazineMode() 
@@ -225,334 +283,357 @@ public class MagazineServiceApplicationGUI {
 
     public void saveMagazineMode()
     {
-        homepage();
+        showMode("saveMagazine", null, p -> {
 
-        Label saveMagazineHeader = createStyledLabel("Select a magazine to save:");
-        magazineChoice = new ComboBox<>();
-        magazineChoice.setPromptText("Options");
-        magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label saveMagazineHeader = createStyledLabel("Select a magazine to save:");
+            p.magazineChoice = new ComboBox<>();
+            p.magazineChoice.setPromptText("Options");
+            p.magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
 
-        root.add(saveMagazineHeader, 1, 4);
-        root.add(magazineChoice, 1, 5);
-        root.add(submitButton, 1, 6);
+            p.add(saveMagazineHeader, 1, 4);
+            p.add(p.magazineChoice, 1, 5);
+            p.add(p.submitButton, 1, 6);
+        });
     }
 
     public void editMode() 
     {
-        homepage();
-        editButton.setDisable(true);
-
-        Label editHeader = createStyledLabel("Choose an Option:");
-        addSupplementButton = createStyledButton("Add Supplement");
-        addCustomerButton = createStyledButton("Add Customer");
-        editSupplementButton = createStyledButton("Edit Supplement");
-        editCustomerButton = createStyledButton("Edit Customer");
-        deleteSupplementButton = createStyledButton("Delete Supplement");
-        deleteCustomerButton = createStyledButton("Delete Customer");
-
-        currentMagazine = createStyledLabel("");
-
-        root.add(editHeader, 1, 5);
-        root.add(addSupplementButton, 1, 6);
-        root.add(addCustomerButton, 1, 8);
-        root.add(editSupplementButton, 1, 10);
-        root.add(editCustomerButton, 1, 12);
-        root.add(deleteSupplementButton, 1, 14);
-        root.add(deleteCustomerButton, 1, 16);
-        root.add(currentMagazine, 0, 20, 3, 1);
+        showMode("edit", editButton, p -> {
+
+            Label editHeader = createStyledLabel("Choose an Option:");
+            p.addSupplementButton = createStyledButton("Add Supplement");
+            p.addCustomerButton = createStyledButton("Add Customer");
+            p.editSupplementButton = createStyledButton("Edit Supplement");
+            p.editCustomerButton = createStyledButton("Edit Customer");
+            p.deleteSupplementButton = createStyledButton("Delete Supplement");
+            p.deleteCustomerButton = createStyledButton("Delete Customer");
+            p.undoButton = createStyledButton("Undo");
+            p.redoButton = createStyledButton("Redo");
+
+            p.currentMagazine = createStyledLabel("");
+
+            p.add(editHeader, 1, 5);
+            p.add(p.addSupplementButton, 1, 6);
+            p.add(p.addCustomerButton, 1, 8);
+            p.add(p.editSupplementButton, 1, 10);
+            p.add(p.editCustomerButton, 1, 12);
+            p.add(p.deleteSupplementButton, 1, 14);
+            p.add(p.deleteCustomerButton, 1, 16);
+            p.add(new HBox(10, p.undoButton, p.redoButton), 1, 18);
+            p.add(p.currentMagazine, 0, 20, 3, 1);
+        });
     }
 
     public void addSupplementMode()
     {
-        homepage();
+        showMode("addSupplement", null, p -> {
 
-        Label addSupplementHeader = createStyledLabel("Add Supplement:");
-        Label supplementNameLabel = createStyledLabel("Supplement name:");
-        supplementNameTextField = new TextField();
-        supplementNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label addSupplementHeader = createStyledLabel("Add Supplement:");
+            Label supplementNameLabel = createStyledLabel("Supplement name:");
+            p.supplementNameTextField = new TextField();
+            p.supplementNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label supplementCostLabel = createStyledLabel("Supplement cost (weekly):");
-        supplementCostTextField = new TextField();
-        supplementCostTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        submitButton = createStyledButton("Submit");
-
-        root.add(addSupplementHeader, 1, 3);
-                root.add(supplementNameLabel, 0, 5);
-        root.add(supplementNameTextField, 1, 5);
-        root.add(supplementCostLabel, 0, 6);
-        root.add(supplementCostTextField, 1, 6);
-        root.add(submitButton, 1, 7);
+            Label supplementCostLabel = createStyledLabel("Supplement cost (weekly):");
+            p.supplementCostTextField = new TextField();
+            p.supplementCostTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(addSupplementHeader, 1, 3);
+                    p.add(supplementNameLabel, 0, 5);
+            p.add(p.supplementNameTextField, 1, 5);
+            p.add(supplementCostLabel, 0, 6);
+            p.add(p.supplementCostTextField, 1, 6);
+            p.add(p.submitButton, 1, 7);
+        });
     }
 
     public void addCustomerMode()
     {
-        homepage();
+        showMode("addCustomer", null, p -> {
 
-        Label addCustomerHeader = createStyledLabel("Add Customer:");
-        Label customerTypeLabel = createStyledLabel("Select type of customer:");
+            Label addCustomerHeader = createStyledLabel("Add Customer:");
+            Label customerTypeLabel = createStyledLabel("Select type of customer:");
         
-        typeOfCustomerComboBox = new ComboBox<>();
-        typeOfCustomerComboBox.setPromptText("Options");
-        typeOfCustomerComboBox.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label customerNameLabel = createStyledLabel("Customer name:");
-        customersNameTextField = new TextField();
-        customersNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label emailAddressLabel = createStyledLabel("Email Address:");
-        emailAddressTextField = new TextField();
-        emailAddressTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label streetNumberLabel = createStyledLabel("Street Number:");
-        streetNumberTextField = new TextField();
-        streetNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label streetNameLabel = createStyledLabel("Street Name:");
-        streetNameTextField = new TextField();
-        streetNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label suburbLabel = createStyledLabel("Suburb:");
-        suburbTextField = new TextField();
-        suburbTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label postcodeLabel = createStyledLabel("Postcode:");
-        postCodeTextField = new TextField();
-        postCodeTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label supplementsLabel = createStyledLabel("Select Supplement(s):");
-        supplementChoice = new ListView<>();
-        supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-        supplementChoice.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
-
-        payingCustomerLabel = createStyledLabel("Select Paying Customer:");
-        payingCustomerChoice = new ComboBox<>();
-        payingCustomerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-        payingCustomerChoice.setVisible(false);
-
-        Label accountNumberLabel = createStyledLabel("Bank Account Number:");
-        accountNumberTextField = new TextField();
-        accountNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.typeOfCustomerComboBox = new ComboBox<>();
+            p.typeOfCustomerComboBox.setPromptText("Options");
+            p.typeOfCustomerComboBox.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label customerNameLabel = createStyledLabel("Customer name:");
+            p.customersNameTextField = new TextField();
+            p.customersNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label emailAddressLabel = createStyledLabel("Email Address:");
+            p.emailAddressTextField = new TextField();
+            p.emailAddressTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label streetNumberLabel = createStyledLabel("Street Number:");
+            p.streetNumberTextField = new TextField();
+            p.streetNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label streetNameLabel = createStyledLabel("Street Name:");
+            p.streetNameTextField = new TextField();
+            p.streetNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label suburbLabel = createStyledLabel("Suburb:");
+            p.suburbTextField = new TextField();
+            p.suburbTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label postcodeLabel = createStyledLabel("Postcode:");
+            p.postCodeTextField = new TextField();
+            p.postCodeTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label supplementsLabel = createStyledLabel("Select Supplement(s):");
+            p.supplementChoice = new ListView<>();
+            p.supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.supplementChoice.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+            p.payingCustomerLabel = createStyledLabel("Select Paying Customer:");
+            p.payingCustomerChoice = new ComboBox<>();
+            p.payingCustomerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.payingCustomerChoice.setVisible(false);
+
+            p.accountNumberLabel = createStyledLabel("Bank Account Number:");
+            p.accountNumberTextField = new TextField();
+            p.accountNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        cardType = new ComboBox<>();
-        cardType.getItems().addAll("Credit Card", "Debit Card");
-        cardType.setPromptText("Select Card Type");
-        cardType.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        submitButton = createStyledButton("Submit");
-
-        root.add(addCustomerHeader, 1, 3);
-        root.add(customerTypeLabel, 0, 4);
-        root.add(typeOfCustomerComboBox, 1, 4);
-        root.add(customerNameLabel, 0, 5);
-        root.add(customersNameTextField, 1, 5);
-        root.add(emailAddressLabel, 0, 6);
-        root.add(emailAddressTextField, 1, 6);
-        root.add(streetNumberLabel, 0, 7);
-        root.add(streetNumberTextField, 1, 7);
-        root.add(streetNameLabel, 0, 8);
-        root.add(streetNameTextField, 1, 8);
-        root.add(suburbLabel, 0, 9);
-        root.add(suburbTextField, 1, 9);
-        root.add(postcodeLabel, 0, 10);
-        root.add(postCodeTextField, 1, 10);
-        root.add(supplementsLabel, 0, 11);
-        root.add(supplementChoice, 1, 11);
-        root.add(payingCustomerLabel, 0, 12);
-        root.add(payingCustomerChoice, 1, 12);
-        root.add(accountNumberLabel, 0, 13);
-        root.add(accountNumberTextField, 1, 13);
-        root.add(cardType, 1, 14);
-
-        root.add(submitButton, 1, 15);
+            p.cardType = new ComboBox<>();
+            p.cardType.getItems().addAll("Credit Card", "Debit Card");
+            p.cardType.setPromptText("Select Card Type");
+            p.cardType.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(addCustomerHeader, 1, 3);
+            p.add(customerTypeLabel, 0, 4);
+            p.add(p.typeOfCustomerComboBox, 1, 4);
+            p.add(customerNameLabel, 0, 5);
+            p.add(p.customersNameTextField, 1, 5);
+            p.add(emailAddressLabel, 0, 6);
+            p.add(p.emailAddressTextField, 1, 6);
+            p.add(streetNumberLabel, 0, 7);
+            p.add(p.streetNumberTextField, 1, 7);
+            p.add(streetNameLabel, 0, 8);
+            p.add(p.streetNameTextField, 1, 8);
+            p.add(suburbLabel, 0, 9);
+            p.add(p.suburbTextField, 1, 9);
+            p.add(postcodeLabel, 0, 10);
+            p.add(p.postCodeTextField, 1, 10);
+            p.add(supplementsLabel, 0, 11);
+            p.add(p.supplementChoice, 1, 11);
+            p.add(p.payingCustomerLabel, 0, 12);
+            p.add(p.payingCustomerChoice, 1, 12);
+            p.add(p.accountNumberLabel, 0, 13);
+            p.add(p.accountNumberTextField, 1, 13);
+            p.add(p.cardType, 1, 14);
+
+            p.add(p.submitButton, 1, 15);
+
+            // The paying customer choice only appears once "Associate Customer" is picked
+            p.onReset = () -> p.payingCustomerChoice.setVisible(false);
+        });
     }
 
     public void editSupplementMode() 
     {
-        homepage();
+        showMode("editSupplement", null, p -> {
 
-        Label supplementsLabel = createStyledLabel("Select supplement to edit:");
-        supplementChoice = new ListView<>();
-        supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label supplementsLabel = createStyledLabel("Select supplement to edit:");
+            p.supplementSearchField = createSearchField("Search supplements");
+            p.supplementChoice = new ListView<>();
+            p.supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
 
-        Label supplementNameLabel = createStyledLabel("Supplement name:");
-        supplementNameTextField = new TextField();
-        supplementNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label supplementNameLabel = createStyledLabel("Supplement name:");
+            p.supplementNameTextField = new TextField();
+            p.supplementNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label supplementCostLabel = createStyledLabel("Supplement cost (weekly):");
-        supplementCostTextField = new TextField();
-        supplementCostTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label supplementCostLabel = createStyledLabel("Supplement cost (weekly):");
+            p.supplementCostTextField = new TextField();
+            p.supplementCostTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        submitButton = createStyledButton("Submit");
-
-        root.add(supplementsLabel, 0, 3);
-        root.add(supplementChoice, 0, 4, 1, 12);
-        root.add(supplementNameLabel, 1, 12);
-        root.add(supplementNameTextField, 2, 12);
-        root.add(supplementCostLabel, 1, 13);
-        root.add(supplementCostTextField, 2, 13);
-        root.add(submitButton, 2, 14);
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(new VBox(5, supplementsLabel, p.supplementSearchField), 0, 3);
+            p.add(p.supplementChoice, 0, 4, 1, 12);
+            p.add(supplementNameLabel, 1, 12);
+            p.add(p.supplementNameTextField, 2, 12);
+            p.add(supplementCostLabel, 1, 13);
+            p.add(p.supplementCostTextField, 2, 13);
+            p.add(p.submitButton, 2, 14);
+        });
     }
 
     public void editCustomerMode()
     {
-        homepage();
+        showMode("editCustomer", null, p -> {
 
-        Label customersLabel = createStyledLabel("Select customer to edit:");
-        customerChoice = new ListView<>();
-        customerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label customersLabel = createStyledLabel("Select customer to edit:");
+            p.customerSearchField = createSearchField("Search name, email, suburb or postcode");
+            p.customerChoice = new ListView<>();
+            p.customerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
 
-        Label customerTypeLabel = createStyledLabel("Type of customer:");
-        typeOfCustomerTextField = new TextField();
-        typeOfCustomerTextField.setDisable(true);
-        typeOfCustomerTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label customerTypeLabel = createStyledLabel("Type of customer:");
+            p.typeOfCustomerTextField = new TextField();
+            p.typeOfCustomerTextField.setDisable(true);
+            p.typeOfCustomerTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label customerNameLabel = createStyledLabel("Customer name:");
-        customersNameTextField = new TextField();
-        customersNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label customerNameLabel = createStyledLabel("Customer name:");
+            p.customersNameTextField = new TextField();
+            p.customersNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label emailAddressLabel = createStyledLabel("Email Address:");
-        emailAddressTextField = new TextField();
-        emailAddressTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label emailAddressLabel = createStyledLabel("Email Address:");
+            p.emailAddressTextField = new TextField();
+            p.emailAddressTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label streetNumberLabel = createStyledLabel("Street Number:");
-        streetNumberTextField = new TextField();
-        streetNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label streetNumberLabel = createStyledLabel("Street Number:");
+            p.streetNumberTextField = new TextField();
+            p.streetNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label streetNameLabel = createStyledLabel("Street Name:");
-        streetNameTextField = new TextField();
-        streetNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label streetNameLabel = createStyledLabel("Street Name:");
+            p.streetNameTextField = new TextField();
+            p.streetNameTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label suburbLabel = createStyledLabel("Suburb:");
-        suburbTextField = new TextField();
-        suburbTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label suburbLabel = createStyledLabel("Suburb:");
+            p.suburbTextField = new TextField();
+            p.suburbTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        Label postcodeLabel = createStyledLabel("Postcode:");
-        postCodeTextField = new TextField();
-        postCodeTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label postcodeLabel = createStyledLabel("Postcode:");
+            p.postCodeTextField = new TextField();
+            p.postCodeTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        oldSupplements = new ListView<>();
-        oldSupplements.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-        oldSupplements.addEventFilter(MouseEvent.MOUSE_PRESSED, MouseEvent::consume);
-
-                Label supplementsLabel = createStyledLabel("Select Supplement(s):");
-        supplementChoice = new ListView<>();
-        supplementChoice.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
-        supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        payingCustomerLabel = createStyledLabel("Select Paying Customer:");
-        payingCustomerChoice = new ComboBox<>();
-        payingCustomerChoice.setPromptText("Select One");
-        payingCustomerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        accountNumberLabel = createStyledLabel("Bank Account Number:");
-        accountNumberTextField = new TextField();
-        accountNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.oldSupplements = new ListView<>();
+            p.oldSupplements.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            p.oldSupplements.addEventFilter(MouseEvent.MOUSE_PRESSED, MouseEvent::consume);
+
+                    Label supplementsLabel = createStyledLabel("Select Supplement(s):");
+            p.supplementChoice = new ListView<>();
+            p.supplementChoice.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            p.supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.payingCustomerLabel = createStyledLabel("Select Paying Customer:");
+            p.payingCustomerChoice = new ComboBox<>();
+            p.payingCustomerChoice.setPromptText("Select One");
+            p.payingCustomerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.accountNumberLabel = createStyledLabel("Bank Account Number:");
+            p.accountNumberTextField = new TextField();
+            p.accountNumberTextField.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.cardType = new ComboBox<>();
+            p.cardType.getItems().addAll("Credit Card", "Debit Card");
+            p.cardType.setPromptText("Select Card Type");
+            p.cardType.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
         
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
 
-        // Arrange elements in the grid
-        root.add(customersLabel, 0, 3);
-        root.add(customerChoice, 0, 4, 1, 10);
+            // Arrange elements in the grid
+            p.add(new VBox(5, customersLabel, p.customerSearchField), 0, 3);
+            p.add(p.customerChoice, 0, 4, 1, 10);
 
-        root.add(customerTypeLabel, 1, 3);
-        root.add(typeOfCustomerTextField, 2, 3);
+            p.add(customerTypeLabel, 1, 3);
+            p.add(p.typeOfCustomerTextField, 2, 3);
 
-        root.add(customerNameLabel, 1, 4);
-        root.add(customersNameTextField, 2, 4);
+            p.add(customerNameLabel, 1, 4);
+            p.add(p.customersNameTextField, 2, 4);
 
-        root.add(emailAddressLabel, 1, 5);
-        root.add(emailAddressTextField, 2, 5);
+            p.add(emailAddressLabel, 1, 5);
+            p.add(p.emailAddressTextField, 2, 5);
 
-        root.add(streetNumberLabel, 1, 6);
-        root.add(streetNumberTextField, 2, 6);
+            p.add(streetNumberLabel, 1, 6);
+            p.add(p.streetNumberTextField, 2, 6);
 
-        root.add(streetNameLabel, 1, 7);
-        root.add(streetNameTextField, 2, 7);
+            p.add(streetNameLabel, 1, 7);
+            p.add(p.streetNameTextField, 2, 7);
 
-        root.add(suburbLabel, 1, 8);
-        root.add(suburbTextField, 2, 8);
+            p.add(suburbLabel, 1, 8);
+            p.add(p.suburbTextField, 2, 8);
 
-        root.add(postcodeLabel, 1, 9);
-        root.add(postCodeTextField, 2, 9);
+            p.add(postcodeLabel, 1, 9);
+            p.add(p.postCodeTextField, 2, 9);
 
-        Label oldSupplementsHeader = createStyledLabel("Your supplement(s):");
-        root.add(oldSupplementsHeader, 1, 10);
-        root.add(oldSupplements, 1, 11);
+            Label oldSupplementsHeader = createStyledLabel("Your supplement(s):");
+            p.add(oldSupplementsHeader, 1, 10);
+            p.add(p.oldSupplements, 1, 11);
 
-        root.add(supplementsLabel, 2, 10);
-        root.add(supplementChoice, 2, 11);
+            p.add(supplementsLabel, 2, 10);
+            p.add(p.supplementChoice, 2, 11);
 
-        root.add(payingCustomerLabel, 1, 12);
-        root.add(payingCustomerChoice, 2, 12);
+            p.add(p.payingCustomerLabel, 1, 12);
+            p.add(p.payingCustomerChoice, 2, 12);
 
-        root.add(accountNumberLabel, 1, 13);
-        root.add(accountNumberTextField, 2, 13);
+            p.add(p.accountNumberLabel, 1, 13);
+            p.add(p.accountNumberTextField, 2, 13);
+            p.add(p.cardType, 2, 14);
 
-        root.add(submitButton, 2, 14);
+            p.add(p.submitButton, 2, 15);
+        });
     }
 
     public void deleteSupplementMode()
     {
-        homepage();
-
-        Label supplementsLabel = createStyledLabel("Select to delete:");
-        supplementChoice = new ListView<>();
-        supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label supplementsDetails = createStyledLabel("Supplement information:");
-        infoPanelBox = new TextArea();
-        infoPanelBox.setEditable(false);
-        infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        submitButton = createStyledButton("Submit");
-
-        root.add(supplementsLabel, 0, 3);
-        root.add(supplementChoice, 0, 4);
-        root.add(supplementsDetails, 1, 3);
-        root.add(infoPanelBox, 1, 4, 2, 1);
-        root.add(submitButton, 1, 6);
+        showMode("deleteSupplement", null, p -> {
+
+            Label supplementsLabel = createStyledLabel("Select to delete:");
+            p.supplementSearchField = createSearchField("Search supplements");
+            p.supplementChoice = new ListView<>();
+            p.supplementChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label supplementsDetails = createStyledLabel("Supplement information:");
+            p.infoPanelBox = new TextArea();
+            p.infoPanelBox.setEditable(false);
+            p.infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(new VBox(5, supplementsLabel, p.supplementSearchField), 0, 3);
+            p.add(p.supplementChoice, 0, 4);
+            p.add(supplementsDetails, 1, 3);
+            p.add(p.infoPanelBox, 1, 4, 2, 1);
+            p.add(p.submitButton, 1, 6);
+        });
     }
 
     public void deleteCustomerMode() 
     {
-        homepage();
-
-        Label customersLabel = createStyledLabel("Select to delete:");
-        customerChoice = new ListView<>();
-        customerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        Label customersDetails = createStyledLabel("Customer information:");
-        infoPanelBox = new TextArea();
-        infoPanelBox.setEditable(false);
-        infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
-
-        submitButton = createStyledButton("Submit");
-
-        root.add(customersLabel, 0, 3);
-        root.add(customerChoice, 0, 4);
-        root.add(customersDetails, 1, 3);
-        root.add(infoPanelBox, 1, 4, 2, 1);
-        root.add(submitButton, 1, 6);
+        showMode("deleteCustomer", null, p -> {
+
+            Label customersLabel = createStyledLabel("Select to delete:");
+            p.customerSearchField = createSearchField("Search name, email, suburb or postcode");
+            p.customerChoice = new ListView<>();
+            p.customerChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            Label customersDetails = createStyledLabel("Customer information:");
+            p.infoPanelBox = new TextArea();
+            p.infoPanelBox.setEditable(false);
+            p.infoPanelBox.setStyle("-fx-control-inner-background: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+
+            p.submitButton = createStyledButton("Submit");
+
+            p.add(new VBox(5, customersLabel, p.customerSearchField), 0, 3);
+            p.add(p.customerChoice, 0, 4);
+            p.add(customersDetails, 1, 3);
+            p.add(p.infoPanelBox, 1, 4, 2, 1);
+            p.add(p.submitButton, 1, 6);
+        });
     }
 
     public void magazineEdit() 
     {
-        homepage();
-        editButton.setDisable(true);
+        showMode("magazineEdit", editButton, p -> {
 
-        Label editCheckHeader = createStyledLabel("Select a magazine to edit:");
-        magazineChoice = new ComboBox<>();
-        magazineChoice.setPromptText("Options");
-        magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+            Label editCheckHeader = createStyledLabel("Select a magazine to edit:");
+            p.magazineChoice = new ComboBox<>();
+            p.magazineChoice.setPromptText("Options");
+            p.magazineChoice.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
 
-        submitButton = createStyledButton("Submit");
+            p.submitButton = createStyledButton("Submit");
 
-        root.add(editCheckHeader, 1, 4);
-        root.add(magazineChoice, 1, 5);
-        root.add(submitButton, 1, 6);
+            p.add(editCheckHeader, 1, 4);
+            p.add(p.magazineChoice, 1, 5);
+            p.add(p.submitButton, 1, 6);
+        });
     }
 
     
@@ -586,6 +667,18 @@ public class MagazineServiceApplicationGUI {
         return button;
     }
 
+     /**
+     * Helper method to create a search text field.
+     * @param prompt The prompt text shown while the field is empty.
+     * @return The styled TextField object.
+     */
+    private TextField createSearchField(String prompt) {
+        TextField field = new TextField();
+        field.setPromptText(prompt);
+        field.setStyle("-fx-background-color: #F5E9DA; -fx-border-radius: 10px; -fx-background-radius: 10px;");
+        return field;
+    }
+
      /**
      * Helper method to create a styled label.
      * @param text The label text.
@@ -597,43 +690,169 @@ public class MagazineServiceApplicationGUI {
         return label;
     }
 
+    /**
+     * Clears the text and selections of the mode currently shown, keeping its lists, search text and handlers.
+     * Precondition: A mode is shown.
+     * Post condition: The mode is ready for the next entry.
+     */
+    public void clearInputs()
+    {
+        active.clearInputs();
+    }
+    
+    
     // Getter methods for buttons and other components for use in the main application logic
     public Button getViewButton() { return viewButton; }
     public Button getCreateButton() { return createButton; }
     public Button getEditButton() { return editButton; }
-    public Button getSubmitButton() { return submitButton; }
-    public Button getAddMagazineButton() { return addMagazineButton; }
-    public Button getLoadMagazineButton() { return loadMagazineButton; }
-    public Button getSaveMagazineButton() { return saveMagazineButton; }
-    public Button getAddSupplementButton() { return addSupplementButton; }
-    public Button getAddCustomerButton() { return addCustomerButton; }
-    public Button getEditSupplementButton() { return editSupplementButton; }
-    public Button getEditCustomerButton() { return editCustomerButton; }
-    public Button getDeleteSupplementButton() { return deleteSupplementButton; }
-    public Button getDeleteCustomerButton() { return deleteCustomerButton; }
-    public ListView<Supplement> getSupplementsView() { return supplementsView; }
-    public ListView<Supplement> getSupplementChoice() { return supplementChoice; }
-    public ListView<Supplement> getOldSupplements() { return oldSupplements; }
-    public ListView<Customer> getCustomersView() { return customersView; }
-    public ListView<Customer> getCustomerChoice() { return customerChoice; }
-    public ComboBox<String> getMagazineChoice() { return magazineChoice; }
-    public ComboBox<String> getTypeOfCustomerComboBox() { return typeOfCustomerComboBox; }
-    public ComboBox<String> getCardType() { return cardType; }
-    public ComboBox<PayingCustomer> getPayingCustomerChoice() { return payingCustomerChoice; }
-    public TextArea getInfoPanelBox() { return infoPanelBox; }
-    public TextField getMagazineNameTextField() { return magazineNameTextField; }
-    public TextField getSupplementNameTextField() { return supplementNameTextField; }
-    public TextField getSupplementCostTextField() { return supplementCostTextField; }
-    public TextField getCustomersNameTextField() { return customersNameTextField; }
-    public TextField getEmailAddressTextField() { return emailAddressTextField; }
-    public TextField getStreetNumberTextField() { return streetNumberTextField; }
-    public TextField getStreetNameTextField() { return streetNameTextField; }
-    public TextField getSuburbTextField() { return suburbTextField; }
-    public TextField getPostCodeTextField() { return postCodeTextField; }
-    public TextField getAccountNumberTextField() { return accountNumberTextField; }
-    public TextField getTypeOfCustomerTextField() { return typeOfCustomerTextField; }
-    public Label getPayingCustomerLabel() { return payingCustomerLabel; }
-    public Label getAccountNumberLabel() { return accountNumberLabel; }
-    public Label getCurrentMagazine() { return currentMagazine; }
+    public Button getSubmitButton() { return active.submitButton; }
+    public Button getAddMagazineButton() { return active.addMagazineButton; }
+    public Button getLoadMagazineButton() { return active.loadMagazineButton; }
+    public Button getSaveMagazineButton() { return active.saveMagazineButton; }
+    public Button getSaveAllButton() { return active.saveAllButton; }
+    public Button getDiagnosticsButton() { return active.diagnosticsButton; }
+    public Button getAddSupplementButton() { return active.addSupplementButton; }
+    public Button getAddCustomerButton() { return active.addCustomerButton; }
+    public Button getEditSupplementButton() { return active.editSupplementButton; }
+    public Button getEditCustomerButton() { return active.editCustomerButton; }
+    public Button getDeleteSupplementButton() { return active.deleteSupplementButton; }
+    public Button getDeleteCustomerButton() { return active.deleteCustomerButton; }
+    public Button getUndoButton() { return active.undoButton; }
+    public Button getRedoButton() { return active.redoButton; }
+    public ListView<Supplement> getSupplementsView() { return active.supplementsView; }
+    public ListView<Supplement> getSupplementChoice() { return active.supplementChoice; }
+    public ListView<Supplement> getOldSupplements() { return active.oldSupplements; }
+    public ListView<Customer> getCustomersView() { return active.customersView; }
+    public ListView<Customer> getCustomerChoice() { return active.customerChoice; }
+    public ComboBox<String> getMagazineChoice() { return active.magazineChoice; }
+    public ComboBox<String> getTypeOfCustomerComboBox() { return active.typeOfCustomerComboBox; }
+    public ComboBox<String> getCardType() { return active.cardType; }
+    public ComboBox<PayingCustomer> getPayingCustomerChoice() { return active.payingCustomerChoice; }
+    public TextArea getInfoPanelBox() { return active.infoPanelBox; }
+    public TextField getMagazineNameTextField() { return active.magazineNameTextField; }
+    public TextField getSupplementNameTextField() { return active.supplementNameTextField; }
+    public TextField getSupplementCostTextField() { return active.supplementCostTextField; }
+    public TextField getCustomersNameTextField() { return active.customersNameTextField; }
+    public TextField getEmailAddressTextField() { return active.emailAddressTextField; }
+    public TextField getStreetNumberTextField() { return active.streetNumberTextField; }
+    public TextField getStreetNameTextField() { return active.streetNameTextField; }
+    public TextField getSuburbTextField() { return active.suburbTextField; }
+    public TextField getPostCodeTextField() { return active.postCodeTextField; }
+    public TextField getAccountNumberTextField() { return active.accountNumberTextField; }
+    public TextField getTypeOfCustomerTextField() { return active.typeOfCustomerTextField; }
+    public TextField getCustomerSearchField() { return active.customerSearchField; }
+    public TextField getSupplementSearchField() { return active.supplementSearchField; }
+    public Label getPayingCustomerLabel() { return active.payingCustomerLabel; }
+    public Label getAccountNumberLabel() { return active.accountNumberLabel; }
+    public Label getCurrentMagazine() { return active.currentMagazine; }
     public List<File> getSelectedFile() { return selectedFile; }
-}
\ No newline at end of file
+    
+    
+    /**
+     * Controls and layout of one mode. Controls a mode does not use stay null.
+     */
+    private static class ModePane 
+    {
+        // Nodes placed below the navigation row, with their grid positions already set
+        private final List<Node> nodes = new ArrayList<>();
+        
+        // Restores mode specific state after the generic reset, may be null
+        private Runnable onReset;
+        
+        private TextArea infoPanelBox;
+        private Button submitButton, addSupplementButton, addCustomerButton, editSupplementButton, editCustomerButton,
+                deleteSupplementButton, deleteCustomerButton, addMagazineButton, loadMagazineButton, saveMagazineButton, saveAllButton,
+                diagnosticsButton, undoButton, redoButton;
+
+        private ListView<Supplement> supplementsView, supplementChoice, oldSupplements;
+        private ListView<Customer> customersView, customerChoice;
+        private ComboBox<String> typeOfCustomerComboBox, cardType, magazineChoice;
+        private ComboBox<PayingCustomer> payingCustomerChoice;
+        private TextField magazineNameTextField, supplementNameTextField, supplementCostTextField, customersNameTextField,
+                emailAddressTextField, streetNumberTextField, streetNameTextField, suburbTextField, postCodeTextField,
+                accountNumberTextField, typeOfCustomerTextField, customerSearchField, supplementSearchField;
+        private Label payingCustomerLabel, accountNumberLabel, currentMagazine;
+
+        /**
+         * Places a node in the given grid cell.
+         */
+        private void add(Node node, int column, int row)
+        {
+            add(node, column, row, 1, 1);
+        }
+
+        /**
+         * Places a node in the given grid cell, spanning several columns and rows.
+         */
+        private void add(Node node, int column, int row, int columnSpan, int rowSpan)
+        {
+            GridPane.setConstraints(node, column, row, columnSpan, rowSpan);
+            nodes.add(node);
+        }
+
+        /**
+         * Returns the mode to the state it had when it was first built: text cleared, lists emptied,
+         * selections and handlers removed so the previous controller is no longer referenced.
+         */
+        private void reset()
+        {
+            for (Node node : nodes) {
+                resetNode(node);
+            }
+            if (onReset != null) {
+                onReset.run();
+            }
+        }
+
+        /**
+         * Clears typed text and selections, leaving list contents, search fields and handlers in place.
+         */
+        private void clearInputs()
+        {
+            for (Node node : nodes) {
+                clearNode(node);
+            }
+        }
+
+        private void clearNode(Node node)
+        {
+            if (node == customerSearchField || node == supplementSearchField) {
+                return;
+            }
+            if (node instanceof TextInputControl) {
+                ((TextInputControl) node).clear();
+            } else if (node instanceof ListView) {
+                ((ListView<?>) node).getSelectionModel().clearSelection();
+            } else if (node instanceof ComboBox) {
+                ((ComboBox<?>) node).setValue(null);
+            } else if (node instanceof Pane) {
+                for (Node child : ((Pane) node).getChildren()) {
+                    clearNode(child);
+                }
+            }
+        }
+
+        private static void resetNode(Node node)
+        {
+            node.setVisible(true);
+            if (node instanceof TextInputControl) {
+                ((TextInputControl) node).clear();
+            } else if (node instanceof ListView) {
+                ListView<?> listView = (ListView<?>) node;
+                listView.getSelectionModel().clearSelection();
+                listView.setItems(FXCollections.observableArrayList());
+            } else if (node instanceof ComboBox) {
+                ComboBox<?> comboBox = (ComboBox<?>) node;
+                comboBox.setOnAction(null);
+                comboBox.getSelectionModel().clearSelection();
+                comboBox.setValue(null);
+            } else if (node instanceof ButtonBase) {
+                ((ButtonBase) node).setOnAction(null);
+            } else if (node instanceof Pane) {
+                for (Node child : ((Pane) node).getChildren()) {
+                    resetNode(child);
+                }
+            }
+        }
+    }
+}
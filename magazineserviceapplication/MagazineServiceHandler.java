@@ -13,13 +13,23 @@ package magazineserviceapplication;
  *
  * @assumptions:
  *  - This class is used as a centralized handler for magazine-related operations.
- *  - Magazines are stored as serialized objects in `.ser` files.
+ *  - Magazines are stored as serialized objects in `.ser` files, in the working directory unless
+ *    a data directory is given.
+ *  - The magazine map may be used from several threads, for example by the batch runner.
+ *  - Loaded magazines are kept under a memory budget. When the estimated size of the loaded magazines
+ *    goes over it, the least recently used ones are saved if they have changes and dropped from
+ *    memory, then read back from their file the next time they are asked for.
+ *  - Magazine changes are detected through Magazine.getVersion(), so edits must go through the
+ *    magazine's add, remove and update methods to be saved before an eviction.
+ *  - Callers that keep a magazine object for a while pin it; magazines with listeners are never evicted.
+ *  - The handler remembers which version of each file it last read or wrote, so a watcher can tell
+ *    files rewritten by other programs from its own saves.
  *
  * @expected input:
  *  - Magazine names as `String` identifiers for adding, retrieving, saving, and loading.
  *
  * @expected output:
- *  - The class provides alerts on successful or failed operations.
+ *  - The class reports successful or failed operations to a NotificationSink, never waiting on the user.
  *  - Serialized files for magazines are created and loaded from the local file system.
  */
 
@@ -31,63 +41,324 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 public class MagazineServiceHandler 
 {
-    private Map<String , Magazine> MagazineMap; //map to store magazine 
-    private AlertsHandler alert = new AlertsHandler();
+    // System property holding the memory budget in bytes, with an optional k, m or g suffix
+    public static final String MEMORY_BUDGET_PROPERTY = "magazine.cache.maxBytes";
+    
+    // System property holding how many files saveAllDirty writes at once
+    public static final String SAVE_THREADS_PROPERTY = "magazine.save.threads";
+    
+    // Rough per object costs on a 64 bit JVM with compressed references
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_BYTES = 40; // String plus its byte array, before the characters
+    private static final int LIST_BYTES = 40;   // ArrayList plus its element array, before the slots
+    
+    // Allowance per customer for the search index and ID map a magazine builds on demand
+    private static final int CUSTOMER_INDEX_BYTES = 160;
+    
+    // Timings shown in the diagnostics panel; reads and writes are counted only when they succeed
+    private static final LatencyHistogram GET_TIME = MetricsRegistry.getDefault().histogram("handler.get");
+    private static final LatencyHistogram READ_TIME = MetricsRegistry.getDefault().histogram("handler.read");
+    private static final LatencyHistogram WRITE_TIME = MetricsRegistry.getDefault().histogram("handler.write");
+    private static final LatencyHistogram SAVE_ALL_TIME = MetricsRegistry.getDefault().histogram("handler.saveAll");
+    private static final MetricsRegistry.Counter READ_FAILURES = MetricsRegistry.getDefault().counter("handler.read.failures");
+    private static final MetricsRegistry.Counter WRITE_FAILURES = MetricsRegistry.getDefault().counter("handler.write.failures");
+    private static final MetricsRegistry.Counter RELOADS = MetricsRegistry.getDefault().counter("handler.reloadedFromDisk");
+    private static final MetricsRegistry.Counter WRITE_RETRIES = MetricsRegistry.getDefault().counter("handler.write.retries");
+    
+    // Writes made from a snapshot, without blocking edits, before a write locks the magazine instead
+    private static final int OPTIMISTIC_WRITES = 2;
+    
+    // Loaded magazines from least to most recently used, guarded by this handler
+    private final LinkedHashMap<String , CacheEntry> MagazineMap; //map to store magazine 
+    
+    // The same entries by name, for lookups that must not change the eviction order
+    private final Map<String, CacheEntry> entriesByName = new HashMap<>();
+    
+    // Magazines that are only in their file, evicted or not loaded yet, and load on the next getMagazine
+    private final Set<String> evictedNames = new HashSet<>();
+    
+    // How many callers hold each magazine open; pinned magazines are never evicted
+    private final Map<String, Integer> pins = new HashMap<>();
+    
+    // Identity, size and time of each file as last read or written by this handler
+    private final Map<String, String> fileStamps = new HashMap<>();
+    
+    // One lock per file, so a save and an eviction flush never write the same file at once
+    private final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+    
+    // Reloads in progress, so concurrent callers share one read of the file
+    private final Map<String, CompletableFuture<Magazine>> reloading = new HashMap<>();
+    
+    private NotificationSink notifications; // receives success and error messages
+    private File dataDirectory; // directory holding the .ser files, null for the working directory
+    
+    private long memoryBudget;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long flushes;
     
     // default constructor 
     
     /**
      * Default Constructor.
      * Precondition: No parameters required.
-     * Post condition: Initializes an empty magazine map.
+     * Post condition: Initializes an empty magazine map that logs its notifications.
      */
     public  MagazineServiceHandler ()
     {
-        MagazineMap = new HashMap<>();
+        this(new LoggingNotificationSink());
+    }
+    
+    
+    /**
+     * Parameterized Constructor.
+     * Precondition: notifications must not be null.
+     * Post condition: Initializes an empty magazine map reporting to the given sink.
+     * 
+     * @param notifications The sink receiving success and error messages.
+     */
+    public  MagazineServiceHandler (NotificationSink notifications)
+    {
+        this(notifications, null);
+    }
+    
+    
+    /**
+     * Parameterized Constructor.
+     * Precondition: notifications must not be null.
+     * Post condition: Initializes an empty magazine map reading and writing files in the given directory.
+     *                 The memory budget comes from the magazine.cache.maxBytes system property, or is
+     *                 half of the maximum heap.
+     * 
+     * @param notifications The sink receiving success and error messages.
+     * @param dataDirectory The directory holding the `.ser` files, or null for the working directory.
+     */
+    public  MagazineServiceHandler (NotificationSink notifications, File dataDirectory)
+    {
+        MagazineMap = new LinkedHashMap<>(16, 0.75f, true);
+        this.notifications = notifications;
+        this.dataDirectory = dataDirectory;
+        this.memoryBudget = parseBytes(System.getProperty(MEMORY_BUDGET_PROPERTY), Runtime.getRuntime().maxMemory() / 2);
     }
     
+    
     /**
-     * Returns a list of all magazine names in the system.
+     * Returns the file a magazine is saved to and loaded from.
+     * Precondition: None.
+     * Post condition: Returns the `.ser` file for the name inside the data directory.
+     * 
+     * @param magazineName The name of the magazine.
+     * @return The magazine's file.
+     */
+    public File getMagazineFile(String magazineName)
+    {
+        return new File(dataDirectory, magazineName + ".ser");
+    }
+    
+    /**
+     * Returns a list of all magazine names in the system, including magazines evicted to disk.
      * Precondition: None.
      * Post condition: Returns a list containing all magazine names.
      * 
      * @return An ArrayList of magazine names.
      */
-    public ArrayList<String> getAllMagazineNames() 
+    public synchronized ArrayList<String> getAllMagazineNames() 
     {
-        return new ArrayList<>(MagazineMap.keySet());
+        ArrayList<String> names = new ArrayList<>(MagazineMap.keySet());
+        names.addAll(evictedNames);
+        return names;
     }
 
     /**
      * Adds a new magazine to the system with the specified name.
      * Precondition: `magazineName` should be a unique name.
-     * Post condition: Adds a new magazine to the map.
+     * Post condition: Adds a new, unsaved magazine to the map.
      * 
      * @param magazineName The name of the magazine to add.
      */
     public void addMagazine(String magazineName)
     {
         Magazine magazine = new Magazine();
-        MagazineMap.put(magazineName, magazine);
+        install(magazineName, magazine, -1, null);
+        enforceBudget(magazineName);
+    }
+    
+    
+    /**
+     * Adds a magazine built elsewhere, such as by an import or a data generator, under the given name.
+     * Precondition: `magazineName` should be a unique name and magazine must not be null.
+     * Post condition: The magazine is held as unsaved, replacing any magazine of the same name.
+     * 
+     * @param magazineName The name of the magazine to add.
+     * @param magazine The magazine to hold.
+     */
+    public void addMagazine(String magazineName, Magazine magazine)
+    {
+        install(magazineName, magazine, -1, null);
+        enforceBudget(magazineName);
+    }
+    
+    
+    /**
+     * Makes a magazine saved in the data directory known without reading it yet.
+     * Precondition: The magazine's `.ser` file exists in the data directory.
+     * Post condition: The name is listed with the other magazines and is loaded on first use.
+     * 
+     * @param magazineName The name of the saved magazine.
+     * @return true if the name was new to the handler.
+     */
+    public synchronized boolean registerSavedMagazine(String magazineName)
+    {
+        if (MagazineMap.containsKey(magazineName)) {
+            return false;
+        }
+        return evictedNames.add(magazineName);
     }
     
     
     /**
-     * Retrieves a magazine object by its name.
+     * Removes a magazine from the system without touching its file.
+     * Precondition: None.
+     * Post condition: The magazine is no longer held in memory and will not be reloaded.
+     * 
+     * @param magazineName The name of the magazine to drop.
+     */
+    public synchronized void removeMagazine(String magazineName)
+    {
+        CacheEntry entry = MagazineMap.remove(magazineName);
+        entriesByName.remove(magazineName);
+        if (entry != null) {
+            estimatedBytes -= entry.estimatedBytes;
+        }
+        evictedNames.remove(magazineName);
+        fileStamps.remove(magazineName);
+    }
+    
+    
+    /**
+     * Retrieves a magazine object by its name, reading it back from its file if it was evicted.
      * Precondition: `magazineName` must exist in the map.
-     * Post condition: Returns the magazine object if found, otherwise null.
+     * Post condition: Returns the magazine object if found, otherwise null. The magazine becomes the
+     *                 most recently used one.
      * 
      * @param magazineName The name of the magazine to retrieve.
      * @return The Magazine object if found, otherwise null.
      */
     public Magazine getMagazine(String magazineName)
     {
-        return MagazineMap.get(magazineName);
+        long start = System.nanoTime();
+        try {
+            return getOrReload(magazineName);
+        } finally {
+            GET_TIME.recordSince(start);
+        }
+    }
+    
+    
+    /**
+     * Looks a magazine up for getMagazine, reading it back from its file if it was evicted.
+     */
+    private Magazine getOrReload(String magazineName)
+    {
+        CompletableFuture<Magazine> pending;
+        synchronized (this) {
+            CacheEntry entry = MagazineMap.get(magazineName);
+            if (entry != null) {
+                hits++;
+                return entry.magazine;
+            }
+            if (!evictedNames.contains(magazineName)) {
+                return null;
+            }
+            pending = reloading.get(magazineName);
+            if (pending != null) {
+                hits++;
+            } else {
+                misses++;
+                reloading.put(magazineName, new CompletableFuture<>());
+            }
+        }
+        if (pending != null) {
+            return pending.join();
+        }
+        return reload(magazineName);
+    }
+    
+    
+    /**
+     * Returns a magazine only if it is in memory, without reloading it or changing its place in the
+     * eviction order.
+     * Precondition: None.
+     * Post condition: Returns the loaded magazine, or null if it is evicted or unknown.
+     * 
+     * @param magazineName The name of the magazine.
+     * @return The loaded magazine, or null.
+     */
+    public synchronized Magazine peekMagazine(String magazineName)
+    {
+        CacheEntry entry = entriesByName.get(magazineName);
+        return entry == null ? null : entry.magazine;
+    }
+    
+    
+    /**
+     * Retrieves a magazine and keeps it in memory until unpinMagazine is called, for callers that
+     * hold on to the magazine object instead of asking for it again.
+     * Precondition: Every successful call is matched by one unpinMagazine call.
+     * Post condition: Returns the magazine, which will not be evicted while pinned, or null if unknown.
+     * 
+     * @param magazineName The name of the magazine to pin.
+     * @return The Magazine object if found, otherwise null.
+     */
+    public Magazine pinMagazine(String magazineName)
+    {
+        synchronized (this) {
+            pins.merge(magazineName, 1, Integer::sum);
+        }
+        Magazine magazine = getMagazine(magazineName);
+        if (magazine == null) {
+            unpinMagazine(magazineName);
+        }
+        return magazine;
+    }
+    
+    
+    /**
+     * Releases one pin taken with pinMagazine.
+     * Precondition: The magazine was pinned.
+     * Post condition: The magazine may be evicted again once no pins remain, the next time the
+     *                 budget is checked.
+     * 
+     * @param magazineName The name of the magazine to unpin.
+     */
+    public void unpinMagazine(String magazineName)
+    {
+        synchronized (this) {
+            pins.computeIfPresent(magazineName, (name, count) -> count == 1 ? null : count - 1);
+        }
     }
     
     /**
@@ -98,46 +369,249 @@ public class MagazineServiceHandler
      * @param magazineName The name of the magazine to check.
      * @return true if the magazine exists, false otherwise.
      */ 
-    public boolean compareMagazine(String magazineName)
+    public synchronized boolean compareMagazine(String magazineName)
     {
-        return MagazineMap.containsKey(magazineName);
+        return MagazineMap.containsKey(magazineName) || evictedNames.contains(magazineName);
+    }
+    
+    
+    /**
+     * Tells whether a magazine has changes that are not in its file yet.
+     * Precondition: None.
+     * Post condition: Returns true for a loaded magazine changed since it was last loaded or saved.
+     * 
+     * @param magazineName The name of the magazine to check.
+     * @return true if the magazine has unsaved changes.
+     */
+    public synchronized boolean isDirty(String magazineName)
+    {
+        CacheEntry entry = MagazineMap.get(magazineName);
+        return entry != null && entry.isDirty();
+    }
+    
+    
+    /**
+     * Returns the loaded magazines that have unsaved changes, with their current versions.
+     * Precondition: None.
+     * Post condition: Returns a name to version map; the versions grow with every further change.
+     * 
+     * @return the dirty magazines and their versions.
+     */
+    public synchronized Map<String, Long> getDirtyVersions()
+    {
+        Map<String, Long> dirty = new HashMap<>();
+        for (Map.Entry<String, CacheEntry> entry : MagazineMap.entrySet()) {
+            if (entry.getValue().isDirty()) {
+                dirty.put(entry.getKey(), entry.getValue().magazine.getVersion());
+            }
+        }
+        return dirty;
+    }
+    
+    
+    /**
+     * Returns the memory budget the loaded magazines are kept under.
+     * Precondition: None.
+     * Post condition: Returns the budget in estimated bytes.
+     * 
+     * @return The memory budget.
+     */
+    public synchronized long getMemoryBudget()
+    {
+        return memoryBudget;
+    }
+    
+    
+    /**
+     * Changes the memory budget and evicts magazines if the loaded ones no longer fit.
+     * Precondition: bytes must be positive.
+     * Post condition: The least recently used magazines that are not in use are evicted until the
+     *                 estimate is within the budget.
+     * 
+     * @param bytes The new budget in estimated bytes.
+     */
+    public void setMemoryBudget(long bytes)
+    {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive");
+        }
+        synchronized (this) {
+            memoryBudget = bytes;
+        }
+        enforceBudget(null);
+    }
+    
+    
+    /**
+     * Evicts magazines until the loaded ones fit the memory budget, for callers that loaded several
+     * magazines while they were pinned.
+     * Precondition: None.
+     * Post condition: The least recently used magazines that are not in use are evicted until the
+     *                 estimate is within the budget.
+     */
+    public void trimToBudget()
+    {
+        enforceBudget(null);
+    }
+    
+    
+    /**
+     * Returns a snapshot of the cache counters.
+     * Precondition: None.
+     * Post condition: Returns the hits, misses, evictions and sizes counted so far.
+     * 
+     * @return The current cache statistics.
+     */
+    public synchronized CacheStats getCacheStats()
+    {
+        return new CacheStats(hits, misses, evictions, flushes, MagazineMap.size(), evictedNames.size(),
+                estimatedBytes, memoryBudget);
     }
     
      /**
      * Saves a magazine to a `.ser` file for persistent storage.
      * Precondition: `magazineName` should refer to an existing magazine in the map.
-     * Post condition: Saves the magazine to a serialized file, alerts user of success or errors.
+     * Post condition: Saves the magazine to a serialized file, replacing any previous file in one step,
+     *                 and notifies the sink of success or errors. An evicted magazine is already saved.
      * 
      * @param magazineName The name of the magazine to save.
+     * @return true if the magazine was saved.
      */
-    public void saveMagazineToFile(String magazineName) {
-        try {
-            File file = new File(magazineName + ".ser");
-
-            // Check if file exists
-            if (file.exists() && !file.delete()) {
-                alert.showAlert("Failed to delete the existing file. Proceeding with overwrite.");
+    public boolean saveMagazineToFile(String magazineName) {
+        CacheEntry entry;
+        synchronized (this) {
+            entry = MagazineMap.get(magazineName);
+            if (entry == null && !evictedNames.contains(magazineName)) {
+                notifications.publish(NotificationSink.Level.ERROR, "No magazine named " + magazineName + " is loaded");
+                return false;
             }
+        }
+        if (entry != null) {
+            long savedVersion = writeMagazine(magazineName, entry.magazine);
+            if (savedVersion < 0) {
+                return false;
+            }
+            markSaved(magazineName, entry, savedVersion);
+            enforceBudget(magazineName);
+        }
+        notifications.publish(NotificationSink.Level.INFO, magazineName + " has been saved successfully in our system");
+        return true;
+    }
 
-            // Writing to file
-            try (FileOutputStream outputFile = new FileOutputStream(file);
-                 ObjectOutputStream objectOut = new ObjectOutputStream(outputFile)) {
-
-                objectOut.writeObject(MagazineMap.get(magazineName));
-                alert.showAlert(magazineName + " has been saved successfully in our system");
-                return;
-
-            } catch (NotSerializableException e) {
-                alert.showAlert("Serialization error: Ensure all referenced classes are Serializable - " + e.getMessage());
-                e.printStackTrace();
-            } catch (IOException e) {
-                alert.showAlert("I/O Error during saving: " + e.getMessage());
-                e.printStackTrace();
+    /**
+     * Saves a magazine if it has unsaved changes, without a success notification, for background savers.
+     * Precondition: None.
+     * Post condition: The file holds the magazine's current version unless writing failed, in which
+     *                 case the sink is told.
+     * 
+     * @param magazineName The name of the magazine to save.
+     * @return false if the magazine had changes and could not be written.
+     */
+    public boolean saveChanges(String magazineName)
+    {
+        CacheEntry entry;
+        synchronized (this) {
+            entry = MagazineMap.get(magazineName);
+            if (entry == null || !entry.isDirty()) {
+                return true;
             }
-        } catch (Exception e) {
-            alert.showAlert("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
         }
+        long savedVersion = writeMagazine(magazineName, entry.magazine);
+        if (savedVersion < 0) {
+            return false;
+        }
+        markSaved(magazineName, entry, savedVersion);
+        return true;
+    }
+    
+    
+    /**
+     * Returns the default number of files saveAllDirty writes at once: the magazine.save.threads
+     * system property, or 4.
+     * Precondition: None.
+     * Post condition: Returns a value of at least 1.
+     * 
+     * @return the default number of save threads.
+     */
+    public static int defaultSaveThreads()
+    {
+        return Math.max(1, Integer.getInteger(SAVE_THREADS_PROPERTY, 4));
+    }
+    
+    
+    /**
+     * Saves every loaded magazine that has unsaved changes, several files at once on a small pool of
+     * its own, and reports each file's size and time.
+     * Precondition: threads must be at least 1. Called off the JavaFX thread.
+     * Post condition: Every dirty magazine is written or reported as failed; the sink receives the summary.
+     * 
+     * @param threads How many files are written at once.
+     * @return the per file results and the overall throughput.
+     */
+    public SaveAllReport saveAllDirty(int threads)
+    {
+        List<String> dirty = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, CacheEntry> entry : MagazineMap.entrySet()) {
+                if (entry.getValue().isDirty()) {
+                    dirty.add(entry.getKey());
+                }
+            }
+        }
+        long start = System.nanoTime();
+        List<SaveAllReport.FileResult> results = new ArrayList<>();
+        if (!dirty.isEmpty()) {
+            int poolSize = Math.min(threads, dirty.size());
+            ExecutorService pool = Executors.newFixedThreadPool(poolSize,
+                    Thread.ofPlatform().name("magazine-save-", 0).daemon().priority(Thread.NORM_PRIORITY - 1).factory());
+            try {
+                List<Future<SaveAllReport.FileResult>> futures = new ArrayList<>();
+                for (String name : dirty) {
+                    futures.add(pool.submit(() -> saveForReport(name)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        results.add(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        results.add(new SaveAllReport.FileResult(dirty.get(i), false, 0, 0));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        SaveAllReport report = new SaveAllReport(results, System.nanoTime() - start, Math.min(threads, Math.max(1, dirty.size())));
+        if (!dirty.isEmpty()) {
+            SAVE_ALL_TIME.record(report.getWallNanos());
+        }
+        notifications.publish(report.getFailedCount() == 0 ? NotificationSink.Level.INFO : NotificationSink.Level.ERROR, report.toString());
+        return report;
+    }
+    
+    
+    /**
+     * Saves one magazine for saveAllDirty, timing the write.
+     */
+    private SaveAllReport.FileResult saveForReport(String magazineName)
+    {
+        CacheEntry entry;
+        synchronized (this) {
+            entry = MagazineMap.get(magazineName);
+        }
+        long start = System.nanoTime();
+        if (entry == null) {
+            // Evicted meanwhile, which saved it
+            return new SaveAllReport.FileResult(magazineName, true, 0, 0);
+        }
+        long savedVersion = writeMagazine(magazineName, entry.magazine);
+        long nanos = System.nanoTime() - start;
+        if (savedVersion < 0) {
+            return new SaveAllReport.FileResult(magazineName, false, 0, nanos);
+        }
+        markSaved(magazineName, entry, savedVersion);
+        return new SaveAllReport.FileResult(magazineName, true, getMagazineFile(magazineName).length(), nanos);
     }
 
     // Load magazine from .ser file
@@ -145,32 +619,683 @@ public class MagazineServiceHandler
     /**
      * Loads a magazine from a `.ser` file into the system.
      * Precondition: The `.ser` file must exist for the specified magazine name.
-     * Post condition: Loads the magazine into the map, or alerts the user if there is an error.
+     * Post condition: Loads the magazine into the map, replacing any loaded copy, or notifies the
+     *                 sink if there is an error.
      * 
      * @param magazineName The name of the magazine to load.
+     * @return true if the magazine was loaded.
+     */
+    public boolean loadMagazineFromFile(String magazineName) {
+        String stamp = fileStamp(magazineName);
+        Magazine magazine = readMagazine(magazineName);
+        if (magazine == null) {
+            return false;
+        }
+        install(magazineName, magazine, magazine.getVersion(), stamp);
+        notifications.publish(NotificationSink.Level.INFO, magazineName + " has been loaded successfully in our system");
+        enforceBudget(magazineName);
+        return true;
+    }
+    
+    
+    /**
+     * Picks up a magazine file that another program created or rewrote. A loaded magazine without
+     * unsaved changes is replaced by the file's copy and its listeners receive a REPLACED event; a
+     * magazine with unsaved changes is kept and the sink is warned; a new file is registered.
+     * Precondition: None.
+     * Post condition: The handler holds the file's version of the magazine unless it had unsaved
+     *                 changes; files this handler wrote itself are ignored.
+     * 
+     * @param magazineName The name of the magazine whose file changed.
+     * @return true if a loaded magazine was replaced.
      */
-    public void loadMagazineFromFile(String magazineName) {
-        try (FileInputStream inputFile = new FileInputStream(magazineName + ".ser");
-             ObjectInputStream objectIn = new ObjectInputStream(inputFile)) {
+    public boolean reloadChangedMagazine(String magazineName)
+    {
+        String stamp = fileStamp(magazineName);
+        CacheEntry entry;
+        synchronized (this) {
+            if (stamp == null || stamp.equals(fileStamps.get(magazineName))) {
+                return false;
+            }
+            entry = MagazineMap.get(magazineName);
+            if (entry == null) {
+                // Not in memory: the next getMagazine reads the new file anyway
+                evictedNames.add(magazineName);
+                return false;
+            }
+            if (entry.isDirty()) {
+                notifications.publish(NotificationSink.Level.ERROR, magazineName
+                        + " was changed on disk but has unsaved changes here; saving it will overwrite the file");
+                fileStamps.put(magazineName, stamp);
+                return false;
+            }
+        }
 
-            MagazineMap.put(magazineName, (Magazine) objectIn.readObject());
-            alert.showAlert(magazineName + " has been loaded successfully in our system");
+        Magazine replacement = readMagazine(magazineName);
+        if (replacement == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (entriesByName.get(magazineName) != entry || entry.isDirty()) {
+                // Changed, saved or replaced while the file was read; the next file event tries again
+                return false;
+            }
+            install(magazineName, replacement, replacement.getVersion(), stamp);
+        }
+        RELOADS.increment();
+        entry.magazine.replacedBy(replacement);
+        notifications.publish(NotificationSink.Level.INFO, magazineName + " was changed on disk and has been reloaded");
+        enforceBudget(magazineName);
+        return true;
+    }
+    
+    
+    /**
+     * Reads an evicted magazine back on behalf of getMagazine and hands it to any callers waiting for it.
+     */
+    private Magazine reload(String magazineName)
+    {
+        Magazine magazine = null;
+        String stamp = null;
+        try {
+            stamp = fileStamp(magazineName);
+            magazine = readMagazine(magazineName);
+        } finally {
+            CompletableFuture<Magazine> pending;
+            synchronized (this) {
+                pending = reloading.remove(magazineName);
+                if (magazine != null && evictedNames.contains(magazineName)) {
+                    install(magazineName, magazine, magazine.getVersion(), stamp);
+                } else {
+                    // Loaded, added or removed by someone else meanwhile
+                    CacheEntry entry = MagazineMap.get(magazineName);
+                    magazine = entry == null ? null : entry.magazine;
+                }
+            }
+            pending.complete(magazine);
+        }
+        if (magazine != null) {
+            enforceBudget(magazineName);
+        }
+        return magazine;
+    }
+    
+    
+    /**
+     * Puts a magazine in the map as the most recently used one, with the stamp of the file it came from.
+     */
+    private synchronized void install(String magazineName, Magazine magazine, long savedVersion, String stamp)
+    {
+        CacheEntry installed = new CacheEntry(magazine, savedVersion);
+        CacheEntry previous = MagazineMap.put(magazineName, installed);
+        entriesByName.put(magazineName, installed);
+        if (previous != null) {
+            estimatedBytes -= previous.estimatedBytes;
+        }
+        evictedNames.remove(magazineName);
+        if (stamp == null) {
+            fileStamps.remove(magazineName);
+        } else {
+            fileStamps.put(magazineName, stamp);
+        }
+    }
+    
+    
+    /**
+     * Returns a string that changes whenever the magazine's file is replaced or rewritten, or null
+     * if there is no file.
+     */
+    private String fileStamp(String magazineName)
+    {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(getMagazineFile(magazineName).toPath(), BasicFileAttributes.class);
+            return attributes.fileKey() + "/" + attributes.size() + "/" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    
+    private synchronized void markSaved(String magazineName, CacheEntry entry, long savedVersion)
+    {
+        if (entriesByName.get(magazineName) == entry) {
+            entry.savedVersion = Math.max(entry.savedVersion, savedVersion);
+        }
+    }
+    
+    
+    /**
+     * Evicts least recently used magazines until the estimate fits the budget. Magazines that are
+     * pinned, have listeners or are named by keep stay; dirty ones are saved before they go.
+     * Each dirty magazine is flushed at most once per call: one that failed to save, or was edited
+     * again while it was written, stays in the cache rather than being written over and over.
+     */
+    private void enforceBudget(String keep)
+    {
+        refreshEstimates();
+        Set<String> flushed = new HashSet<>();
+        while (true) {
+            String victim = null;
+            CacheEntry entry = null;
+            synchronized (this) {
+                if (estimatedBytes <= memoryBudget) {
+                    return;
+                }
+                for (Map.Entry<String, CacheEntry> candidate : MagazineMap.entrySet()) {
+                    String name = candidate.getKey();
+                    if (!name.equals(keep) && !flushed.contains(name) && !isInUse(name, candidate.getValue())) {
+                        victim = name;
+                        entry = candidate.getValue();
+                        break;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                if (!entry.isDirty()) {
+                    evict(victim, entry);
+                    continue;
+                }
+            }
+
+            // Flush outside the lock so other magazines stay available while the file is written
+            long savedVersion = writeMagazine(victim, entry.magazine);
+            synchronized (this) {
+                flushed.add(victim);
+                if (savedVersion >= 0) {
+                    flushes++;
+                    markSaved(victim, entry, savedVersion);
+                    if (entriesByName.get(victim) == entry && !entry.isDirty() && !isInUse(victim, entry)) {
+                        evict(victim, entry);
+                    }
+                }
+            }
+        }
+    }
+    
+    
+    /**
+     * Re-estimates the size of every magazine changed since it was last measured.
+     */
+    private void refreshEstimates()
+    {
+        List<CacheEntry> stale = new ArrayList<>();
+        synchronized (this) {
+            for (CacheEntry entry : MagazineMap.values()) {
+                if (entry.estimatedVersion != entry.magazine.getVersion()) {
+                    stale.add(entry);
+                }
+            }
+        }
+        for (CacheEntry entry : stale) {
+            MagazineSnapshot snapshot = entry.magazine.snapshot();
+            long version = snapshot.getVersion();
+            long bytes = estimateBytes(snapshot);
+            synchronized (this) {
+                estimatedBytes += bytes - entry.estimatedBytes;
+                entry.estimatedBytes = bytes;
+                entry.estimatedVersion = version;
+            }
+        }
+    }
+    
+    
+    private boolean isInUse(String magazineName, CacheEntry entry)
+    {
+        return pins.containsKey(magazineName) || entry.magazine.hasMagazineListeners();
+    }
+    
+    
+    private void evict(String magazineName, CacheEntry entry)
+    {
+        MagazineMap.remove(magazineName);
+        entriesByName.remove(magazineName);
+        estimatedBytes -= entry.estimatedBytes;
+        evictedNames.add(magazineName);
+        evictions++;
+    }
+    
+    
+    /**
+     * Estimates the heap used by a magazine from its customers, supplements and strings.
+     * Reads a snapshot, so the magazine is not locked while its customers are counted.
+     */
+    private static long estimateBytes(MagazineSnapshot magazine)
+    {
+        long bytes = OBJECT_BYTES + 4 * REFERENCE_BYTES + stringBytes(magazine.getTitle());
+        bytes += LIST_BYTES + (long) magazine.getSupplements().size() * REFERENCE_BYTES;
+        for (Supplement supplement : magazine.getSupplements()) {
+            bytes += OBJECT_BYTES + REFERENCE_BYTES + stringBytes(supplement.getName());
+        }
+        bytes += LIST_BYTES + (long) magazine.getCustomerCount() * REFERENCE_BYTES;
+        for (Customer customer : magazine.getCustomerList()) {
+            bytes += OBJECT_BYTES + 8 * REFERENCE_BYTES + CUSTOMER_INDEX_BYTES;
+            bytes += stringBytes(customer.getName()) + stringBytes(customer.getEmail());
+            Address address = customer.getAddress();
+            if (address != null) {
+                bytes += OBJECT_BYTES + 4 * REFERENCE_BYTES + stringBytes(address.getStreetNumber())
+                        + stringBytes(address.getStreetName()) + stringBytes(address.getSuburb())
+                        + stringBytes(address.getPostcode());
+            }
+            // Supplements are usually shared with the magazine, so only the references count
+            bytes += LIST_BYTES + (long) customer.getSupplement().size() * REFERENCE_BYTES;
+            if (customer instanceof PayingCustomer) {
+                PayingCustomer payingCustomer = (PayingCustomer) customer;
+                bytes += LIST_BYTES + (long) payingCustomer.getAssociateCustomers().size() * REFERENCE_BYTES;
+                if (payingCustomer.getPaymentMethod() != null) {
+                    bytes += OBJECT_BYTES + 2 * REFERENCE_BYTES + stringBytes(payingCustomer.getPaymentMethod().getCardType());
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    
+    private static long stringBytes(String text)
+    {
+        return text == null ? 0 : STRING_BYTES + text.length();
+    }
+    
+    
+    /**
+     * Reads a value such as 512m, 2g or 1048576, falling back to the default when absent or invalid.
+     */
+    static long parseBytes(String text, long defaultBytes)
+    {
+        if (text == null || text.isBlank()) {
+            return defaultBytes;
+        }
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        char suffix = value.charAt(value.length() - 1);
+        if (suffix == 'k' || suffix == 'm' || suffix == 'g') {
+            unit = suffix == 'k' ? 1L << 10 : suffix == 'm' ? 1L << 20 : 1L << 30;
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            long bytes = Long.parseLong(value) * unit;
+            return bytes > 0 ? bytes : defaultBytes;
+        } catch (NumberFormatException e) {
+            return defaultBytes;
+        }
+    }
+    
+    
+    /**
+     * Writes a magazine to its file, replacing the previous file in one step.
+     * Returns the version that was written, or -1 after notifying the sink of an error.
+     */
+    private long writeMagazine(String magazineName, Magazine magazine) {
+        synchronized (fileLocks.computeIfAbsent(magazineName, name -> new Object())) {
+            return writeMagazineLocked(magazineName, magazine);
+        }
+    }
+    
+    
+    private long writeMagazineLocked(String magazineName, Magazine magazine) {
+        long start = System.nanoTime();
+        MagazineFlightEvents.Save event = new MagazineFlightEvents.Save();
+        event.begin();
+        try {
+            File file = getMagazineFile(magazineName);
+            
+            // Write next to the target and swap it in, so a crash never leaves a half written file
+            File tempFile = new File(file.getPath() + ".tmp");
+            long version = -1;
+
+            // Writing to file, from a snapshot first and with the magazine locked if it keeps changing
+            for (int attempt = 1; version < 0; attempt++) {
+                MagazineSnapshot snapshot = attempt <= OPTIMISTIC_WRITES ? magazine.snapshot() : null;
+                try (FileOutputStream outputFile = new FileOutputStream(tempFile);
+                     ObjectOutputStream objectOut = new ObjectOutputStream(new BufferedOutputStream(
+                             snapshot == null ? outputFile : new ChangeWatchingStream(outputFile, magazine, snapshot.getVersion())))) {
+
+                    version = snapshot == null ? writeLocked(objectOut, magazine) : writeSnapshot(objectOut, magazine, snapshot);
+                    if (version >= 0) {
+                        outputFile.getFD().sync();
+                    }
+                } catch (MagazineChangedException e) {
+                    version = -1;
+                } catch (IOException e) {
+                    tempFile.delete();
+                    throw e;
+                }
+                if (version < 0) {
+                    WRITE_RETRIES.increment();
+                }
+            }
+
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            String stamp = fileStamp(magazineName);
+            synchronized (this) {
+                fileStamps.put(magazineName, stamp);
+            }
+            WRITE_TIME.recordSince(start);
+            commitSave(event, magazineName, magazine, true);
+            return version;
+
+        } catch (NotSerializableException e) {
+            notifications.publish(NotificationSink.Level.ERROR, "Serialization error: Ensure all referenced classes are Serializable - " + e.getMessage());
+            e.printStackTrace();
+        } catch (IOException e) {
+            notifications.publish(NotificationSink.Level.ERROR, "I/O Error during saving: " + e.getMessage());
+            e.printStackTrace();
+        } catch (Exception e) {
+            notifications.publish(NotificationSink.Level.ERROR, "Unexpected error: " + e.getMessage());
+            e.printStackTrace();
+        }
+        WRITE_FAILURES.increment();
+        commitSave(event, magazineName, magazine, false);
+        return -1;
+    }
+    
+    
+    /**
+     * Writes a snapshot of the magazine while it goes on being edited. The lists are frozen, but a
+     * customer edited meanwhile may already have been written with its new details, so the write
+     * only counts if the magazine did not change; checking takes the lock, so no edit is half done.
+     * Returns the version written, or -1 if the magazine changed and the file must be written again.
+     */
+    private static long writeSnapshot(ObjectOutputStream objectOut, Magazine magazine, MagazineSnapshot snapshot) throws IOException
+    {
+        objectOut.writeObject(snapshot.toMagazine());
+        objectOut.flush();
+        synchronized (magazine) {
+            return magazine.getVersion() == snapshot.getVersion() ? snapshot.getVersion() : -1;
+        }
+    }
+    
+    
+    /**
+     * Writes the magazine with its lock held, so the file holds one consistent version.
+     */
+    private static long writeLocked(ObjectOutputStream objectOut, Magazine magazine) throws IOException
+    {
+        long version;
+        synchronized (magazine) {
+            version = magazine.getVersion();
+            objectOut.writeObject(magazine);
+        }
+        objectOut.flush();
+        return version;
+    }
+    
+    
+    /**
+     * Finishes the flight recorder event of a write, if a recording wants it.
+     */
+    private void commitSave(MagazineFlightEvents.Save event, String magazineName, Magazine magazine, boolean succeeded)
+    {
+        if (event.shouldCommit()) {
+            event.magazineName = magazineName;
+            event.customerCount = magazine.getCustomerCount();
+            event.bytes = succeeded ? getMagazineFile(magazineName).length() : 0;
+            event.format = MagazineFlightEvents.FORMAT_SER;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+    
+    
+    /**
+     * Reads a magazine from its file, or returns null after notifying the sink of an error.
+     */
+    private Magazine readMagazine(String magazineName) {
+        long start = System.nanoTime();
+        MagazineFlightEvents.Load event = new MagazineFlightEvents.Load();
+        event.begin();
+        try (FileInputStream inputFile = new FileInputStream(getMagazineFile(magazineName));
+             ObjectInputStream objectIn = new ObjectInputStream(new BufferedInputStream(inputFile))) {
+
+            Magazine magazine = (Magazine) objectIn.readObject();
+            READ_TIME.recordSince(start);
+            commitLoad(event, magazineName, magazine);
+            return magazine;
 
         } catch (FileNotFoundException ex) {
-            alert.showAlert("File not found: " + magazineName + ".ser");
+            notifications.publish(NotificationSink.Level.ERROR, "File not found: " + getMagazineFile(magazineName));
             ex.printStackTrace();
         } catch (ClassNotFoundException ex) {
-            alert.showAlert("Class not found error during loading: " + ex.getMessage());
+            notifications.publish(NotificationSink.Level.ERROR, "Class not found error during loading: " + ex.getMessage());
             ex.printStackTrace();
         } catch (InvalidClassException ex) {
-            alert.showAlert("Class version mismatch. Ensure all serialized classes are up-to-date: " + ex.getMessage());
+            notifications.publish(NotificationSink.Level.ERROR, "Class version mismatch. Ensure all serialized classes are up-to-date: " + ex.getMessage());
             ex.printStackTrace();
         } catch (IOException ex) {
-            alert.showAlert("I/O Error during loading: " + ex.getMessage());
+            notifications.publish(NotificationSink.Level.ERROR, "I/O Error during loading: " + ex.getMessage());
             ex.printStackTrace();
         }
+        READ_FAILURES.increment();
+        commitLoad(event, magazineName, null);
+        return null;
+
+    }
+    
+    
+    /**
+     * Finishes the flight recorder event of a read, if a recording wants it; magazine is null after a failure.
+     */
+    private void commitLoad(MagazineFlightEvents.Load event, String magazineName, Magazine magazine)
+    {
+        if (event.shouldCommit()) {
+            event.magazineName = magazineName;
+            event.customerCount = magazine == null ? 0 : magazine.getCustomerCount();
+            event.bytes = getMagazineFile(magazineName).length();
+            event.format = MagazineFlightEvents.FORMAT_SER;
+            event.succeeded = magazine != null;
+            event.commit();
+        }
+    }
+
+    
+    
+    /**
+     * Passes bytes on to the file until the magazine changes, then stops a write made from a
+     * snapshot with a MagazineChangedException, instead of finishing a file that will be thrown away.
+     */
+    private static final class ChangeWatchingStream extends FilterOutputStream
+    {
+        private final Magazine magazine;
+        private final long version;
+
+        private ChangeWatchingStream(OutputStream out, Magazine magazine, long version)
+        {
+            super(out);
+            this.magazine = magazine;
+            this.version = version;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            checkVersion();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException
+        {
+            checkVersion();
+            out.write(b, off, len);
+        }
+
+        private void checkVersion() throws MagazineChangedException
+        {
+            if (magazine.getVersion() != version) {
+                throw new MagazineChangedException();
+            }
+        }
+    }
+    
+    
+    /**
+     * Signals that a magazine changed while a snapshot of it was being written.
+     */
+    private static final class MagazineChangedException extends IOException
+    {
+        private static final long serialVersionUID = 1L;
     }
     
     
+    /**
+     * One loaded magazine with the version last written to its file and its estimated size.
+     */
+    private static final class CacheEntry
+    {
+        private final Magazine magazine;
+        private long savedVersion;             // -1 until the magazine exists on disk
+        private long estimatedBytes;
+        private long estimatedVersion = -1;    // version the estimate was taken at
+
+        private CacheEntry(Magazine magazine, long savedVersion)
+        {
+            this.magazine = magazine;
+            this.savedVersion = savedVersion;
+        }
+
+        private boolean isDirty()
+        {
+            return savedVersion < 0 || magazine.getVersion() != savedVersion;
+        }
+    }
+    
     
+    /**
+     * Immutable snapshot of the cache counters.
+     */
+    public static final class CacheStats
+    {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long flushes;
+        private final int loaded;
+        private final int evicted;
+        private final long estimatedBytes;
+        private final long budgetBytes;
+
+        private CacheStats(long hits, long misses, long evictions, long flushes, int loaded, int evicted,
+                long estimatedBytes, long budgetBytes)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.flushes = flushes;
+            this.loaded = loaded;
+            this.evicted = evicted;
+            this.estimatedBytes = estimatedBytes;
+            this.budgetBytes = budgetBytes;
+        }
+
+        /**
+         * Getter for lookups answered from memory.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns lookups answered from memory.
+         * @return lookups answered from memory.
+         */
+        public long getHits()
+        {
+            return hits;
+        }
+
+        /**
+         * Getter for lookups that had to read an evicted magazine back from disk.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns lookups that had to read an evicted magazine back from disk.
+         * @return lookups that had to read an evicted magazine back from disk.
+         */
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        /**
+         * Getter for magazines dropped from memory to stay within the budget.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns magazines dropped from memory to stay within the budget.
+         * @return magazines dropped from memory to stay within the budget.
+         */
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        /**
+         * Getter for dirty magazines saved so they could be evicted.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns dirty magazines saved so they could be evicted.
+         * @return dirty magazines saved so they could be evicted.
+         */
+        public long getFlushes()
+        {
+            return flushes;
+        }
+
+        /**
+         * Getter for magazines currently in memory.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns magazines currently in memory.
+         * @return magazines currently in memory.
+         */
+        public int getLoaded()
+        {
+            return loaded;
+        }
+
+        /**
+         * Getter for magazines currently only on disk.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns magazines currently only on disk.
+         * @return magazines currently only on disk.
+         */
+        public int getEvicted()
+        {
+            return evicted;
+        }
+
+        /**
+         * Getter for estimated heap used by the loaded magazines.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns estimated heap used by the loaded magazines.
+         * @return estimated heap used by the loaded magazines.
+         */
+        public long getEstimatedBytes()
+        {
+            return estimatedBytes;
+        }
+
+        /**
+         * Getter for the memory budget.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns the memory budget.
+         * @return the memory budget.
+         */
+        public long getBudgetBytes()
+        {
+            return budgetBytes;
+        }
+
+        /**
+         * Getter for the share of lookups answered from memory.
+         * Precondition: CacheStats object exists.
+         * Post condition: Returns the share of lookups answered from memory, or 1 before any lookup.
+         * @return the share of lookups answered from memory, or 1 before any lookup.
+         */
+        public double getHitRatio()
+        {
+            long lookups = hits + misses;
+            return lookups == 0 ? 1 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ROOT, "hits=%d misses=%d evictions=%d flushes=%d loaded=%d evicted=%d bytes=%d/%d",
+                    hits, misses, evictions, flushes, loaded, evicted, estimatedBytes, budgetBytes);
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MagazineSnapshot.java
+ * @purpose This class is a frozen version of a magazine's supplement and customer lists, which
+ *          saving, exporting and billing read while the magazine goes on being edited.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The lists never change and can be read by any thread without a lock. They share their
+ *    storage with the magazine, see ChunkedList, so taking a snapshot does not copy the customers.
+ *  - Only the lists are frozen. A customer or supplement edited after the snapshot was taken is
+ *    seen with its new details; the snapshot's version tells whether anything changed since.
+ *
+ * @expected input:
+ *  - Taken with Magazine.snapshot().
+ *
+ * @expected output:
+ *  - The magazine's title, cost, supplements and customers as they were at one version.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MagazineSnapshot
+{
+    private final String title;
+    private final float weeklyCost;
+    private final long version;
+    private final List<Supplement> supplements;
+    private final List<Customer> customers;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: Called by Magazine with its lock held; the lists are snapshots of a ChunkedList.
+     * Post condition: A snapshot of the magazine at the given version is created.
+     */
+    MagazineSnapshot(String title, float weeklyCost, long version, List<Supplement> supplements, List<Customer> customers)
+    {
+        this.title = title;
+        this.weeklyCost = weeklyCost;
+        this.version = version;
+        this.supplements = supplements;
+        this.customers = customers;
+    }
+
+
+    /**
+     * Getter for the title of the magazine.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the title of the magazine.
+     * @return the title of the magazine.
+     */
+    public String getTitle()
+    {
+        return title;
+    }
+
+    /**
+     * Getter for the weekly cost of the magazine.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the weekly cost of the magazine.
+     * @return the weekly cost of the magazine.
+     */
+    public float getWeeklyCost()
+    {
+        return weeklyCost;
+    }
+
+    /**
+     * Getter for the magazine's version when the snapshot was taken.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the magazine's version when the snapshot was taken.
+     * @return the magazine's version when the snapshot was taken, see Magazine.getVersion().
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Getter for the supplements, as an immutable list.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the supplements, as an immutable list.
+     * @return the supplements, as an immutable list.
+     */
+    public List<Supplement> getSupplements()
+    {
+        return supplements;
+    }
+
+    /**
+     * Getter for the customers, as an immutable list.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the customers, as an immutable list.
+     * @return the customers, as an immutable list.
+     */
+    public List<Customer> getCustomerList()
+    {
+        return customers;
+    }
+
+    /**
+     * Getter for the number of customers.
+     * Precondition: MagazineSnapshot object exists.
+     * Post condition: Returns the number of customers.
+     * @return the number of customers.
+     */
+    public int getCustomerCount()
+    {
+        return customers.size();
+    }
+
+
+    /**
+     * Returns a page of customers.
+     * Precondition: None.
+     * Post condition: Returns a copy of at most limit customers starting at offset.
+     * @param offset Index of the first customer to return.
+     * @param limit Maximum number of customers to return.
+     * @return the requested customers, or an empty list if offset is past the end.
+     */
+    public List<Customer> getCustomers(int offset, int limit)
+    {
+        int end = (int) Math.min(customers.size(), (long) offset + limit);
+        if (offset >= end) {
+            return new ArrayList<>();
+        }
+        ArrayList<Customer> page = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            page.add(customers.get(i));
+        }
+        return page;
+    }
+
+
+    /**
+     * Makes a magazine holding this snapshot's lists, for example to save it while the original
+     * goes on being edited.
+     * Precondition: None.
+     * Post condition: Returns a new magazine sharing the lists' storage with this snapshot; changing
+     *                 it does not change the snapshot or the original.
+     * @return the new magazine.
+     */
+    public Magazine toMagazine()
+    {
+        return new Magazine(this);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename MetricsRegistry.java
+ * @purpose This class holds the latency histograms and counters of the running application by name,
+ *          so the diagnostics panel and the text snapshot can list them all.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Names are dotted, starting with the area they measure: "handler.", "billing." or "ui.".
+ *  - Instrumented classes look their histograms up once, in a static field, so recording never
+ *    touches the registry's map.
+ *  - The default registry lives as long as the application; nothing is ever removed from it.
+ *
+ * @expected input:
+ *  - Histogram and counter names.
+ *
+ * @expected output:
+ *  - The same histogram or counter for the same name, and a plain text table of all of them.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MetricsRegistry
+{
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // The percentiles shown in the snapshot, in its column order
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+
+    /**
+     * Returns the registry the application's own classes record into.
+     * Precondition: None.
+     * Post condition: Always returns the same registry.
+     * @return the default registry.
+     */
+    public static MetricsRegistry getDefault()
+    {
+        return DEFAULT;
+    }
+
+
+    /**
+     * Returns the histogram with the given name, creating it the first time.
+     * Precondition: name must not be null.
+     * Post condition: Later calls with the same name return the same histogram.
+     * @param name The operation name.
+     * @return the histogram.
+     */
+    public LatencyHistogram histogram(String name)
+    {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+
+    /**
+     * Returns the counter with the given name, creating it the first time.
+     * Precondition: name must not be null.
+     * Post condition: Later calls with the same name return the same counter.
+     * @param name The counter name.
+     * @return the counter.
+     */
+    public Counter counter(String name)
+    {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+
+    /**
+     * Takes a snapshot of every histogram, sorted by name.
+     * Precondition: None.
+     * Post condition: Returns the snapshots; the histograms keep counting.
+     * @return the snapshots.
+     */
+    public List<LatencyHistogram.Snapshot> snapshotHistograms()
+    {
+        List<LatencyHistogram.Snapshot> snapshots = new ArrayList<>();
+        for (LatencyHistogram histogram : new TreeMap<>(histograms).values()) {
+            snapshots.add(histogram.snapshot());
+        }
+        return snapshots;
+    }
+
+
+    /**
+     * Returns the value of every counter, sorted by name.
+     * Precondition: None.
+     * Post condition: Returns the values at this moment.
+     * @return the counter values by name.
+     */
+    public Map<String, Long> snapshotCounters()
+    {
+        Map<String, Long> values = new TreeMap<>();
+        for (Counter counter : counters.values()) {
+            values.put(counter.getName(), counter.get());
+        }
+        return values;
+    }
+
+
+    /**
+     * Writes every histogram and counter as a plain text table, times in milliseconds.
+     * Precondition: None.
+     * Post condition: Returns the table; the metrics are unchanged.
+     * @return the snapshot text.
+     */
+    public String snapshotText()
+    {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-28s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation (ms)", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (LatencyHistogram.Snapshot snapshot : snapshotHistograms()) {
+            text.append(String.format(Locale.ROOT, "%-28s %10d %10.3f", snapshot.getName(), snapshot.getCount(),
+                    snapshot.getMean() / 1e6));
+            for (double percentile : PERCENTILES) {
+                text.append(String.format(Locale.ROOT, " %10.3f", snapshot.getValueAtPercentile(percentile) / 1e6));
+            }
+            text.append(String.format(Locale.ROOT, " %10.3f%n", snapshot.getMax() / 1e6));
+        }
+        Map<String, Long> values = snapshotCounters();
+        if (!values.isEmpty()) {
+            text.append(String.format(Locale.ROOT, "%n%-28s %10s%n", "counter", "value"));
+            for (Map.Entry<String, Long> entry : values.entrySet()) {
+                text.append(String.format(Locale.ROOT, "%-28s %10d%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return text.toString();
+    }
+
+
+    /**
+     * Empties every histogram and sets every counter back to 0.
+     * Precondition: None.
+     * Post condition: The metrics start again from nothing; their names are kept.
+     */
+    public void reset()
+    {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+
+    /**
+     * A named count that many threads can add to without waiting for each other.
+     */
+    public static final class Counter
+    {
+        private final String name;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name)
+        {
+            this.name = name;
+        }
+
+        /** @return the counter name. */
+        public String getName() { return name; }
+
+        /** Adds one. */
+        public void increment() { value.increment(); }
+
+        /**
+         * Adds an amount.
+         * @param amount The amount to add.
+         */
+        public void add(long amount) { value.add(amount); }
+
+        /** @return the current value. */
+        public long get() { return value.sum(); }
+
+        private void reset() { value.reset(); }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename NotificationSink.java
+ * @purpose This interface receives the status messages produced by non-interactive operations such as
+ *          saving and loading, so those operations never wait for a user to close a dialog.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Implementations may be called from any thread and must not block the caller.
+ *
+ * @expected input:
+ *  - A severity level and a human readable message.
+ *
+ * @expected output:
+ *  - The message is shown, logged or recorded depending on the implementation.
+ */
+
+public interface NotificationSink 
+{
+    /**
+     * Severity of a notification.
+     */
+    enum Level 
+    {
+        INFO, 
+        ERROR
+    }
+    
+    
+    /**
+     * Publishes a message.
+     * Precondition: level and message must not be null.
+     * Post condition: The message is handed to the implementation without blocking the caller.
+     * @param level The severity of the message.
+     * @param message The message text.
+     */
+    void publish(Level level, String message);
+}
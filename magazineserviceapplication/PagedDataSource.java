@@ -0,0 +1,46 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename PagedDataSource.java
+ * @purpose This interface describes a store that can hand out its rows one page at a time,
+ *          so callers never need to copy the whole collection.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Rows are addressed by a zero based index that is stable between calls unless the store changes.
+ *
+ * @expected input:
+ *  - An offset and a maximum number of rows.
+ *
+ * @expected output:
+ *  - The total row count and the requested page of rows.
+ */
+
+import java.util.List;
+
+public interface PagedDataSource<T> 
+{
+    /**
+     * Returns the number of rows currently in the store.
+     * Precondition: None.
+     * Post condition: Returns a non-negative row count.
+     * @return the number of rows.
+     */
+    int size();
+    
+    
+    /**
+     * Returns a page of rows.
+     * Precondition: offset is between 0 and size().
+     * Post condition: Returns at most limit rows starting at offset, fewer at the end of the store.
+     * @param offset Index of the first row to return.
+     * @param limit Maximum number of rows to return.
+     * @return the requested rows.
+     */
+    List<T> fetch(int offset, int limit);
+}
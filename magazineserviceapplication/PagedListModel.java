@@ -0,0 +1,245 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename PagedListModel.java
+ * @purpose This class is a read-only observable list that loads its rows lazily, one page at a time,
+ *          from a PagedDataSource. ListView only asks for the rows it renders, so opening a list
+ *          no longer copies every customer into the UI.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The list is used from the JavaFX application thread.
+ *  - Only a bounded number of pages are kept; older pages are dropped and reloaded on demand.
+ *
+ * @expected input:
+ *  - A data source plus the page size and the number of pages to keep cached.
+ *
+ * @expected output:
+ *  - Rows fetched on demand for ListView and ComboBox controls.
+ */
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.collections.ObservableListBase;
+
+public class PagedListModel<T> extends ObservableListBase<T> 
+{
+    // Default number of rows fetched per page
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    
+    // Default number of pages kept in memory (the prefetch window)
+    public static final int DEFAULT_MAX_PAGES = 8;
+    
+    private final PagedDataSource<T> source;
+    private final int pageSize;
+    private final int maxPages;
+    
+    // Cached pages keyed by page number, least recently used first
+    private final LinkedHashMap<Integer, List<T>> pages;
+    
+    // Row count as of the last refresh
+    private int size;
+    
+    
+    /**
+     * Constructor using the default page size and prefetch window.
+     * Precondition: source must not be null.
+     * Post condition: A model showing the rows of the given source is created.
+     * @param source The store to read rows from.
+     */
+    public PagedListModel(PagedDataSource<T> source)
+    {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+    
+    
+    /**
+     * Parameterized Constructor.
+     * Precondition: source must not be null, pageSize and maxPages must be positive.
+     * Post condition: A model showing the rows of the given source is created.
+     * @param source The store to read rows from.
+     * @param pageSize Number of rows fetched at once.
+     * @param maxPages Number of pages kept cached.
+     */
+    public PagedListModel(PagedDataSource<T> source, int pageSize, int maxPages)
+    {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.maxPages = Math.max(2, maxPages);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedListModel.this.maxPages;
+            }
+        };
+        this.size = source.size();
+    }
+    
+    
+    /**
+     * Returns the row at the given index, loading its page if it is not cached.
+     * Precondition: index is between 0 and size() - 1.
+     * Post condition: Returns the row; the next page is prefetched when the row is near its end.
+     * @param index The row index.
+     * @return the row at the index.
+     */
+    @Override
+    public T get(int index)
+    {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int pageNumber = index / pageSize;
+        List<T> page = loadPage(pageNumber);
+        int offset = index - pageNumber * pageSize;
+
+        // Prefetch the following page once the last quarter of this one is reached
+        if (offset >= pageSize - pageSize / 4 && (pageNumber + 1) * pageSize < size) {
+            loadPage(pageNumber + 1);
+        }
+        return offset < page.size() ? page.get(offset) : null;
+    }
+    
+    
+    /**
+     * Returns the number of rows as of the last refresh.
+     * Precondition: None.
+     * Post condition: Returns the row count.
+     * @return the row count.
+     */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+    
+    
+    /**
+     * Drops every cached page and re-reads the row count from the source.
+     * Precondition: Called on the JavaFX application thread.
+     * Post condition: Listeners are told that all rows were replaced.
+     */
+    public void refresh()
+    {
+        int oldSize = size;
+        pages.clear();
+        size = source.size();
+
+        beginChange();
+        nextReplace(0, size, Collections.<T>nCopies(oldSize, null));
+        endChange();
+    }
+    
+    
+    /**
+     * Applies a single inserted row without reloading the list.
+     * Precondition: Called on the JavaFX application thread after the source gained the row.
+     * Post condition: Cached pages at or after the row are dropped and listeners see one added row.
+     * @param index The position of the new row.
+     */
+    public void rowInserted(int index)
+    {
+        if (index < 0 || index > size) {
+            refresh();
+            return;
+        }
+        dropPagesFrom(index);
+        size++;
+
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+        resyncIfNeeded();
+    }
+    
+    
+    /**
+     * Applies a single removed row without reloading the list.
+     * Precondition: Called on the JavaFX application thread after the source lost the row.
+     * Post condition: Cached pages at or after the row are dropped and listeners see one removed row.
+     * @param index The position the row had.
+     * @param removed The row that was removed.
+     */
+    public void rowRemoved(int index, T removed)
+    {
+        if (index < 0 || index >= size) {
+            refresh();
+            return;
+        }
+        dropPagesFrom(index);
+        size--;
+
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+        resyncIfNeeded();
+    }
+    
+    
+    /**
+     * Applies an in-place edit of a single row.
+     * Precondition: Called on the JavaFX application thread.
+     * Post condition: The cached copy of the row is replaced and listeners see one updated row.
+     * @param index The position of the row.
+     * @param item The row as it is now.
+     */
+    public void rowUpdated(int index, T item)
+    {
+        if (index < 0 || index >= size) {
+            return;
+        }
+        List<T> page = pages.get(index / pageSize);
+        int offset = index % pageSize;
+        if (page != null && offset < page.size()) {
+            page.set(offset, item);
+        }
+
+        beginChange();
+        nextUpdate(index);
+        endChange();
+    }
+    
+    
+    /**
+     * Falls back to a full refresh if the patched size no longer matches the source,
+     * which happens when changes reach the model out of step with the store.
+     */
+    private void resyncIfNeeded()
+    {
+        if (size != source.size()) {
+            refresh();
+        }
+    }
+    
+    
+    /**
+     * Drops the cached pages whose rows shift when a row is inserted or removed at the index.
+     */
+    private void dropPagesFrom(int index)
+    {
+        pages.keySet().removeIf(pageNumber -> (pageNumber + 1) * pageSize > index);
+    }
+    
+    
+    /**
+     * Returns the page with the given number, fetching it from the source if needed.
+     * @param pageNumber The page number.
+     * @return the rows of the page.
+     */
+    private List<T> loadPage(int pageNumber)
+    {
+        List<T> page = pages.get(pageNumber);
+        if (page == null) {
+            page = source.fetch(pageNumber * pageSize, pageSize);
+            pages.put(pageNumber, page);
+        }
+        return page;
+    }
+}
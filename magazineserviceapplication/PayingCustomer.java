@@ -15,7 +15,8 @@ package magazineserviceapplication;
  * @assumptions:
  *  - Each paying customer may have zero or more associate customers.
  *  - The payment method should be either "Credit" or "Debit".
- *  - The associate customers are managed in a thread-safe manner to support concurrent access.
+ *  - The associate customers are held as an immutable snapshot swapped with compare-and-set,
+ *    so readers never block and never see a partially updated list.
  *
  * @expected input:
  *  - Customer name, email, address, and a valid payment method.
@@ -26,19 +27,36 @@ package magazineserviceapplication;
  */
 
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 public class PayingCustomer extends Customer 
 {
+    // Pinned to the value computed for the original class so existing .ser files keep loading
+    private static final long serialVersionUID = 1725102967458059176L;
+
+    // Keeps the serialized form identical to the original synchronized list field
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("associateCustomers", List.class),
+        new ObjectStreamField("paymentMethod", PaymentMethod.class)
+    };
+
+    // Atomic updater used to swap the associate snapshot without locking
+    private static final AtomicReferenceFieldUpdater<PayingCustomer, List<Customer>> ASSOCIATES = associatesUpdater();
+
     // Payment method object for the paying customer
     private PaymentMethod paymentMethod;
     
     
-    // List of associate customers whose subscriptions 
-    // are paid for by this paying customer
-    private final List<Customer> associateCustomers;
+    // Immutable snapshot of the associate customers whose subscriptions 
+    // are paid for by this paying customer, replaced as a whole on every change
+    private transient volatile List<Customer> associateCustomers;
     
     
     /**
@@ -50,7 +68,7 @@ public class PayingCustomer extends Customer
     {
         super(); // Call the superclass constructor
         this.paymentMethod = new PaymentMethod();
-        this.associateCustomers = Collections.synchronizedList(new ArrayList<>());
+        this.associateCustomers = List.of();
         
     }
 
@@ -68,7 +86,7 @@ public class PayingCustomer extends Customer
     {
         super(m_name, m_email, address);
         this.paymentMethod = paymentMethod;
-        this.associateCustomers = Collections.synchronizedList(new ArrayList<>());
+        this.associateCustomers = List.of();
     }
 
     
@@ -113,41 +131,50 @@ public class PayingCustomer extends Customer
     /**
      * Getter for associate list.
      * Precondition: PayingCustomer object exists.
-     * Post condition: Returns the list of associate customers.
+     * Post condition: Returns an immutable snapshot of the associate customers; 
+     *                 later changes never show up in a snapshot already handed out.
      * @return list of associates.
      */
     public List<Customer> getAssociateCustomers() 
     {
-        synchronized (associateCustomers) 
-        {
-            return new ArrayList<>(associateCustomers); //return copy for thread safety 
-        }
+        return associateCustomers;
     }
     
     
-    // Setter for arraylist of associate customers
-    public void setAssociateCustomers(ArrayList<Customer> associateCustomers) 
+    /**
+     * Setter for list of associate customers.
+     * Precondition: The list and its elements must not be null.
+     * Post condition: Replaces the associates with a snapshot of the given list.
+     * @param associateCustomers The new associate customers.
+     * @throws NullPointerException if the list or one of its elements is null.
+     */
+    public void setAssociateCustomers(List<Customer> associateCustomers) 
     {
-        synchronized (associateCustomers) 
-        {
-        // Clear the current list and add all elements from the new list
-        associateCustomers.clear();
-        associateCustomers.addAll(associateCustomers);
-        }
+        this.associateCustomers = List.copyOf(associateCustomers);
     }
     
      
     
     /**
      * Adds an associate customer.
-     * Precondition: The associate customer must not already be in the list.
+     * Precondition: The associate customer must not be null or already be in the list.
      * Post condition: Adds the associate customer to the list.
      * @param customer The associate customer to add.
+     * @throws NullPointerException if customer is null; the snapshot cannot hold null.
      */
 
-    public synchronized  void addAssociateCustomer(Customer customer) 
+    public void addAssociateCustomer(Customer customer) 
     {
-        associateCustomers.add(customer);
+        Objects.requireNonNull(customer, "customer");
+        List<Customer> current;
+        List<Customer> updated;
+        do {
+            current = associateCustomers;
+            updated = new ArrayList<>(current.size() + 1);
+            updated.addAll(current);
+            updated.add(customer);
+            updated = List.copyOf(updated);
+        } while (!ASSOCIATES.compareAndSet(this, current, updated));
     }
     
    
@@ -157,9 +184,19 @@ public class PayingCustomer extends Customer
      * Post condition: Removes the associate customer from the list.
      * @param customer The associate customer to remove.
      */
-    public synchronized  void removeAssociateCustomer(Customer customer)
+    public void removeAssociateCustomer(Customer customer)
     {
-        associateCustomers.remove(customer);
+        List<Customer> current;
+        List<Customer> updated;
+        do {
+            current = associateCustomers;
+            if (!current.contains(customer)) {
+                return;
+            }
+            ArrayList<Customer> remaining = new ArrayList<>(current);
+            remaining.remove(customer);
+            updated = List.copyOf(remaining);
+        } while (!ASSOCIATES.compareAndSet(this, current, updated));
     }
     
     
@@ -171,7 +208,6 @@ public class PayingCustomer extends Customer
      * @return true if the associate customer exists, false otherwise.
      */
     public boolean compareAssociateCustomer(String associateCustomerName) {
-       synchronized (associateCustomers){
         for (Customer customer : associateCustomers) 
         {
             // Check for associate customer only
@@ -186,7 +222,6 @@ public class PayingCustomer extends Customer
             }
         }
         return false;
-       }
     }
 
     /**
@@ -196,10 +231,6 @@ public class PayingCustomer extends Customer
      * @return true if an associate customer exists, false otherwise.
      */
     public boolean containsAssociateCustomer() {
-      
-       synchronized (associateCustomers)
-       {
-        
         for (Customer customer : associateCustomers) {
             // Check for associate customer and return true if found
             if (customer instanceof AssociateCustomer) {
@@ -207,7 +238,6 @@ public class PayingCustomer extends Customer
             }
         }
         return false;
-       }
     }
 
     /**
@@ -222,16 +252,15 @@ public class PayingCustomer extends Customer
         // Calculate the cost of supplements for the main paying customer
         totalCost += calculateSupplementsCost(this);
 
-        synchronized (associateCustomers)
-        {
-        // Calculate the cost of supplements for each associate customer
-        for (Customer associateCustomer : associateCustomers) {
+        // Calculate the cost of supplements for each associate customer; the snapshot is a
+        // random access list, and indexing it avoids an iterator per call
+        List<Customer> associates = associateCustomers;
+        for (int i = 0; i < associates.size(); i++) {
+            Customer associateCustomer = associates.get(i);
             if (associateCustomer instanceof AssociateCustomer) {
                 totalCost += calculateSupplementsCost(associateCustomer);
             }
         }
-        
-        }
         return totalCost;
         
     }
@@ -256,4 +285,48 @@ public class PayingCustomer extends Customer
         return cost;
     }
   
+    
+    /**
+     * Writes the associate snapshot in the original list form.
+     * Precondition: Called by Java serialization.
+     * Post condition: The customer is written with the same fields as earlier versions.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("associateCustomers", new ArrayList<>(associateCustomers));
+        fields.put("paymentMethod", paymentMethod);
+        out.writeFields();
+    }
+
+    /**
+     * Restores the associate snapshot from either the old synchronized list or a plain list.
+     * Precondition: Called by Java serialization.
+     * Post condition: The associate snapshot is rebuilt as an immutable list; null entries, which
+     *                 the old list accepted, are dropped so older files still load.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        List<Customer> stored = (List<Customer>) fields.get("associateCustomers", null);
+        paymentMethod = (PaymentMethod) fields.get("paymentMethod", null);
+        if (stored == null) {
+            associateCustomers = List.of();
+        } else {
+            ArrayList<Customer> associates = new ArrayList<>(stored);
+            associates.removeIf(Objects::isNull);
+            associateCustomers = List.copyOf(associates);
+        }
+    }
+
+
+    /**
+     * Creates the updater for the associate snapshot. The class literal of a generic type is raw,
+     * so the cast is kept here rather than spreading raw types through the class.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static AtomicReferenceFieldUpdater<PayingCustomer, List<Customer>> associatesUpdater() {
+        return (AtomicReferenceFieldUpdater) AtomicReferenceFieldUpdater.newUpdater(
+                PayingCustomer.class, List.class, "associateCustomers");
+    }
+  
 }
@@ -0,0 +1,105 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename RecentMagazines.java
+ * @purpose This class remembers the magazines the operator opened most recently, across sessions,
+ *          so they can be loaded first the next time the application starts.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - The list is stored in the user's java.util.prefs preferences; if they cannot be written the
+ *    list simply lasts for the session.
+ *  - Magazine names do not contain line breaks.
+ *
+ * @expected input:
+ *  - Names of magazines as they are opened.
+ *
+ * @expected output:
+ *  - The names, most recent first, at most MAX_ENTRIES of them.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+public class RecentMagazines
+{
+    // How many names are remembered
+    public static final int MAX_ENTRIES = 10;
+
+    private static final String KEY = "recentMagazines";
+
+    private final Preferences preferences;
+
+
+    /**
+     * Default Constructor.
+     * Precondition: No parameters required.
+     * Post condition: A list stored in the user preferences of this package is created.
+     */
+    public RecentMagazines()
+    {
+        this(Preferences.userNodeForPackage(RecentMagazines.class));
+    }
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: preferences must not be null.
+     * Post condition: A list stored in the given preferences node is created.
+     * @param preferences The node holding the list.
+     */
+    public RecentMagazines(Preferences preferences)
+    {
+        this.preferences = preferences;
+    }
+
+
+    /**
+     * Returns the remembered names.
+     * Precondition: None.
+     * Post condition: Returns the names, most recently opened first.
+     * @return the recent magazine names.
+     */
+    public synchronized List<String> list()
+    {
+        List<String> names = new ArrayList<>();
+        for (String name : preferences.get(KEY, "").split("\n")) {
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+
+    /**
+     * Moves a magazine to the front of the list.
+     * Precondition: name must not be null.
+     * Post condition: The name is first, and the oldest names beyond MAX_ENTRIES are forgotten.
+     * @param name The magazine that was opened.
+     */
+    public synchronized void touch(String name)
+    {
+        List<String> names = list();
+        names.remove(name);
+        names.add(0, name);
+        if (names.size() > MAX_ENTRIES) {
+            names = names.subList(0, MAX_ENTRIES);
+        }
+        preferences.put(KEY, String.join("\n", names));
+        try {
+            preferences.flush();
+        } catch (BackingStoreException e) {
+            Logger.getLogger(RecentMagazines.class.getName()).log(Level.FINE, "Could not store recent magazines", e);
+        }
+    }
+}
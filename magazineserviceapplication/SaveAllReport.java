@@ -0,0 +1,203 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename SaveAllReport.java
+ * @purpose This class records the outcome of saving every magazine with unsaved changes at once:
+ *          how long each file took, how large it was, and the overall throughput.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Files are saved concurrently, so the wall time is shorter than the sum of the file times.
+ *  - Megabytes are 1,000,000 bytes.
+ *
+ * @expected input:
+ *  - One result per magazine from MagazineServiceHandler.saveAllDirty.
+ *
+ * @expected output:
+ *  - Per file results and a one line summary.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class SaveAllReport
+{
+    private final List<FileResult> files;
+    private final long wallNanos;
+    private final int threads;
+
+
+    /**
+     * Parameterized Constructor.
+     * Precondition: files must not be null.
+     * Post condition: A report over the given results is created.
+     * @param files The result of each save, in any order.
+     * @param wallNanos Elapsed time of the whole save.
+     * @param threads How many files were written at once.
+     */
+    public SaveAllReport(List<FileResult> files, long wallNanos, int threads)
+    {
+        this.files = Collections.unmodifiableList(new ArrayList<>(files));
+        this.wallNanos = wallNanos;
+        this.threads = threads;
+    }
+
+
+    /** @return the result of each save. */
+    public List<FileResult> getFiles() { return files; }
+
+    /** @return elapsed time of the whole save. */
+    public long getWallNanos() { return wallNanos; }
+
+    /** @return how many files were written at once. */
+    public int getThreads() { return threads; }
+
+
+    /**
+     * Returns how many magazines were saved.
+     * Precondition: None.
+     * Post condition: Returns the number of successful saves.
+     * @return the saved count.
+     */
+    public int getSavedCount()
+    {
+        int saved = 0;
+        for (FileResult file : files) {
+            if (file.isSaved()) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+
+
+    /**
+     * Returns how many magazines could not be saved.
+     * Precondition: None.
+     * Post condition: Returns the number of failed saves.
+     * @return the failed count.
+     */
+    public int getFailedCount()
+    {
+        return files.size() - getSavedCount();
+    }
+
+
+    /**
+     * Returns the bytes written by the successful saves.
+     * Precondition: None.
+     * Post condition: Returns the total size of the saved files.
+     * @return the total bytes.
+     */
+    public long getTotalBytes()
+    {
+        long bytes = 0;
+        for (FileResult file : files) {
+            if (file.isSaved()) {
+                bytes += file.getBytes();
+            }
+        }
+        return bytes;
+    }
+
+
+    /**
+     * Returns the overall write throughput.
+     * Precondition: None.
+     * Post condition: Returns megabytes written per second of wall time, or 0 if nothing was timed.
+     * @return the throughput in MB/s.
+     */
+    public double getMegabytesPerSecond()
+    {
+        return wallNanos <= 0 ? 0 : getTotalBytes() / 1e6 / (wallNanos / 1e9);
+    }
+
+
+    /**
+     * Returns the save that took longest.
+     * Precondition: None.
+     * Post condition: Returns the slowest result, or null if nothing was saved.
+     * @return the slowest file.
+     */
+    public FileResult getSlowest()
+    {
+        FileResult slowest = null;
+        for (FileResult file : files) {
+            if (slowest == null || file.getNanos() > slowest.getNanos()) {
+                slowest = file;
+            }
+        }
+        return slowest;
+    }
+
+
+    /**
+     * Returns a one line summary for the operator.
+     * @return the summary.
+     */
+    @Override
+    public String toString()
+    {
+        if (files.isEmpty()) {
+            return "No magazine has unsaved changes";
+        }
+        FileResult slowest = getSlowest();
+        return String.format(Locale.ROOT, "Saved %d of %d magazine(s), %.1f MB in %d ms (%.1f MB/s, %d at once); slowest %s %d ms",
+                getSavedCount(), files.size(), getTotalBytes() / 1e6, wallNanos / 1_000_000, getMegabytesPerSecond(),
+                threads, slowest.getName(), slowest.getNanos() / 1_000_000);
+    }
+
+
+    /**
+     * The outcome of saving one magazine.
+     */
+    public static final class FileResult
+    {
+        private final String name;
+        private final boolean saved;
+        private final long bytes;
+        private final long nanos;
+
+        /**
+         * Parameterized Constructor.
+         * Precondition: name must not be null.
+         * Post condition: A result for one file is created.
+         * @param name The magazine name.
+         * @param saved Whether the file was written.
+         * @param bytes Size of the written file.
+         * @param nanos Time taken to write it.
+         */
+        public FileResult(String name, boolean saved, long bytes, long nanos)
+        {
+            this.name = name;
+            this.saved = saved;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /** @return the magazine name. */
+        public String getName() { return name; }
+
+        /** @return whether the file was written. */
+        public boolean isSaved() { return saved; }
+
+        /** @return size of the written file. */
+        public long getBytes() { return bytes; }
+
+        /** @return time taken to write the file. */
+        public long getNanos() { return nanos; }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ROOT, "%s %s %d bytes %d ms", name, saved ? "saved" : "FAILED", bytes, nanos / 1_000_000);
+        }
+    }
+}
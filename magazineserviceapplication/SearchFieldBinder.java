@@ -0,0 +1,269 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename SearchFieldBinder.java
+ * @purpose This class connects a search text field to a customer or supplement list view so the
+ *          list is filtered as the operator types, and keeps the list in step with the magazine's
+ *          change events so an edit patches one row instead of reloading the list.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - Methods are called on the JavaFX application thread.
+ *  - Customer queries go through the magazine's CustomerSearchIndex; supplement lists are short
+ *    and are filtered directly.
+ *  - The paying customer drop-down is filled from search results only, so opening a mode does not
+ *    walk every customer of a large magazine.
+ *
+ * @expected input:
+ *  - A search field, the list view to filter and the magazine providing the rows.
+ *
+ * @expected output:
+ *  - The list view shows every row while the field is empty and the matching rows otherwise.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.util.StringConverter;
+
+public class SearchFieldBinder 
+{
+    // Maximum number of customers shown for a query
+    public static final int MAX_RESULTS = 500;
+    
+    
+    /**
+     * Private constructor, this class only exposes static helpers.
+     */
+    private SearchFieldBinder()
+    {
+    }
+    
+    
+    /**
+     * Filters a customer list view with the magazine's search index as the field changes.
+     * The index is built in the background when it does not exist yet, and each keystroke
+     * supersedes the query of the previous one.
+     * Precondition: All parameters must be initialized.
+     * Post condition: The list shows all customers for an empty field and matching customers otherwise;
+     *                 added, removed and edited customers are patched into the shown rows.
+     * 
+     * @param field The search text field.
+     * @param listView The customer list to filter.
+     * @param magazine The magazine whose customers are searched.
+     * @param bindings Records the listener so the owning controller can remove it.
+     */
+    public static void bindCustomerSearch(TextField field, ListView<Customer> listView, Magazine magazine, ControllerBindings bindings)
+    {
+        ObservableList<Customer> allCustomers = listView.getItems();
+        LatestTaskRunner queries = new LatestTaskRunner();
+
+        // Warm the index up while the operator looks at the screen
+        AppExecutors.background().execute(magazine::getSearchIndex);
+
+        bindings.onDispose(queries::cancel);
+        bindings.listen(field.textProperty(), (ob, oldValue, newValue) -> {
+            String query = newValue == null ? "" : newValue.trim();
+            if (query.isEmpty()) {
+                queries.cancel();
+                listView.setItems(allCustomers);
+                return;
+            }
+            Task<List<Customer>> search = new Task<>() {
+                @Override
+                protected List<Customer> call() {
+                    return magazine.getSearchIndex().search(query, MAX_RESULTS);
+                }
+            };
+            queries.submit(search, 
+                    results -> listView.setItems(FXCollections.observableArrayList(results)),
+                    error -> listView.setItems(FXCollections.observableArrayList()));
+        });
+
+        bindings.listen(magazine, event -> {
+            // After a batch the rows are reloaded; search results show the changes on the next query
+            if (event.getKind() == MagazineEvent.Kind.CHANGED) {
+                if (allCustomers instanceof PagedListModel) {
+                    ((PagedListModel<Customer>) allCustomers).refresh();
+                }
+                return;
+            }
+            if (event.getTarget() != MagazineEvent.Target.CUSTOMER) {
+                return;
+            }
+            Customer customer = event.getCustomer();
+            if (allCustomers instanceof PagedListModel) {
+                PagedListModel<Customer> model = (PagedListModel<Customer>) allCustomers;
+                switch (event.getKind()) {
+                    case ADDED:
+                        model.rowInserted(event.getIndex());
+                        break;
+                    case REMOVED:
+                        model.rowRemoved(event.getIndex(), customer);
+                        break;
+                    case UPDATED:
+                        model.rowUpdated(event.getIndex(), customer);
+                        break;
+                }
+            }
+
+            // Search results hold at most MAX_RESULTS rows; new customers appear on the next query
+            ObservableList<Customer> shown = listView.getItems();
+            if (shown != allCustomers && event.getKind() != MagazineEvent.Kind.ADDED) {
+                int row = indexOf(shown, customer);
+                if (row >= 0 && event.getKind() == MagazineEvent.Kind.REMOVED) {
+                    shown.remove(row);
+                } else if (row >= 0) {
+                    shown.set(row, customer);
+                }
+            }
+        });
+    }
+    
+    
+    /**
+     * Turns a paying customer combo box into a search: the operator types part of a name, email,
+     * suburb or postcode and the drop-down offers the matching paying customers, found through the
+     * magazine's search index, so the customer list is never copied to fill it.
+     * Precondition: All parameters must be initialized.
+     * Post condition: The combo box is editable and its items are the paying customers matching the
+     *                 typed text, at most MAX_RESULTS of them; its value stays a customer of the magazine
+     *                 picked from the drop-down or set by the controller, or null.
+     * 
+     * @param comboBox The paying customer combo box.
+     * @param magazine The magazine whose customers are searched.
+     * @param bindings Records the listener so the owning controller can remove it.
+     */
+    public static void bindPayerSearch(ComboBox<PayingCustomer> comboBox, Magazine magazine, ControllerBindings bindings)
+    {
+        LatestTaskRunner queries = new LatestTaskRunner();
+        comboBox.getItems().clear();
+        comboBox.setEditable(true);
+        comboBox.setPromptText("Type to find a paying customer");
+        comboBox.setConverter(new StringConverter<PayingCustomer>() {
+            @Override
+            public String toString(PayingCustomer payer) {
+                return payer == null ? "" : payer.getName();
+            }
+
+            @Override
+            public PayingCustomer fromString(String text) {
+                // Names can repeat, so the customer already chosen wins over another one of the same name
+                PayingCustomer current = comboBox.getValue();
+                if (current != null && current.getName().equals(text)) {
+                    return current;
+                }
+                for (PayingCustomer payer : comboBox.getItems()) {
+                    if (payer.getName().equals(text)) {
+                        return payer;
+                    }
+                }
+                return null;
+            }
+        });
+
+        AppExecutors.background().execute(magazine::getSearchIndex);
+
+        bindings.onDispose(queries::cancel);
+        bindings.listen(comboBox.getEditor().textProperty(), (ob, oldValue, newValue) -> {
+            String query = newValue == null ? "" : newValue.trim();
+            // Text put in the editor for the chosen customer is not a new query
+            if (query.isEmpty() || query.equals(comboBox.getConverter().toString(comboBox.getValue()))) {
+                queries.cancel();
+                return;
+            }
+            Task<List<PayingCustomer>> search = new Task<>() {
+                @Override
+                protected List<PayingCustomer> call() {
+                    List<PayingCustomer> payers = new ArrayList<>();
+                    // Only payers count towards MAX_RESULTS, associates matching the text are skipped
+                    for (Customer customer : magazine.getSearchIndex().search(query, MAX_RESULTS,
+                            customer -> customer instanceof PayingCustomer)) {
+                        payers.add((PayingCustomer) customer);
+                    }
+                    return payers;
+                }
+            };
+            queries.submit(search, results -> {
+                    comboBox.getItems().setAll(results);
+                    if (!results.isEmpty() && (comboBox.isFocused() || comboBox.getEditor().isFocused())) {
+                        comboBox.show();
+                    }
+                },
+                error -> comboBox.getItems().clear());
+        });
+    }
+    
+    
+    /**
+     * Filters a supplement list view by name as the field changes.
+     * Precondition: All parameters must be initialized.
+     * Post condition: The list shows the magazine's supplements whose name contains the field text;
+     *                 added, removed and edited supplements are patched into the list.
+     * 
+     * @param field The search text field.
+     * @param listView The supplement list to filter.
+     * @param magazine The magazine whose supplements are shown.
+     * @param bindings Records the listeners so the owning controller can remove them.
+     */
+    public static void bindSupplementSearch(TextField field, ListView<Supplement> listView, Magazine magazine, ControllerBindings bindings)
+    {
+        ObservableList<Supplement> supplements = FXCollections.observableArrayList(magazine.getSupplements());
+        FilteredList<Supplement> filtered = new FilteredList<>(supplements);
+        listView.setItems(filtered);
+
+        bindings.listen(magazine, event -> {
+            if (event.getKind() == MagazineEvent.Kind.CHANGED) {
+                supplements.setAll(magazine.getSupplements());
+                return;
+            }
+            if (event.getTarget() != MagazineEvent.Target.SUPPLEMENT) {
+                return;
+            }
+
+            int index = event.getIndex();
+            if (event.getKind() == MagazineEvent.Kind.ADDED && index <= supplements.size()) {
+                supplements.add(index, event.getSupplement());
+            } else if (event.getKind() == MagazineEvent.Kind.REMOVED && index < supplements.size()) {
+                supplements.remove(index);
+            } else if (event.getKind() == MagazineEvent.Kind.UPDATED && index < supplements.size()) {
+                supplements.set(index, event.getSupplement());
+            }
+            if (supplements.size() != magazine.getSupplements().size()) {
+                supplements.setAll(magazine.getSupplements());
+            }
+        });
+
+        bindings.listen(field.textProperty(), (ob, oldValue, newValue) -> {
+            String query = newValue == null ? "" : newValue.trim().toLowerCase(Locale.ROOT);
+            filtered.setPredicate(query.isEmpty() ? null
+                    : supplement -> supplement.getName().toLowerCase(Locale.ROOT).contains(query));
+        });
+    }
+    
+    
+    /**
+     * Finds a row by identity in a short list.
+     */
+    private static <T> int indexOf(List<T> rows, T row)
+    {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == row) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
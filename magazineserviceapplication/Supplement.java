@@ -14,6 +14,7 @@ package magazineserviceapplication;
  * @assumptions:
  *  - The supplement name is a valid string and meaningful.
  *  - Weekly cost is a non-negative floating-point number.
+ *  - The version counts the edits claimed with compareAndIncrementVersion(), as for Customer.
  * 
  * @expected input:
  *  - Supplement name (String) and weekly cost (float) for each instance.
@@ -25,11 +26,16 @@ package magazineserviceapplication;
 
 
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 public class Supplement implements Serializable
 {
     
     private static final long serialVersionUID = 1L;
     
+    // Atomic updater used to claim an edit without locking
+    private static final AtomicLongFieldUpdater<Supplement> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Supplement.class, "version");
+    
     
     // Name of the supplement
     private String sup_name;
@@ -37,6 +43,9 @@ public class Supplement implements Serializable
     // Weekly cost of the supplement
     private float cost;
     
+    // Number of edits claimed since the supplement was created or loaded
+    private transient volatile long version;
+    
      /**
      * Default Constructor.
      * Precondition: No parameters required.
@@ -93,6 +102,30 @@ public class Supplement implements Serializable
 
     }
 
+    /**
+     * Getter for the edit version.
+     * Precondition: Supplement object exists.
+     * Post condition: Returns a number that grows by one with every edit claimed.
+     * @return the version, 0 for a supplement not edited since it was created or loaded.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+
+    /**
+     * Claims an edit of the supplement, if no other edit was claimed since the caller read the version.
+     * Precondition: None.
+     * Post condition: If the version was expectedVersion it is one higher, otherwise it is unchanged.
+     * @param expectedVersion The version of the details the edit is based on.
+     * @return true if the edit may go ahead, false if another edit came first.
+     */
+    public boolean compareAndIncrementVersion(long expectedVersion)
+    {
+        return VERSION.compareAndSet(this, expectedVersion, expectedVersion + 1);
+    }
+
     /**
      * Getter for supplement cost.
      * Precondition: Supplement object exists.
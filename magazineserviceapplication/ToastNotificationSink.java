@@ -0,0 +1,155 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package magazineserviceapplication;
+
+/**
+ * @filename ToastNotificationSink.java
+ * @purpose This class shows notifications as a small non-modal toast at the bottom of the main window.
+ *          Messages published in quick succession are batched into a single toast.
+ * @date 19/10/2026
+ * @author Zaina Shahid
+ *
+ * @assumptions:
+ *  - publish() may be called from any thread; the toast itself is only touched on the FX thread.
+ *  - The owner window is set once the primary stage exists; until then messages are only queued.
+ *
+ * @expected input:
+ *  - Notifications from the magazine handler.
+ *
+ * @expected output:
+ *  - A toast listing the latest messages, hidden automatically after a few seconds.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+public class ToastNotificationSink implements NotificationSink 
+{
+    // Maximum number of lines shown in one toast
+    private static final int MAX_LINES = 5;
+    
+    // Messages waiting to be shown
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    
+    // True while a drain of the pending queue is scheduled on the FX thread
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    
+    // Lines currently shown, newest last
+    private final List<String> shown = new ArrayList<>();
+    
+    private Window owner;
+    private Popup popup;
+    private Label toastLabel;
+    private PauseTransition hideTimer;
+    
+    
+    /**
+     * Setter for the window the toast is shown over.
+     * Precondition: Called on the FX thread.
+     * Post condition: Queued and future messages are shown over the given window.
+     * @param owner The owner window.
+     */
+    public void setOwner(Window owner)
+    {
+        this.owner = owner;
+        scheduleDrain();
+    }
+    
+    
+    /**
+     * Queues the message and schedules a single toast update for everything queued so far.
+     * Precondition: level and message must not be null.
+     * Post condition: The message is queued; the caller never blocks.
+     * @param level The severity of the message.
+     * @param message The message text.
+     */
+    @Override
+    public void publish(Level level, String message)
+    {
+        pending.add(level == Level.ERROR ? "Error: " + message : message);
+        scheduleDrain();
+    }
+    
+    
+    /**
+     * Schedules a drain on the FX thread unless one is already scheduled.
+     */
+    private void scheduleDrain()
+    {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+    
+    
+    /**
+     * Moves every queued message into the toast and (re)starts its hide timer.
+     */
+    private void drain()
+    {
+        drainScheduled.set(false);
+        if (owner == null || !owner.isShowing()) {
+            return;
+        }
+        String message;
+        boolean changed = false;
+        while ((message = pending.poll()) != null) {
+            shown.add(message);
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        while (shown.size() > MAX_LINES) {
+            shown.remove(0);
+        }
+        showToast();
+    }
+    
+    
+    /**
+     * Shows the toast with the current lines, creating it on first use.
+     */
+    private void showToast()
+    {
+        if (popup == null) {
+            toastLabel = new Label();
+            toastLabel.setStyle("-fx-font-size: 14px; -fx-font-family: 'Comic Sans MS'; -fx-text-fill: #8B5E3C; -fx-wrap-text: true;");
+            toastLabel.setMaxWidth(420);
+
+            VBox box = new VBox(toastLabel);
+            box.setPadding(new Insets(10));
+            box.setStyle("-fx-background-color: #FFF5E1; -fx-border-color: #FFC0CB; "
+                    + "-fx-border-radius: 15px; -fx-background-radius: 15px;");
+
+            popup = new Popup();
+            popup.getContent().add(box);
+            popup.setAutoHide(false);
+
+            hideTimer = new PauseTransition(Duration.seconds(4));
+            hideTimer.setOnFinished(e -> {
+                popup.hide();
+                shown.clear();
+            });
+        }
+        toastLabel.setText(String.join("\n", shown));
+        if (!popup.isShowing()) {
+            popup.show(owner);
+        }
+        popup.setX(owner.getX() + 20);
+        popup.setY(owner.getY() + owner.getHeight() - popup.getHeight() - 30);
+        hideTimer.playFromStart();
+    }
+}
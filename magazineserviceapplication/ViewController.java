@@ -23,33 +23,104 @@ public class ViewController
     private AlertsHandler alert;
     private MagazineServiceApplication mainApp;
     private Magazine magazine;
+    private boolean pinned; // whether magazine is pinned in the handler's cache
     private String m_magazineName;
+    
+    // Listeners attached to the shared GUI controls for the mode currently shown
+    private final ControllerBindings bindings = new ControllerBindings();
+    
+    // Listener on the open magazine that lives until dispose(), across the controller's modes
+    private final ControllerBindings magazineBindings = new ControllerBindings();
+    
+    // Runs billing calculations, dropping any that a newer selection has superseded
+    private final LatestTaskRunner billingTasks = new LatestTaskRunner();
+    
+    // Timings shown in the diagnostics panel; customerInfo runs from the selection until the panel shows the total
+    private static final LatencyHistogram OPEN_TIME = MetricsRegistry.getDefault().histogram("ui.view.open");
+    private static final LatencyHistogram CUSTOMER_INFO_TIME = MetricsRegistry.getDefault().histogram("ui.view.customerInfo");
+    private static final LatencyHistogram PAYER_BILLING_TIME = MetricsRegistry.getDefault().histogram("billing.payer");
 
     
     /**
      * Parameterized Constructor.
      * Precondition: All parameters must be initialized and valid.
-     * Postcondition: Initializes ViewController with references to the GUI, handler, alert system, main application, 
-     *                and selected magazine.
+     * Postcondition: Initializes ViewController with references to the GUI, handler, alert system, and main application.
      * 
      * @param m_gui The GUI object of the application.
      * @param magazinehandler The handler managing magazine data.
      * @param alert The alert handler for displaying messages.
      * @param mainApp The main application instance.
-     * @param m_magazineName The name of the magazine currently being viewed.
      */
 
-    public ViewController(MagazineServiceApplicationGUI m_gui, MagazineServiceHandler magazinehandler, AlertsHandler alert, MagazineServiceApplication mainApp, String m_magazineName)
+    public ViewController(MagazineServiceApplicationGUI m_gui, MagazineServiceHandler magazinehandler, AlertsHandler alert, MagazineServiceApplication mainApp)
     {
         this.m_gui = m_gui;
         this.magazinehandler = magazinehandler;
         this.alert = alert;
         this.mainApp = mainApp;
+    }
+
+
+    /**
+     * Selects the magazine the controller works on and shows its mode.
+     * Precondition: A valid magazine name is provided.
+     * Postcondition: The magazine is viewed in the reused mode layout.
+     * 
+     * @param m_magazineName The name of the magazine to be viewed.
+     */
+    public void open(String m_magazineName)
+    {
+        long start = System.nanoTime();
+        try {
+            openMagazine(m_magazineName);
+        } finally {
+            OPEN_TIME.recordSince(start);
+        }
+    }
+    
+    
+    private void openMagazine(String m_magazineName)
+    {
+        releaseMagazine();
         this.m_magazineName = m_magazineName;
-        this.magazine = magazinehandler.getMagazine(m_magazineName);
+        this.magazine = magazinehandler.pinMagazine(m_magazineName);
+        pinned = magazine != null;
+        if (magazine != null) {
+            // Reopen on the newer copy when the file is reloaded from disk
+            magazineBindings.listen(magazine, event -> {
+                if (event.getKind() == MagazineEvent.Kind.REPLACED) {
+                    open(m_magazineName);
+                }
+            });
+        }
+        initialize();
     }
 
    
+    /**
+     * Removes the listeners this controller attached to the shared GUI controls and lets the
+     * handler evict the magazine again.
+     * Precondition: None.
+     * Postcondition: The controller no longer reacts to the GUI until it is opened again.
+     */
+    public void dispose()
+    {
+        billingTasks.cancel();
+        bindings.dispose();
+        releaseMagazine();
+    }
+    
+    
+    private void releaseMagazine()
+    {
+        magazineBindings.dispose();
+        if (pinned) {
+            pinned = false;
+            magazinehandler.unpinMagazine(m_magazineName);
+        }
+    }
+
+    
     /**
      * Initializes the view mode for the application, populates supplement and customer lists, 
      * and sets up listeners for selection events.
@@ -58,18 +129,20 @@ public class ViewController
      */
      public void initialize() 
      {
+        bindings.dispose();
         m_gui.viewMode();
-        m_gui.getSupplementsView().getItems().addAll(magazine.getSupplements());
-        m_gui.getCustomersView().getItems().addAll(magazine.getCustomerList());
+        SearchFieldBinder.bindSupplementSearch(m_gui.getSupplementSearchField(), m_gui.getSupplementsView(), magazine, bindings);
+        m_gui.getCustomersView().setItems(new PagedListModel<>(magazine.getCustomerSource()));
+        SearchFieldBinder.bindCustomerSearch(m_gui.getCustomerSearchField(), m_gui.getCustomersView(), magazine, bindings);
 
-        m_gui.getSupplementsView().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+        bindings.listen(m_gui.getSupplementsView().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
             if (newValue != null) {
                 m_gui.getCustomersView().getSelectionModel().clearSelection();
                 showSupplementInfo(newValue);
             }
         });
 
-        m_gui.getCustomersView().getSelectionModel().selectedItemProperty().addListener((ob, oldValue, newValue) -> {
+        bindings.listen(m_gui.getCustomersView().getSelectionModel().selectedItemProperty(), (ob, oldValue, newValue) -> {
             if (newValue != null) {
                 m_gui.getSupplementsView().getSelectionModel().clearSelection();
                 showCustomerInfo(newValue);
@@ -92,6 +165,7 @@ public class ViewController
     
     public void showSupplementInfo(Supplement supplement) 
     {
+         billingTasks.cancel();
          String text = "Name: " + supplement.getName() + "\n"
                     + "-----------------------------------------------------------------------------------\n"
                     + "Weekly Cost: $" + String.format(Locale.US, "%.2f", supplement.getCost());
@@ -109,43 +183,16 @@ public class ViewController
      * @param customer The selected customer to display information for.
      */
      public void showCustomerInfo(Customer customer) {
-        StringBuilder text = new StringBuilder();
-
-        text.append("Name: ").append(customer.getName()).append("\n")
-            .append("------------------------------------------------------------------------------------\n")
-            .append("Address: ").append(customer.getAddress()).append("\n")
-            .append("------------------------------------------------------------------------------------\n")
-            .append("Email: ").append(customer.getEmail()).append("\n")
-            .append("------------------------------------------------------------------------------------\n")
-            .append("Supplements Subscribed To:\n");
-
-        for (int i = 0; i < customer.getSupplement().size(); i++) {
-            int count = i + 1;
-            text.append(count).append(". ").append(customer.getSupplement().get(i).getName()).append("\n");
-        }
+        long start = System.nanoTime();
+        StringBuilder text = CustomerInfoFormatter.format(customer);
 
         if (customer instanceof PayingCustomer) {
-            PayingCustomer payingCustomer = (PayingCustomer) customer;
-
-            text.append("------------------------------------------------------------------------------------\n")
-                .append("Status: Paying Customer\n")
-                .append("Payment Method: ").append(payingCustomer.getPaymentMethod()).append("\n")
-                .append("------------------------------------------------------------------------------------\n")
-                .append("Associate Customers:\n");
-
-            for (Customer associateCustomer : payingCustomer.getAssociateCustomers()) {
-                text.append(" - ").append(associateCustomer.getName()).append("\n");
-            }
-
-            text.append("------------------------------------------------------------------------------------\n");
-
             // Use multithreading to calculate and display the total cost
-            calculateBillingInfo(payingCustomer, text);
-
+            calculateBillingInfo((PayingCustomer) customer, text, start);
         } else if (customer instanceof AssociateCustomer) {
-            text.append("------------------------------------------------------------------------------------\n")
-                .append("Status: Associate Customer\n");
+            billingTasks.cancel();
             m_gui.getInfoPanelBox().setText(text.toString());
+            CUSTOMER_INFO_TIME.recordSince(start);
         }
     }
      
@@ -153,37 +200,39 @@ public class ViewController
      // This method handles calculating billing info on a separate thread
      /**
      * Calculates the total monthly cost for a PayingCustomer and updates the UI with the billing information.
-     * This method runs the calculation on a separate thread to avoid blocking the UI.
+     * This method runs the calculation on the shared background executor to avoid blocking the UI; a newer
+     * selection cancels the pending calculation so stale totals never overwrite the panel.
      * Precondition: PayingCustomer and text StringBuilder must be initialized.
      * Postcondition: The calculated billing information is displayed in the info panel.
      * 
      * @param payingCustomer The paying customer for whom to calculate billing.
      * @param text The StringBuilder to append billing information to.
+     * @param start The System.nanoTime() value when the customer was selected.
      */
-    private void calculateBillingInfo(PayingCustomer payingCustomer, StringBuilder text) 
+    private void calculateBillingInfo(PayingCustomer payingCustomer, StringBuilder text, long start) 
     {
         // Create a task to calculate the total supplements cost
         Task<Double> billingTask = new Task<>() {
             @Override
             protected Double call() {
-                return payingCustomer.calculateTotalSupplementsCost();
+                long calculationStart = System.nanoTime();
+                try {
+                    return payingCustomer.calculateTotalSupplementsCost();
+                } finally {
+                    PAYER_BILLING_TIME.recordSince(calculationStart);
+                }
             }
         };
 
-        // Update the UI with the billing information once the calculation is complete
-        billingTask.setOnSucceeded(event -> {
-            double totalCost = billingTask.getValue();
-            text.append("Monthly Total Cost: $").append(String.format(Locale.US, "%.2f", totalCost));
+        // Update the UI with the billing information once the calculation is complete,
+        // in case of any error, handle it gracefully
+        billingTasks.submit(billingTask, totalCost -> {
+            CustomerInfoFormatter.appendMonthlyTotal(text, totalCost);
             m_gui.getInfoPanelBox().setText(text.toString());
-        });
-
-        // In case of any error, handle it gracefully
-        billingTask.setOnFailed(event -> {
+            CUSTOMER_INFO_TIME.recordSince(start);
+        }, error -> {
             text.append("Error calculating billing information.");
             m_gui.getInfoPanelBox().setText(text.toString());
         });
-
-        // Run the task in a background thread
-        new Thread(billingTask).start();
     }
 }
\ No newline at end of file